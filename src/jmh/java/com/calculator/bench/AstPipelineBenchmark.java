@@ -0,0 +1,252 @@
+package com.calculator.bench;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.Backend;
+import com.calculator.astcalculator.BigIntegerEvaluator;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.Evaluator;
+import com.calculator.astcalculator.Lexer;
+import com.calculator.astcalculator.LongEvaluator;
+import com.calculator.astcalculator.Optimizer;
+import com.calculator.astcalculator.Parser;
+import com.calculator.astcalculator.Token;
+import com.calculator.astcalculator.Tokenizer;
+import com.calculator.astcalculator.Validator;
+import com.calculator.astcalculator.arena.ArenaEvaluator;
+import com.calculator.astcalculator.arena.AstArena;
+import com.calculator.astcalculator.metrics.CalculatorMetrics;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.bench.ExpressionCorpus.OperatorMix;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of each stage of the AST pipeline, and of the whole {@link AstCalculator#calculate}
+ * call with and without metrics, over a generated corpus.
+ *
+ * <p>Each stage benchmark starts from the precomputed output of the previous stage, so the numbers
+ * can be compared directly to see where time (and, with {@code -prof gc}, allocation) goes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AstPipelineBenchmark {
+
+  /** Approximate number of tokens in the expression. */
+  @Param({"10", "1000", "100000", "1000000"})
+  private int size;
+
+  /** Maximum parenthesis nesting depth. */
+  @Param({"2", "8"})
+  private int depth;
+
+  /** Operators used in the expression. */
+  @Param({"ADDITIVE", "MULTIPLICATIVE", "MIXED"})
+  private OperatorMix mix;
+
+  /** The generated expression. */
+  private String expression;
+
+  /** {@link #expression} after tokenizing. */
+  private List<Token> tokens;
+
+  /** {@link #tokens} after parsing. */
+  private AstNode ast;
+
+  /** {@link #ast} copied into a struct-of-arrays arena. */
+  private AstArena arena;
+
+  /** Root of {@link #ast} in {@link #arena}. */
+  private int arenaRoot;
+
+  /** Arena refilled by {@link #toArena()}. */
+  private AstArena scratch;
+
+  /** {@link #expression} compiled once up front. */
+  private CompiledExpression compiled;
+
+  /** {@link #expression} compiled to a hidden class (interpreted if too large). */
+  private CompiledExpression generated;
+
+  /** {@link #expression} as ASCII bytes in a direct buffer, as read from a socket or file. */
+  private ByteBuffer direct;
+
+  /** Metrics shared by every {@link #calculateWithMetrics()} call. */
+  private final CalculatorMetrics metrics = new CalculatorMetrics();
+
+  /** Builds the corpus entry and the intermediate results of every stage. */
+  @Setup
+  public void setUp() {
+    expression = ExpressionCorpus.generate(size, depth, mix, 42L);
+    tokens = Tokenizer.tokenize(expression);
+    ast = Parser.parse(tokens);
+    Validator.validate(ast);
+    arena = new AstArena();
+    arenaRoot = arena.add(ast);
+    scratch = new AstArena();
+    compiled = AstCalculator.compile(expression);
+    generated = AstCalculator.compile(expression, Backend.HIDDEN_CLASS);
+    byte[] bytes = expression.getBytes(StandardCharsets.US_ASCII);
+    direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+
+  /**
+   * @return the token list.
+   */
+  @Benchmark
+  public List<Token> tokenize() {
+    return Tokenizer.tokenize(expression);
+  }
+
+  /**
+   * @return the sum of the number literals seen by the streaming lexer.
+   */
+  @Benchmark
+  public int lex() {
+    Lexer lexer = new Lexer(expression);
+    int sum = 0;
+    while (lexer.type() != Token.Type.EOF) {
+      sum += lexer.intValue();
+      lexer.advance();
+    }
+    return sum;
+  }
+
+  /**
+   * @return the parsed AST.
+   */
+  @Benchmark
+  public AstNode parse() {
+    return Parser.parse(tokens);
+  }
+
+  /**
+   * @return the AST parsed straight from the input, tokenizing lazily.
+   */
+  @Benchmark
+  public AstNode lexAndParse() {
+    return Parser.parse(new Lexer(expression));
+  }
+
+  /** Runs the static validation pass. */
+  @Benchmark
+  public void validate() {
+    Validator.validate(ast);
+  }
+
+  /**
+   * @return the simplified AST.
+   */
+  @Benchmark
+  public AstNode optimize() {
+    return Optimizer.optimize(ast);
+  }
+
+  /**
+   * @return the evaluated result.
+   */
+  @Benchmark
+  public int evaluate() {
+    return Evaluator.evaluate(ast);
+  }
+
+  /**
+   * @return the result in 64-bit arithmetic.
+   */
+  @Benchmark
+  public long evaluateLong() {
+    return LongEvaluator.evaluate(ast);
+  }
+
+  /**
+   * @return the result in arbitrary-precision arithmetic.
+   */
+  @Benchmark
+  public BigInteger evaluateBigInteger() {
+    return BigIntegerEvaluator.evaluate(ast);
+  }
+
+  /**
+   * @return the root index of the AST copied into a reused arena.
+   */
+  @Benchmark
+  public int toArena() {
+    scratch.reset();
+    return scratch.add(ast);
+  }
+
+  /**
+   * @return the result of scanning the arena form of the AST.
+   */
+  @Benchmark
+  public int evaluateArena() {
+    return ArenaEvaluator.evaluate(arena, arenaRoot);
+  }
+
+  /**
+   * @return the result of evaluating a precompiled expression.
+   */
+  @Benchmark
+  public int evaluateCompiled() {
+    return compiled.evaluate();
+  }
+
+  /**
+   * @return the result of evaluating a precompiled hidden class.
+   */
+  @Benchmark
+  public int evaluateHiddenClass() {
+    return generated.evaluate();
+  }
+
+  /**
+   * @return the result of the full pipeline.
+   */
+  @Benchmark
+  public int calculate() {
+    return AstCalculator.calculate(expression);
+  }
+
+  /**
+   * @return the result of the full pipeline, recording per-stage metrics.
+   */
+  @Benchmark
+  public int calculateWithMetrics() {
+    return AstCalculator.calculate(expression, metrics);
+  }
+
+  /**
+   * @return the result of the pipeline run on {@link #direct} in place.
+   */
+  @Benchmark
+  public int calculateDirectBuffer() {
+    return AstCalculator.calculate(direct, 0, direct.limit());
+  }
+
+  /**
+   * @return the result of copying {@link #direct} into a {@code String} and calculating that.
+   */
+  @Benchmark
+  public int calculateDecoded() {
+    byte[] bytes = new byte[direct.limit()];
+    direct.get(0, bytes);
+    return AstCalculator.calculate(new String(bytes, StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,98 @@
+package com.calculator.bench;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.batch.ColumnarEvaluator;
+import com.calculator.astcalculator.batch.VectorEvaluator;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluating one formula over many rows: row at a time, column at a time, and column at a time with
+ * explicit SIMD kernels.
+ *
+ * <p>The SIMD kernels are only in the jar when it is built with {@code -Pjmh,vector}; otherwise
+ * {@link #simd()} measures the scalar fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchBenchmark {
+
+  /** Number of rows. */
+  @Param({"1000", "1000000"})
+  private int rows;
+
+  /** The formula; variables {@code a} to {@code d} are bound from columns. */
+  @Param({"a + b * c - d", "(a - b) * (c + d) / (b + 1) + -a"})
+  private String formula;
+
+  /** {@link #formula}, compiled. */
+  private CompiledExpression compiled;
+
+  /** Input columns, indexed by slot. */
+  private int[][] columns;
+
+  /** Output column. */
+  private int[] out;
+
+  /** Compiles the formula and fills the columns with small random values. */
+  @Setup
+  public void setUp() {
+    compiled = AstCalculator.compile(formula);
+    SplittableRandom random = new SplittableRandom(42L);
+    columns = new int[compiled.getVariables().size()][rows];
+    for (int[] column : columns) {
+      for (int r = 0; r < rows; r++) {
+        column[r] = random.nextInt(1, 10_000);
+      }
+    }
+    out = new int[rows];
+  }
+
+  /**
+   * @return the last result.
+   */
+  @Benchmark
+  public int rowByRow() {
+    int[] row = new int[columns.length];
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns.length; c++) {
+        row[c] = columns[c][r];
+      }
+      out[r] = compiled.evaluate(row);
+    }
+    return out[rows - 1];
+  }
+
+  /**
+   * @return the failed rows.
+   */
+  @Benchmark
+  public BitSet columnar() {
+    return ColumnarEvaluator.evaluate(compiled, columns, out);
+  }
+
+  /**
+   * @return the failed rows.
+   */
+  @Benchmark
+  public BitSet simd() {
+    return VectorEvaluator.evaluate(compiled, columns, out);
+  }
+}
@@ -0,0 +1,51 @@
+package com.calculator.bench;
+
+import com.calculator.Calculator;
+import com.calculator.bench.ExpressionCorpus.OperatorMix;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Throughput of the V1 {@link Calculator} over flat, space-separated expressions. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculatorBenchmark {
+
+  /** Approximate number of tokens in the expression. */
+  @Param({"10", "1000", "100000", "1000000"})
+  private int size;
+
+  /** Operators used in the expression. */
+  @Param({"ADDITIVE", "MULTIPLICATIVE", "MIXED"})
+  private OperatorMix mix;
+
+  /** The generated expression. */
+  private String expression;
+
+  /** Builds the corpus entry. */
+  @Setup
+  public void setUp() {
+    expression = ExpressionCorpus.flat(size, mix, 42L);
+  }
+
+  /**
+   * @return the result of the V1 calculator.
+   */
+  @Benchmark
+  public int calculate() {
+    return Calculator.calculate(expression);
+  }
+}
@@ -0,0 +1,102 @@
+package com.calculator.bench;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompileOptions;
+import com.calculator.astcalculator.CompiledExpression;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compiling and evaluating a generated formula that repeats a few subexpressions many times, with
+ * and without common subexpression elimination ({@link CompileOptions#cse()}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommonSubexpressionBenchmark {
+
+  /** Distinct subexpressions the formula is built from. */
+  private static final String[] PARTS = {
+    "(x * y + z)",
+    "(x - y * 2)",
+    "-(z + x * 3)",
+    "(y / 7 + x)",
+    "((x + y) * (z - 1))",
+    "(z * z - y)"
+  };
+
+  /** Number of subexpressions in the formula. */
+  @Param({"100", "10000"})
+  private int terms;
+
+  /** The generated formula. */
+  private String expression;
+
+  /** {@link #expression} compiled without sharing. */
+  private CompiledExpression plain;
+
+  /** {@link #expression} compiled with common subexpression elimination. */
+  private CompiledExpression shared;
+
+  /** Binding array for x, y and z. */
+  private final int[] bindings = {3, 5, 7};
+
+  /** Builds the formula and compiles it both ways. */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder(PARTS[0]);
+    for (int i = 1; i < terms; i++) {
+      sb.append(random.nextBoolean() ? " + " : " - ").append(PARTS[random.nextInt(PARTS.length)]);
+    }
+    expression = sb.toString();
+    plain = compilePlain();
+    shared = compileShared();
+  }
+
+  /**
+   * @return the formula compiled without sharing.
+   */
+  @Benchmark
+  public CompiledExpression compilePlain() {
+    return AstCalculator.compile(expression);
+  }
+
+  /**
+   * @return the formula compiled with common subexpression elimination.
+   */
+  @Benchmark
+  public CompiledExpression compileShared() {
+    return AstCalculator.compile(expression, CompileOptions.DEFAULT.withCse(true));
+  }
+
+  /**
+   * @return the result of the formula compiled without sharing.
+   */
+  @Benchmark
+  public int evaluatePlain() {
+    return plain.evaluate(bindings);
+  }
+
+  /**
+   * @return the result of the formula compiled with common subexpression elimination.
+   */
+  @Benchmark
+  public int evaluateShared() {
+    return shared.evaluate(bindings);
+  }
+}
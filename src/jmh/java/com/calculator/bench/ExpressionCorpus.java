@@ -0,0 +1,142 @@
+package com.calculator.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of benchmark expressions.
+ *
+ * <p>Expressions are shaped by three knobs: the approximate number of tokens, the maximum
+ * parenthesis nesting depth, and the {@link OperatorMix}. Operators are chosen while tracking the
+ * exact value of every partial sum and product, so generated expressions never overflow and never
+ * divide by zero — every benchmark measures the happy path rather than exception handling.
+ */
+public final class ExpressionCorpus {
+
+  /** Largest magnitude any intermediate result is allowed to reach. */
+  private static final long BOUND = 1_000_000;
+
+  /** Which binary operators may appear in a generated expression. */
+  public enum OperatorMix {
+    /** Only {@code +} and {@code -}. */
+    ADDITIVE,
+    /** Only {@code *} and {@code /}. */
+    MULTIPLICATIVE,
+    /** All four operators plus occasional unary minus. */
+    MIXED
+  }
+
+  /** Source of randomness; seeded so every fork sees the same corpus. */
+  private final SplittableRandom random;
+
+  /** The operator mix to draw from. */
+  private final OperatorMix mix;
+
+  private ExpressionCorpus(final OperatorMix theMix, final long seed) {
+    this.random = new SplittableRandom(seed);
+    this.mix = theMix;
+  }
+
+  /**
+   * Generates an expression for the AST calculator.
+   *
+   * @param tokens approximate number of tokens (operands, operators and parentheses)
+   * @param depth maximum parenthesis nesting depth; {@code 0} produces a flat chain
+   * @param mix the operator mix
+   * @param seed random seed
+   * @return the generated expression
+   */
+  public static String generate(
+      final int tokens, final int depth, final OperatorMix mix, final long seed) {
+    int operands = Math.max(1, (tokens + 1) / 2);
+    int width = Math.max(2, (int) Math.ceil(Math.pow(operands, 1.0 / (depth + 1))));
+    return new ExpressionCorpus(mix, seed).chain(operands, depth, width).text();
+  }
+
+  /**
+   * Generates a flat, space-separated expression accepted by the V1 {@link
+   * com.calculator.Calculator}.
+   *
+   * @param tokens approximate number of tokens (operands and operators)
+   * @param mix the operator mix
+   * @param seed random seed
+   * @return the generated expression
+   */
+  public static String flat(final int tokens, final OperatorMix mix, final long seed) {
+    return generate(tokens, 0, mix, seed);
+  }
+
+  /** A generated sub-expression together with its exact value. */
+  private record Piece(String text, long value) {}
+
+  private Piece chain(final int operands, final int depth, final int width) {
+    int groups = depth == 0 || operands <= width ? operands : width;
+    StringBuilder sb = new StringBuilder();
+
+    // Track value with precedence: closed terms are summed, the open term is sign * term.
+    long sum = 0;
+    long term = 0;
+    long sign = 1;
+
+    for (int g = 0; g < groups; g++) {
+      int size = operands / groups + (g < operands % groups ? 1 : 0);
+      Piece operand = groups == operands ? literal() : group(size, depth - 1, width);
+      long v = operand.value();
+
+      if (g == 0) {
+        sb.append(operand.text());
+        term = v;
+        continue;
+      }
+
+      char op = chooseOperator(sum, term, sign, v);
+      switch (op) {
+        case '*' -> term *= v;
+        case '/' -> term /= v;
+        default -> {
+          sum += sign * term;
+          sign = op == '+' ? 1 : -1;
+          term = v;
+        }
+      }
+      sb.append(' ').append(op).append(' ').append(operand.text());
+    }
+
+    return new Piece(sb.toString(), sum + sign * term);
+  }
+
+  private Piece group(final int operands, final int depth, final int width) {
+    Piece inner = chain(operands, depth, width);
+    if (mix == OperatorMix.MIXED && random.nextInt(8) == 0) {
+      return new Piece("-(" + inner.text() + ")", -inner.value());
+    }
+    return new Piece("(" + inner.text() + ")", inner.value());
+  }
+
+  private Piece literal() {
+    int v = 1 + random.nextInt(99);
+    if (mix == OperatorMix.MIXED && random.nextInt(8) == 0) {
+      return new Piece("-" + v, -v);
+    }
+    return new Piece(Integer.toString(v), v);
+  }
+
+  private char chooseOperator(final long sum, final long term, final long sign, final long v) {
+    boolean multiplicative =
+        mix == OperatorMix.MULTIPLICATIVE || (mix == OperatorMix.MIXED && random.nextBoolean());
+
+    if (multiplicative) {
+      if (v == 0) {
+        return '*';
+      }
+      boolean multiplyFits = Math.abs(term * v) <= BOUND;
+      return multiplyFits && random.nextBoolean() ? '*' : '/';
+    }
+
+    // Additive: steer the running sum back towards zero once it grows large.
+    long closed = sum + sign * term;
+    if (Math.abs(closed) > BOUND) {
+      return closed > 0 ? (v >= 0 ? '-' : '+') : (v >= 0 ? '+' : '-');
+    }
+    return random.nextBoolean() ? '+' : '-';
+  }
+}
@@ -0,0 +1,147 @@
+package com.calculator.bench;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.FileEvaluator;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.bench.ExpressionCorpus.OperatorMix;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluating a file of one expression per line: {@link FileEvaluator}, sequential and on the common
+ * fork/join pool, against reading {@code String} lines and calling {@link
+ * AstCalculator#calculate(String)} on each. Output is discarded, so the numbers show the CPU and
+ * allocation cost per file rather than disk speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileEvaluatorBenchmark {
+
+  /** Number of lines in the file. */
+  @Param({"100000", "1000000"})
+  private int lines;
+
+  /** Approximate number of tokens per line. */
+  @Param({"10", "100"})
+  private int size;
+
+  /** The generated input file. */
+  private Path input;
+
+  /** Discards everything written to it. */
+  private final WritableByteChannel discard =
+      new WritableByteChannel() {
+        @Override
+        public int write(final ByteBuffer src) {
+          int written = src.remaining();
+          src.position(src.limit());
+          return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+          return true;
+        }
+
+        @Override
+        public void close() {}
+      };
+
+  /**
+   * Writes the input file.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    input = Files.createTempFile("expressions", ".txt");
+    try (BufferedWriter writer = Files.newBufferedWriter(input)) {
+      for (int i = 0; i < lines; i++) {
+        writer.write(ExpressionCorpus.generate(size, 2, OperatorMix.MIXED, i));
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Deletes the input file.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(input);
+  }
+
+  /**
+   * @return the number of lines evaluated.
+   * @throws IOException if reading fails
+   */
+  @Benchmark
+  public long fileEvaluator() throws IOException {
+    return FileEvaluator.evaluate(input, discard).lines();
+  }
+
+  /**
+   * @return the number of lines evaluated.
+   * @throws IOException if reading fails
+   */
+  @Benchmark
+  public long fileEvaluatorParallel() throws IOException {
+    return FileEvaluator.evaluateParallel(input, discard, ForkJoinPool.commonPool()).lines();
+  }
+
+  /**
+   * @return the number of lines evaluated.
+   * @throws IOException if reading fails
+   */
+  @Benchmark
+  public long readLines() throws IOException {
+    long count = 0;
+    try (BufferedReader reader = Files.newBufferedReader(input);
+        Writer writer =
+            new BufferedWriter(
+                new OutputStreamWriter(
+                    Channels.newOutputStream(discard), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          writer.write(Integer.toString(AstCalculator.calculate(line)));
+        } catch (CalculatorException e) {
+          writer.write("error: " + e.getMessage());
+        }
+        writer.write('\n');
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,114 @@
+package com.calculator.bench;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.FormulaSheet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Updating one input of a sheet of interdependent formulas: {@link FormulaSheet}, which
+ * re-evaluates only what depends on the input, against evaluating every formula again in order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormulaSheetBenchmark {
+
+  /** Number of input cells. */
+  private static final int INPUTS = 100;
+
+  /**
+   * Number of formula cells. Formula {@code i} belongs to group {@code i % INPUTS} and reads that
+   * group's input and a random earlier cell of the group, so one input feeds about 1% of the sheet.
+   */
+  @Param({"1000", "10000"})
+  private int formulas;
+
+  /** The sheet, recalculated once. */
+  private FormulaSheet sheet;
+
+  /** Every formula, in definition (and so topological) order. */
+  private CompiledExpression[] compiled;
+
+  /** For each formula, the cell index each binding slot reads. */
+  private int[][] reads;
+
+  /** Values of all cells, inputs first, for {@link #recomputeAll()}. */
+  private int[] values;
+
+  /** Counter used to pick the next input and its value. */
+  private int tick;
+
+  /** Builds the sheet and its full-recomputation equivalent. */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    sheet = new FormulaSheet();
+    compiled = new CompiledExpression[formulas];
+    reads = new int[formulas][];
+    values = new int[INPUTS + formulas];
+    Map<String, Integer> index = new HashMap<>();
+    for (int i = 0; i < INPUTS; i++) {
+      sheet.setValue("c" + i, i);
+      values[i] = i;
+      index.put("c" + i, i);
+    }
+    for (int i = 0; i < formulas; i++) {
+      int cell = INPUTS + i;
+      int group = i % INPUTS;
+      int earlier = random.nextInt(i / INPUTS + 1);
+      int previous = earlier == 0 ? group : INPUTS + group + (earlier - 1) * INPUTS;
+      String formula = "c" + group + " / 2 + c" + previous + " / 3 - " + (i % 7);
+      sheet.setFormula("c" + cell, formula);
+      compiled[i] = AstCalculator.compile(formula);
+      reads[i] = compiled[i].getVariables().stream().mapToInt(index::get).toArray();
+      index.put("c" + cell, cell);
+    }
+    sheet.recalculate();
+  }
+
+  /**
+   * @return the number of formulas re-evaluated after changing one input.
+   */
+  @Benchmark
+  public int incremental() {
+    tick++;
+    sheet.setValue("c" + tick % INPUTS, tick);
+    return sheet.recalculate();
+  }
+
+  /**
+   * @return the last formula's value after changing one input and evaluating every formula.
+   */
+  @Benchmark
+  public int recomputeAll() {
+    tick++;
+    values[tick % INPUTS] = tick;
+    int[] bindings = new int[2];
+    for (int i = 0; i < formulas; i++) {
+      int[] slots = reads[i];
+      for (int slot = 0; slot < slots.length; slot++) {
+        bindings[slot] = values[slots[slot]];
+      }
+      values[INPUTS + i] = compiled[i].evaluate(bindings);
+    }
+    return values[values.length - 1];
+  }
+}
@@ -0,0 +1,191 @@
+package com.calculator.bench;
+
+import com.calculator.astcalculator.batch.BatchResult;
+import com.calculator.astcalculator.server.CalculatorServer;
+import com.calculator.astcalculator.server.WireClient;
+import com.calculator.astcalculator.server.WireServer;
+import com.calculator.bench.ExpressionCorpus.OperatorMix;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Expressions evaluated per second over a localhost connection: the binary protocol of {@link
+ * WireServer} pipelined and with one round trip per expression, against one kept-alive HTTP request
+ * per expression to {@link CalculatorServer}. Both servers share nothing with the client but the
+ * loopback interface, and every expression is already in their cache after warmup, so the numbers
+ * show the cost of the transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireProtocolBenchmark {
+
+  /** Expressions sent per benchmark invocation. */
+  private static final int BATCH = 1_000;
+
+  /** Distinct expressions in a batch. */
+  private static final int DISTINCT = 100;
+
+  /** The expressions of one batch. */
+  private final List<String> batch = new ArrayList<>(BATCH);
+
+  /** One complete HTTP request per distinct expression. */
+  private final byte[][] httpRequests = new byte[DISTINCT][];
+
+  /** Binary-protocol server. */
+  private WireServer wireServer;
+
+  /** Client connected to {@link #wireServer}. */
+  private WireClient wireClient;
+
+  /** HTTP server. */
+  private CalculatorServer httpServer;
+
+  /** Kept-alive connection to {@link #httpServer}. */
+  private Socket httpSocket;
+
+  /** Request stream of {@link #httpSocket}. */
+  private OutputStream httpOut;
+
+  /** Buffered response stream of {@link #httpSocket}. */
+  private InputStream httpIn;
+
+  /**
+   * Starts both servers and connects to them.
+   *
+   * @throws IOException if a server cannot start or a connection fails
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    for (int i = 0; i < BATCH; i++) {
+      batch.add(ExpressionCorpus.generate(10, 1, OperatorMix.MIXED, i % DISTINCT));
+    }
+    InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    wireServer = WireServer.start(loopback);
+    wireClient = WireClient.connect(wireServer.getAddress());
+
+    httpServer = CalculatorServer.start(loopback);
+    for (int i = 0; i < DISTINCT; i++) {
+      byte[] body = batch.get(i).getBytes(StandardCharsets.UTF_8);
+      httpRequests[i] =
+          ("POST "
+                  + CalculatorServer.PATH
+                  + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                  + body.length
+                  + "\r\n\r\n"
+                  + batch.get(i))
+              .getBytes(StandardCharsets.UTF_8);
+    }
+    httpSocket = new Socket(InetAddress.getLoopbackAddress(), httpServer.getAddress().getPort());
+    httpSocket.setTcpNoDelay(true);
+    httpOut = httpSocket.getOutputStream();
+    httpIn = new BufferedInputStream(httpSocket.getInputStream());
+  }
+
+  /**
+   * Closes the connections and stops both servers.
+   *
+   * @throws IOException if a connection cannot be closed
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    wireClient.close();
+    wireServer.close();
+    httpSocket.close();
+    httpServer.close();
+  }
+
+  /**
+   * @return the sum of the results.
+   * @throws IOException if the connection fails
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public long wirePipelined() throws IOException {
+    long sum = 0;
+    for (BatchResult result : wireClient.evaluateAll(batch)) {
+      sum += result.value();
+    }
+    return sum;
+  }
+
+  /**
+   * @return the sum of the results.
+   * @throws IOException if the connection fails
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public long wireRoundTrips() throws IOException {
+    long sum = 0;
+    for (String expression : batch) {
+      sum += wireClient.evaluate(expression);
+    }
+    return sum;
+  }
+
+  /**
+   * @return the total length of the response bodies.
+   * @throws IOException if the connection fails
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public long httpRoundTrips() throws IOException {
+    long length = 0;
+    for (int i = 0; i < BATCH; i++) {
+      httpOut.write(httpRequests[i % DISTINCT]);
+      httpOut.flush();
+      length += readHttpResponse();
+    }
+    return length;
+  }
+
+  /** Reads one response from {@link #httpIn}, discarding it, and returns its body length. */
+  private int readHttpResponse() throws IOException {
+    int length = 0;
+    StringBuilder line = new StringBuilder();
+    while (true) {
+      int c = httpIn.read();
+      if (c < 0) {
+        throw new IOException("Connection closed");
+      }
+      if (c != '\n') {
+        line.append((char) c);
+        continue;
+      }
+      if (line.length() <= 1) { // The "\r" of the empty line ending the headers.
+        break;
+      }
+      if (line.toString().regionMatches(true, 0, "Content-Length:", 0, 15)) {
+        length = Integer.parseInt(line.substring(15).trim());
+      }
+      line.setLength(0);
+    }
+    httpIn.skipNBytes(length);
+    return length;
+  }
+}
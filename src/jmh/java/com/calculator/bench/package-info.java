@@ -0,0 +1,2 @@
+/** JMH benchmarks and the expression corpus they run over. */
+package com.calculator.bench;
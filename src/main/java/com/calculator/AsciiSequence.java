@@ -0,0 +1,66 @@
+package com.calculator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/** Read-only {@link CharSequence} view of a range of ASCII bytes in a {@link ByteBuffer}. */
+final class AsciiSequence implements CharSequence {
+
+  /** The buffer holding the characters. */
+  private final ByteBuffer bytes;
+
+  /** Absolute index of the first byte. */
+  private final int offset;
+
+  /** Number of bytes in the view. */
+  private final int length;
+
+  /**
+   * Creates a view of {@code theBytes[theOffset, theOffset + theLength)}.
+   *
+   * @param theBytes the buffer; its position and limit are not used
+   * @param theOffset absolute index of the first byte
+   * @param theLength number of bytes; each must be at most {@code 0x7F}
+   */
+  AsciiSequence(final ByteBuffer theBytes, final int theOffset, final int theLength) {
+    this.bytes = theBytes;
+    this.offset = theOffset;
+    this.length = theLength;
+  }
+
+  /**
+   * @return whether {@code bytes[from, to)} holds only bytes up to {@code 0x7F}.
+   */
+  static boolean isAscii(final ByteBuffer bytes, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    return (char) bytes.get(offset + Objects.checkIndex(index, length));
+  }
+
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    Objects.checkFromToIndex(start, end, length);
+    return new AsciiSequence(bytes, offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    byte[] copy = new byte[length];
+    bytes.get(offset, copy);
+    return new String(copy, StandardCharsets.US_ASCII);
+  }
+}
@@ -1,7 +1,8 @@
 package com.calculator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 public final class Calculator {
 
@@ -27,79 +28,213 @@ public final class Calculator {
       throw new IllegalArgumentException("Expression must not be null or empty");
     }
 
-    List<String> tokens = tokenize(expression);
-    return evaluate(tokens);
+    return evaluate(expression);
   }
 
-  private static List<String> tokenize(final String expression) {
-    String[] parts = expression.trim().split("\\s+");
-    List<String> tokens = new ArrayList<>();
-
-    for (String part : parts) {
-      if (part.isEmpty()) {
-        continue;
-      }
-      tokens.add(part);
+  /**
+   * Evaluates a space-separated expression held in any {@link CharSequence}, such as a {@link
+   * StringBuilder}, without copying it into a {@code String}.
+   *
+   * <p>Results and errors are those of {@link #calculate(String)} on the same text.
+   *
+   * @param expression a non-null, non-blank, space-separated arithmetic expression
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws IllegalArgumentException if the expression is null, blank, contains unknown operators,
+   *     or has invalid number tokens
+   * @throws ArithmeticException if division by zero is attempted
+   */
+  public static int calculate(final CharSequence expression) {
+    if (expression == null || expression.chars().allMatch(Character::isWhitespace)) {
+      throw new IllegalArgumentException("Expression must not be null or empty");
     }
 
-    if (tokens.isEmpty()) {
-      throw new IllegalArgumentException("Expression contains no tokens");
-    }
+    return evaluate(expression);
+  }
 
-    return tokens;
+  /**
+   * Evaluates a space-separated expression held as ASCII bytes, without decoding it into a {@code
+   * String}.
+   *
+   * <p>Results and errors are those of {@link #calculate(String)} on the decoded text. A range
+   * holding bytes above {@code 0x7F} is decoded as UTF-8 first.
+   *
+   * @param expression the bytes holding the expression
+   * @param offset index of the first byte of the expression
+   * @param length number of bytes in the expression
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws IllegalArgumentException if the expression is null, blank, contains unknown operators,
+   *     or has invalid number tokens
+   * @throws ArithmeticException if division by zero is attempted
+   * @throws IndexOutOfBoundsException if the range is not within {@code expression}
+   */
+  public static int calculate(final byte[] expression, final int offset, final int length) {
+    if (expression == null) {
+      throw new IllegalArgumentException("Expression must not be null or empty");
+    }
+    return calculate(ByteBuffer.wrap(expression), offset, length);
   }
 
-  private static int evaluate(final List<String> tokens) {
-    // First pass: resolve * and / into a simplified list of additive terms
-    List<Integer> values = new ArrayList<>();
-    List<String> ops = new ArrayList<>();
+  /**
+   * Evaluates a space-separated expression held as ASCII bytes in a buffer, where it sits.
+   *
+   * <p>Behaves like {@link #calculate(byte[], int, int)}. The range is absolute; the buffer's
+   * position is neither used nor changed.
+   *
+   * @param expression the buffer holding the expression
+   * @param offset index of the first byte of the expression
+   * @param length number of bytes in the expression
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws IllegalArgumentException if the expression is null, blank, contains unknown operators,
+   *     or has invalid number tokens
+   * @throws ArithmeticException if division by zero is attempted
+   * @throws IndexOutOfBoundsException if the range is not within the buffer's limit
+   */
+  public static int calculate(final ByteBuffer expression, final int offset, final int length) {
+    if (expression == null) {
+      throw new IllegalArgumentException("Expression must not be null or empty");
+    }
+    Objects.checkFromIndexSize(offset, length, expression.limit());
+    if (!AsciiSequence.isAscii(expression, offset, offset + length)) {
+      byte[] bytes = new byte[length];
+      expression.get(offset, bytes);
+      return calculate(new String(bytes, StandardCharsets.UTF_8));
+    }
+    return calculate(new AsciiSequence(expression, offset, length));
+  }
 
-    values.add(parseNumber(tokens.getFirst()));
+  /**
+   * Evaluates the expression in one left-to-right scan, without splitting it into tokens first.
+   *
+   * <p>A token is a run of characters other than the whitespace {@code \s} matches, within the
+   * expression stripped of its leading and trailing characters up to {@code ' '} (what {@link
+   * String#trim()} strips). Products and quotients are folded into the pending term as they are
+   * read; the term is added to or subtracted from the running sum when the next {@code +} or {@code
+   * -} starts a new one. Arithmetic wraps around as {@code int} arithmetic does, so the result and
+   * every error, checked in the order the tokens are read, are those of splitting into lists of
+   * tokens, values and operators and evaluating those.
+   */
+  private static int evaluate(final CharSequence expression) {
+    int end = expression.length();
+    while (end > 0 && expression.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    int pos = 0;
+    while (pos < end && expression.charAt(pos) <= ' ') {
+      pos++;
+    }
+    if (pos == end) {
+      throw new IllegalArgumentException("Expression contains no tokens");
+    }
 
-    for (int i = 1; i < tokens.size(); i += 2) {
-      if (i + 1 >= tokens.size()) {
-        throw new IllegalArgumentException("Missing operand after operator: " + tokens.get(i));
+    int tokenEnd = tokenEnd(expression, pos, end);
+    int term = parseNumber(expression, pos, tokenEnd);
+    boolean subtract = false;
+    int sum = 0;
+    pos = skipWhitespace(expression, tokenEnd, end);
+
+    while (pos < end) {
+      int operatorStart = pos;
+      int operatorEnd = tokenEnd(expression, pos, end);
+      pos = skipWhitespace(expression, operatorEnd, end);
+      if (pos == end) {
+        throw new IllegalArgumentException(
+            "Missing operand after operator: " + text(expression, operatorStart, operatorEnd));
       }
-
-      String operator = tokens.get(i);
-      int nextValue = parseNumber(tokens.get(i + 1));
-
-      if (operator.equals("*") || operator.equals("/")) {
-        int left = values.removeLast();
-        if (operator.equals("*")) {
-          values.add(left * nextValue);
-        } else {
-          if (nextValue == 0) {
+      tokenEnd = tokenEnd(expression, pos, end);
+      int value = parseNumber(expression, pos, tokenEnd);
+      pos = skipWhitespace(expression, tokenEnd, end);
+
+      char operator = operatorEnd - operatorStart == 1 ? expression.charAt(operatorStart) : 0;
+      switch (operator) {
+        case '*' -> term *= value;
+        case '/' -> {
+          if (value == 0) {
             throw new ArithmeticException("Division by zero");
           }
-          values.add(left / nextValue);
+          term /= value;
         }
-      } else if (operator.equals("+") || operator.equals("-")) {
-        ops.add(operator);
-        values.add(nextValue);
-      } else {
-        throw new IllegalArgumentException("Unknown operator: " + operator);
+        case '+', '-' -> {
+          sum = subtract ? sum - term : sum + term;
+          subtract = operator == '-';
+          term = value;
+        }
+        default ->
+            throw new IllegalArgumentException(
+                "Unknown operator: " + text(expression, operatorStart, operatorEnd));
       }
     }
 
-    // Second pass: resolve + and -
-    int result = values.getFirst();
-    for (int i = 0; i < ops.size(); i++) {
-      if (ops.get(i).equals("+")) {
-        result += values.get(i + 1);
-      } else {
-        result -= values.get(i + 1);
-      }
+    return subtract ? sum - term : sum + term;
+  }
+
+  /** Whether {@code c} is whitespace as matched by the regular expression {@code \s}. */
+  private static boolean isSeparator(final char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  private static int tokenEnd(final CharSequence expression, final int start, final int end) {
+    int pos = start;
+    while (pos < end && !isSeparator(expression.charAt(pos))) {
+      pos++;
     }
+    return pos;
+  }
+
+  private static int skipWhitespace(final CharSequence expression, final int start, final int end) {
+    int pos = start;
+    while (pos < end && isSeparator(expression.charAt(pos))) {
+      pos++;
+    }
+    return pos;
+  }
 
-    return result;
+  /**
+   * Parses the token {@code [start, end)} as {@link Integer#parseInt(String)} would: an optional
+   * sign followed by decimal digits, within the {@code int} range.
+   */
+  private static int parseNumber(final CharSequence expression, final int start, final int end) {
+    int pos = start;
+    char first = expression.charAt(pos);
+    boolean negative = first == '-';
+    if (negative || first == '+') {
+      pos++;
+    }
+    if (pos == end) {
+      throw invalidNumber(expression, start, end);
+    }
+    long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+    long value = 0;
+    for (; pos < end; pos++) {
+      char c = expression.charAt(pos);
+      if (c < '0' || c > '9') {
+        if (c >= 0x80) {
+          // Integer.parseInt also accepts non-ASCII decimal digits; leave those to it.
+          return parseSlow(expression, start, end);
+        }
+        throw invalidNumber(expression, start, end);
+      }
+      value = value * 10 + (c - '0');
+      if (value > limit) {
+        throw invalidNumber(expression, start, end);
+      }
+    }
+    return (int) (negative ? -value : value);
   }
 
-  private static int parseNumber(final String token) {
+  private static int parseSlow(final CharSequence expression, final int start, final int end) {
     try {
-      return Integer.parseInt(token);
+      return Integer.parseInt(expression, start, end, 10);
     } catch (NumberFormatException e) {
-      throw new IllegalArgumentException("Invalid number: " + token);
+      throw invalidNumber(expression, start, end);
     }
   }
+
+  private static IllegalArgumentException invalidNumber(
+      final CharSequence expression, final int start, final int end) {
+    return new IllegalArgumentException("Invalid number: " + text(expression, start, end));
+  }
+
+  private static String text(final CharSequence expression, final int start, final int end) {
+    return expression.subSequence(start, end).toString();
+  }
 }
@@ -1,17 +1,44 @@
 package com.calculator;
 
 import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.FileEvaluator;
+import com.calculator.astcalculator.server.CalculatorServer;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
 
 public final class Main {
 
+  /** Port {@code serve} listens on unless {@code --port} is given. */
+  private static final int DEFAULT_PORT = 8080;
+
   private Main() {}
 
   /**
    * Application entry point.
    *
+   * <p>Without arguments, prints a demo. {@code eval-file [--parallel] <input> [<output>]}
+   * evaluates one expression per line of {@code input} ({@code -} for standard input) and writes
+   * one result per line to {@code output}, or to standard output. With {@code --parallel}, a file
+   * input is split into chunks evaluated on all cores. {@code serve [--port <port>]} runs the HTTP
+   * evaluation service until the process is stopped.
+   *
    * @param args command-line arguments
+   * @throws IOException if a subcommand fails to read or write
    */
-  public static void main(final String[] args) {
+  public static void main(final String[] args) throws IOException {
+    if (args.length > 0) {
+      runCommand(args);
+      return;
+    }
+
     System.out.println("Expression Calculator");
     System.out.println("=====================");
 
@@ -33,4 +60,78 @@ public final class Main {
       System.out.printf("  calculate(\"%s\") = %d%n", expr, result);
     }
   }
+
+  private static void runCommand(final String[] args) throws IOException {
+    switch (args[0]) {
+      case "eval-file" -> evalFile(args);
+      case "serve" -> serve(args);
+      default -> usage();
+    }
+  }
+
+  private static void usage() {
+    System.err.println(
+        "Usage: Main [eval-file [--parallel] <input>|- [<output>] | serve [--port <port>]]");
+    System.exit(2);
+  }
+
+  private static void serve(final String[] args) throws IOException {
+    int port = DEFAULT_PORT;
+    if (args.length == 3 && args[1].equals("--port")) {
+      try {
+        port = Integer.parseInt(args[2]);
+      } catch (NumberFormatException e) {
+        usage();
+      }
+    } else if (args.length != 1) {
+      usage();
+    }
+
+    // Must be set before the first HttpServer is created; an explicit -D setting wins.
+    if (System.getProperty(CalculatorServer.NO_DELAY_PROPERTY) == null) {
+      System.setProperty(CalculatorServer.NO_DELAY_PROPERTY, "true");
+    }
+    CalculatorServer server = CalculatorServer.start(new InetSocketAddress(port));
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    System.err.printf(
+        "Listening on http://localhost:%d%s%n",
+        server.getAddress().getPort(), CalculatorServer.PATH);
+  }
+
+  private static void evalFile(final String[] args) throws IOException {
+    boolean parallel = args.length > 1 && args[1].equals("--parallel");
+    int first = parallel ? 2 : 1;
+    int count = args.length - first;
+    if (count < 1 || count > 2 || (parallel && args[first].equals("-"))) {
+      usage();
+    }
+    String input = args[first];
+
+    // Standard input and output are used as channels but never closed.
+    boolean toFile = count == 2;
+    WritableByteChannel output =
+        toFile
+            ? FileChannel.open(
+                Path.of(args[first + 1]),
+                StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)
+            : new FileOutputStream(FileDescriptor.out).getChannel();
+    FileEvaluator.Summary summary;
+    try {
+      if (parallel) {
+        summary = FileEvaluator.evaluateParallel(Path.of(input), output, ForkJoinPool.commonPool());
+      } else if (input.equals("-")) {
+        summary =
+            FileEvaluator.evaluate(new FileInputStream(FileDescriptor.in).getChannel(), output);
+      } else {
+        summary = FileEvaluator.evaluate(Path.of(input), output);
+      }
+    } finally {
+      if (toFile) {
+        output.close();
+      }
+    }
+    System.err.printf("%d lines, %d failed%n", summary.lines(), summary.failures());
+  }
 }
@@ -1,12 +1,22 @@
 package com.calculator.astcalculator;
 
+import com.calculator.astcalculator.exception.CalculatorException;
 import com.calculator.astcalculator.exception.InvalidExpressionException;
 import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.metrics.CalculatorMetrics;
+import com.calculator.astcalculator.metrics.CompileEvent;
+import com.calculator.astcalculator.metrics.Stage;
 import com.calculator.astcalculator.nodes.AstNode;
-import java.util.List;
+import com.calculator.astcalculator.nodes.LiteralPool;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 public final class AstCalculator {
 
+  /** Shared instance whose only use is asking whether {@link CompileEvent} is enabled. */
+  private static final CompileEvent COMPILE_PROBE = new CompileEvent();
+
   private AstCalculator() {}
 
   /**
@@ -15,10 +25,12 @@ public final class AstCalculator {
    * <p>The expression is processed through four stages:
    *
    * <ol>
-   *   <li><strong>Tokenize</strong> — split the input into {@link Token}s.
+   *   <li><strong>Tokenize</strong> — split the input into tokens with a streaming {@link Lexer}.
    *   <li><strong>Parse</strong> — build an AST from the token stream.
    *   <li><strong>Validate</strong> — static analysis (e.g. literal division by zero).
-   *   <li><strong>Evaluate</strong> — walk the AST and compute the result.
+   *   <li><strong>Evaluate</strong> — lower the AST to a postfix {@link
+   *       com.calculator.astcalculator.bytecode.Program} and run it on the {@link
+   *       com.calculator.astcalculator.bytecode.Interpreter}, through a {@link CompiledExpression}.
    * </ol>
    *
    * @param expression a non-null, non-blank arithmetic expression (e.g. {@code "2 + 3 * (4 - 1)"})
@@ -28,20 +40,313 @@ public final class AstCalculator {
    * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
    */
   public static int calculate(final String expression) {
+    // Steps 1-3: Tokenize, Parse, Validate
+    CompiledExpression compiled = compile(expression, CompileOptions.DEFAULT, false);
+
+    // Step 4: Evaluate (the program was lowered by compile)
+    return compiled.evaluate();
+  }
+
+  /**
+   * Evaluates an arithmetic expression held in any {@link CharSequence}, such as a {@link
+   * StringBuilder} or a {@link java.nio.CharBuffer}, without copying it into a {@code String}.
+   *
+   * <p>The characters are tokenized where they are and then go through the same stages, and the
+   * same JFR events, as {@link #calculate(String)}, with the same results and errors.
+   *
+   * @param expression a non-null, non-blank arithmetic expression
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   */
+  public static int calculate(final CharSequence expression) {
+    return compile(expression, CompileOptions.DEFAULT, false).evaluate();
+  }
+
+  /**
+   * Evaluates an arithmetic expression held as ASCII bytes, without decoding it into a {@code
+   * String}.
+   *
+   * <p>Results and errors are those of {@link #calculate(String)} on the decoded text, with error
+   * positions relative to {@code offset}. A range holding bytes above {@code 0x7F} is decoded as
+   * UTF-8 first.
+   *
+   * @param expression the bytes holding the expression
+   * @param offset index of the first byte of the expression
+   * @param length number of bytes in the expression
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   * @throws IndexOutOfBoundsException if the range is not within {@code expression}
+   */
+  public static int calculate(final byte[] expression, final int offset, final int length) {
+    if (expression == null) {
+      throw new InvalidExpressionException("Expression must not be null or empty");
+    }
+    return calculate(ByteBuffer.wrap(expression), offset, length);
+  }
+
+  /**
+   * Evaluates an arithmetic expression held as ASCII bytes in a buffer, such as a network read
+   * buffer or a memory-mapped file, where it sits.
+   *
+   * <p>Behaves like {@link #calculate(byte[], int, int)}. The range is absolute; the buffer's
+   * position is neither used nor changed.
+   *
+   * @param expression the buffer holding the expression
+   * @param offset index of the first byte of the expression
+   * @param length number of bytes in the expression
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   * @throws IndexOutOfBoundsException if the range is not within the buffer's limit
+   */
+  public static int calculate(final ByteBuffer expression, final int offset, final int length) {
+    if (expression == null) {
+      throw new InvalidExpressionException("Expression must not be null or empty");
+    }
+    Objects.checkFromIndexSize(offset, length, expression.limit());
+    int end = offset + length;
+    if (!ByteLexer.isAscii(expression, offset, end)) {
+      return calculate(ByteLexer.decode(expression, offset, end));
+    }
+    return calculate(new ByteLexer(expression, offset, end));
+  }
+
+  /**
+   * Evaluates an arithmetic expression in the given numeric mode.
+   *
+   * <p>Runs the same tokenize, parse and validate stages as {@link #calculate(String)}, then
+   * evaluates with the mode's own evaluator. Number literals may be as wide as the mode allows,
+   * e.g. {@code 9000000000} in {@link NumericMode#LONG}.
+   *
+   * @param expression a non-null, non-blank arithmetic expression
+   * @param mode the number type to evaluate in
+   * @param <T> the result type
+   * @return the result of the expression
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid,
+   *     or a literal is too large for the mode
+   * @throws ValidationException if evaluation fails (e.g. division by zero, overflow)
+   */
+  public static <T extends Number> T calculate(final String expression, final NumericMode<T> mode) {
+    if (expression == null || expression.isBlank()) {
+      throw new InvalidExpressionException("Expression must not be null or empty");
+    }
+
+    AstNode ast =
+        Parser.parse(
+            new Lexer(expression), ParseOptions.DEFAULT.withLiteralBits(mode.literalBits()));
+    Validator.validate(ast);
+    return mode.evaluate(ast);
+  }
+
+  /**
+   * Evaluates an arithmetic expression, reusing its compiled form from {@code cache} when present.
+   *
+   * <p>On a cache hit the tokenize, parse and validate stages are skipped entirely; expressions
+   * that previously failed to compile fail again without being re-parsed.
+   *
+   * @param expression a non-null, non-blank arithmetic expression
+   * @param cache the cache to consult and populate
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   */
+  public static int calculate(final String expression, final ExpressionCache cache) {
+    return cache.get(expression).evaluate();
+  }
+
+  /**
+   * Evaluates an arithmetic expression like {@link #calculate(String)}, recording each stage in
+   * {@code metrics}.
+   *
+   * <p>To time tokenizing and parsing apart, the whole input is lexed before parsing starts rather
+   * than streamed to the parser; results and errors are the same. Lowering the AST to a program is
+   * timed as {@link Stage#LOWER}, so {@link Stage#EVALUATE} covers running the program only. A
+   * stage's latency is recorded only if it completes (a lexing error surfaces in the parse stage,
+   * where the parser reaches it), and every failure is counted under its exception class. The same
+   * JFR events as for {@link #calculate(String)} are emitted.
+   *
+   * @param expression a non-null, non-blank arithmetic expression
+   * @param metrics where to record latencies, sizes and errors
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   */
+  public static int calculate(final String expression, final CalculatorMetrics metrics) {
+    metrics.recordCalculation();
+    try {
+      CompiledExpression compiled =
+          COMPILE_PROBE.isEnabled()
+              ? compileRecorded(expression, () -> compileMeasured(expression, metrics))
+              : compileMeasured(expression, metrics);
+
+      long lowered = System.nanoTime();
+      int result = compiled.evaluate();
+      metrics.recordLatency(Stage.EVALUATE, System.nanoTime() - lowered);
+      return result;
+    } catch (CalculatorException e) {
+      metrics.recordError(e);
+      throw e;
+    }
+  }
+
+  /** The compile stages of {@link #calculate(String, CalculatorMetrics)}, each timed. */
+  private static CompiledExpression compileMeasured(
+      final String expression, final CalculatorMetrics metrics) {
     if (expression == null || expression.isBlank()) {
       throw new InvalidExpressionException("Expression must not be null or empty");
     }
 
-    // Step 1: Tokenize
-    List<Token> tokens = Tokenizer.tokenize(expression);
+    long start = System.nanoTime();
+    TokenBuffer tokens = new TokenBuffer(expression);
+    long tokenized = System.nanoTime();
+    metrics.recordLatency(Stage.TOKENIZE, tokenized - start);
+    metrics.recordTokens(tokens.tokenCount());
+
+    AstNode ast = Parser.parse(tokens.rewind(), ParseOptions.DEFAULT);
+    long parsed = System.nanoTime();
+    metrics.recordLatency(Stage.PARSE, parsed - tokenized);
+    // Every token but a parenthesis became exactly one node: a number or an operator.
+    metrics.recordNodes(tokens.tokenCount() - tokens.parenthesisCount());
+
+    Validator.validate(ast);
+    long validated = System.nanoTime();
+    metrics.recordLatency(Stage.VALIDATE, validated - parsed);
+
+    CompiledExpression compiled =
+        new CompiledExpression(expression, ast, new Variables(), Backend.INTERPRETER, false);
+    metrics.recordLatency(Stage.LOWER, System.nanoTime() - validated);
+    return compiled;
+  }
+
+  /**
+   * Tokenizes, parses and validates an expression once, so it can be evaluated repeatedly.
+   *
+   * <p>Use this instead of {@link #calculate(String)} when the same expression is evaluated many
+   * times: the returned {@link CompiledExpression} skips straight to the evaluation stage.
+   *
+   * <p>Unlike {@link #calculate(String)}, the expression may contain variables (e.g. {@code "price
+   * * qty - discount"}); each is resolved to a slot and bound per evaluation through {@link
+   * CompiledExpression#evaluate(int[])}.
+   *
+   * @param expression a non-null, non-blank arithmetic expression (e.g. {@code "2 + 3 * (4 - 1)"})
+   * @return the compiled expression
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if static validation fails (e.g. literal division by zero)
+   */
+  public static CompiledExpression compile(final String expression) {
+    return compile(expression, CompileOptions.DEFAULT);
+  }
+
+  /**
+   * Tokenizes, parses and validates an expression once, evaluating it on the given backend.
+   *
+   * @param expression a non-null, non-blank arithmetic expression (e.g. {@code "2 + 3 * (4 - 1)"})
+   * @param backend how the compiled expression is executed
+   * @return the compiled expression
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if static validation fails (e.g. literal division by zero)
+   */
+  public static CompiledExpression compile(final String expression, final Backend backend) {
+    return compile(expression, CompileOptions.DEFAULT.withBackend(backend));
+  }
+
+  /**
+   * Tokenizes, parses and validates an expression once, then optionally simplifies it with the
+   * {@link Optimizer} before lowering it for the chosen backend. With {@link CompileOptions#cse()},
+   * repeated subtrees are parsed into shared nodes and evaluated once per evaluation.
+   *
+   * <p>Compilations slower than its threshold are reported as JFR {@link CompileEvent}s while a
+   * recording has that event enabled.
+   *
+   * @param expression a non-null, non-blank arithmetic expression (e.g. {@code "2 + 3 * (4 - 1)"})
+   * @param options the backend and optional stages to use
+   * @return the compiled expression
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if static validation fails (e.g. literal division by zero)
+   */
+  public static CompiledExpression compile(final String expression, final CompileOptions options) {
+    return compile(expression, options, true);
+  }
+
+  /**
+   * The compile stages shared by every {@code calculate} and {@code compile} entry point.
+   *
+   * @param expression the expression text; a {@link ByteLexer} is lexed in place
+   * @param options the backend and optional stages to use
+   * @param allowVariables whether identifiers are variables rather than errors
+   * @return the compiled expression
+   */
+  static CompiledExpression compile(
+      final CharSequence expression, final CompileOptions options, final boolean allowVariables) {
+    // The event that is committed is created only when a recording wants it.
+    if (!COMPILE_PROBE.isEnabled()) {
+      return doCompile(expression, options, allowVariables);
+    }
+    return compileRecorded(expression, () -> doCompile(expression, options, allowVariables));
+  }
+
+  /** Runs {@code stages} inside a {@link CompileEvent} for {@code expression}. */
+  private static CompiledExpression compileRecorded(
+      final CharSequence expression, final Supplier<CompiledExpression> stages) {
+    CompileEvent event = new CompileEvent();
+    event.start();
+    try {
+      CompiledExpression compiled = stages.get();
+      event.finish(expression, compiled.getAst(), null);
+      return compiled;
+    } catch (CalculatorException e) {
+      event.finish(expression == null ? "" : expression, null, e);
+      throw e;
+    }
+  }
 
-    // Step 2: Parse into AST
-    AstNode ast = Parser.parse(tokens);
+  private static CompiledExpression doCompile(
+      final CharSequence expression, final CompileOptions options, final boolean allowVariables) {
+    if (expression == null || isBlank(expression)) {
+      throw new InvalidExpressionException("Expression must not be null or empty");
+    }
+
+    // Steps 1-2: Tokenize lazily while parsing into an AST
+    Variables variables = new Variables();
+    LiteralPool literals = options.internLiterals() ? LiteralPool.shared() : null;
+    NodeFactory factory =
+        options.cse() ? (literals != null ? new NodeFactory(literals) : new NodeFactory()) : null;
+    TokenCursor lexer =
+        expression instanceof ByteLexer bytes ? bytes.rewind() : new Lexer(expression);
+    AstNode ast =
+        Parser.parse(
+            lexer,
+            new ParseOptions(
+                allowVariables ? variables : null,
+                options.maxDepth(),
+                Parser.INT_BITS,
+                factory,
+                factory == null ? literals : null));
 
     // Step 3: Validate
     Validator.validate(ast);
 
-    // Step 4: Evaluate
-    return Evaluator.evaluate(ast);
+    // Optional: simplify before lowering. Runs after validation so that folding, say, "x / (5 - 5)"
+    // into "x / 0" still fails at evaluation time rather than at compile time.
+    if (options.optimize()) {
+      ast = Optimizer.optimize(ast);
+      if (factory != null) {
+        // The optimizer rebuilds nodes, so share the repeated subtrees of its output again.
+        ast = factory.intern(ast);
+      }
+    }
+
+    return new CompiledExpression(expression, ast, variables, options.backend(), options.cse());
+  }
+
+  /** {@link String#isBlank()} for any expression, without a stream for the common inputs. */
+  private static boolean isBlank(final CharSequence expression) {
+    return switch (expression) {
+      case String text -> text.isBlank();
+      case ByteLexer bytes -> bytes.isBlank();
+      default -> expression.chars().allMatch(Character::isWhitespace);
+    };
   }
 }
@@ -0,0 +1,135 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.util.Arrays;
+
+/**
+ * Bottom-up computation over an AST that does not recurse on the Java call stack.
+ *
+ * <p>{@link #fold(AstNode)} visits nodes in the same order as a recursive {@link AstVisitor} that
+ * handles the left operand, then the right operand, then the node itself, but keeps pending nodes
+ * and partial results on explicit heap stacks. Trees of any depth — a million nested parentheses,
+ * or a million-term left-deep chain — are handled at memory cost proportional to their size.
+ *
+ * @param <T> the result produced for each node
+ * @see Evaluator
+ * @see Validator
+ * @see Optimizer
+ */
+public interface AstFolder<T> {
+
+  /**
+   * Computes the result for a numeric literal.
+   *
+   * @param node the number node
+   * @return the result for this node
+   */
+  T number(NumberNode node);
+
+  /**
+   * Computes the result for a numeric literal that does not fit in an {@code int}. Such literals
+   * are only parsed for the wider {@link NumericMode}s, so the {@code int} passes keep this
+   * default, which rejects them.
+   *
+   * @param node the wide number node
+   * @return the result for this node
+   * @throws InvalidExpressionException unless overridden
+   */
+  default T wideNumber(final WideNumberNode node) {
+    throw new InvalidExpressionException("Number too large: '" + node.getValue() + "'");
+  }
+
+  /**
+   * Computes the result for a variable reference.
+   *
+   * @param node the variable node
+   * @return the result for this node
+   */
+  T variable(VariableNode node);
+
+  /**
+   * Computes the result for a binary operation from the results of its operands.
+   *
+   * @param node the binary operation node
+   * @param left the result for the left operand
+   * @param right the result for the right operand
+   * @return the result for this node
+   */
+  T binaryOp(BinaryOpNode node, T left, T right);
+
+  /**
+   * Computes the result for a unary minus from the result of its operand.
+   *
+   * @param node the unary minus node
+   * @param operand the result for the operand
+   * @return the result for this node
+   */
+  T unaryMinus(UnaryMinusNode node, T operand);
+
+  /**
+   * Folds the tree rooted at {@code root}, operands before operators and left before right.
+   *
+   * @param root the root of the AST
+   * @return the result for {@code root}
+   */
+  @SuppressWarnings("unchecked")
+  default T fold(final AstNode root) {
+    // Nodes still to visit; an operator is pushed again, flagged, to be combined after its
+    // operands.
+    AstNode[] pending = new AstNode[32];
+    boolean[] combine = new boolean[32];
+    int top = 0;
+    Object[] results = new Object[32];
+    int count = 0;
+
+    pending[top++] = root;
+    while (top > 0) {
+      AstNode node = pending[--top];
+      boolean operandsDone = combine[top];
+      pending[top] = null;
+
+      if (!operandsDone && (node instanceof BinaryOpNode || node instanceof UnaryMinusNode)) {
+        if (top + 3 > pending.length) {
+          pending = Arrays.copyOf(pending, pending.length * 2);
+          combine = Arrays.copyOf(combine, pending.length);
+        }
+        pending[top] = node;
+        combine[top++] = true;
+        if (node instanceof BinaryOpNode binary) {
+          pending[top] = binary.getRight();
+          combine[top++] = false;
+          pending[top] = binary.getLeft();
+          combine[top++] = false;
+        } else {
+          pending[top] = ((UnaryMinusNode) node).getOperand();
+          combine[top++] = false;
+        }
+        continue;
+      }
+
+      Object result =
+          switch (node) {
+            case NumberNode number -> number(number);
+            case WideNumberNode wide -> wideNumber(wide);
+            case VariableNode variable -> variable(variable);
+            case UnaryMinusNode unary -> unaryMinus(unary, (T) results[--count]);
+            case BinaryOpNode binary -> {
+              T right = (T) results[--count];
+              T left = (T) results[--count];
+              yield binaryOp(binary, left, right);
+            }
+          };
+      if (count == results.length) {
+        results = Arrays.copyOf(results, count * 2);
+      }
+      results[count++] = result;
+    }
+    return (T) results[0];
+  }
+}
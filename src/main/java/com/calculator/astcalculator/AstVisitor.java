@@ -1,8 +1,11 @@
 package com.calculator.astcalculator;
 
+import com.calculator.astcalculator.exception.InvalidExpressionException;
 import com.calculator.astcalculator.nodes.BinaryOpNode;
 import com.calculator.astcalculator.nodes.NumberNode;
 import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
 
 /**
  * Visitor interface for the AST node hierarchy.
@@ -11,9 +14,11 @@ import com.calculator.astcalculator.nodes.UnaryMinusNode;
  * com.calculator.astcalculator.nodes.AstNode#accept(AstVisitor)} and provide type-specific logic
  * for each node kind.
  *
+ * <p>Traversal through {@code accept} recurses once per level of nesting. The built-in passes
+ * implement {@link AstFolder} instead, which handles trees of any depth.
+ *
  * @param <T> the return type produced by each {@code visit} method
- * @see Evaluator
- * @see Validator
+ * @see AstFolder
  */
 public interface AstVisitor<T> {
 
@@ -25,6 +30,30 @@ public interface AstVisitor<T> {
    */
   T visit(NumberNode node);
 
+  /**
+   * Visits a numeric literal that does not fit in an {@code int}. Such literals are only parsed for
+   * the wider {@link NumericMode}s, so by default they are rejected.
+   *
+   * @param node the wide number node to visit
+   * @return the result of visiting this node
+   * @throws InvalidExpressionException unless overridden
+   */
+  default T visit(final WideNumberNode node) {
+    throw new InvalidExpressionException("Number too large: '" + node.getValue() + "'");
+  }
+
+  /**
+   * Visits a variable reference node. Variables only appear in trees compiled with them allowed, so
+   * by default they are rejected.
+   *
+   * @param node the variable node to visit
+   * @return the result of visiting this node
+   * @throws InvalidExpressionException unless overridden
+   */
+  default T visit(final VariableNode node) {
+    throw new InvalidExpressionException("Unknown variable '" + node.getName() + "'");
+  }
+
   /**
    * Visits a binary operation node (e.g. addition, subtraction).
    *
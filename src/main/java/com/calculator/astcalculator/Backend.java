@@ -0,0 +1,13 @@
+package com.calculator.astcalculator;
+
+/** How a {@link CompiledExpression} is executed. */
+public enum Backend {
+  /** Run the postfix program on the {@link com.calculator.astcalculator.bytecode.Interpreter}. */
+  INTERPRETER,
+  /**
+   * Generate a JVM hidden class per expression with {@link
+   * com.calculator.astcalculator.bytecode.HiddenClassCompiler}. Falls back to {@link #INTERPRETER}
+   * when ASM is not on the classpath or the expression is too large for one JVM method.
+   */
+  HIDDEN_CLASS
+}
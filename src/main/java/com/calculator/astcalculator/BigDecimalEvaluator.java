@@ -0,0 +1,106 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Evaluates an AST in decimal arithmetic, for {@link NumericMode#bigDecimal(MathContext)}.
+ *
+ * <p>Every operation is rounded to the {@link MathContext}, so division yields a fraction instead
+ * of truncating. With {@link MathContext#UNLIMITED} results are exact, and a quotient without a
+ * finite decimal expansion, such as {@code 1 / 3}, is an error.
+ */
+public final class BigDecimalEvaluator implements AstFolder<BigDecimal> {
+
+  /** Shared binding array for expressions without variables. */
+  private static final BigDecimal[] NO_BINDINGS = new BigDecimal[0];
+
+  /** Precision and rounding of every operation. */
+  private final MathContext context;
+
+  /** Variable values, indexed by slot. */
+  private final BigDecimal[] bindings;
+
+  private BigDecimalEvaluator(final MathContext theContext, final BigDecimal[] theBindings) {
+    this.context = theContext;
+    this.bindings = theBindings;
+  }
+
+  /**
+   * Evaluates the given AST and returns the result.
+   *
+   * @param node the root of the AST
+   * @param context precision and rounding of every operation
+   * @return the result
+   * @throws ValidationException if a division by zero occurs, or a quotient cannot be represented
+   *     under {@code context}
+   */
+  public static BigDecimal evaluate(final AstNode node, final MathContext context) {
+    return new BigDecimalEvaluator(context, NO_BINDINGS).fold(node);
+  }
+
+  /**
+   * Evaluates the given AST with variable values taken from {@code bindings}.
+   *
+   * @param node the root of the AST
+   * @param context precision and rounding of every operation
+   * @param bindings variable values, indexed by {@link VariableNode#getSlot()}
+   * @return the result
+   * @throws ValidationException if a division by zero occurs, a quotient cannot be represented
+   *     under {@code context}, or a variable has no binding
+   */
+  public static BigDecimal evaluate(
+      final AstNode node, final MathContext context, final BigDecimal[] bindings) {
+    return new BigDecimalEvaluator(context, bindings).fold(node);
+  }
+
+  @Override
+  public BigDecimal number(final NumberNode node) {
+    return new BigDecimal(node.getValue(), context);
+  }
+
+  @Override
+  public BigDecimal wideNumber(final WideNumberNode node) {
+    return new BigDecimal(node.getValue(), context);
+  }
+
+  @Override
+  public BigDecimal variable(final VariableNode node) {
+    if (node.getSlot() >= bindings.length || bindings[node.getSlot()] == null) {
+      throw new ValidationException("Unbound variable '" + node.getName() + "'");
+    }
+    return bindings[node.getSlot()];
+  }
+
+  @Override
+  public BigDecimal binaryOp(
+      final BinaryOpNode node, final BigDecimal left, final BigDecimal right) {
+    return switch (node.getOperator()) {
+      case ADD -> left.add(right, context);
+      case SUBTRACT -> left.subtract(right, context);
+      case MULTIPLY -> left.multiply(right, context);
+      case DIVIDE -> {
+        if (right.signum() == 0) {
+          throw new ValidationException("Division by zero");
+        }
+        try {
+          yield left.divide(right, context);
+        } catch (ArithmeticException e) {
+          throw new ValidationException("Quotient has no exact decimal representation", e);
+        }
+      }
+    };
+  }
+
+  @Override
+  public BigDecimal unaryMinus(final UnaryMinusNode node, final BigDecimal operand) {
+    return operand.negate(context);
+  }
+}
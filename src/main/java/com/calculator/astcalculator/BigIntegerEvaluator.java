@@ -0,0 +1,91 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.math.BigInteger;
+
+/**
+ * Evaluates an AST in arbitrary-precision integer arithmetic, for {@link NumericMode#BIG_INTEGER}.
+ *
+ * <p>Nothing overflows; division truncates toward zero as in {@link Evaluator}, and dividing by
+ * zero fails the same way.
+ */
+public final class BigIntegerEvaluator implements AstFolder<BigInteger> {
+
+  /** Shared binding array for expressions without variables. */
+  private static final BigInteger[] NO_BINDINGS = new BigInteger[0];
+
+  /** Variable values, indexed by slot. */
+  private final BigInteger[] bindings;
+
+  private BigIntegerEvaluator(final BigInteger[] theBindings) {
+    this.bindings = theBindings;
+  }
+
+  /**
+   * Evaluates the given AST and returns the result.
+   *
+   * @param node the root of the AST
+   * @return the result
+   * @throws ValidationException if a division by zero occurs
+   */
+  public static BigInteger evaluate(final AstNode node) {
+    return new BigIntegerEvaluator(NO_BINDINGS).fold(node);
+  }
+
+  /**
+   * Evaluates the given AST with variable values taken from {@code bindings}.
+   *
+   * @param node the root of the AST
+   * @param bindings variable values, indexed by {@link VariableNode#getSlot()}
+   * @return the result
+   * @throws ValidationException if a division by zero occurs or a variable has no binding
+   */
+  public static BigInteger evaluate(final AstNode node, final BigInteger[] bindings) {
+    return new BigIntegerEvaluator(bindings).fold(node);
+  }
+
+  @Override
+  public BigInteger number(final NumberNode node) {
+    return BigInteger.valueOf(node.getValue());
+  }
+
+  @Override
+  public BigInteger wideNumber(final WideNumberNode node) {
+    return node.getValue();
+  }
+
+  @Override
+  public BigInteger variable(final VariableNode node) {
+    if (node.getSlot() >= bindings.length || bindings[node.getSlot()] == null) {
+      throw new ValidationException("Unbound variable '" + node.getName() + "'");
+    }
+    return bindings[node.getSlot()];
+  }
+
+  @Override
+  public BigInteger binaryOp(
+      final BinaryOpNode node, final BigInteger left, final BigInteger right) {
+    return switch (node.getOperator()) {
+      case ADD -> left.add(right);
+      case SUBTRACT -> left.subtract(right);
+      case MULTIPLY -> left.multiply(right);
+      case DIVIDE -> {
+        if (right.signum() == 0) {
+          throw new ValidationException("Division by zero");
+        }
+        yield left.divide(right);
+      }
+    };
+  }
+
+  @Override
+  public BigInteger unaryMinus(final UnaryMinusNode node, final BigInteger operand) {
+    return operand.negate();
+  }
+}
@@ -0,0 +1,259 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * {@link Lexer} over a range of ASCII bytes in a {@link ByteBuffer}.
+ *
+ * <p>Lets an expression be tokenized where it sits, in a memory-mapped file or a read buffer,
+ * without first decoding it into a {@code String}. One instance is {@link #reset reset} onto each
+ * new range, so lexing a stream of expressions allocates nothing; token text is only materialized
+ * for error messages.
+ *
+ * <p>Bytes are classified with the same predicates as {@link Lexer} and offsets are relative to the
+ * start of the range, so tokens, values and error messages are identical to lexing the decoded
+ * range. Callers must only pass ranges without bytes above {@code 0x7F}.
+ *
+ * <p>As a {@link CharSequence} the lexer is the text of its range, so it can stand in for the
+ * expression source, e.g. in a {@link CompiledExpression} that is evaluated once and dropped.
+ */
+final class ByteLexer implements TokenCursor, CharSequence {
+
+  /** The buffer holding the input. */
+  private ByteBuffer input;
+
+  /** Absolute index of the first byte of the range. */
+  private int base;
+
+  /** Absolute index one past the last byte of the range. */
+  private int limit;
+
+  /** Current absolute scan position. */
+  private int pos;
+
+  /** Type of the current token. */
+  private Token.Type type;
+
+  /** Absolute start index (inclusive) of the current token. */
+  private int start;
+
+  /** Absolute end index (exclusive) of the current token. */
+  private int end;
+
+  /** Value of the current number token. */
+  private int value;
+
+  /** Whether the current number token is too large for an {@code int}. */
+  private boolean overflow;
+
+  /** Creates a lexer with no input; {@link #reset} positions it on some. */
+  ByteLexer() {}
+
+  /**
+   * Creates a lexer over {@code theInput[from, to)} that is not yet positioned on a token; {@link
+   * #rewind()} does that.
+   *
+   * @param theInput the buffer holding the input; its position and limit are not used
+   * @param from absolute index of the first byte
+   * @param to absolute index one past the last byte
+   */
+  ByteLexer(final ByteBuffer theInput, final int from, final int to) {
+    this.input = theInput;
+    this.base = from;
+    this.limit = to;
+    this.pos = from;
+  }
+
+  /**
+   * Positions the lexer on the first token of {@code theInput[from, to)}.
+   *
+   * @param theInput the buffer holding the input; its position and limit are not used
+   * @param from absolute index of the first byte
+   * @param to absolute index one past the last byte
+   * @throws InvalidExpressionException if the first token is invalid
+   */
+  void reset(final ByteBuffer theInput, final int from, final int to) {
+    this.input = theInput;
+    this.base = from;
+    this.limit = to;
+    rewind();
+  }
+
+  /**
+   * Positions the lexer on the first token of its range.
+   *
+   * @return this lexer
+   * @throws InvalidExpressionException if the first token is invalid
+   */
+  ByteLexer rewind() {
+    pos = base;
+    advance();
+    return this;
+  }
+
+  @Override
+  public Token.Type type() {
+    return type;
+  }
+
+  @Override
+  public int start() {
+    return start - base;
+  }
+
+  @Override
+  public int intValue() {
+    return value;
+  }
+
+  @Override
+  public boolean isOverflow() {
+    return overflow;
+  }
+
+  @Override
+  public String text() {
+    byte[] bytes = new byte[end - start];
+    input.get(start, bytes);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  @Override
+  public void advance() {
+    while (pos < limit && Character.isWhitespace(byteAt(pos))) {
+      pos++;
+    }
+
+    start = pos;
+    if (pos >= limit) {
+      type = Token.Type.EOF;
+      end = pos;
+      return;
+    }
+
+    char current = byteAt(pos);
+    if (current >= '0' && current <= '9') {
+      readNumber();
+      return;
+    }
+
+    if (Tokenizer.isIdentifierStart(current)) {
+      pos++;
+      while (pos < limit && Tokenizer.isIdentifierPart(byteAt(pos))) {
+        pos++;
+      }
+      type = Token.Type.IDENTIFIER;
+      end = pos;
+      return;
+    }
+
+    type =
+        switch (current) {
+          case '+' -> Token.Type.PLUS;
+          case '-' -> Token.Type.MINUS;
+          case '*' -> Token.Type.MULTIPLY;
+          case '/' -> Token.Type.DIVIDE;
+          case '(' -> Token.Type.LPAREN;
+          case ')' -> Token.Type.RPAREN;
+          default ->
+              throw new InvalidExpressionException(
+                  "Unexpected character '" + current + "' at position " + (pos - base));
+        };
+    pos++;
+    end = pos;
+  }
+
+  private void readNumber() {
+    long acc = 0;
+    boolean tooLarge = false;
+
+    while (pos < limit) {
+      int digit = input.get(pos) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      if (!tooLarge) {
+        acc = acc * 10 + digit;
+        tooLarge = acc > Integer.MAX_VALUE;
+      }
+      pos++;
+    }
+
+    type = Token.Type.NUMBER;
+    end = pos;
+    value = tooLarge ? 0 : (int) acc;
+    overflow = tooLarge;
+  }
+
+  /**
+   * @return whether {@code input[from, to)} holds only bytes up to {@code 0x7F}.
+   */
+  static boolean isAscii(final ByteBuffer input, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      if (input.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return whether {@code input[from, to)} holds only whitespace, as {@link String#isBlank()}
+   *     would find for the decoded ASCII range.
+   */
+  static boolean isBlank(final ByteBuffer input, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      if (!Character.isWhitespace((char) input.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return whether the range holds only whitespace.
+   */
+  boolean isBlank() {
+    return isBlank(input, base, limit);
+  }
+
+  /**
+   * @return {@code input[from, to)} decoded as UTF-8, for ranges that are not ASCII.
+   */
+  static String decode(final ByteBuffer input, final int from, final int to) {
+    byte[] bytes = new byte[to - from];
+    input.get(from, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public int length() {
+    return limit - base;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    return byteAt(base + Objects.checkIndex(index, limit - base));
+  }
+
+  @Override
+  public CharSequence subSequence(final int from, final int to) {
+    Objects.checkFromToIndex(from, to, limit - base);
+    return decode(input, base + from, base + to);
+  }
+
+  /**
+   * @return the text of the whole range.
+   */
+  @Override
+  public String toString() {
+    return decode(input, base, limit);
+  }
+
+  private char byteAt(final int index) {
+    return (char) input.get(index);
+  }
+}
@@ -0,0 +1,96 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.nodes.LiteralPool;
+import com.calculator.astcalculator.nodes.NumberNode;
+import java.util.Objects;
+
+/**
+ * Settings for {@link AstCalculator#compile(String, CompileOptions)}.
+ *
+ * @param backend how the compiled expression is executed
+ * @param optimize whether to run the {@link Optimizer} on the validated AST
+ * @param maxDepth the parser's nesting limit (open parentheses plus pending operators)
+ * @param cse whether to share repeated subtrees through a {@link NodeFactory} and evaluate each of
+ *     them once per evaluation
+ * @param internLiterals whether number literals too large for {@link NumberNode#of(int)}'s cache
+ *     are shared across expressions through {@link LiteralPool#shared()}
+ */
+public record CompileOptions(
+    Backend backend, boolean optimize, int maxDepth, boolean cse, boolean internLiterals) {
+
+  /**
+   * Interpreter backend, no optimization, common subexpression elimination or literal pooling: what
+   * {@link AstCalculator#compile(String)} uses.
+   */
+  public static final CompileOptions DEFAULT =
+      new CompileOptions(Backend.INTERPRETER, false, Parser.DEFAULT_MAX_DEPTH, false, false);
+
+  /**
+   * Creates compile options.
+   *
+   * @param backend how the compiled expression is executed
+   * @param optimize whether to run the {@link Optimizer} on the validated AST
+   * @param maxDepth the parser's nesting limit; must be positive
+   * @param cse whether to eliminate common subexpressions
+   * @param internLiterals whether to pool large literals
+   */
+  public CompileOptions {
+    Objects.requireNonNull(backend, "Backend must not be null");
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Maximum depth must be positive: " + maxDepth);
+    }
+  }
+
+  /**
+   * Creates compile options without literal pooling.
+   *
+   * @param backend how the compiled expression is executed
+   * @param optimize whether to run the {@link Optimizer} on the validated AST
+   * @param maxDepth the parser's nesting limit; must be positive
+   * @param cse whether to eliminate common subexpressions
+   */
+  public CompileOptions(
+      final Backend backend, final boolean optimize, final int maxDepth, final boolean cse) {
+    this(backend, optimize, maxDepth, cse, false);
+  }
+
+  /**
+   * @param aBackend the backend to use
+   * @return a copy of these options with the given backend.
+   */
+  public CompileOptions withBackend(final Backend aBackend) {
+    return new CompileOptions(aBackend, optimize, maxDepth, cse, internLiterals);
+  }
+
+  /**
+   * @param enabled whether to optimize
+   * @return a copy of these options with optimization switched on or off.
+   */
+  public CompileOptions withOptimize(final boolean enabled) {
+    return new CompileOptions(backend, enabled, maxDepth, cse, internLiterals);
+  }
+
+  /**
+   * @param limit the nesting limit; must be positive
+   * @return a copy of these options with the given nesting limit.
+   */
+  public CompileOptions withMaxDepth(final int limit) {
+    return new CompileOptions(backend, optimize, limit, cse, internLiterals);
+  }
+
+  /**
+   * @param enabled whether to eliminate common subexpressions
+   * @return a copy of these options with common subexpression elimination switched on or off.
+   */
+  public CompileOptions withCse(final boolean enabled) {
+    return new CompileOptions(backend, optimize, maxDepth, enabled, internLiterals);
+  }
+
+  /**
+   * @param enabled whether to pool large literals
+   * @return a copy of these options with literal pooling switched on or off.
+   */
+  public CompileOptions withInternLiterals(final boolean enabled) {
+    return new CompileOptions(backend, optimize, maxDepth, cse, enabled);
+  }
+}
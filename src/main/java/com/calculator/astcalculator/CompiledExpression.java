@@ -0,0 +1,170 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.bytecode.ExpressionFunction;
+import com.calculator.astcalculator.bytecode.HiddenClassCompiler;
+import com.calculator.astcalculator.bytecode.Interpreter;
+import com.calculator.astcalculator.bytecode.Program;
+import com.calculator.astcalculator.bytecode.ProgramCompiler;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.metrics.EvaluateEvent;
+import com.calculator.astcalculator.nodes.AstNode;
+import java.util.List;
+
+/**
+ * A tokenized, parsed and validated expression that can be evaluated any number of times.
+ *
+ * <p>Instances are created by {@link AstCalculator#compile(String)}. They are immutable and safe to
+ * share between threads; {@link #evaluate()} never re-runs the {@link Tokenizer}, {@link Parser} or
+ * {@link Validator} stages.
+ *
+ * <p>The AST is lowered once into a postfix {@link Program}. Depending on the {@link Backend}, that
+ * program is either run by the {@link Interpreter} on every evaluation or translated further into a
+ * JVM hidden class.
+ *
+ * <p>Variables are resolved to slots at compile time: {@link #getVariables()} lists their names in
+ * slot order, and {@link #evaluate(int[])} reads each value straight from the binding array.
+ *
+ * <p>Evaluations slower than its threshold are reported as JFR {@link EvaluateEvent}s while a
+ * recording has that event enabled.
+ */
+public final class CompiledExpression {
+
+  /** Binding array for expressions without variables. */
+  private static final int[] NO_BINDINGS = new int[0];
+
+  /** Shared instance whose only use is asking whether {@link EvaluateEvent} is enabled. */
+  private static final EvaluateEvent EVALUATE_PROBE = new EvaluateEvent();
+
+  /**
+   * The expression text this instance was compiled from. A {@code String}, except for the instances
+   * the {@code CharSequence} and byte overloads of {@link AstCalculator#calculate(String)} evaluate
+   * once and drop, which keep their input as it is.
+   */
+  private final CharSequence source;
+
+  /** The validated AST. */
+  private final AstNode ast;
+
+  /** Variable names in slot order. */
+  private final List<String> variables;
+
+  /** {@link #ast} lowered to postfix instructions. */
+  private final Program program;
+
+  /** The backend actually in use. */
+  private final Backend backend;
+
+  /** Runs {@link #program} on {@link #backend}. */
+  private final ExpressionFunction function;
+
+  CompiledExpression(
+      final CharSequence theSource,
+      final AstNode theAst,
+      final Variables theVariables,
+      final Backend requested,
+      final boolean eliminateCommonSubexpressions) {
+    this.source = theSource;
+    this.ast = theAst;
+    this.variables = List.copyOf(theVariables.names());
+    this.program = ProgramCompiler.compile(theAst, eliminateCommonSubexpressions);
+    if (requested == Backend.HIDDEN_CLASS && HiddenClassCompiler.canCompile(program)) {
+      this.backend = Backend.HIDDEN_CLASS;
+      this.function = HiddenClassCompiler.compile(program);
+    } else {
+      this.backend = Backend.INTERPRETER;
+      this.function = program::execute;
+    }
+  }
+
+  /**
+   * Evaluates an expression that has no variables.
+   *
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws com.calculator.astcalculator.exception.ValidationException if evaluation fails (e.g.
+   *     division by zero, integer overflow, unbound variables)
+   */
+  public int evaluate() {
+    return evaluate(NO_BINDINGS);
+  }
+
+  /**
+   * Evaluates the expression with the given variable values.
+   *
+   * <p>The array is only read, never copied or retained, so one array can be refilled and reused
+   * for every row of input.
+   *
+   * @param bindings variable values, indexed by slot (see {@link #slotOf(String)})
+   * @return the integer result of the expression (division truncates toward zero)
+   * @throws com.calculator.astcalculator.exception.ValidationException if evaluation fails (e.g.
+   *     division by zero, integer overflow) or {@code bindings} is shorter than {@link
+   *     #getVariables()}
+   */
+  public int evaluate(final int[] bindings) {
+    Interpreter.checkBindings(program, bindings);
+    if (!EVALUATE_PROBE.isEnabled()) {
+      return function.evaluate(bindings);
+    }
+    return evaluateRecorded(bindings);
+  }
+
+  private int evaluateRecorded(final int[] bindings) {
+    EvaluateEvent event = new EvaluateEvent();
+    event.start();
+    try {
+      int result = function.evaluate(bindings);
+      event.finish(source, ast, null);
+      return result;
+    } catch (CalculatorException e) {
+      event.finish(source, ast, e);
+      throw e;
+    }
+  }
+
+  /**
+   * @return the expression text this instance was compiled from.
+   */
+  public String getSource() {
+    return source.toString();
+  }
+
+  /**
+   * @return the validated AST.
+   */
+  public AstNode getAst() {
+    return ast;
+  }
+
+  /**
+   * @return the variable names, in slot order.
+   */
+  public List<String> getVariables() {
+    return variables;
+  }
+
+  /**
+   * @param name a variable name
+   * @return the slot of {@code name} in the binding array, or {@code -1} if it does not occur
+   */
+  public int slotOf(final String name) {
+    return variables.indexOf(name);
+  }
+
+  /**
+   * @return the compiled postfix program.
+   */
+  public Program getProgram() {
+    return program;
+  }
+
+  /**
+   * @return the backend evaluating this expression, after any fallback.
+   */
+  public Backend getBackend() {
+    return backend;
+  }
+
+  @Override
+  public String toString() {
+    return source.toString();
+  }
+}
@@ -5,10 +5,25 @@ import com.calculator.astcalculator.nodes.AstNode;
 import com.calculator.astcalculator.nodes.BinaryOpNode;
 import com.calculator.astcalculator.nodes.NumberNode;
 import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
 
-public final class Evaluator implements AstVisitor<Integer> {
+/**
+ * Evaluates an AST directly, without compiling it first.
+ *
+ * <p>Arithmetic is overflow-checked; nodes are folded with an explicit stack, so deeply nested
+ * trees do not overflow the Java call stack.
+ */
+public final class Evaluator implements AstFolder<Integer> {
 
-  private Evaluator() {}
+  /** Shared binding array for expressions without variables. */
+  private static final int[] NO_BINDINGS = new int[0];
+
+  /** Variable values, indexed by slot. */
+  private final int[] bindings;
+
+  private Evaluator(final int[] theBindings) {
+    this.bindings = theBindings;
+  }
 
   /**
    * Evaluates the given AST and returns the result.
@@ -17,18 +32,38 @@ public final class Evaluator implements AstVisitor<Integer> {
    * @return the integer result
    */
   public static int evaluate(final AstNode node) {
-    return node.accept(new Evaluator());
+    return new Evaluator(NO_BINDINGS).fold(node);
+  }
+
+  /**
+   * Evaluates the given AST with variable values taken from {@code bindings}.
+   *
+   * @param node the root of the AST
+   * @param bindings variable values, indexed by {@link VariableNode#getSlot()}
+   * @return the integer result
+   */
+  public static int evaluate(final AstNode node, final int[] bindings) {
+    return new Evaluator(bindings).fold(node);
   }
 
   @Override
-  public Integer visit(final NumberNode node) {
+  public Integer number(final NumberNode node) {
     return node.getValue();
   }
 
   @Override
-  public Integer visit(final BinaryOpNode node) {
-    int left = node.getLeft().accept(this);
-    int right = node.getRight().accept(this);
+  public Integer variable(final VariableNode node) {
+    if (node.getSlot() >= bindings.length) {
+      throw new ValidationException("Unbound variable '" + node.getName() + "'");
+    }
+    return bindings[node.getSlot()];
+  }
+
+  @Override
+  public Integer binaryOp(
+      final BinaryOpNode node, final Integer leftValue, final Integer rightValue) {
+    int left = leftValue;
+    int right = rightValue;
 
     return switch (node.getOperator()) {
       case ADD -> wrapOverflow(() -> Math.addExact(left, right));
@@ -47,8 +82,8 @@ public final class Evaluator implements AstVisitor<Integer> {
   }
 
   @Override
-  public Integer visit(final UnaryMinusNode node) {
-    return wrapOverflow(() -> Math.negateExact(node.getOperand().accept(this)));
+  public Integer unaryMinus(final UnaryMinusNode node, final Integer operand) {
+    return wrapOverflow(() -> Math.negateExact(operand));
   }
 
   private static int wrapOverflow(final java.util.function.IntSupplier operation) {
@@ -0,0 +1,245 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, thread-safe cache of {@link CompiledExpression}s keyed by expression text.
+ *
+ * <p>The cache is split into independently locked LRU segments so that concurrent lookups of
+ * different expressions rarely contend. Expressions that fail to compile are cached too, so
+ * repeatedly submitted bad input is rejected without being tokenized and parsed again.
+ *
+ * <p>An entry's key, tree and program grow with the expression, so the size limit alone would let a
+ * stream of distinct long expressions pin an unbounded amount of memory. Expressions longer than
+ * the cache's maximum length are therefore compiled on every lookup and never stored.
+ *
+ * @see AstCalculator#calculate(String, ExpressionCache)
+ */
+public final class ExpressionCache {
+
+  /**
+   * Cached expressions are evaluated many times, so they are worth simplifying once, and they live
+   * long, so their literals are worth sharing.
+   */
+  private static final CompileOptions OPTIONS =
+      CompileOptions.DEFAULT.withOptimize(true).withInternLiterals(true);
+
+  /** Longest expression, in characters, cached by {@link #ExpressionCache(int)}. */
+  public static final int DEFAULT_MAX_LENGTH = 256;
+
+  /** Upper bound on the number of segments. */
+  private static final int MAX_SEGMENTS = 16;
+
+  /** The LRU segments; the length is a power of two. */
+  private final Segment[] segments;
+
+  /** Longest expression, in characters, that is stored. */
+  private final int maximumLength;
+
+  /** Number of lookups served from the cache. */
+  private final LongAdder hits = new LongAdder();
+
+  /** Number of lookups that had to compile the expression. */
+  private final LongAdder misses = new LongAdder();
+
+  /** Number of entries dropped to stay within the size limit. */
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a cache of expressions up to {@link #DEFAULT_MAX_LENGTH} characters.
+   *
+   * @param maximumSize the maximum number of expressions to keep; must be positive
+   */
+  public ExpressionCache(final int maximumSize) {
+    this(maximumSize, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param maximumSize the maximum number of expressions to keep; must be positive
+   * @param theMaximumLength the longest expression, in characters, to keep; must not be negative
+   */
+  public ExpressionCache(final int maximumSize, final int theMaximumLength) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+    }
+    if (theMaximumLength < 0) {
+      throw new IllegalArgumentException(
+          "Maximum length must not be negative: " + theMaximumLength);
+    }
+    this.maximumLength = theMaximumLength;
+    int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+    segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+    }
+  }
+
+  /**
+   * Returns the compiled form of an expression, compiling and caching it on a miss. Expressions
+   * longer than {@link #maximumLength()} are compiled every time and count as misses.
+   *
+   * @param expression the expression text
+   * @return the compiled expression
+   * @throws InvalidExpressionException if the expression is null, blank, or syntactically invalid
+   * @throws ValidationException if static validation fails
+   */
+  public CompiledExpression get(final String expression) {
+    if (expression == null) {
+      // Not cacheable; let the compiler report it.
+      return AstCalculator.compile(null, OPTIONS, false);
+    }
+    if (expression.length() > maximumLength) {
+      misses.increment();
+      return AstCalculator.compile(expression, OPTIONS, false);
+    }
+
+    Segment segment = segmentFor(expression);
+    Object cached = segment.get(expression);
+    if (cached != null) {
+      hits.increment();
+      return unwrap(cached);
+    }
+
+    misses.increment();
+    Object entry;
+    try {
+      entry = AstCalculator.compile(expression, OPTIONS, false);
+    } catch (InvalidExpressionException | ValidationException e) {
+      entry = e;
+    }
+    segment.put(expression, entry);
+    return unwrap(entry);
+  }
+
+  /**
+   * @return the longest expression, in characters, that is cached.
+   */
+  public int maximumLength() {
+    return maximumLength;
+  }
+
+  /**
+   * @return the number of lookups served from the cache.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups that compiled the expression.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of entries evicted to stay within the size limit.
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return the number of cached expressions, including cached failures.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /** Removes every entry. Counters are left untouched. */
+  public void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  private Segment segmentFor(final String expression) {
+    int h = expression.hashCode();
+    h ^= h >>> 16;
+    return segments[h & (segments.length - 1)];
+  }
+
+  private static CompiledExpression unwrap(final Object entry) {
+    if (entry instanceof CompiledExpression compiled) {
+      return compiled;
+    }
+    // Throw a fresh exception so each caller gets its own stack trace.
+    CalculatorException failure = (CalculatorException) entry;
+    if (failure instanceof ValidationException) {
+      throw new ValidationException(failure.getMessage());
+    }
+    throw new InvalidExpressionException(failure.getMessage());
+  }
+
+  /** One lock-protected, access-ordered LRU map. */
+  private final class Segment {
+
+    /** Guards {@link #map}. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Expression text to {@link CompiledExpression} or the exception it failed with. */
+    private final LinkedHashMap<String, Object> map;
+
+    Segment(final int capacity) {
+      this.map =
+          new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Object> eldest) {
+              if (size() > capacity) {
+                evictions.increment();
+                return true;
+              }
+              return false;
+            }
+          };
+    }
+
+    Object get(final String key) {
+      lock.lock();
+      try {
+        return map.get(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void put(final String key, final Object value) {
+      lock.lock();
+      try {
+        map.put(key, value);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    int size() {
+      lock.lock();
+      try {
+        return map.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void clear() {
+      lock.lock();
+      try {
+        map.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,482 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.arena.ArenaEvaluator;
+import com.calculator.astcalculator.arena.ArenaValidator;
+import com.calculator.astcalculator.arena.AstArena;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Evaluates a file or stream holding one expression per line, writing one result per line.
+ *
+ * <p>Each output line is either the value of the input line or {@code error: } followed by the
+ * message of the {@link CalculatorException} that {@link AstCalculator#calculate(String)} would
+ * throw for it. Lines end at {@code '\n'}; input is UTF-8.
+ *
+ * <p>Files are memory-mapped window by window and other input is read through a direct buffer.
+ * Lines are tokenized in place by a {@link ByteLexer}, parsed into a recycled {@link AstArena} and
+ * checked and evaluated by {@link ArenaValidator} and {@link ArenaEvaluator}; results are formatted
+ * straight into a direct output buffer. The common path therefore allocates nothing per line. Lines
+ * holding non-ASCII bytes, and lines that fail, take a slower path that builds {@code String}s.
+ *
+ * <p>{@link #evaluateParallel} splits a file at line boundaries into chunks that are evaluated on a
+ * {@link ForkJoinPool}. Chunk results are written in input order through a reorder window that
+ * bounds how many chunks are in flight, so memory use does not grow with the file size.
+ *
+ * <p>Instances are not thread-safe; the static methods create what they need per call.
+ */
+public final class FileEvaluator {
+
+  /** Bytes mapped at a time; a window is doubled while a single line does not fit. */
+  private static final int MAP_WINDOW = 64 << 20;
+
+  /** Initial size of the read buffer for channel input. */
+  private static final int READ_BUFFER = 1 << 20;
+
+  /** Size of the output buffer. */
+  private static final int WRITE_BUFFER = 1 << 20;
+
+  /** Approximate input bytes per chunk in parallel mode. */
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  /** Initial output buffer of a chunk worker; grown when a chunk produces more. */
+  private static final int CHUNK_OUTPUT = CHUNK_SIZE / 2;
+
+  /** Prefix of a failed line's output. */
+  private static final byte[] ERROR_PREFIX = "error: ".getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Totals for one run.
+   *
+   * @param lines the number of input lines evaluated
+   * @param failures how many of them failed
+   */
+  public record Summary(long lines, long failures) {}
+
+  /** Tokenizes the current line in place. */
+  private final ByteLexer lexer = new ByteLexer();
+
+  /** Parses into {@link #arena}. */
+  private final Parser parser = new Parser(Parser.DEFAULT_MAX_DEPTH);
+
+  /** Holds the current line's tree; reset for every line. */
+  private final AstArena arena = new AstArena();
+
+  /** Digits of the value being formatted, filled from the end. */
+  private final byte[] digits = new byte[11];
+
+  /** Pending output. */
+  private ByteBuffer out;
+
+  /** Where {@link #out} is flushed to, or {@code null} to buffer a whole chunk. */
+  private final WritableByteChannel sink;
+
+  /** Input lines evaluated so far. */
+  private long lines;
+
+  /** Input lines that failed so far. */
+  private long failures;
+
+  private FileEvaluator(final WritableByteChannel theSink, final int outputSize) {
+    this.sink = theSink;
+    this.out = ByteBuffer.allocateDirect(outputSize);
+  }
+
+  /**
+   * Evaluates every line of {@code input} into {@code output}, replacing any existing file.
+   *
+   * @param input the file to read
+   * @param output the file to write
+   * @return the number of lines evaluated and failed
+   * @throws IOException if reading or writing fails
+   */
+  public static Summary evaluate(final Path input, final Path output) throws IOException {
+    try (FileChannel sink = openOutput(output)) {
+      return evaluate(input, sink);
+    }
+  }
+
+  /**
+   * Evaluates every line of {@code input}, memory-mapping it, and writes the results to {@code
+   * output}. The output channel is left open.
+   *
+   * @param input the file to read
+   * @param output where to write the results
+   * @return the number of lines evaluated and failed
+   * @throws IOException if reading or writing fails
+   */
+  public static Summary evaluate(final Path input, final WritableByteChannel output)
+      throws IOException {
+    FileEvaluator evaluator = new FileEvaluator(output, WRITE_BUFFER);
+    mapWindows(
+        input,
+        (window, last) -> {
+          evaluator.evaluateLines(window, last);
+          return window.position();
+        });
+    return evaluator.finish();
+  }
+
+  /**
+   * Evaluates every line of {@code input} on the common {@link ForkJoinPool} into {@code output},
+   * replacing any existing file.
+   *
+   * @param input the file to read
+   * @param output the file to write
+   * @return the number of lines evaluated and failed
+   * @throws IOException if reading or writing fails
+   */
+  public static Summary evaluateParallel(final Path input, final Path output) throws IOException {
+    try (FileChannel sink = openOutput(output)) {
+      return evaluateParallel(input, sink, ForkJoinPool.commonPool());
+    }
+  }
+
+  /**
+   * Evaluates every line of {@code input} in parallel and writes the results to {@code output} in
+   * input order. The output channel is left open.
+   *
+   * <p>The file is cut into chunks of about {@value #CHUNK_SIZE} bytes at line boundaries. At most
+   * twice the pool's parallelism chunks are evaluated or waiting to be written at any time; the
+   * calling thread maps the input, hands out chunks and writes finished ones in order.
+   *
+   * @param input the file to read
+   * @param output where to write the results
+   * @param pool the pool to evaluate chunks on
+   * @return the number of lines evaluated and failed
+   * @throws IOException if reading or writing fails
+   */
+  public static Summary evaluateParallel(
+      final Path input, final WritableByteChannel output, final ForkJoinPool pool)
+      throws IOException {
+    return evaluateParallel(input, output, pool, CHUNK_SIZE, pool.getParallelism() * 2);
+  }
+
+  static Summary evaluateParallel(
+      final Path input,
+      final WritableByteChannel output,
+      final ForkJoinPool pool,
+      final int chunkSize,
+      final int maxInFlight)
+      throws IOException {
+    ChunkWriter writer = new ChunkWriter(output, pool, maxInFlight);
+    mapWindows(
+        input,
+        (window, last) -> {
+          int from = 0;
+          while (from < window.limit()) {
+            int to = chunkEnd(window, from, chunkSize, last);
+            if (to < 0) {
+              break;
+            }
+            writer.submit(window.slice(from, to - from));
+            from = to;
+          }
+          return from;
+        });
+    return writer.finish();
+  }
+
+  /**
+   * Evaluates every line read from {@code input} and writes the results to {@code output}. Neither
+   * channel is closed.
+   *
+   * @param input where to read expressions from
+   * @param output where to write the results
+   * @return the number of lines evaluated and failed
+   * @throws IOException if reading or writing fails
+   */
+  public static Summary evaluate(final ReadableByteChannel input, final WritableByteChannel output)
+      throws IOException {
+    FileEvaluator evaluator = new FileEvaluator(output, WRITE_BUFFER);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+    boolean last = false;
+    while (!last) {
+      last = input.read(buffer) < 0;
+      buffer.flip();
+      evaluator.evaluateLines(buffer, last);
+      buffer.compact();
+      if (!buffer.hasRemaining()) {
+        // A single line fills the buffer.
+        ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+      }
+    }
+    return evaluator.finish();
+  }
+
+  private static FileChannel openOutput(final Path output) throws IOException {
+    return FileChannel.open(
+        output,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /** Consumes a mapped window of the input. */
+  @FunctionalInterface
+  private interface WindowConsumer {
+
+    /**
+     * @param window the mapped bytes, positioned at zero
+     * @param last whether the window reaches the end of the file
+     * @return how many leading bytes were consumed; the next window starts after them
+     * @throws IOException if writing output fails
+     */
+    int accept(ByteBuffer window, boolean last) throws IOException;
+  }
+
+  /**
+   * Maps {@code input} window by window. Bytes a window does not consume, such as a trailing
+   * partial line, are mapped again at the start of the next one; a window is doubled while it
+   * consumes nothing.
+   */
+  private static void mapWindows(final Path input, final WindowConsumer consumer)
+      throws IOException {
+    try (FileChannel source = FileChannel.open(input, StandardOpenOption.READ)) {
+      long size = source.size();
+      long offset = 0;
+      long window = MAP_WINDOW;
+      while (offset < size) {
+        long length = Math.min(window, size - offset);
+        boolean last = offset + length == size;
+        int consumed =
+            consumer.accept(source.map(FileChannel.MapMode.READ_ONLY, offset, length), last);
+        if (consumed == 0 && !last) {
+          if (window == Integer.MAX_VALUE) {
+            throw new IOException("Line at offset " + offset + " is longer than 2 GiB");
+          }
+          window = Math.min(window * 2, Integer.MAX_VALUE);
+        }
+        offset += consumed;
+      }
+    }
+  }
+
+  /**
+   * Returns the end of the chunk starting at {@code from}: just past the first line terminator at
+   * least {@code chunkSize} bytes in, or the end of the last window. Returns {@code -1} if the rest
+   * of a window that is not the last holds no complete chunk.
+   */
+  private static int chunkEnd(
+      final ByteBuffer window, final int from, final int chunkSize, final boolean last) {
+    int limit = window.limit();
+    for (int i = (int) Math.min((long) from + chunkSize, limit) - 1; i < limit; i++) {
+      if (window.get(i) == '\n') {
+        return i + 1;
+      }
+    }
+    return last ? limit : -1;
+  }
+
+  /**
+   * Evaluates the complete lines between the buffer's position and limit, leaving the position at
+   * the start of the first incomplete line. If {@code last} is set, trailing bytes without a line
+   * terminator are evaluated as a final line.
+   */
+  private void evaluateLines(final ByteBuffer input, final boolean last) throws IOException {
+    int lineStart = input.position();
+    int limit = input.limit();
+    boolean ascii = true;
+    for (int i = lineStart; i < limit; i++) {
+      byte b = input.get(i);
+      if (b == '\n') {
+        evaluateLine(input, lineStart, i, ascii);
+        lineStart = i + 1;
+        ascii = true;
+      } else {
+        ascii &= b >= 0;
+      }
+    }
+    if (last && lineStart < limit) {
+      evaluateLine(input, lineStart, limit, ascii);
+      lineStart = limit;
+    }
+    input.position(lineStart);
+  }
+
+  private void evaluateLine(
+      final ByteBuffer input, final int from, final int to, final boolean ascii)
+      throws IOException {
+    lines++;
+    int value;
+    try {
+      value = ascii ? evaluateAscii(input, from, to) : evaluateDecoded(input, from, to);
+    } catch (CalculatorException e) {
+      failures++;
+      write(ERROR_PREFIX);
+      write(String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+      writeNewline();
+      return;
+    }
+    writeInt(value);
+    writeNewline();
+  }
+
+  /** Same stages as {@link AstCalculator#calculate(String)}, on the arena. */
+  private int evaluateAscii(final ByteBuffer input, final int from, final int to) {
+    if (ByteLexer.isBlank(input, from, to)) {
+      throw new InvalidExpressionException("Expression must not be null or empty");
+    }
+    arena.reset();
+    lexer.reset(input, from, to);
+    int root = parser.parse(lexer, arena);
+    ArenaValidator.validate(arena, root);
+    return ArenaEvaluator.evaluate(arena, root);
+  }
+
+  private static int evaluateDecoded(final ByteBuffer input, final int from, final int to) {
+    return AstCalculator.calculate(ByteLexer.decode(input, from, to));
+  }
+
+  private void writeInt(final int value) throws IOException {
+    reserve(digits.length);
+    long remaining = Math.abs((long) value);
+    int pos = digits.length;
+    do {
+      digits[--pos] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining != 0);
+    if (value < 0) {
+      digits[--pos] = '-';
+    }
+    out.put(digits, pos, digits.length - pos);
+  }
+
+  private void writeNewline() throws IOException {
+    reserve(1);
+    out.put((byte) '\n');
+  }
+
+  private void write(final byte[] bytes) throws IOException {
+    reserve(bytes.length);
+    out.put(bytes);
+  }
+
+  /** Makes room for {@code length} more bytes, flushing to the sink or, without one, growing. */
+  private void reserve(final int length) throws IOException {
+    if (out.remaining() >= length) {
+      return;
+    }
+    if (sink != null) {
+      flush();
+      if (out.remaining() >= length) {
+        return;
+      }
+    }
+    ByteBuffer larger =
+        ByteBuffer.allocateDirect(Math.max(out.capacity() * 2, out.position() + length));
+    out.flip();
+    larger.put(out);
+    out = larger;
+  }
+
+  /** Writes and clears {@link #out}. */
+  private void flush() throws IOException {
+    flush(sink);
+  }
+
+  private void flush(final WritableByteChannel channel) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+
+  private Summary finish() throws IOException {
+    flush();
+    return new Summary(lines, failures);
+  }
+
+  /**
+   * Reorder window of {@link #evaluateParallel}: evaluates chunks on a pool and writes their output
+   * in submission order.
+   *
+   * <p>Each in-flight chunk owns one worker {@link FileEvaluator}, which buffers the chunk's output
+   * instead of writing it. Workers are recycled once their output is written, and submitting waits
+   * for the oldest chunk when every worker is busy, so at most {@code maxInFlight} chunks and their
+   * output are held at once. Only the calling thread touches this object.
+   */
+  private static final class ChunkWriter {
+
+    /** Where chunk output is written, in order. */
+    private final WritableByteChannel sink;
+
+    /** Evaluates chunks. */
+    private final ForkJoinPool pool;
+
+    /** Most chunks evaluated or awaiting output at once. */
+    private final int maxInFlight;
+
+    /** Chunks in submission order, each resolving to the worker holding its output. */
+    private final ArrayDeque<ForkJoinTask<FileEvaluator>> inFlight = new ArrayDeque<>();
+
+    /** Workers without a chunk. */
+    private final ArrayDeque<FileEvaluator> idle = new ArrayDeque<>();
+
+    /** Every worker created, for the totals. */
+    private final List<FileEvaluator> workers = new ArrayList<>();
+
+    ChunkWriter(final WritableByteChannel theSink, final ForkJoinPool thePool, final int aMax) {
+      if (aMax <= 0) {
+        throw new IllegalArgumentException("Chunks in flight must be positive: " + aMax);
+      }
+      this.sink = theSink;
+      this.pool = thePool;
+      this.maxInFlight = aMax;
+    }
+
+    void submit(final ByteBuffer chunk) throws IOException {
+      if (inFlight.size() == maxInFlight) {
+        writeOldest();
+      }
+      FileEvaluator worker = idle.poll();
+      if (worker == null) {
+        worker = new FileEvaluator(null, CHUNK_OUTPUT);
+        workers.add(worker);
+      }
+      FileEvaluator owner = worker;
+      inFlight.add(
+          pool.submit(
+              () -> {
+                owner.evaluateLines(chunk, true);
+                return owner;
+              }));
+    }
+
+    Summary finish() throws IOException {
+      while (!inFlight.isEmpty()) {
+        writeOldest();
+      }
+      long lines = 0;
+      long failures = 0;
+      for (FileEvaluator worker : workers) {
+        lines += worker.lines;
+        failures += worker.failures;
+      }
+      return new Summary(lines, failures);
+    }
+
+    private void writeOldest() throws IOException {
+      FileEvaluator worker = inFlight.remove().join();
+      worker.flush(sink);
+      idle.add(worker);
+    }
+  }
+}
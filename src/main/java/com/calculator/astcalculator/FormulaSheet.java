@@ -0,0 +1,351 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Spreadsheet-like set of named cells, each holding an input value or a formula over other cells,
+ * that recomputes incrementally.
+ *
+ * <p>Formulas are compiled once, and a formula's variables are the names of the cells it reads.
+ * Every cell memoizes its value, or the {@link ValidationException} its formula failed with. Such
+ * an error propagates to every cell that reads it. Changing a cell marks it and everything
+ * downstream of it dirty. The next {@link #recalculate()}, or any {@link #get(String)},
+ * re-evaluates only that dirty subgraph, in topological order. A formula whose inputs all kept
+ * their values is skipped, and so is everything downstream of it.
+ *
+ * <p>A formula that would make a cell depend on itself is rejected with a {@link
+ * ValidationException} naming the cycle, and the sheet is left unchanged. Formulas may refer to
+ * cells that are not defined yet; until they are, they fail with {@code Unknown cell}.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class FormulaSheet {
+
+  /** No inputs. */
+  private static final Cell[] NO_CELLS = new Cell[0];
+
+  /** Every cell that is defined or referenced, by name. */
+  private final Map<String, Cell> cells = new HashMap<>();
+
+  /** Cells to re-evaluate on the next {@link #recalculate()}. */
+  private final List<Cell> dirty = new ArrayList<>();
+
+  /** Work list reused by {@link #markDirty(Cell)} and {@link #recalculate()}. */
+  private final ArrayDeque<Cell> work = new ArrayDeque<>();
+
+  /** Creates an empty sheet. */
+  public FormulaSheet() {}
+
+  /**
+   * Defines {@code name} as an input cell, replacing any formula it held.
+   *
+   * @param name the cell name; an identifier such as {@code price} or {@code q1_total}
+   * @param value the cell's value
+   * @throws IllegalArgumentException if {@code name} is not an identifier
+   */
+  public void setValue(final String name, final int value) {
+    Cell cell = cell(name);
+    detach(cell);
+    cell.defined = true;
+    cell.constant = value;
+    markDirty(cell);
+  }
+
+  /**
+   * Defines {@code name} as a formula over other cells, replacing its previous content.
+   *
+   * @param name the cell name; an identifier such as {@code price} or {@code q1_total}
+   * @param expression the formula, whose variables are cell names (e.g. {@code "price * qty"})
+   * @throws IllegalArgumentException if {@code name} is not an identifier
+   * @throws InvalidExpressionException if the formula is syntactically invalid
+   * @throws ValidationException if static validation of the formula fails, or it would create a
+   *     circular reference
+   */
+  public void setFormula(final String name, final String expression) {
+    checkName(name);
+    CompiledExpression formula = AstCalculator.compile(expression);
+    List<String> references = formula.getVariables();
+    Cell cell = cells.get(name);
+    List<String> cycle;
+    if (cell != null) {
+      cycle = cycleThrough(cell, references);
+    } else {
+      cycle = references.contains(name) ? List.of(name) : null;
+    }
+    if (cycle != null) {
+      throw new ValidationException(
+          "Circular reference: " + name + " -> " + String.join(" -> ", cycle));
+    }
+
+    cell = cell(name);
+    detach(cell);
+    cell.defined = true;
+    cell.formula = formula;
+    cell.inputs = new Cell[references.size()];
+    cell.bindings = new int[references.size()];
+    for (int slot = 0; slot < references.size(); slot++) {
+      Cell input = cell(references.get(slot));
+      cell.inputs[slot] = input;
+      input.dependents.add(cell);
+    }
+    markDirty(cell);
+  }
+
+  /**
+   * Returns the current value of a cell, recalculating first if anything changed.
+   *
+   * @param name the cell name
+   * @return the cell's value
+   * @throws ValidationException if the cell is not defined, or its formula (or one it depends on)
+   *     failed to evaluate
+   */
+  public int get(final String name) {
+    recalculate();
+    Cell cell = cells.get(name);
+    if (cell == null || !cell.defined) {
+      throw new ValidationException("Unknown cell '" + name + "'");
+    }
+    if (cell.error != null) {
+      throw cell.error;
+    }
+    return cell.value;
+  }
+
+  /**
+   * @param name the cell name
+   * @return whether {@code name} has been defined with a value or a formula
+   */
+  public boolean contains(final String name) {
+    Cell cell = cells.get(name);
+    return cell != null && cell.defined;
+  }
+
+  /**
+   * Re-evaluates the cells affected by changes since the last recalculation.
+   *
+   * <p>Dirty cells are processed in topological order: a cell is evaluated once every dirty cell it
+   * reads is done, and only if one of them changed value or the cell itself was redefined.
+   *
+   * @return the number of formulas evaluated
+   */
+  public int recalculate() {
+    if (dirty.isEmpty()) {
+      return 0;
+    }
+
+    ArrayDeque<Cell> ready = work;
+    for (Cell cell : dirty) {
+      int pending = 0;
+      for (Cell input : cell.inputs) {
+        if (input.dirty) {
+          pending++;
+        }
+      }
+      cell.pendingInputs = pending;
+      if (pending == 0) {
+        ready.add(cell);
+      }
+    }
+
+    int evaluated = 0;
+    while (!ready.isEmpty()) {
+      Cell cell = ready.poll();
+      boolean changed = false;
+      if (cell.redefined || cell.inputChanged) {
+        if (cell.formula != null) {
+          evaluated++;
+        }
+        changed = cell.compute();
+      }
+      cell.dirty = false;
+      cell.redefined = false;
+      cell.inputChanged = false;
+      for (Cell dependent : cell.dependents) {
+        dependent.inputChanged |= changed;
+        if (--dependent.pendingInputs == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+    dirty.clear();
+    return evaluated;
+  }
+
+  private Cell cell(final String name) {
+    Cell cell = cells.get(name);
+    if (cell == null) {
+      checkName(name);
+      cell = new Cell(name);
+      cells.put(name, cell);
+      // A new cell starts out as an unknown reference.
+      markDirty(cell);
+    }
+    return cell;
+  }
+
+  private static void checkName(final String name) {
+    Objects.requireNonNull(name, "Cell name must not be null");
+    boolean valid = !name.isEmpty() && Tokenizer.isIdentifierStart(name.charAt(0));
+    for (int i = 1; valid && i < name.length(); i++) {
+      valid = Tokenizer.isIdentifierPart(name.charAt(i));
+    }
+    if (!valid) {
+      throw new IllegalArgumentException("Not a valid cell name: '" + name + "'");
+    }
+  }
+
+  /** Clears a cell's content and unlinks it from the cells it read. */
+  private static void detach(final Cell cell) {
+    for (Cell input : cell.inputs) {
+      input.dependents.remove(cell);
+    }
+    cell.formula = null;
+    cell.inputs = NO_CELLS;
+    cell.bindings = null;
+  }
+
+  /** Marks {@code cell} for re-evaluation, and every cell downstream of it dirty. */
+  private void markDirty(final Cell cell) {
+    cell.redefined = true;
+    ArrayDeque<Cell> pending = work;
+    pending.push(cell);
+    while (!pending.isEmpty()) {
+      Cell current = pending.pop();
+      if (current.dirty) {
+        continue;
+      }
+      current.dirty = true;
+      dirty.add(current);
+      for (Cell dependent : current.dependents) {
+        pending.push(dependent);
+      }
+    }
+  }
+
+  /**
+   * Finds the cycle that {@code cell} reading {@code references} would close.
+   *
+   * <p>Searches downstream from {@code cell}, which is cheap when defining cells bottom-up: a cell
+   * nothing reads yet has no dependents to visit.
+   *
+   * @return the chain of reads from one of {@code references} back to {@code cell}, or {@code null}
+   *     if reading them is safe
+   */
+  private static List<String> cycleThrough(final Cell cell, final List<String> references) {
+    Set<String> targets = new HashSet<>(references);
+    Map<Cell, Cell> readBy = new HashMap<>();
+    Set<Cell> visited = new HashSet<>();
+    ArrayDeque<Cell> pending = new ArrayDeque<>();
+    pending.push(cell);
+    visited.add(cell);
+    while (!pending.isEmpty()) {
+      Cell current = pending.pop();
+      if (targets.contains(current.name)) {
+        List<String> path = new ArrayList<>();
+        for (Cell step = current; step != null; step = readBy.get(step)) {
+          path.add(step.name);
+        }
+        return path;
+      }
+      for (Cell dependent : current.dependents) {
+        if (visited.add(dependent)) {
+          readBy.put(dependent, current);
+          pending.push(dependent);
+        }
+      }
+    }
+    return null;
+  }
+
+  /** One node of the dependency graph. */
+  private static final class Cell {
+
+    /** The cell name. */
+    private final String name;
+
+    /** Cells whose formulas read this one. */
+    private final List<Cell> dependents = new ArrayList<>();
+
+    /** Whether the cell holds a value or formula, rather than only being referenced. */
+    private boolean defined;
+
+    /** The value of an input cell. */
+    private int constant;
+
+    /** The formula, or {@code null} for an input or undefined cell. */
+    private CompiledExpression formula;
+
+    /** Cells read by {@link #formula}, indexed by variable slot. */
+    private Cell[] inputs = NO_CELLS;
+
+    /** Binding array refilled from {@link #inputs} on every evaluation. */
+    private int[] bindings;
+
+    /** Memoized value; meaningless while {@link #error} is set. */
+    private int value;
+
+    /** Memoized failure, or {@code null}. */
+    private ValidationException error;
+
+    /** Whether the cell awaits the next recalculation. */
+    private boolean dirty;
+
+    /** Whether the cell's own content changed since it was last computed. */
+    private boolean redefined;
+
+    /** Whether a cell it reads changed during the current recalculation. */
+    private boolean inputChanged;
+
+    /** Dirty inputs not yet processed in the current recalculation. */
+    private int pendingInputs;
+
+    Cell(final String theName) {
+      this.name = theName;
+    }
+
+    /**
+     * Recomputes the memoized result.
+     *
+     * @return whether the value or error changed
+     */
+    boolean compute() {
+      int oldValue = value;
+      ValidationException oldError = error;
+      error = null;
+
+      if (!defined) {
+        error = new ValidationException("Unknown cell '" + name + "'");
+      } else if (formula == null) {
+        value = constant;
+      } else {
+        for (int slot = 0; slot < inputs.length && error == null; slot++) {
+          error = inputs[slot].error;
+          bindings[slot] = inputs[slot].value;
+        }
+        if (error == null) {
+          try {
+            value = formula.evaluate(bindings);
+          } catch (ValidationException e) {
+            error = e;
+          }
+        }
+      }
+
+      if (error != null || oldError != null) {
+        return error == null
+            || oldError == null
+            || !Objects.equals(error.getMessage(), oldError.getMessage());
+      }
+      return value != oldValue;
+    }
+  }
+}
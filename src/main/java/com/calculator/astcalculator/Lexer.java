@@ -0,0 +1,162 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+
+/**
+ * Streaming, cursor-style lexer.
+ *
+ * <p>Unlike {@link Tokenizer}, which materializes a {@code List<Token>}, a {@code Lexer} exposes
+ * one token at a time through its accessors and advances in place. Number literals are accumulated
+ * into an {@code int} while scanning, so producing a token allocates nothing: no {@link Token}
+ * record, no substring and no list. Identifier names are only materialized on request, through
+ * {@link #text()}. The {@link Parser} pulls tokens from it lazily.
+ *
+ * <p>A freshly created lexer is already positioned on the first token.
+ */
+public final class Lexer implements TokenCursor {
+
+  /** The input expression. */
+  private final CharSequence input;
+
+  /** Current scan position in the input. */
+  private int pos;
+
+  /** Type of the current token. */
+  private Token.Type type;
+
+  /** Start offset (inclusive) of the current token. */
+  private int start;
+
+  /** End offset (exclusive) of the current token. */
+  private int end;
+
+  /** Value of the current number token. */
+  private int value;
+
+  /** Whether the current number token is too large for an {@code int}. */
+  private boolean overflow;
+
+  /**
+   * Creates a lexer positioned on the first token of {@code theInput}.
+   *
+   * @param theInput the expression; any {@link CharSequence} is read in place, without copying
+   * @throws InvalidExpressionException if the input is null or the first token is invalid
+   */
+  public Lexer(final CharSequence theInput) {
+    if (theInput == null) {
+      throw new InvalidExpressionException("Input must not be null");
+    }
+    this.input = theInput;
+    this.pos = 0;
+    advance();
+  }
+
+  @Override
+  public Token.Type type() {
+    return type;
+  }
+
+  @Override
+  public int start() {
+    return start;
+  }
+
+  /**
+   * @return the end offset (exclusive) of the current token.
+   */
+  public int end() {
+    return end;
+  }
+
+  @Override
+  public int intValue() {
+    return value;
+  }
+
+  @Override
+  public boolean isOverflow() {
+    return overflow;
+  }
+
+  @Override
+  public String text() {
+    return input.subSequence(start, end).toString();
+  }
+
+  /**
+   * Moves to the next token.
+   *
+   * @throws InvalidExpressionException if the next character cannot start a token
+   */
+  @Override
+  public void advance() {
+    while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+      pos++;
+    }
+
+    start = pos;
+    if (pos >= input.length()) {
+      type = Token.Type.EOF;
+      end = pos;
+      return;
+    }
+
+    char current = input.charAt(pos);
+    if (Character.isDigit(current)) {
+      readNumber();
+      return;
+    }
+
+    if (Tokenizer.isIdentifierStart(current)) {
+      pos++;
+      while (pos < input.length() && Tokenizer.isIdentifierPart(input.charAt(pos))) {
+        pos++;
+      }
+      type = Token.Type.IDENTIFIER;
+      end = pos;
+      return;
+    }
+
+    type =
+        switch (current) {
+          case '+' -> Token.Type.PLUS;
+          case '-' -> Token.Type.MINUS;
+          case '*' -> Token.Type.MULTIPLY;
+          case '/' -> Token.Type.DIVIDE;
+          case '(' -> Token.Type.LPAREN;
+          case ')' -> Token.Type.RPAREN;
+          default ->
+              throw new InvalidExpressionException(
+                  "Unexpected character '" + current + "' at position " + pos);
+        };
+    pos++;
+    end = pos;
+  }
+
+  private void readNumber() {
+    long acc = 0;
+    boolean tooLarge = false;
+
+    while (pos < input.length()) {
+      char c = input.charAt(pos);
+      int digit;
+      if (c >= '0' && c <= '9') {
+        digit = c - '0';
+      } else if (Character.isDigit(c)) {
+        digit = Character.digit(c, 10);
+      } else {
+        break;
+      }
+      if (!tooLarge) {
+        acc = acc * 10 + digit;
+        tooLarge = acc > Integer.MAX_VALUE;
+      }
+      pos++;
+    }
+
+    type = Token.Type.NUMBER;
+    end = pos;
+    value = tooLarge ? 0 : (int) acc;
+    overflow = tooLarge;
+  }
+}
@@ -0,0 +1,141 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.util.Arrays;
+
+/**
+ * Evaluates an AST in 64-bit arithmetic: the {@link NumericMode#LONG} counterpart of {@link
+ * Evaluator}, with the same overflow checks and errors applied to {@code long}s.
+ *
+ * <p>Walks the tree in the same order as {@link AstFolder#fold(AstNode)}, but keeps partial results
+ * on a {@code long[]} stack instead of folding through {@code Long}s, so nothing is boxed.
+ */
+public final class LongEvaluator {
+
+  /** Shared binding array for expressions without variables. */
+  private static final long[] NO_BINDINGS = new long[0];
+
+  private LongEvaluator() {}
+
+  /**
+   * Evaluates the given AST and returns the result.
+   *
+   * @param node the root of the AST
+   * @return the result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, overflow)
+   */
+  public static long evaluate(final AstNode node) {
+    return evaluate(node, NO_BINDINGS);
+  }
+
+  /**
+   * Evaluates the given AST with variable values taken from {@code bindings}.
+   *
+   * @param node the root of the AST
+   * @param bindings variable values, indexed by {@link VariableNode#getSlot()}
+   * @return the result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, overflow, a variable
+   *     without a binding)
+   */
+  public static long evaluate(final AstNode node, final long[] bindings) {
+    // Nodes still to visit; an operator is pushed again, flagged, to be combined after its
+    // operands.
+    AstNode[] pending = new AstNode[32];
+    boolean[] combine = new boolean[32];
+    int top = 0;
+    long[] results = new long[32];
+    int count = 0;
+
+    pending[top++] = node;
+    while (top > 0) {
+      AstNode current = pending[--top];
+      boolean operandsDone = combine[top];
+      pending[top] = null;
+
+      if (!operandsDone && (current instanceof BinaryOpNode || current instanceof UnaryMinusNode)) {
+        if (top + 3 > pending.length) {
+          pending = Arrays.copyOf(pending, pending.length * 2);
+          combine = Arrays.copyOf(combine, pending.length);
+        }
+        pending[top] = current;
+        combine[top++] = true;
+        if (current instanceof BinaryOpNode binary) {
+          pending[top] = binary.getRight();
+          combine[top++] = false;
+          pending[top] = binary.getLeft();
+          combine[top++] = false;
+        } else {
+          pending[top] = ((UnaryMinusNode) current).getOperand();
+          combine[top++] = false;
+        }
+        continue;
+      }
+
+      long result =
+          switch (current) {
+            case NumberNode number -> number.getValue();
+            case WideNumberNode wide -> literal(wide);
+            case VariableNode variable -> {
+              if (variable.getSlot() >= bindings.length) {
+                throw new ValidationException("Unbound variable '" + variable.getName() + "'");
+              }
+              yield bindings[variable.getSlot()];
+            }
+            case UnaryMinusNode unary -> negate(results[--count]);
+            case BinaryOpNode binary -> {
+              long right = results[--count];
+              long left = results[--count];
+              yield apply(binary.getOperator(), left, right);
+            }
+          };
+      if (count == results.length) {
+        results = Arrays.copyOf(results, count * 2);
+      }
+      results[count++] = result;
+    }
+    return results[0];
+  }
+
+  private static long literal(final WideNumberNode node) {
+    try {
+      return node.getValue().longValueExact();
+    } catch (ArithmeticException e) {
+      throw new ValidationException("Integer overflow in expression", e);
+    }
+  }
+
+  private static long negate(final long operand) {
+    if (operand == Long.MIN_VALUE) {
+      throw new ValidationException("Integer overflow in expression");
+    }
+    return -operand;
+  }
+
+  private static long apply(
+      final BinaryOpNode.Operator operator, final long left, final long right) {
+    try {
+      return switch (operator) {
+        case ADD -> Math.addExact(left, right);
+        case SUBTRACT -> Math.subtractExact(left, right);
+        case MULTIPLY -> Math.multiplyExact(left, right);
+        case DIVIDE -> {
+          if (right == 0) {
+            throw new ValidationException("Division by zero");
+          }
+          if (left == Long.MIN_VALUE && right == -1) {
+            throw new ValidationException("Integer overflow in expression");
+          }
+          yield left / right;
+        }
+      };
+    } catch (ArithmeticException e) {
+      throw new ValidationException("Integer overflow in expression", e);
+    }
+  }
+}
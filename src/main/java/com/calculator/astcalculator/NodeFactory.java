@@ -0,0 +1,188 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.LiteralPool;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hash-consing node factory: creates each structurally distinct node once and returns the same
+ * instance for every later request, so repeated subtrees such as {@code (a + b) * c} become one
+ * shared node and the AST a DAG.
+ *
+ * <p>Lookups compare an operator node's children by identity. Structural equality of a new node is
+ * therefore an O(1) check rather than a walk of the subtree, as long as its children came from the
+ * same factory. {@link #intern(AstNode)} rebuilds a tree that did not, such as the output of the
+ * {@link Optimizer}.
+ *
+ * <p>Number nodes come from {@link NumberNode#of(int)}, or from a {@link LiteralPool} if one is
+ * given, so literals are shared across factories as well as within one.
+ *
+ * <p>A factory is meant to live for one parse (or one batch of related parses). It keeps every node
+ * it created reachable, and it is not thread-safe.
+ */
+public final class NodeFactory {
+
+  /** Every node created so far, by structural key. */
+  private final Map<Object, AstNode> nodes = new HashMap<>();
+
+  /** Pool for literals outside {@link NumberNode#of(int)}'s cache, or {@code null}. */
+  private final LiteralPool literals;
+
+  /** Number of requests answered with an existing node. */
+  private int reused;
+
+  /** Creates an empty factory. */
+  public NodeFactory() {
+    this.literals = null;
+  }
+
+  /**
+   * Creates an empty factory that takes its number nodes from a pool.
+   *
+   * @param theLiterals the pool for literals outside {@link NumberNode#of(int)}'s cache
+   */
+  public NodeFactory(final LiteralPool theLiterals) {
+    this.literals = Objects.requireNonNull(theLiterals, "Literal pool must not be null");
+  }
+
+  /**
+   * @param value the numeric value
+   * @return the number node for {@code value}.
+   */
+  public NumberNode number(final int value) {
+    return (NumberNode) intern(value, null);
+  }
+
+  /**
+   * @param value the numeric value, of any size
+   * @return the number node for {@code value}: a {@link WideNumberNode} if it does not fit in an
+   *     {@code int}.
+   */
+  public AstNode number(final BigInteger value) {
+    if (value.bitLength() < Integer.SIZE) {
+      return number(value.intValue());
+    }
+    return intern(value, null);
+  }
+
+  /**
+   * @param name the variable name
+   * @param slot index of the variable's value in the binding array
+   * @return the variable node for {@code name} at {@code slot}.
+   */
+  public VariableNode variable(final String name, final int slot) {
+    return (VariableNode) intern(new VariableKey(name, slot), null);
+  }
+
+  /**
+   * @param left the left operand
+   * @param operator the operator
+   * @param right the right operand
+   * @return the binary operation node over the given operands.
+   */
+  public BinaryOpNode binaryOp(
+      final AstNode left, final BinaryOpNode.Operator operator, final AstNode right) {
+    return (BinaryOpNode) intern(new BinaryKey(left, operator, right), null);
+  }
+
+  /**
+   * @param operand the operand to negate
+   * @return the unary minus node over {@code operand}.
+   */
+  public UnaryMinusNode unaryMinus(final AstNode operand) {
+    return (UnaryMinusNode) intern(new UnaryMinusKey(operand), null);
+  }
+
+  /**
+   * Rebuilds a tree from this factory's nodes, sharing every repeated subtree.
+   *
+   * @param root the root of the AST
+   * @return the equivalent root built from this factory
+   */
+  public AstNode intern(final AstNode root) {
+    return new AstFolder<AstNode>() {
+      @Override
+      public AstNode number(final NumberNode node) {
+        return intern(node.getValue(), node);
+      }
+
+      @Override
+      public AstNode wideNumber(final WideNumberNode node) {
+        return intern(node.getValue(), node);
+      }
+
+      @Override
+      public AstNode variable(final VariableNode node) {
+        return intern(new VariableKey(node.getName(), node.getSlot()), node);
+      }
+
+      @Override
+      public AstNode binaryOp(final BinaryOpNode node, final AstNode left, final AstNode right) {
+        boolean same = left == node.getLeft() && right == node.getRight();
+        return intern(new BinaryKey(left, node.getOperator(), right), same ? node : null);
+      }
+
+      @Override
+      public AstNode unaryMinus(final UnaryMinusNode node, final AstNode operand) {
+        return intern(new UnaryMinusKey(operand), operand == node.getOperand() ? node : null);
+      }
+    }.fold(root);
+  }
+
+  /**
+   * @return the number of distinct nodes created.
+   */
+  public int size() {
+    return nodes.size();
+  }
+
+  /**
+   * @return the number of requests answered with an already created node.
+   */
+  public int reused() {
+    return reused;
+  }
+
+  /**
+   * Returns the node for {@code key}, registering {@code candidate} (or a new node built from the
+   * key) if there is none yet.
+   */
+  private AstNode intern(final Object key, final AstNode candidate) {
+    AstNode node = nodes.get(key);
+    if (node != null) {
+      reused++;
+      return node;
+    }
+    node = candidate != null ? candidate : create(key);
+    nodes.put(key, node);
+    return node;
+  }
+
+  private AstNode create(final Object key) {
+    return switch (key) {
+      case Integer value -> literals != null ? literals.number(value) : NumberNode.of(value);
+      case BigInteger value -> new WideNumberNode(value);
+      case VariableKey variable -> new VariableNode(variable.name(), variable.slot());
+      case BinaryKey binary -> new BinaryOpNode(binary.left(), binary.operator(), binary.right());
+      case UnaryMinusKey unary -> new UnaryMinusNode(unary.operand());
+      default -> throw new IllegalStateException("Unknown node key " + key);
+    };
+  }
+
+  /** Key of a variable node. */
+  private record VariableKey(String name, int slot) {}
+
+  /** Key of a binary node; operands compare by identity, as nodes do not override equals. */
+  private record BinaryKey(AstNode left, BinaryOpNode.Operator operator, AstNode right) {}
+
+  /** Key of a unary minus node; the operand compares by identity. */
+  private record UnaryMinusKey(AstNode operand) {}
+}
@@ -0,0 +1,87 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.nodes.AstNode;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Number type used by {@link AstCalculator#calculate(String, NumericMode)}.
+ *
+ * <p>Each mode pairs the literal range the parser accepts with an evaluator specialized for its
+ * type: {@link Evaluator} for {@code int}, {@link LongEvaluator} (unboxed) for {@code long}, and
+ * {@link BigIntegerEvaluator} and {@link BigDecimalEvaluator} for arbitrary precision. The {@code
+ * int} path of {@link AstCalculator#calculate(String)} and {@link CompiledExpression} does not go
+ * through a mode at all.
+ *
+ * @param <T> the result type
+ */
+public final class NumericMode<T extends Number> {
+
+  /** 32-bit integers; the default, with the same results and errors as {@code calculate}. */
+  public static final NumericMode<Integer> INT =
+      new NumericMode<>("INT", Parser.INT_BITS, Evaluator::evaluate);
+
+  /** 64-bit integers, overflow-checked; literals up to {@link Long#MAX_VALUE}. */
+  public static final NumericMode<Long> LONG =
+      new NumericMode<>("LONG", Long.SIZE - 1, LongEvaluator::evaluate);
+
+  /** Arbitrary-precision integers; nothing overflows, division truncates toward zero. */
+  public static final NumericMode<BigInteger> BIG_INTEGER =
+      new NumericMode<>("BIG_INTEGER", Integer.MAX_VALUE, BigIntegerEvaluator::evaluate);
+
+  /** Decimals rounded to {@link MathContext#DECIMAL128}, 34 significant digits. */
+  public static final NumericMode<BigDecimal> BIG_DECIMAL = bigDecimal(MathContext.DECIMAL128);
+
+  /** Name shown by {@link #toString()}. */
+  private final String name;
+
+  /** Maximum bit length of a number literal. */
+  private final int literalBits;
+
+  /** Evaluates a validated AST. */
+  private final Function<AstNode, T> evaluator;
+
+  private NumericMode(
+      final String theName, final int theLiteralBits, final Function<AstNode, T> theEvaluator) {
+    this.name = theName;
+    this.literalBits = theLiteralBits;
+    this.evaluator = theEvaluator;
+  }
+
+  /**
+   * @param context precision and rounding applied to every operation
+   * @return a decimal mode; division yields fractions rounded to {@code context}.
+   */
+  public static NumericMode<BigDecimal> bigDecimal(final MathContext context) {
+    Objects.requireNonNull(context, "MathContext must not be null");
+    return new NumericMode<>(
+        "BIG_DECIMAL(" + context + ")",
+        Integer.MAX_VALUE,
+        root -> BigDecimalEvaluator.evaluate(root, context));
+  }
+
+  /**
+   * @return the maximum bit length of a number literal.
+   */
+  int literalBits() {
+    return literalBits;
+  }
+
+  /**
+   * Evaluates a parsed and validated AST.
+   *
+   * @param root the root of the AST
+   * @return the result
+   */
+  T evaluate(final AstNode root) {
+    return evaluator.apply(root);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,150 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode.Operator;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+
+/**
+ * Simplifying pass over a validated AST.
+ *
+ * <p>Rewrites are applied bottom-up and only when they cannot change what {@link Evaluator} would
+ * return or throw:
+ *
+ * <ul>
+ *   <li>Constant subtrees are folded into a {@link NumberNode}, unless evaluating them would
+ *       overflow or divide by zero; those are left in place to fail at evaluation time.
+ *   <li>Three nested negations become one. Two are kept: {@code -(-x)} overflows when {@code x} is
+ *       {@link Integer#MIN_VALUE}, while {@code x} does not.
+ *   <li>{@code x + 0}, {@code 0 + x}, {@code x - 0}, {@code x * 1}, {@code 1 * x} and {@code x / 1}
+ *       become {@code x}; {@code 0 - x}, {@code x * -1}, {@code -1 * x} and {@code x / -1} become
+ *       {@code -x}, which overflows for exactly the same values.
+ * </ul>
+ *
+ * <p>Only literal operands are ever dropped, so every variable of the original expression is still
+ * referenced and binding checks are unaffected.
+ */
+public final class Optimizer implements AstFolder<AstNode> {
+
+  /** Stateless, so shared. */
+  private static final Optimizer INSTANCE = new Optimizer();
+
+  private Optimizer() {}
+
+  /**
+   * Simplifies the given AST.
+   *
+   * @param node the root of a validated AST
+   * @return the simplified AST; {@code node} itself if nothing could be simplified
+   */
+  public static AstNode optimize(final AstNode node) {
+    return INSTANCE.fold(node);
+  }
+
+  @Override
+  public AstNode number(final NumberNode node) {
+    return node;
+  }
+
+  @Override
+  public AstNode variable(final VariableNode node) {
+    return node;
+  }
+
+  @Override
+  public AstNode binaryOp(final BinaryOpNode node, final AstNode left, final AstNode right) {
+    Operator operator = node.getOperator();
+
+    if (left instanceof NumberNode l && right instanceof NumberNode r) {
+      long folded = fold(l.getValue(), operator, r.getValue());
+      if ((int) folded == folded) {
+        return NumberNode.of((int) folded);
+      }
+    }
+    if (right instanceof NumberNode r) {
+      int value = r.getValue();
+      switch (operator) {
+        case ADD, SUBTRACT -> {
+          if (value == 0) {
+            return left;
+          }
+        }
+        case MULTIPLY, DIVIDE -> {
+          if (value == 1) {
+            return left;
+          }
+          if (value == -1) {
+            return negate(left);
+          }
+        }
+      }
+    }
+    if (left instanceof NumberNode l) {
+      int value = l.getValue();
+      switch (operator) {
+        case ADD -> {
+          if (value == 0) {
+            return right;
+          }
+        }
+        case SUBTRACT -> {
+          if (value == 0) {
+            return negate(right);
+          }
+        }
+        case MULTIPLY -> {
+          if (value == 1) {
+            return right;
+          }
+          if (value == -1) {
+            return negate(right);
+          }
+        }
+        case DIVIDE -> {
+          // 1 / x and friends depend on x.
+        }
+      }
+    }
+
+    if (left == node.getLeft() && right == node.getRight()) {
+      return node;
+    }
+    return new BinaryOpNode(left, operator, right);
+  }
+
+  @Override
+  public AstNode unaryMinus(final UnaryMinusNode node, final AstNode operand) {
+    return operand == node.getOperand() ? simplifyNegation(node) : negate(operand);
+  }
+
+  private static AstNode negate(final AstNode operand) {
+    return simplifyNegation(new UnaryMinusNode(operand));
+  }
+
+  private static AstNode simplifyNegation(final UnaryMinusNode node) {
+    AstNode operand = node.getOperand();
+    if (operand instanceof NumberNode n && n.getValue() != Integer.MIN_VALUE) {
+      return NumberNode.of(-n.getValue());
+    }
+    if (operand instanceof UnaryMinusNode inner && inner.getOperand() instanceof UnaryMinusNode) {
+      // -(-(-x)) fails exactly when -x does, and is otherwise equal to it.
+      return inner.getOperand();
+    }
+    return node;
+  }
+
+  /**
+   * @return the exact result widened to {@code long}, or a value outside the {@code int} range if
+   *     the operation would fail.
+   */
+  private static long fold(final int left, final Operator operator, final int right) {
+    return switch (operator) {
+      case ADD -> (long) left + right;
+      case SUBTRACT -> (long) left - right;
+      case MULTIPLY -> (long) left * right;
+      case DIVIDE -> right == 0 ? Long.MAX_VALUE : (long) left / right;
+    };
+  }
+}
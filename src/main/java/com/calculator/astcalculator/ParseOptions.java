@@ -0,0 +1,88 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.nodes.LiteralPool;
+import com.calculator.astcalculator.nodes.NumberNode;
+
+/**
+ * Settings for {@link Parser#parse(Lexer, ParseOptions)}.
+ *
+ * @param variables the slot table to resolve and define variables in, or {@code null} to reject
+ *     identifiers
+ * @param maxDepth the nesting limit (open parentheses plus pending operators)
+ * @param literalBits the maximum bit length of a number literal; wider than an {@code int} only for
+ *     the wider {@link NumericMode}s
+ * @param factory the hash-consing factory to build every node through, or {@code null} to create
+ *     each node afresh
+ * @param literals the pool to take literals outside {@link NumberNode#of(int)}'s cache from, or
+ *     {@code null}; a {@code factory} brings its own
+ */
+public record ParseOptions(
+    Variables variables, int maxDepth, int literalBits, NodeFactory factory, LiteralPool literals) {
+
+  /** No variables, the default nesting limit, {@code int} literals and no node sharing. */
+  public static final ParseOptions DEFAULT =
+      new ParseOptions(null, Parser.DEFAULT_MAX_DEPTH, Parser.INT_BITS, null, null);
+
+  /**
+   * Creates parse options.
+   *
+   * @param variables the slot table for identifiers, or {@code null} to reject them
+   * @param maxDepth the nesting limit; must be positive
+   * @param literalBits the maximum bit length of a number literal; at least that of an {@code int}
+   * @param factory the node factory, or {@code null}
+   * @param literals the literal pool, or {@code null}; must be {@code null} if {@code factory} is
+   *     not
+   */
+  public ParseOptions {
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Maximum depth must be positive: " + maxDepth);
+    }
+    if (literalBits < Parser.INT_BITS) {
+      throw new IllegalArgumentException(
+          "Literal bits must be at least " + Parser.INT_BITS + ": " + literalBits);
+    }
+    if (factory != null && literals != null) {
+      throw new IllegalArgumentException("A node factory takes literals from its own pool");
+    }
+  }
+
+  /**
+   * @param table the slot table for identifiers, or {@code null} to reject them
+   * @return a copy of these options resolving identifiers in the given table.
+   */
+  public ParseOptions withVariables(final Variables table) {
+    return new ParseOptions(table, maxDepth, literalBits, factory, literals);
+  }
+
+  /**
+   * @param limit the nesting limit; must be positive
+   * @return a copy of these options with the given nesting limit.
+   */
+  public ParseOptions withMaxDepth(final int limit) {
+    return new ParseOptions(variables, limit, literalBits, factory, literals);
+  }
+
+  /**
+   * @param bits the maximum bit length of a number literal
+   * @return a copy of these options accepting literals up to the given bit length.
+   */
+  public ParseOptions withLiteralBits(final int bits) {
+    return new ParseOptions(variables, maxDepth, bits, factory, literals);
+  }
+
+  /**
+   * @param aFactory the node factory, or {@code null}
+   * @return a copy of these options building nodes through the given factory.
+   */
+  public ParseOptions withFactory(final NodeFactory aFactory) {
+    return new ParseOptions(variables, maxDepth, literalBits, aFactory, literals);
+  }
+
+  /**
+   * @param pool the literal pool, or {@code null}
+   * @return a copy of these options taking large literals from the given pool.
+   */
+  public ParseOptions withLiterals(final LiteralPool pool) {
+    return new ParseOptions(variables, maxDepth, literalBits, factory, pool);
+  }
+}
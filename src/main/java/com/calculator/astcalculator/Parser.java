@@ -1,14 +1,25 @@
 package com.calculator.astcalculator;
 
+import com.calculator.astcalculator.arena.AstArena;
 import com.calculator.astcalculator.exception.InvalidExpressionException;
 import com.calculator.astcalculator.nodes.AstNode;
 import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.LiteralPool;
 import com.calculator.astcalculator.nodes.NumberNode;
 import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * Recursive-descent parser that converts a list of {@link Token}s into an AST.
+ * Operator-precedence parser that converts a stream of tokens into an AST.
+ *
+ * <p>Tokens come either from a pre-built {@code List<Token>} or lazily from a {@link Lexer}. Every
+ * other setting comes from {@link ParseOptions}: identifiers are only accepted when it supplies a
+ * {@link Variables} table, and each one is resolved to its slot while parsing.
  *
  * <p>Grammar:
  *
@@ -16,20 +27,101 @@ import java.util.List;
  *   expression = term (('+' | '-') term)*
  *   term       = unary (('*' | '/') unary)*
  *   unary      = '-' unary | primary
- *   primary    = NUMBER | '(' expression ')'
+ *   primary    = NUMBER | IDENTIFIER | '(' expression ')'
  * </pre>
+ *
+ * <p>The grammar is parsed with explicit operator and operand stacks rather than one Java call per
+ * rule, so nesting depth is bounded by a configurable limit instead of the thread's stack size.
+ * Deeper input is rejected with an {@link InvalidExpressionException}.
+ *
+ * <p>Given a {@link NodeFactory}, the parser builds every node through it, so repeated subtrees are
+ * shared rather than duplicated. Otherwise literals come from {@link NumberNode#of(int)}, so common
+ * values are shared nodes anyway, and large ones from a {@link LiteralPool} if one is given.
+ *
+ * <p>Besides {@link AstNode} trees, a parser can build straight into an {@link AstArena}. Such a
+ * parser is reusable, so parsing a stream of expressions into a recycled arena allocates nothing.
  */
 public final class Parser {
 
-  /** The token stream to parse. */
-  private final List<Token> tokens;
+  /** Default limit on open parentheses plus pending operators. */
+  public static final int DEFAULT_MAX_DEPTH = 1_000_000;
+
+  /** Bit length of the largest literal that fits in an {@code int}. */
+  static final int INT_BITS = Integer.SIZE - 1;
+
+  /** Operator stack entry for an open parenthesis. */
+  private static final int PAREN = 0;
+
+  /** Operator stack entry for a unary minus. */
+  private static final int NEGATE = 1;
+
+  /** Operator stack entries for the binary operators, indexed by {@code ordinal() + 2}. */
+  private static final BinaryOpNode.Operator[] BINARY = BinaryOpNode.Operator.values();
+
+  /** Binding strength of each operator stack entry; parentheses are never reduced by precedence. */
+  private static final int[] PRECEDENCE = {0, 3, 1, 1, 2, 2};
+
+  /** Arena kind of each binary operator stack entry, indexed like {@link #BINARY}. */
+  private static final byte[] ARENA_KIND = {
+    AstArena.ADD, AstArena.SUBTRACT, AstArena.MULTIPLY, AstArena.DIVIDE
+  };
+
+  /** The token stream to parse, positioned on the current token. */
+  private TokenCursor tokens;
+
+  /** Slot table for identifiers, or {@code null} if variables are not allowed. */
+  private final Variables variables;
+
+  /** Maximum number of entries on {@link #operators}. */
+  private final int maxDepth;
 
-  /** Current position in the token stream. */
-  private int pos;
+  /** Maximum bit length of a number literal; wider than an {@code int} for the wider modes. */
+  private final int literalBits;
+
+  /** Hash-consing factory for the nodes built, or {@code null} to create each node afresh. */
+  private final NodeFactory factory;
+
+  /** Pool for literals outside {@link NumberNode#of(int)}'s cache, or {@code null}. */
+  private final LiteralPool literals;
+
+  /** Pending operators and open parentheses. */
+  private int[] operators = new int[16];
+
+  /** Number of used entries in {@link #operators}. */
+  private int operatorCount;
+
+  /** Number of {@link #PAREN} entries in {@link #operators}. */
+  private int openParens;
+
+  /** Parsed operands awaiting their operator. */
+  private AstNode[] operands = new AstNode[16];
+
+  /** Number of used entries in {@link #operands}, or in {@link #indexes} for an arena parse. */
+  private int operandCount;
+
+  /** Arena being built into, or {@code null} when building {@link AstNode}s. */
+  private AstArena arena;
+
+  /** Arena indexes of parsed operands awaiting their operator, for an arena parse. */
+  private int[] indexes;
+
+  /**
+   * Creates a reusable parser for {@link #parse(TokenCursor, AstArena)}. Identifiers are rejected.
+   *
+   * @param theMaxDepth the maximum number of open parentheses plus pending operators
+   */
+  Parser(final int theMaxDepth) {
+    this(null, ParseOptions.DEFAULT.withMaxDepth(theMaxDepth));
+    this.indexes = new int[16];
+  }
 
-  private Parser(final List<Token> theTokens) {
+  private Parser(final TokenCursor theTokens, final ParseOptions options) {
     this.tokens = theTokens;
-    this.pos = 0;
+    this.variables = options.variables();
+    this.maxDepth = options.maxDepth();
+    this.literalBits = options.literalBits();
+    this.factory = options.factory();
+    this.literals = options.literals();
   }
 
   /**
@@ -39,99 +131,296 @@ public final class Parser {
    * @return the root AST node
    */
   public static AstNode parse(final List<Token> tokens) {
-    return new Parser(tokens).doParse();
+    return parse(new ListCursor(tokens), ParseOptions.DEFAULT);
   }
 
-  private AstNode doParse() {
-    AstNode node = parseExpression();
+  /**
+   * Parses the tokens produced by a lexer into an AST, pulling them one at a time.
+   *
+   * @param lexer the lexer, positioned on the first token
+   * @return the root AST node
+   */
+  public static AstNode parse(final Lexer lexer) {
+    return parse(lexer, ParseOptions.DEFAULT);
+  }
 
-    if (current().type() != Token.Type.EOF) {
-      throw new InvalidExpressionException(
-          "Unexpected token '" + current().value() + "' at position " + current().position());
-    }
+  /**
+   * Parses the tokens produced by a lexer into an AST, pulling them one at a time.
+   *
+   * @param lexer the lexer, positioned on the first token
+   * @param options the variables, limits and node sharing to parse with
+   * @return the root AST node
+   * @throws InvalidExpressionException if the input is invalid, nested deeper than {@link
+   *     ParseOptions#maxDepth()} or has a literal wider than {@link ParseOptions#literalBits()}
+   */
+  public static AstNode parse(final Lexer lexer, final ParseOptions options) {
+    return parse((TokenCursor) lexer, options);
+  }
 
-    return node;
+  /**
+   * Parses the tokens of any cursor into an AST.
+   *
+   * @param tokens the token stream, positioned on the first token
+   * @param options the variables, limits and node sharing to parse with
+   * @return the root AST node
+   * @throws InvalidExpressionException if the input is invalid, nested deeper than {@link
+   *     ParseOptions#maxDepth()} or has a literal wider than {@link ParseOptions#literalBits()}
+   */
+  static AstNode parse(final TokenCursor tokens, final ParseOptions options) {
+    return new Parser(tokens, Objects.requireNonNull(options, "Options must not be null"))
+        .parseTree();
   }
 
-  // expression = term (('+' | '-') term)*
-  private AstNode parseExpression() {
-    AstNode left = parseTerm();
+  /**
+   * Parses the tokens of a cursor, appending the tree to {@code theArena} in post-order.
+   *
+   * @param theTokens the token stream, positioned on the first token
+   * @param theArena the arena to append to
+   * @return the index of the root node in {@code theArena}
+   * @throws InvalidExpressionException if the input is invalid or nested too deeply
+   */
+  int parse(final TokenCursor theTokens, final AstArena theArena) {
+    this.tokens = theTokens;
+    this.arena = theArena;
+    operatorCount = 0;
+    openParens = 0;
+    operandCount = 0;
+    doParse();
+    return indexes[0];
+  }
+
+  private AstNode parseTree() {
+    doParse();
+    return operands[0];
+  }
+
+  private void doParse() {
+    while (true) {
+      // Operand position: any prefix of '-' and '(' followed by a primary.
+      while (tokens.type() == Token.Type.MINUS || tokens.type() == Token.Type.LPAREN) {
+        if (tokens.type() == Token.Type.LPAREN) {
+          pushOperator(PAREN);
+          openParens++;
+        } else {
+          pushOperator(NEGATE);
+        }
+        tokens.advance();
+      }
+      parsePrimary();
+
+      // Operator position: any closing parentheses followed by a binary operator, or the end.
+      while (tokens.type() == Token.Type.RPAREN && openParens > 0) {
+        reduce(0);
+        operatorCount--;
+        openParens--;
+        tokens.advance();
+      }
+      int operator = binaryOperator(tokens.type());
+      if (operator < 0) {
+        break;
+      }
+      reduce(PRECEDENCE[operator]);
+      pushOperator(operator);
+      tokens.advance();
+    }
 
-    while (current().type() == Token.Type.PLUS || current().type() == Token.Type.MINUS) {
-      Token op = consume();
-      AstNode right = parseTerm();
-      BinaryOpNode.Operator operator =
-          op.type() == Token.Type.PLUS ? BinaryOpNode.Operator.ADD : BinaryOpNode.Operator.SUBTRACT;
-      left = new BinaryOpNode(left, operator, right);
+    if (openParens > 0) {
+      throw new InvalidExpressionException("Expected ')' at position " + tokens.start());
+    }
+    if (tokens.type() != Token.Type.EOF) {
+      throw new InvalidExpressionException(
+          "Unexpected token '" + tokens.text() + "' at position " + tokens.start());
     }
 
-    return left;
+    reduce(0);
   }
 
-  // term = unary (('*' | '/') unary)*
-  private AstNode parseTerm() {
-    AstNode left = parseUnary();
+  // primary = NUMBER | IDENTIFIER (parenthesized expressions are handled by doParse)
+  private void parsePrimary() {
+    Token.Type type = tokens.type();
 
-    while (current().type() == Token.Type.MULTIPLY || current().type() == Token.Type.DIVIDE) {
-      Token op = consume();
-      AstNode right = parseUnary();
-      BinaryOpNode.Operator operator =
-          op.type() == Token.Type.MULTIPLY
-              ? BinaryOpNode.Operator.MULTIPLY
-              : BinaryOpNode.Operator.DIVIDE;
-      left = new BinaryOpNode(left, operator, right);
+    if (type == Token.Type.NUMBER) {
+      if (tokens.isOverflow()) {
+        parseWideLiteral();
+        return;
+      }
+      int value = tokens.intValue();
+      tokens.advance();
+      if (arena != null) {
+        pushIndex(arena.number(value));
+      } else {
+        pushOperand(number(value));
+      }
+      return;
+    }
+
+    if (type == Token.Type.IDENTIFIER) {
+      String name = tokens.text();
+      if (variables == null) {
+        throw new InvalidExpressionException(
+            "Unknown variable '" + name + "' at position " + tokens.start());
+      }
+      tokens.advance();
+      int slot = variables.define(name);
+      pushOperand(factory != null ? factory.variable(name, slot) : new VariableNode(name, slot));
+      return;
     }
 
-    return left;
+    throw new InvalidExpressionException(
+        "Expected number or '(' at position " + tokens.start() + ", got '" + tokens.text() + "'");
   }
 
-  // unary = '-' unary | primary
-  private AstNode parseUnary() {
-    if (current().type() == Token.Type.MINUS) {
-      consume();
-      AstNode operand = parseUnary();
-      return new UnaryMinusNode(operand);
+  private void parseWideLiteral() {
+    BigInteger value = literalBits > INT_BITS ? new BigInteger(tokens.text()) : null;
+    if (value == null || value.bitLength() > literalBits) {
+      throw new InvalidExpressionException(
+          "Number too large: '" + tokens.text() + "' at position " + tokens.start());
     }
+    tokens.advance();
+    pushOperand(factory != null ? factory.number(value) : WideNumberNode.of(value));
+  }
 
-    return parsePrimary();
+  private AstNode number(final int value) {
+    if (factory != null) {
+      return factory.number(value);
+    }
+    return literals != null ? literals.number(value) : NumberNode.of(value);
   }
 
-  // primary = NUMBER | '(' expression ')'
-  private AstNode parsePrimary() {
-    Token token = current();
+  private static int binaryOperator(final Token.Type type) {
+    return switch (type) {
+      case PLUS -> BinaryOpNode.Operator.ADD.ordinal() + 2;
+      case MINUS -> BinaryOpNode.Operator.SUBTRACT.ordinal() + 2;
+      case MULTIPLY -> BinaryOpNode.Operator.MULTIPLY.ordinal() + 2;
+      case DIVIDE -> BinaryOpNode.Operator.DIVIDE.ordinal() + 2;
+      default -> -1;
+    };
+  }
 
-    if (token.type() == Token.Type.NUMBER) {
-      consume();
-      try {
-        return new NumberNode(Integer.parseInt(token.value()));
-      } catch (NumberFormatException e) {
-        throw new InvalidExpressionException(
-            "Number too large: '" + token.value() + "' at position " + token.position());
+  /**
+   * Applies pending operators down to the nearest parenthesis while they bind at least as tightly.
+   */
+  private void reduce(final int minPrecedence) {
+    while (operatorCount > 0) {
+      int operator = operators[operatorCount - 1];
+      if (operator == PAREN || PRECEDENCE[operator] < minPrecedence) {
+        return;
+      }
+      operatorCount--;
+      if (arena != null) {
+        reduceIntoArena(operator);
+      } else if (operator == NEGATE) {
+        AstNode operand = operands[operandCount - 1];
+        operands[operandCount - 1] =
+            factory != null ? factory.unaryMinus(operand) : new UnaryMinusNode(operand);
+      } else {
+        AstNode right = operands[--operandCount];
+        operands[operandCount] = null;
+        AstNode left = operands[operandCount - 1];
+        BinaryOpNode.Operator op = BINARY[operator - 2];
+        operands[operandCount - 1] =
+            factory != null ? factory.binaryOp(left, op, right) : new BinaryOpNode(left, op, right);
       }
     }
+  }
 
-    if (token.type() == Token.Type.LPAREN) {
-      consume();
-      AstNode node = parseExpression();
+  private void reduceIntoArena(final int operator) {
+    if (operator == NEGATE) {
+      indexes[operandCount - 1] = arena.negate(indexes[operandCount - 1]);
+    } else {
+      int right = indexes[--operandCount];
+      indexes[operandCount - 1] =
+          arena.binary(ARENA_KIND[operator - 2], indexes[operandCount - 1], right);
+    }
+  }
 
-      if (current().type() != Token.Type.RPAREN) {
-        throw new InvalidExpressionException("Expected ')' at position " + current().position());
-      }
-      consume();
-      return node;
+  private void pushOperator(final int operator) {
+    if (operatorCount == maxDepth) {
+      throw new InvalidExpressionException(
+          "Expression nested deeper than " + maxDepth + " levels at position " + tokens.start());
     }
+    if (operatorCount == operators.length) {
+      operators = Arrays.copyOf(operators, operatorCount * 2);
+    }
+    operators[operatorCount++] = operator;
+  }
 
-    throw new InvalidExpressionException(
-        "Expected number or '(' at position " + token.position() + ", got '" + token.value() + "'");
+  private void pushOperand(final AstNode operand) {
+    if (operandCount == operands.length) {
+      operands = Arrays.copyOf(operands, operandCount * 2);
+    }
+    operands[operandCount++] = operand;
   }
 
-  private Token current() {
-    return tokens.get(pos);
+  private void pushIndex(final int index) {
+    if (operandCount == indexes.length) {
+      indexes = Arrays.copyOf(indexes, operandCount * 2);
+    }
+    indexes[operandCount++] = index;
   }
 
-  private Token consume() {
-    Token token = tokens.get(pos);
-    pos++;
-    return token;
+  /** {@link TokenCursor} over a pre-built token list. */
+  private static final class ListCursor implements TokenCursor {
+
+    /** The token list. */
+    private final List<Token> tokens;
+
+    /** Index of the current token. */
+    private int pos;
+
+    /** Parsed value of the current number token. */
+    private int value;
+
+    /** Whether the current number token does not fit in an {@code int}. */
+    private boolean overflow;
+
+    ListCursor(final List<Token> theTokens) {
+      this.tokens = theTokens;
+      this.pos = 0;
+      load();
+    }
+
+    @Override
+    public Token.Type type() {
+      return tokens.get(pos).type();
+    }
+
+    @Override
+    public int start() {
+      return tokens.get(pos).position();
+    }
+
+    @Override
+    public int intValue() {
+      return value;
+    }
+
+    @Override
+    public boolean isOverflow() {
+      return overflow;
+    }
+
+    @Override
+    public String text() {
+      return tokens.get(pos).value();
+    }
+
+    @Override
+    public void advance() {
+      pos++;
+      load();
+    }
+
+    private void load() {
+      Token token = tokens.get(pos);
+      if (token.type() == Token.Type.NUMBER) {
+        try {
+          value = Integer.parseInt(token.value());
+          overflow = false;
+        } catch (NumberFormatException e) {
+          overflow = true;
+        }
+      }
+    }
   }
 }
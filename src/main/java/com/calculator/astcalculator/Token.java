@@ -5,6 +5,8 @@ public record Token(Type type, String value, int position) {
   public enum Type {
     /** Numeric literal. */
     NUMBER,
+    /** Variable name. */
+    IDENTIFIER,
     /** Addition operator. */
     PLUS,
     /** Subtraction operator. */
@@ -0,0 +1,147 @@
+package com.calculator.astcalculator;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import java.util.Arrays;
+
+/**
+ * The tokens of an expression drained from a {@link Lexer} into primitive arrays, then replayed to
+ * the {@link Parser} as a {@link TokenCursor}.
+ *
+ * <p>Lets tokenizing be done, and timed, before parsing starts, without the {@link Token} records
+ * and substrings of {@link Tokenizer}. A character the lexer rejects is not reported until the
+ * parser advances onto it, so a syntax error earlier in the input still wins, exactly as when the
+ * parser pulls from the lexer directly.
+ */
+final class TokenBuffer implements TokenCursor {
+
+  /** Token types by ordinal. */
+  private static final Token.Type[] TYPES = Token.Type.values();
+
+  /** The input expression string. */
+  private final String input;
+
+  /** Type ordinal per token. */
+  private byte[] types = new byte[16];
+
+  /** Start offset per token. */
+  private int[] starts = new int[16];
+
+  /** End offset per token. */
+  private int[] ends = new int[16];
+
+  /** Value per number token; {@link Long#MIN_VALUE} marks a literal too large for an int. */
+  private long[] values = new long[16];
+
+  /** Number of tokens, including the final EOF unless lexing failed. */
+  private int size;
+
+  /** Number of parenthesis tokens. */
+  private int parentheses;
+
+  /** The lexer's failure on the token after the last one, or {@code null}. */
+  private InvalidExpressionException error;
+
+  /** Index of the current token. */
+  private int pos;
+
+  /**
+   * Lexes the whole input.
+   *
+   * @param theInput the expression string, not null
+   */
+  TokenBuffer(final String theInput) {
+    this.input = theInput;
+    try {
+      Lexer lexer = new Lexer(theInput);
+      while (true) {
+        add(lexer);
+        if (lexer.type() == Token.Type.EOF) {
+          break;
+        }
+        lexer.advance();
+      }
+    } catch (InvalidExpressionException e) {
+      error = e;
+    }
+  }
+
+  /**
+   * Positions the cursor on the first token.
+   *
+   * @return this cursor
+   * @throws InvalidExpressionException if the first token could not be lexed
+   */
+  TokenBuffer rewind() {
+    pos = 0;
+    if (size == 0) {
+      throw error;
+    }
+    return this;
+  }
+
+  /**
+   * @return the number of tokens lexed, not counting EOF.
+   */
+  int tokenCount() {
+    return error == null ? size - 1 : size;
+  }
+
+  /**
+   * @return the number of parenthesis tokens lexed.
+   */
+  int parenthesisCount() {
+    return parentheses;
+  }
+
+  @Override
+  public Token.Type type() {
+    return TYPES[types[pos]];
+  }
+
+  @Override
+  public int start() {
+    return starts[pos];
+  }
+
+  @Override
+  public int intValue() {
+    return (int) values[pos];
+  }
+
+  @Override
+  public boolean isOverflow() {
+    return values[pos] == Long.MIN_VALUE;
+  }
+
+  @Override
+  public String text() {
+    return input.substring(starts[pos], ends[pos]);
+  }
+
+  @Override
+  public void advance() {
+    if (++pos == size) {
+      throw error; // Only reachable after a lexing failure; the parser stops at EOF.
+    }
+  }
+
+  private void add(final Lexer lexer) {
+    if (size == types.length) {
+      int capacity = size * 2;
+      types = Arrays.copyOf(types, capacity);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    Token.Type type = lexer.type();
+    types[size] = (byte) type.ordinal();
+    starts[size] = lexer.start();
+    ends[size] = lexer.end();
+    if (type == Token.Type.NUMBER) {
+      values[size] = lexer.isOverflow() ? Long.MIN_VALUE : lexer.intValue();
+    } else if (type == Token.Type.LPAREN || type == Token.Type.RPAREN) {
+      parentheses++;
+    }
+    size++;
+  }
+}
@@ -0,0 +1,38 @@
+package com.calculator.astcalculator;
+
+/**
+ * Read-only view of the token the {@link Parser} is currently looking at.
+ *
+ * <p>Implemented by the streaming {@link Lexer} and by an adapter over a {@code List<Token>}, so
+ * the parser works the same way whether tokens are produced lazily or up front.
+ */
+interface TokenCursor {
+
+  /**
+   * @return the type of the current token.
+   */
+  Token.Type type();
+
+  /**
+   * @return the offset of the current token in the input.
+   */
+  int start();
+
+  /**
+   * @return the value of the current {@link Token.Type#NUMBER} token.
+   */
+  int intValue();
+
+  /**
+   * @return whether the current {@link Token.Type#NUMBER} token does not fit in an {@code int}.
+   */
+  boolean isOverflow();
+
+  /**
+   * @return the source text of the current token; only needed for error messages.
+   */
+  String text();
+
+  /** Moves to the next token. */
+  void advance();
+}
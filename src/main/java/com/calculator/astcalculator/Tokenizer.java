@@ -1,18 +1,20 @@
 package com.calculator.astcalculator;
 
 import com.calculator.astcalculator.exception.InvalidExpressionException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public final class Tokenizer {
 
-  /** The input expression string. */
-  private final String input;
+  /** The input expression. */
+  private final CharSequence input;
 
   /** Current position in the input. */
   private int pos;
 
-  private Tokenizer(final String theInput) {
+  private Tokenizer(final CharSequence theInput) {
     this.input = theInput;
     this.pos = 0;
   }
@@ -20,16 +22,70 @@ public final class Tokenizer {
   /**
    * Tokenizes the given input expression.
    *
-   * @param input the expression string
+   * @param input the expression; any {@link CharSequence} is read in place, without copying
    * @return the list of tokens
    */
-  public static List<Token> tokenize(final String input) {
+  public static List<Token> tokenize(final CharSequence input) {
     if (input == null) {
       throw new InvalidExpressionException("Input must not be null");
     }
     return new Tokenizer(input).doTokenize();
   }
 
+  /**
+   * Tokenizes an expression held as ASCII bytes, without decoding it into a {@code String}.
+   *
+   * <p>Tokens and errors are those of {@link #tokenize(CharSequence)} on the decoded text, with
+   * positions relative to {@code offset}. A range holding bytes above {@code 0x7F} is decoded as
+   * UTF-8 first.
+   *
+   * @param input the bytes holding the expression
+   * @param offset index of the first byte of the expression
+   * @param length number of bytes in the expression
+   * @return the list of tokens
+   * @throws IndexOutOfBoundsException if the range is not within {@code input}
+   */
+  public static List<Token> tokenize(final byte[] input, final int offset, final int length) {
+    if (input == null) {
+      throw new InvalidExpressionException("Input must not be null");
+    }
+    return tokenize(ByteBuffer.wrap(input), offset, length);
+  }
+
+  /**
+   * Tokenizes an expression held as ASCII bytes in a buffer, such as a read buffer or a mapped
+   * file, where it sits.
+   *
+   * <p>Behaves like {@link #tokenize(byte[], int, int)}. The range is absolute; the buffer's
+   * position is neither used nor changed.
+   *
+   * @param input the buffer holding the expression
+   * @param offset index of the first byte of the expression
+   * @param length number of bytes in the expression
+   * @return the list of tokens
+   * @throws IndexOutOfBoundsException if the range is not within the buffer's limit
+   */
+  public static List<Token> tokenize(final ByteBuffer input, final int offset, final int length) {
+    if (input == null) {
+      throw new InvalidExpressionException("Input must not be null");
+    }
+    Objects.checkFromIndexSize(offset, length, input.limit());
+    int end = offset + length;
+    if (!ByteLexer.isAscii(input, offset, end)) {
+      return tokenize(ByteLexer.decode(input, offset, end));
+    }
+
+    List<Token> tokens = new ArrayList<>();
+    ByteLexer lexer = new ByteLexer();
+    lexer.reset(input, offset, end);
+    while (lexer.type() != Token.Type.EOF) {
+      tokens.add(new Token(lexer.type(), lexer.text(), lexer.start()));
+      lexer.advance();
+    }
+    tokens.add(new Token(Token.Type.EOF, "", lexer.start()));
+    return tokens;
+  }
+
   private List<Token> doTokenize() {
     List<Token> tokens = new ArrayList<>();
 
@@ -46,6 +102,11 @@ public final class Tokenizer {
         continue;
       }
 
+      if (isIdentifierStart(current)) {
+        tokens.add(readIdentifier());
+        continue;
+      }
+
       Token token =
           switch (current) {
             case '+' -> new Token(Token.Type.PLUS, "+", pos);
@@ -77,4 +138,22 @@ public final class Tokenizer {
 
     return new Token(Token.Type.NUMBER, sb.toString(), start);
   }
+
+  private Token readIdentifier() {
+    int start = pos;
+
+    while (pos < input.length() && isIdentifierPart(input.charAt(pos))) {
+      pos++;
+    }
+
+    return new Token(Token.Type.IDENTIFIER, input.subSequence(start, pos).toString(), start);
+  }
+
+  static boolean isIdentifierStart(final char c) {
+    return Character.isLetter(c) || c == '_';
+  }
+
+  static boolean isIdentifierPart(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
 }
@@ -5,6 +5,8 @@ import com.calculator.astcalculator.nodes.AstNode;
 import com.calculator.astcalculator.nodes.BinaryOpNode;
 import com.calculator.astcalculator.nodes.NumberNode;
 import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
 
 /**
  * Static analysis pass over the AST.
@@ -12,7 +14,7 @@ import com.calculator.astcalculator.nodes.UnaryMinusNode;
  * <p>Currently catches division by zero when the divisor is a literal {@link NumberNode}. Dynamic
  * cases (e.g., {@code 10 / (5 - 5)}) are caught at evaluation time by {@link Evaluator}.
  */
-public final class Validator implements AstVisitor<Void> {
+public final class Validator implements AstFolder<Void> {
 
   private Validator() {}
 
@@ -22,20 +24,29 @@ public final class Validator implements AstVisitor<Void> {
    * @param node the root of the AST
    */
   public static void validate(final AstNode node) {
-    node.accept(new Validator());
+    new Validator().fold(node);
   }
 
   @Override
-  public Void visit(final NumberNode node) {
+  public Void number(final NumberNode node) {
     // Numbers are always valid
     return null;
   }
 
   @Override
-  public Void visit(final BinaryOpNode node) {
-    node.getLeft().accept(this);
-    node.getRight().accept(this);
+  public Void wideNumber(final WideNumberNode node) {
+    // Range is checked by the evaluator of the numeric mode
+    return null;
+  }
 
+  @Override
+  public Void variable(final VariableNode node) {
+    // Values are only known at evaluation time
+    return null;
+  }
+
+  @Override
+  public Void binaryOp(final BinaryOpNode node, final Void leftResult, final Void rightResult) {
     if (node.getOperator() == BinaryOpNode.Operator.DIVIDE) {
       if (node.getRight() instanceof NumberNode right) {
         if (right.getValue() == 0) {
@@ -48,8 +59,7 @@ public final class Validator implements AstVisitor<Void> {
   }
 
   @Override
-  public Void visit(final UnaryMinusNode node) {
-    node.getOperand().accept(this);
+  public Void unaryMinus(final UnaryMinusNode node, final Void operand) {
     return null;
   }
 }
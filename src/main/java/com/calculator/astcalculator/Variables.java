@@ -0,0 +1,65 @@
+package com.calculator.astcalculator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slot table mapping variable names to indexes in a binding array.
+ *
+ * <p>The {@link Parser} assigns slots in order of first appearance, so {@code "b * a + b"} binds
+ * {@code b} to slot 0 and {@code a} to slot 1. Evaluation then reads {@code bindings[slot]}
+ * directly, with no name lookups.
+ */
+public final class Variables {
+
+  /** Name to slot. */
+  private final Map<String, Integer> slots = new HashMap<>();
+
+  /** Slot to name. */
+  private final List<String> names = new ArrayList<>();
+
+  /** Creates an empty table. */
+  public Variables() {}
+
+  /**
+   * Returns the slot of {@code name}, assigning the next free one if it is new.
+   *
+   * @param name the variable name
+   * @return the slot index
+   */
+  public int define(final String name) {
+    Integer slot = slots.get(name);
+    if (slot != null) {
+      return slot;
+    }
+    slots.put(name, names.size());
+    names.add(name);
+    return names.size() - 1;
+  }
+
+  /**
+   * @param name the variable name
+   * @return the slot index, or {@code -1} if the variable is not defined
+   */
+  public int slotOf(final String name) {
+    Integer slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * @return the number of defined variables.
+   */
+  public int size() {
+    return names.size();
+  }
+
+  /**
+   * @return the variable names in slot order.
+   */
+  public List<String> names() {
+    return Collections.unmodifiableList(names);
+  }
+}
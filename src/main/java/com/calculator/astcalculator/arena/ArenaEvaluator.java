@@ -0,0 +1,121 @@
+package com.calculator.astcalculator.arena;
+
+import com.calculator.astcalculator.exception.ValidationException;
+
+/**
+ * {@link com.calculator.astcalculator.Evaluator} for trees stored in an {@link AstArena}.
+ *
+ * <p>Because operands always precede their operator, the subtree is evaluated by one forward scan
+ * over its index range, writing each node's value into a parallel scratch array: no recursion, no
+ * operand stack and no boxing. Results and errors match the {@code Evaluator}, including which
+ * error is reported first.
+ */
+public final class ArenaEvaluator {
+
+  /** Binding array for expressions without variables. */
+  private static final int[] NO_BINDINGS = new int[0];
+
+  /** Reusable per-node results, grown on demand. */
+  private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[64]);
+
+  private ArenaEvaluator() {}
+
+  /**
+   * Evaluates the subtree rooted at {@code root}.
+   *
+   * @param arena the arena holding the tree
+   * @param root index of the subtree's root
+   * @return the integer result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   */
+  public static int evaluate(final AstArena arena, final int root) {
+    return evaluate(arena, root, NO_BINDINGS);
+  }
+
+  /**
+   * Evaluates the subtree rooted at {@code root} with the given variable values.
+   *
+   * @param arena the arena holding the tree
+   * @param root index of the subtree's root
+   * @param bindings variable values, indexed by slot
+   * @return the integer result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow, a
+   *     variable without a binding)
+   */
+  public static int evaluate(final AstArena arena, final int root, final int[] bindings) {
+    final int start = arena.start(root);
+    final byte[] kind = arena.kinds();
+    final int[] left = arena.lefts();
+    final int[] right = arena.rights();
+    final int[] value = arena.values();
+
+    int[] results = SCRATCH.get();
+    if (results.length <= root) {
+      results = new int[Math.max(root + 1, results.length * 2)];
+      SCRATCH.set(results);
+    }
+
+    for (int i = start; i <= root; i++) {
+      switch (kind[i]) {
+        case AstArena.NUMBER -> results[i] = value[i];
+        case AstArena.VARIABLE -> {
+          int slot = value[i];
+          if (slot >= bindings.length) {
+            throw new ValidationException("Unbound variable '" + arena.variableName(slot) + "'");
+          }
+          results[i] = bindings[slot];
+        }
+        case AstArena.NEGATE -> {
+          int v = results[left[i]];
+          if (v == Integer.MIN_VALUE) {
+            throw overflow();
+          }
+          results[i] = -v;
+        }
+        case AstArena.ADD -> {
+          int a = results[left[i]];
+          int b = results[right[i]];
+          int r = a + b;
+          if (((a ^ r) & (b ^ r)) < 0) {
+            throw overflow();
+          }
+          results[i] = r;
+        }
+        case AstArena.SUBTRACT -> {
+          int a = results[left[i]];
+          int b = results[right[i]];
+          int r = a - b;
+          if (((a ^ b) & (a ^ r)) < 0) {
+            throw overflow();
+          }
+          results[i] = r;
+        }
+        case AstArena.MULTIPLY -> {
+          long r = (long) results[left[i]] * results[right[i]];
+          if ((int) r != r) {
+            throw overflow();
+          }
+          results[i] = (int) r;
+        }
+        case AstArena.DIVIDE -> {
+          int a = results[left[i]];
+          int b = results[right[i]];
+          if (b == 0) {
+            throw new ValidationException("Division by zero");
+          }
+          if (a == Integer.MIN_VALUE && b == -1) {
+            throw overflow();
+          }
+          results[i] = a / b;
+        }
+        default -> throw new IllegalStateException("Unknown node kind " + kind[i]);
+      }
+    }
+
+    return results[root];
+  }
+
+  private static ValidationException overflow() {
+    return new ValidationException("Integer overflow in expression");
+  }
+}
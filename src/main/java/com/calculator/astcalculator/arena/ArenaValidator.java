@@ -0,0 +1,32 @@
+package com.calculator.astcalculator.arena;
+
+import com.calculator.astcalculator.exception.ValidationException;
+
+/**
+ * {@link com.calculator.astcalculator.Validator} for trees stored in an {@link AstArena}.
+ *
+ * <p>Reports the same errors, in the same order, by scanning the subtree's index range once.
+ */
+public final class ArenaValidator {
+
+  private ArenaValidator() {}
+
+  /**
+   * Validates the subtree rooted at {@code root}.
+   *
+   * @param arena the arena holding the tree
+   * @param root index of the subtree's root
+   * @throws ValidationException if a literal zero is used as a divisor
+   */
+  public static void validate(final AstArena arena, final int root) {
+    final byte[] kind = arena.kinds();
+    final int[] right = arena.rights();
+    final int[] value = arena.values();
+
+    for (int i = arena.start(root); i <= root; i++) {
+      if (kind[i] == AstArena.DIVIDE && kind[right[i]] == AstArena.NUMBER && value[right[i]] == 0) {
+        throw new ValidationException("Division by zero detected in expression");
+      }
+    }
+  }
+}
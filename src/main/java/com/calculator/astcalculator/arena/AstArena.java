@@ -0,0 +1,390 @@
+package com.calculator.astcalculator.arena;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.util.Arrays;
+
+/**
+ * AST nodes stored as rows of parallel primitive arrays instead of one heap object per node.
+ *
+ * <p>A node is an index into {@code kind}, {@code left}, {@code right} and {@code value}. Nodes are
+ * appended in post-order — operands before their operator, left operand before right — so every
+ * subtree occupies a contiguous range of indexes ending at its root, and {@link ArenaEvaluator} and
+ * {@link ArenaValidator} are single forward scans over that range. The append methods reject
+ * anything that would break this layout.
+ *
+ * <p>An arena is reused by calling {@link #reset()}, which keeps the arrays, so a thread that
+ * repeatedly converts and evaluates expressions stops allocating once the arrays are large enough;
+ * {@link #forCurrentThread()} hands out one such arena per thread. Instances are not thread-safe.
+ */
+public final class AstArena {
+
+  /** Kind of a numeric literal; {@code value} holds the number. */
+  public static final byte NUMBER = 0;
+
+  /** Kind of a variable reference; {@code value} holds the slot. */
+  public static final byte VARIABLE = 1;
+
+  /** Kind of a unary minus; {@code left} holds the operand. */
+  public static final byte NEGATE = 2;
+
+  /** Kind of an addition. */
+  public static final byte ADD = 3;
+
+  /** Kind of a subtraction. */
+  public static final byte SUBTRACT = 4;
+
+  /** Kind of a multiplication. */
+  public static final byte MULTIPLY = 5;
+
+  /** Kind of a division. */
+  public static final byte DIVIDE = 6;
+
+  /** Per-thread arena handed out by {@link #forCurrentThread()}. */
+  private static final ThreadLocal<AstArena> CURRENT = ThreadLocal.withInitial(AstArena::new);
+
+  /** Node kinds. */
+  private byte[] kind;
+
+  /** Left operand (or the only operand) of each operator node; {@code -1} for leaves. */
+  private int[] left;
+
+  /** Right operand of each binary node; {@code -1} otherwise. */
+  private int[] right;
+
+  /** Literal value or variable slot of each leaf; {@code 0} otherwise. */
+  private int[] value;
+
+  /** Number of nodes in use. */
+  private int size;
+
+  /** Variable names, indexed by slot. */
+  private String[] names = new String[4];
+
+  /** Work stack of {@link #add(AstNode)}, kept for reuse. */
+  private AstNode[] pending = new AstNode[16];
+
+  /** Whether the matching {@link #pending} node's operands have been appended. */
+  private boolean[] operandsDone = new boolean[16];
+
+  /** Creates an empty arena with a small initial capacity. */
+  public AstArena() {
+    this(64);
+  }
+
+  /**
+   * Creates an empty arena.
+   *
+   * @param capacity the number of nodes to allocate room for; must be positive
+   */
+  public AstArena(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    kind = new byte[capacity];
+    left = new int[capacity];
+    right = new int[capacity];
+    value = new int[capacity];
+  }
+
+  /**
+   * Returns this thread's arena, emptied.
+   *
+   * <p>The arena is shared by everything running on the thread, so its contents are only valid
+   * until the next call.
+   *
+   * @return the calling thread's arena, after {@link #reset()}
+   */
+  public static AstArena forCurrentThread() {
+    AstArena arena = CURRENT.get();
+    arena.reset();
+    return arena;
+  }
+
+  /** Removes every node, keeping the allocated arrays for reuse. */
+  public void reset() {
+    size = 0;
+    Arrays.fill(names, null);
+  }
+
+  /**
+   * @return the number of nodes.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Appends a numeric literal.
+   *
+   * @param number the value
+   * @return the new node's index
+   */
+  public int number(final int number) {
+    return append(NUMBER, -1, -1, number);
+  }
+
+  /**
+   * Appends a variable reference.
+   *
+   * @param name the variable name
+   * @param slot index of the variable's value in the binding array
+   * @return the new node's index
+   * @throws IllegalArgumentException if {@code slot} is negative or already named differently
+   */
+  public int variable(final String name, final int slot) {
+    if (slot < 0) {
+      throw new IllegalArgumentException("Slot must not be negative: " + slot);
+    }
+    if (slot >= names.length) {
+      names = Arrays.copyOf(names, Math.max(slot + 1, names.length * 2));
+    }
+    if (names[slot] != null && !names[slot].equals(name)) {
+      throw new IllegalArgumentException(
+          "Slot " + slot + " is already bound to '" + names[slot] + "', not '" + name + "'");
+    }
+    names[slot] = name;
+    return append(VARIABLE, -1, -1, slot);
+  }
+
+  /**
+   * Appends a unary minus over the most recently appended subtree.
+   *
+   * @param operand index of the operand; must be the last node appended
+   * @return the new node's index
+   * @throws IllegalArgumentException if {@code operand} is not the last node
+   */
+  public int negate(final int operand) {
+    if (operand != size - 1) {
+      throw new IllegalArgumentException("Operand must be the last node appended: " + operand);
+    }
+    return append(NEGATE, operand, -1, 0);
+  }
+
+  /**
+   * Appends a binary operation over the two most recently appended subtrees.
+   *
+   * @param operator one of {@link #ADD}, {@link #SUBTRACT}, {@link #MULTIPLY}, {@link #DIVIDE}
+   * @param leftOperand index of the left operand; its subtree must end right before the right one
+   * @param rightOperand index of the right operand; must be the last node appended
+   * @return the new node's index
+   * @throws IllegalArgumentException if the operator or operand indexes are invalid
+   */
+  public int binary(final byte operator, final int leftOperand, final int rightOperand) {
+    if (operator < ADD || operator > DIVIDE) {
+      throw new IllegalArgumentException("Not a binary operator: " + operator);
+    }
+    if (rightOperand != size - 1 || leftOperand != start(rightOperand) - 1) {
+      throw new IllegalArgumentException(
+          "Operands " + leftOperand + " and " + rightOperand + " are not the last two subtrees");
+    }
+    return append(operator, leftOperand, rightOperand, 0);
+  }
+
+  /**
+   * Appends a copy of an AST.
+   *
+   * @param root the root of the tree to copy
+   * @return the index of the copied root
+   * @throws InvalidExpressionException if the tree holds a {@link WideNumberNode}
+   */
+  public int add(final AstNode root) {
+    // Same post-order walk as AstFolder#fold, with the work stack kept between calls and no boxing.
+    int top = 0;
+    pending = grow(pending, 1);
+    pending[top++] = root;
+    operandsDone = grow(operandsDone, 1);
+    operandsDone[0] = false;
+
+    while (top > 0) {
+      AstNode node = pending[--top];
+      boolean ready = operandsDone[top];
+      pending[top] = null;
+
+      if (!ready && (node instanceof BinaryOpNode || node instanceof UnaryMinusNode)) {
+        pending = grow(pending, top + 3);
+        operandsDone = grow(operandsDone, top + 3);
+        pending[top] = node;
+        operandsDone[top++] = true;
+        if (node instanceof BinaryOpNode binary) {
+          pending[top] = binary.getRight();
+          operandsDone[top++] = false;
+          pending[top] = binary.getLeft();
+          operandsDone[top++] = false;
+        } else {
+          pending[top] = ((UnaryMinusNode) node).getOperand();
+          operandsDone[top++] = false;
+        }
+        continue;
+      }
+
+      switch (node) {
+        case NumberNode number -> number(number.getValue());
+        case WideNumberNode wide ->
+            throw new InvalidExpressionException("Number too large: '" + wide.getValue() + "'");
+        case VariableNode variable -> variable(variable.getName(), variable.getSlot());
+        case UnaryMinusNode unary -> append(NEGATE, size - 1, -1, 0);
+        case BinaryOpNode binary -> {
+          int r = size - 1;
+          append(kindOf(binary.getOperator()), start(r) - 1, r, 0);
+        }
+      }
+    }
+    return size - 1;
+  }
+
+  /**
+   * Rebuilds the subtree rooted at {@code root} as {@link AstNode} objects.
+   *
+   * @param root index of the subtree's root
+   * @return the rebuilt tree
+   */
+  public AstNode toAst(final int root) {
+    checkIndex(root);
+    int start = start(root);
+    AstNode[] nodes = new AstNode[root - start + 1];
+    for (int i = start; i <= root; i++) {
+      nodes[i - start] =
+          switch (kind[i]) {
+            case NUMBER -> NumberNode.of(value[i]);
+            case VARIABLE -> new VariableNode(names[value[i]], value[i]);
+            case NEGATE -> new UnaryMinusNode(nodes[left[i] - start]);
+            default ->
+                new BinaryOpNode(
+                    nodes[left[i] - start], operator(kind[i]), nodes[right[i] - start]);
+          };
+    }
+    return nodes[root - start];
+  }
+
+  /**
+   * @param node a node index
+   * @return the node's kind.
+   */
+  public byte kind(final int node) {
+    checkIndex(node);
+    return kind[node];
+  }
+
+  /**
+   * @param node a node index
+   * @return the node's left (or only) operand, or {@code -1} for leaves.
+   */
+  public int left(final int node) {
+    checkIndex(node);
+    return left[node];
+  }
+
+  /**
+   * @param node a node index
+   * @return the node's right operand, or {@code -1} unless it is a binary node.
+   */
+  public int right(final int node) {
+    checkIndex(node);
+    return right[node];
+  }
+
+  /**
+   * @param node a node index
+   * @return the literal value or variable slot of a leaf, {@code 0} for operator nodes.
+   */
+  public int value(final int node) {
+    checkIndex(node);
+    return value[node];
+  }
+
+  /**
+   * @param slot a variable slot
+   * @return the name of the variable bound to {@code slot}, or {@code null} if none was appended.
+   */
+  public String variableName(final int slot) {
+    return slot < names.length ? names[slot] : null;
+  }
+
+  /**
+   * Returns the first index of the subtree rooted at {@code root}: its leftmost leaf.
+   *
+   * @param root index of the subtree's root
+   * @return the lowest index in the subtree
+   */
+  public int start(final int root) {
+    checkIndex(root);
+    int node = root;
+    while (kind[node] != NUMBER && kind[node] != VARIABLE) {
+      node = left[node];
+    }
+    return node;
+  }
+
+  byte[] kinds() {
+    return kind;
+  }
+
+  int[] lefts() {
+    return left;
+  }
+
+  int[] rights() {
+    return right;
+  }
+
+  int[] values() {
+    return value;
+  }
+
+  private int append(final byte k, final int l, final int r, final int v) {
+    if (size == kind.length) {
+      int capacity = size * 2;
+      kind = Arrays.copyOf(kind, capacity);
+      left = Arrays.copyOf(left, capacity);
+      right = Arrays.copyOf(right, capacity);
+      value = Arrays.copyOf(value, capacity);
+    }
+    kind[size] = k;
+    left[size] = l;
+    right[size] = r;
+    value[size] = v;
+    return size++;
+  }
+
+  private void checkIndex(final int node) {
+    if (node < 0 || node >= size) {
+      throw new IndexOutOfBoundsException("Node " + node + " out of bounds for size " + size);
+    }
+  }
+
+  private static AstNode[] grow(final AstNode[] array, final int length) {
+    return length <= array.length
+        ? array
+        : Arrays.copyOf(array, Math.max(length, array.length * 2));
+  }
+
+  private static boolean[] grow(final boolean[] array, final int length) {
+    return length <= array.length
+        ? array
+        : Arrays.copyOf(array, Math.max(length, array.length * 2));
+  }
+
+  private static byte kindOf(final BinaryOpNode.Operator operator) {
+    return switch (operator) {
+      case ADD -> ADD;
+      case SUBTRACT -> SUBTRACT;
+      case MULTIPLY -> MULTIPLY;
+      case DIVIDE -> DIVIDE;
+    };
+  }
+
+  private static BinaryOpNode.Operator operator(final byte k) {
+    return switch (k) {
+      case ADD -> BinaryOpNode.Operator.ADD;
+      case SUBTRACT -> BinaryOpNode.Operator.SUBTRACT;
+      case MULTIPLY -> BinaryOpNode.Operator.MULTIPLY;
+      default -> BinaryOpNode.Operator.DIVIDE;
+    };
+  }
+}
@@ -0,0 +1,2 @@
+/** Struct-of-arrays AST stored in reusable primitive arrays, and the passes that run on it. */
+package com.calculator.astcalculator.arena;
@@ -0,0 +1,157 @@
+package com.calculator.astcalculator.batch;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.ExpressionCache;
+import com.calculator.astcalculator.exception.CalculatorException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates many independent expressions in parallel on a pluggable {@link Executor}.
+ *
+ * <p>The input is split into contiguous chunks, a few per unit of parallelism, and each chunk runs
+ * as one task that writes its results straight into their final positions. Results therefore come
+ * back in input order. An expression that fails with a {@link CalculatorException} yields a failed
+ * {@link BatchResult} and never affects the rest of the batch.
+ *
+ * <p>Instances are immutable and safe to share; the executor's lifecycle is left to the caller.
+ */
+public final class BatchCalculator {
+
+  /** Chunks per unit of parallelism, so uneven chunks still balance across workers. */
+  private static final int CHUNKS_PER_WORKER = 4;
+
+  /** Runs the chunk tasks. */
+  private final Executor executor;
+
+  /** How many chunks may usefully run at once. */
+  private final int parallelism;
+
+  /** Compiled-expression cache, or {@code null} to compile every expression. */
+  private final ExpressionCache cache;
+
+  /**
+   * Creates a calculator running chunks on {@code executor}.
+   *
+   * @param theExecutor runs the chunk tasks
+   * @param theParallelism how many chunks may usefully run at once; must be positive
+   */
+  public BatchCalculator(final Executor theExecutor, final int theParallelism) {
+    this(theExecutor, theParallelism, null);
+  }
+
+  private BatchCalculator(
+      final Executor theExecutor, final int theParallelism, final ExpressionCache theCache) {
+    if (theParallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive: " + theParallelism);
+    }
+    this.executor = Objects.requireNonNull(theExecutor, "Executor must not be null");
+    this.parallelism = theParallelism;
+    this.cache = theCache;
+  }
+
+  /**
+   * @return a calculator starting one virtual thread per chunk, sized to the available processors.
+   */
+  public static BatchCalculator virtualThreads() {
+    return new BatchCalculator(
+        Thread::startVirtualThread, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @return a calculator running chunks on the common {@link ForkJoinPool}.
+   */
+  public static BatchCalculator forkJoin() {
+    return forkJoin(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param pool the pool to run chunks on
+   * @return a calculator running chunks on {@code pool}, sized to its parallelism.
+   */
+  public static BatchCalculator forkJoin(final ForkJoinPool pool) {
+    return new BatchCalculator(pool, pool.getParallelism());
+  }
+
+  /**
+   * @return a calculator evaluating the whole batch on the calling thread.
+   */
+  public static BatchCalculator callerRuns() {
+    return new BatchCalculator(Runnable::run, 1);
+  }
+
+  /**
+   * @param theCache the cache to compile expressions through
+   * @return a copy of this calculator that reuses compiled expressions from {@code theCache}.
+   */
+  public BatchCalculator withCache(final ExpressionCache theCache) {
+    return new BatchCalculator(
+        executor, parallelism, Objects.requireNonNull(theCache, "Cache must not be null"));
+  }
+
+  /**
+   * Evaluates every expression in the list.
+   *
+   * @param expressions the expressions to evaluate; individual entries may be invalid or null
+   * @return one result per expression, in input order
+   */
+  public List<BatchResult> calculate(final List<String> expressions) {
+    String[] input = expressions.toArray(new String[0]);
+    BatchResult[] results = new BatchResult[input.length];
+    if (input.length == 0) {
+      return List.of();
+    }
+
+    int chunks = Math.min(input.length, parallelism * CHUNKS_PER_WORKER);
+    List<CompletableFuture<Void>> tasks = new ArrayList<>(chunks);
+    for (int c = 0; c < chunks; c++) {
+      int from = (int) ((long) input.length * c / chunks);
+      int to = (int) ((long) input.length * (c + 1) / chunks);
+      tasks.add(CompletableFuture.runAsync(() -> evaluate(input, results, from, to), executor));
+    }
+
+    try {
+      CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      // Only unexpected failures get here; CalculatorExceptions are captured per item.
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Evaluates every expression in the stream.
+   *
+   * @param expressions a finite stream of expressions; individual entries may be invalid or null
+   * @return one result per expression, in encounter order
+   */
+  public List<BatchResult> calculate(final Stream<String> expressions) {
+    return calculate(expressions.toList());
+  }
+
+  private void evaluate(
+      final String[] input, final BatchResult[] results, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      String expression = input[i];
+      try {
+        int value =
+            cache == null
+                ? AstCalculator.calculate(expression)
+                : AstCalculator.calculate(expression, cache);
+        results[i] = BatchResult.success(expression, value);
+      } catch (CalculatorException e) {
+        results[i] = BatchResult.failure(expression, e);
+      }
+    }
+  }
+}
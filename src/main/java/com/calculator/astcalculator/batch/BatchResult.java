@@ -0,0 +1,52 @@
+package com.calculator.astcalculator.batch;
+
+import com.calculator.astcalculator.exception.CalculatorException;
+
+/**
+ * Outcome of one expression in a {@link BatchCalculator} batch: either a value or the error that
+ * {@link com.calculator.astcalculator.AstCalculator#calculate(String)} would have thrown.
+ *
+ * @param expression the expression as submitted
+ * @param value the result; {@code 0} if the expression failed
+ * @param error the failure, or {@code null} on success
+ */
+public record BatchResult(String expression, int value, CalculatorException error) {
+
+  /**
+   * @param expression the expression as submitted
+   * @param value the result
+   * @return a successful result.
+   */
+  static BatchResult success(final String expression, final int value) {
+    return new BatchResult(expression, value, null);
+  }
+
+  /**
+   * @param expression the expression as submitted
+   * @param error the failure
+   * @return a failed result.
+   */
+  static BatchResult failure(final String expression, final CalculatorException error) {
+    return new BatchResult(expression, 0, error);
+  }
+
+  /**
+   * @return whether the expression was evaluated successfully.
+   */
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  /**
+   * Returns the value, or throws the error the expression failed with.
+   *
+   * @return the result of the expression
+   * @throws CalculatorException if the expression failed
+   */
+  public int getOrThrow() {
+    if (error != null) {
+      throw error;
+    }
+    return value;
+  }
+}
@@ -0,0 +1,61 @@
+package com.calculator.astcalculator.batch;
+
+/**
+ * Column-wide arithmetic used by {@link ColumnarEvaluator}.
+ *
+ * <p>Each operation combines the first {@code n} rows of its operand columns, writes the result
+ * into {@code a}, and sets {@code failed[i]} to {@code 1} for every row where the scalar {@link
+ * com.calculator.astcalculator.Evaluator} would have thrown. Rows that already failed may hold any
+ * value.
+ */
+interface ColumnKernels {
+
+  /**
+   * {@code a = -a}.
+   *
+   * @param a operand and result
+   * @param failed per-row failure flags
+   * @param n number of rows
+   */
+  void negate(int[] a, int[] failed, int n);
+
+  /**
+   * {@code a = a + b}.
+   *
+   * @param a left operand and result
+   * @param b right operand
+   * @param failed per-row failure flags
+   * @param n number of rows
+   */
+  void add(int[] a, int[] b, int[] failed, int n);
+
+  /**
+   * {@code a = a - b}.
+   *
+   * @param a left operand and result
+   * @param b right operand
+   * @param failed per-row failure flags
+   * @param n number of rows
+   */
+  void subtract(int[] a, int[] b, int[] failed, int n);
+
+  /**
+   * {@code a = a * b}.
+   *
+   * @param a left operand and result
+   * @param b right operand
+   * @param failed per-row failure flags
+   * @param n number of rows
+   */
+  void multiply(int[] a, int[] b, int[] failed, int n);
+
+  /**
+   * {@code a = a / b}.
+   *
+   * @param a left operand and result
+   * @param b right operand
+   * @param failed per-row failure flags
+   * @param n number of rows
+   */
+  void divide(int[] a, int[] b, int[] failed, int n);
+}
@@ -0,0 +1,141 @@
+package com.calculator.astcalculator.batch;
+
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.bytecode.Opcodes;
+import com.calculator.astcalculator.bytecode.Program;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Evaluates a compiled expression over columns of variable values, one operator at a time.
+ *
+ * <p>Where {@link CompiledExpression#evaluate(int[])} runs the whole program once per row, this
+ * evaluator runs each instruction over a block of rows before moving to the next one. Every
+ * operator becomes a tight, branch-free loop over {@code int[]} registers that the JIT can unroll
+ * and auto-vectorize.
+ *
+ * <p>Overflow and division by zero do not abort the batch. They are flagged per row instead: the
+ * returned bitmap has a bit set for every row that would have thrown {@link ValidationException},
+ * and that row's output is {@code 0}.
+ */
+public final class ColumnarEvaluator {
+
+  /** Rows per block; keeps the working set of registers in L1/L2 cache. */
+  static final int BLOCK = 1024;
+
+  private ColumnarEvaluator() {}
+
+  /**
+   * Evaluates {@code expression} for every row.
+   *
+   * @param expression the compiled expression
+   * @param columns one column per variable, indexed by slot; each at least {@code out.length} long
+   * @param out receives one result per row
+   * @return the rows whose evaluation failed (overflow or division by zero)
+   * @throws ValidationException if there are fewer columns than variables
+   * @throws IllegalArgumentException if a column is shorter than {@code out}
+   */
+  public static BitSet evaluate(
+      final CompiledExpression expression, final int[][] columns, final int[] out) {
+    return evaluate(expression.getProgram(), columns, out);
+  }
+
+  /**
+   * Evaluates {@code program} for every row.
+   *
+   * @param program the compiled program
+   * @param columns one column per variable, indexed by slot; each at least {@code out.length} long
+   * @param out receives one result per row
+   * @return the rows whose evaluation failed (overflow or division by zero)
+   * @throws ValidationException if there are fewer columns than variables
+   * @throws IllegalArgumentException if a column is shorter than {@code out}
+   */
+  public static BitSet evaluate(final Program program, final int[][] columns, final int[] out) {
+    return evaluate(program, columns, out, ScalarKernels.INSTANCE);
+  }
+
+  static BitSet evaluate(
+      final Program program, final int[][] columns, final int[] out, final ColumnKernels kernels) {
+    checkColumns(program, columns, out.length);
+
+    final int[] code = program.getCode();
+    // Temporaries get registers of their own above the operand stack.
+    final int temps = program.getMaxStack();
+    final int[][] registers = new int[Math.max(1, temps + program.getTempCount())][BLOCK];
+    final int[] failed = new int[BLOCK];
+    final BitSet errors = new BitSet();
+
+    for (int base = 0; base < out.length; base += BLOCK) {
+      int n = Math.min(BLOCK, out.length - base);
+      Arrays.fill(failed, 0, n, 0);
+      run(code, columns, base, n, registers, temps, failed, kernels);
+
+      int[] result = registers[0];
+      for (int i = 0; i < n; i++) {
+        if (failed[i] != 0) {
+          errors.set(base + i);
+          result[i] = 0;
+        }
+      }
+      System.arraycopy(result, 0, out, base, n);
+    }
+
+    return errors;
+  }
+
+  static void checkColumns(final Program program, final int[][] columns, final int rows) {
+    if (columns.length < program.getVariableCount()) {
+      throw new ValidationException(
+          "Expected " + program.getVariableCount() + " variable columns, got " + columns.length);
+    }
+    for (int slot = 0; slot < program.getVariableCount(); slot++) {
+      if (columns[slot].length < rows) {
+        throw new IllegalArgumentException(
+            "Column " + slot + " has " + columns[slot].length + " rows, expected " + rows);
+      }
+    }
+  }
+
+  private static void run(
+      final int[] code,
+      final int[][] columns,
+      final int base,
+      final int n,
+      final int[][] registers,
+      final int temps,
+      final int[] failed,
+      final ColumnKernels kernels) {
+    int pc = 0;
+    int sp = 0;
+
+    while (pc < code.length) {
+      switch (code[pc++]) {
+        case Opcodes.PUSH -> Arrays.fill(registers[sp++], 0, n, code[pc++]);
+        case Opcodes.LOAD -> System.arraycopy(columns[code[pc++]], base, registers[sp++], 0, n);
+        case Opcodes.STORE_TEMP ->
+            System.arraycopy(registers[sp - 1], 0, registers[temps + code[pc++]], 0, n);
+        case Opcodes.LOAD_TEMP ->
+            System.arraycopy(registers[temps + code[pc++]], 0, registers[sp++], 0, n);
+        case Opcodes.NEG -> kernels.negate(registers[sp - 1], failed, n);
+        case Opcodes.ADD -> {
+          sp--;
+          kernels.add(registers[sp - 1], registers[sp], failed, n);
+        }
+        case Opcodes.SUB -> {
+          sp--;
+          kernels.subtract(registers[sp - 1], registers[sp], failed, n);
+        }
+        case Opcodes.MUL -> {
+          sp--;
+          kernels.multiply(registers[sp - 1], registers[sp], failed, n);
+        }
+        case Opcodes.DIV -> {
+          sp--;
+          kernels.divide(registers[sp - 1], registers[sp], failed, n);
+        }
+        default -> throw new IllegalStateException("Unknown opcode " + code[pc - 1]);
+      }
+    }
+  }
+}
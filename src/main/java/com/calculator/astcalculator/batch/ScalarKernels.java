@@ -0,0 +1,90 @@
+package com.calculator.astcalculator.batch;
+
+/**
+ * Plain-Java {@link ColumnKernels}.
+ *
+ * <p>The loops are branch-free so the JIT can unroll and auto-vectorize them; the sign-bit tricks
+ * mirror {@link Math#addExact(int, int)} and {@link Math#subtractExact(int, int)}. The static range
+ * variants also finish the tails left over by {@code VectorKernels}.
+ */
+final class ScalarKernels implements ColumnKernels {
+
+  /** Stateless, so shared. */
+  static final ScalarKernels INSTANCE = new ScalarKernels();
+
+  private ScalarKernels() {}
+
+  @Override
+  public void negate(final int[] a, final int[] failed, final int n) {
+    negate(a, failed, 0, n);
+  }
+
+  @Override
+  public void add(final int[] a, final int[] b, final int[] failed, final int n) {
+    add(a, b, failed, 0, n);
+  }
+
+  @Override
+  public void subtract(final int[] a, final int[] b, final int[] failed, final int n) {
+    subtract(a, b, failed, 0, n);
+  }
+
+  @Override
+  public void multiply(final int[] a, final int[] b, final int[] failed, final int n) {
+    multiply(a, b, failed, 0, n);
+  }
+
+  @Override
+  public void divide(final int[] a, final int[] b, final int[] failed, final int n) {
+    divide(a, b, failed, 0, n);
+  }
+
+  static void negate(final int[] a, final int[] failed, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      int v = a[i];
+      failed[i] |= (v & -v) >>> 31;
+      a[i] = -v;
+    }
+  }
+
+  static void add(final int[] a, final int[] b, final int[] failed, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      int x = a[i];
+      int y = b[i];
+      int r = x + y;
+      failed[i] |= ((x ^ r) & (y ^ r)) >>> 31;
+      a[i] = r;
+    }
+  }
+
+  static void subtract(
+      final int[] a, final int[] b, final int[] failed, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      int x = a[i];
+      int y = b[i];
+      int r = x - y;
+      failed[i] |= ((x ^ y) & (x ^ r)) >>> 31;
+      a[i] = r;
+    }
+  }
+
+  static void multiply(
+      final int[] a, final int[] b, final int[] failed, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      long r = (long) a[i] * b[i];
+      failed[i] |= (int) r != r ? 1 : 0;
+      a[i] = (int) r;
+    }
+  }
+
+  static void divide(
+      final int[] a, final int[] b, final int[] failed, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      int x = a[i];
+      int y = b[i];
+      boolean bad = y == 0 || (x == Integer.MIN_VALUE && y == -1);
+      failed[i] |= bad ? 1 : 0;
+      a[i] = bad ? 0 : x / y;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.calculator.astcalculator.batch;
+
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.bytecode.Program;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.BitSet;
+
+/**
+ * Explicitly vectorized variant of {@link ColumnarEvaluator} built on the {@code
+ * jdk.incubator.vector} API.
+ *
+ * <p>The SIMD kernels are opt-in: they are only compiled by the {@code vector} Maven profile and
+ * only used when the JVM was started with {@code --add-modules jdk.incubator.vector}. Otherwise
+ * every call falls back to the scalar {@link ColumnarEvaluator} kernels, with identical results.
+ */
+public final class VectorEvaluator {
+
+  /** Binary name of the SIMD kernels, which are not on the class path in a default build. */
+  private static final String VECTOR_KERNELS =
+      VectorEvaluator.class.getPackageName() + ".VectorKernels";
+
+  /** Kernels to use: SIMD when they and the incubator module are present, scalar otherwise. */
+  private static final ColumnKernels KERNELS = loadKernels();
+
+  private VectorEvaluator() {}
+
+  /**
+   * @return whether SIMD kernels are used, i.e. they were built and the {@code
+   *     jdk.incubator.vector} module is present.
+   */
+  public static boolean isAvailable() {
+    return KERNELS != ScalarKernels.INSTANCE;
+  }
+
+  /**
+   * @return the kernels every call runs with.
+   */
+  static ColumnKernels kernels() {
+    return KERNELS;
+  }
+
+  /**
+   * Evaluates {@code expression} for every row.
+   *
+   * @param expression the compiled expression
+   * @param columns one column per variable, indexed by slot; each at least {@code out.length} long
+   * @param out receives one result per row
+   * @return the rows whose evaluation failed (overflow or division by zero)
+   * @throws ValidationException if there are fewer columns than variables
+   * @throws IllegalArgumentException if a column is shorter than {@code out}
+   * @see ColumnarEvaluator#evaluate(CompiledExpression, int[][], int[])
+   */
+  public static BitSet evaluate(
+      final CompiledExpression expression, final int[][] columns, final int[] out) {
+    return evaluate(expression.getProgram(), columns, out);
+  }
+
+  /**
+   * Evaluates {@code program} for every row.
+   *
+   * @param program the compiled program
+   * @param columns one column per variable, indexed by slot; each at least {@code out.length} long
+   * @param out receives one result per row
+   * @return the rows whose evaluation failed (overflow or division by zero)
+   * @throws ValidationException if there are fewer columns than variables
+   * @throws IllegalArgumentException if a column is shorter than {@code out}
+   * @see ColumnarEvaluator#evaluate(Program, int[][], int[])
+   */
+  public static BitSet evaluate(final Program program, final int[][] columns, final int[] out) {
+    return ColumnarEvaluator.evaluate(program, columns, out, KERNELS);
+  }
+
+  private static ColumnKernels loadKernels() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      return ScalarKernels.INSTANCE;
+    }
+    try {
+      return (ColumnKernels)
+          Class.forName(VECTOR_KERNELS, true, VectorEvaluator.class.getClassLoader())
+              .getDeclaredField("INSTANCE")
+              .get(null);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return ScalarKernels.INSTANCE;
+    }
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Evaluation in bulk: one compiled expression over many rows of input, column at a time, and many
+ * independent expressions in parallel.
+ */
+package com.calculator.astcalculator.batch;
@@ -0,0 +1,124 @@
+package com.calculator.astcalculator.bytecode;
+
+import static com.calculator.astcalculator.bytecode.Opcodes.ADD;
+import static com.calculator.astcalculator.bytecode.Opcodes.DIV;
+import static com.calculator.astcalculator.bytecode.Opcodes.LOAD;
+import static com.calculator.astcalculator.bytecode.Opcodes.LOAD_TEMP;
+import static com.calculator.astcalculator.bytecode.Opcodes.MUL;
+import static com.calculator.astcalculator.bytecode.Opcodes.NEG;
+import static com.calculator.astcalculator.bytecode.Opcodes.PUSH;
+import static com.calculator.astcalculator.bytecode.Opcodes.STORE_TEMP;
+import static com.calculator.astcalculator.bytecode.Opcodes.SUB;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Emits the class file for {@link HiddenClassCompiler}.
+ *
+ * <p>Kept separate so that ASM is only loaded once {@link HiddenClassCompiler#isAvailable()} has
+ * confirmed it is on the classpath.
+ */
+final class AsmCodeGenerator {
+
+  /** Internal name of generated classes; the JVM appends a unique suffix. */
+  private static final String CLASS_NAME =
+      "com/calculator/astcalculator/bytecode/GeneratedExpression";
+
+  /** Internal name of {@link CodegenSupport}. */
+  private static final String SUPPORT = "com/calculator/astcalculator/bytecode/CodegenSupport";
+
+  /** Local variable of the first temporary, after {@code this} and the binding array. */
+  static final int FIRST_TEMP_LOCAL = 2;
+
+  private AsmCodeGenerator() {}
+
+  static byte[] generate(final Program program) {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+    cw.visit(
+        Opcodes.V21,
+        Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+        CLASS_NAME,
+        null,
+        "java/lang/Object",
+        new String[] {"com/calculator/astcalculator/bytecode/ExpressionFunction"});
+
+    MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+    init.visitCode();
+    init.visitVarInsn(Opcodes.ALOAD, 0);
+    init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+    init.visitInsn(Opcodes.RETURN);
+    init.visitMaxs(0, 0);
+    init.visitEnd();
+
+    MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "evaluate", "([I)I", null, null);
+    mv.visitCode();
+    Label start = new Label();
+    Label end = new Label();
+    Label handler = new Label();
+    mv.visitTryCatchBlock(start, end, handler, "java/lang/ArithmeticException");
+    mv.visitLabel(start);
+    emitBody(mv, program.code());
+    mv.visitLabel(end);
+    mv.visitInsn(Opcodes.IRETURN);
+
+    // Math.*Exact throw ArithmeticException; report it the way the Evaluator does.
+    mv.visitLabel(handler);
+    mv.visitMethodInsn(
+        Opcodes.INVOKESTATIC,
+        SUPPORT,
+        "overflow",
+        "(Ljava/lang/ArithmeticException;)"
+            + "Lcom/calculator/astcalculator/exception/ValidationException;",
+        false);
+    mv.visitInsn(Opcodes.ATHROW);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+  private static void emitBody(final MethodVisitor mv, final int[] code) {
+    int pc = 0;
+    while (pc < code.length) {
+      switch (code[pc++]) {
+        case PUSH -> pushInt(mv, code[pc++]);
+        case LOAD -> {
+          mv.visitVarInsn(Opcodes.ALOAD, 1);
+          pushInt(mv, code[pc++]);
+          mv.visitInsn(Opcodes.IALOAD);
+        }
+        case STORE_TEMP -> {
+          mv.visitInsn(Opcodes.DUP);
+          mv.visitVarInsn(Opcodes.ISTORE, FIRST_TEMP_LOCAL + code[pc++]);
+        }
+        case LOAD_TEMP -> mv.visitVarInsn(Opcodes.ILOAD, FIRST_TEMP_LOCAL + code[pc++]);
+        case NEG -> math(mv, "negateExact", "(I)I");
+        case ADD -> math(mv, "addExact", "(II)I");
+        case SUB -> math(mv, "subtractExact", "(II)I");
+        case MUL -> math(mv, "multiplyExact", "(II)I");
+        case DIV -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, SUPPORT, "divide", "(II)I", false);
+        default -> throw new IllegalStateException("Unknown opcode " + code[pc - 1]);
+      }
+    }
+  }
+
+  private static void math(final MethodVisitor mv, final String name, final String descriptor) {
+    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", name, descriptor, false);
+  }
+
+  private static void pushInt(final MethodVisitor mv, final int value) {
+    if (value >= -1 && value <= 5) {
+      mv.visitInsn(Opcodes.ICONST_0 + value);
+    } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.BIPUSH, value);
+    } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.SIPUSH, value);
+    } else {
+      mv.visitLdcInsn(value);
+    }
+  }
+}
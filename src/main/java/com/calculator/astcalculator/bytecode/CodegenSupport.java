@@ -0,0 +1,23 @@
+package com.calculator.astcalculator.bytecode;
+
+import com.calculator.astcalculator.exception.ValidationException;
+
+/** Static helpers called from classes generated by {@link HiddenClassCompiler}. */
+final class CodegenSupport {
+
+  private CodegenSupport() {}
+
+  static int divide(final int left, final int right) {
+    if (right == 0) {
+      throw new ValidationException("Division by zero");
+    }
+    if (left == Integer.MIN_VALUE && right == -1) {
+      throw new ValidationException("Integer overflow in expression");
+    }
+    return left / right;
+  }
+
+  static ValidationException overflow(final ArithmeticException cause) {
+    return new ValidationException("Integer overflow in expression", cause);
+  }
+}
@@ -0,0 +1,20 @@
+package com.calculator.astcalculator.bytecode;
+
+/**
+ * An expression compiled to JVM bytecode.
+ *
+ * <p>Implementations are generated at runtime by {@link HiddenClassCompiler}.
+ */
+@FunctionalInterface
+public interface ExpressionFunction {
+
+  /**
+   * Evaluates the expression.
+   *
+   * @param bindings variable values, indexed by slot; already checked to be long enough
+   * @return the integer result
+   * @throws com.calculator.astcalculator.exception.ValidationException if evaluation fails (e.g.
+   *     division by zero, integer overflow)
+   */
+  int evaluate(int[] bindings);
+}
@@ -0,0 +1,76 @@
+package com.calculator.astcalculator.bytecode;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Compiles a {@link Program} into a JVM hidden class implementing {@link ExpressionFunction}.
+ *
+ * <p>Each instruction becomes straight-line bytecode: {@code +}, {@code -}, {@code *} and unary
+ * minus call {@link Math#addExact(int, int)} and friends, and division calls a checked helper, so
+ * the generated code keeps the overflow and division-by-zero behavior of the {@link Interpreter}.
+ * The JIT can then inline and optimize each expression like hand-written code.
+ *
+ * <p>Bytecode is emitted with ASM, an optional dependency: check {@link #isAvailable()} first.
+ * Hidden classes are not strongly linked to their loader, so they are unloaded once the returned
+ * function is no longer referenced.
+ */
+public final class HiddenClassCompiler {
+
+  /** Stay well under the JVM's 64 KiB limit on method bytecode. */
+  private static final int MAX_CODE_BYTES = 60_000;
+
+  /** Worst-case bytes emitted per program word. */
+  private static final int BYTES_PER_WORD = 3;
+
+  /** Whether ASM is on the classpath. */
+  private static final boolean AVAILABLE = detectAsm();
+
+  private HiddenClassCompiler() {}
+
+  /**
+   * @return whether this compiler can be used, i.e. ASM is on the classpath.
+   */
+  public static boolean isAvailable() {
+    return AVAILABLE;
+  }
+
+  /**
+   * Checks whether a program is small enough to fit in a single JVM method.
+   *
+   * @param program the program
+   * @return whether {@link #compile(Program)} accepts it
+   */
+  public static boolean canCompile(final Program program) {
+    return AVAILABLE && (long) program.code().length * BYTES_PER_WORD <= MAX_CODE_BYTES;
+  }
+
+  /**
+   * Compiles a program into a hidden class and returns an instance of it.
+   *
+   * @param program the program to compile
+   * @return the generated function
+   * @throws IllegalArgumentException if {@link #canCompile(Program)} is false
+   */
+  public static ExpressionFunction compile(final Program program) {
+    if (!canCompile(program)) {
+      throw new IllegalArgumentException("Program cannot be compiled to a hidden class");
+    }
+    try {
+      MethodHandles.Lookup lookup =
+          MethodHandles.lookup().defineHiddenClass(AsmCodeGenerator.generate(program), true);
+      return (ExpressionFunction) lookup.lookupClass().getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to define generated expression class", e);
+    }
+  }
+
+  private static boolean detectAsm() {
+    try {
+      Class.forName(
+          "org.objectweb.asm.ClassWriter", false, HiddenClassCompiler.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+}
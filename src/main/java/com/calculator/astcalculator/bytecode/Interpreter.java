@@ -0,0 +1,161 @@
+package com.calculator.astcalculator.bytecode;
+
+import com.calculator.astcalculator.exception.ValidationException;
+
+/**
+ * Stack machine that runs a {@link Program} over a primitive {@code int} operand stack.
+ *
+ * <p>Arithmetic has the same semantics as {@link com.calculator.astcalculator.Evaluator}: overflow
+ * and division by zero raise {@link ValidationException}. No intermediate value is boxed, and the
+ * operand stack is a per-thread buffer reused across runs. Temporaries live in the same buffer,
+ * just above the operand stack. The buffer grows to at most {@link #MAX_SHARED_STACK} slots; larger
+ * frames are allocated for the one run, so a single huge expression does not leave a large array
+ * behind on every pool thread that ran it.
+ */
+public final class Interpreter {
+
+  /** Binding array for programs without variables. */
+  private static final int[] NO_BINDINGS = new int[0];
+
+  /** Largest frame, in slots, kept in {@link #STACK} between runs. */
+  static final int MAX_SHARED_STACK = 4096;
+
+  /** Reusable operand stack, grown on demand up to {@link #MAX_SHARED_STACK}. */
+  private static final ThreadLocal<int[]> STACK = ThreadLocal.withInitial(() -> new int[64]);
+
+  private Interpreter() {}
+
+  /**
+   * Runs a program using this thread's scratch operand stack.
+   *
+   * @param program the program to run
+   * @return the integer result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow)
+   */
+  public static int execute(final Program program) {
+    return execute(program, NO_BINDINGS);
+  }
+
+  /**
+   * Runs a program with the given variable values, using this thread's scratch operand stack.
+   *
+   * @param program the program to run
+   * @param bindings variable values, indexed by slot
+   * @return the integer result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow, too
+   *     few bindings)
+   */
+  public static int execute(final Program program, final int[] bindings) {
+    int[] stack = STACK.get();
+    int frame = program.getMaxStack() + program.getTempCount();
+    if (stack.length < frame) {
+      if (frame > MAX_SHARED_STACK) {
+        return execute(program, bindings, new int[frame]);
+      }
+      stack = new int[Math.min(MAX_SHARED_STACK, Math.max(frame, stack.length * 2))];
+      STACK.set(stack);
+    }
+    return execute(program, bindings, stack);
+  }
+
+  /**
+   * @return the length of this thread's reusable operand stack.
+   */
+  static int sharedStackLength() {
+    return STACK.get().length;
+  }
+
+  /**
+   * Runs a program on a caller-supplied operand stack.
+   *
+   * @param program the program to run
+   * @param bindings variable values, indexed by slot
+   * @param stack the operand stack, followed by the temporaries; at least {@link
+   *     Program#getMaxStack()} plus {@link Program#getTempCount()} long
+   * @return the integer result
+   * @throws ValidationException if evaluation fails (e.g. division by zero, integer overflow, too
+   *     few bindings)
+   */
+  public static int execute(final Program program, final int[] bindings, final int[] stack) {
+    checkBindings(program, bindings);
+    final int[] code = program.code();
+    final int temps = program.getMaxStack();
+    int pc = 0;
+    int sp = 0;
+
+    while (pc < code.length) {
+      switch (code[pc++]) {
+        case Opcodes.PUSH -> stack[sp++] = code[pc++];
+        case Opcodes.LOAD -> stack[sp++] = bindings[code[pc++]];
+        case Opcodes.STORE_TEMP -> stack[temps + code[pc++]] = stack[sp - 1];
+        case Opcodes.LOAD_TEMP -> stack[sp++] = stack[temps + code[pc++]];
+        case Opcodes.NEG -> {
+          int v = stack[sp - 1];
+          if (v == Integer.MIN_VALUE) {
+            throw overflow();
+          }
+          stack[sp - 1] = -v;
+        }
+        case Opcodes.ADD -> {
+          int b = stack[--sp];
+          int a = stack[sp - 1];
+          int r = a + b;
+          if (((a ^ r) & (b ^ r)) < 0) {
+            throw overflow();
+          }
+          stack[sp - 1] = r;
+        }
+        case Opcodes.SUB -> {
+          int b = stack[--sp];
+          int a = stack[sp - 1];
+          int r = a - b;
+          if (((a ^ b) & (a ^ r)) < 0) {
+            throw overflow();
+          }
+          stack[sp - 1] = r;
+        }
+        case Opcodes.MUL -> {
+          int b = stack[--sp];
+          int a = stack[sp - 1];
+          long r = (long) a * b;
+          if ((int) r != r) {
+            throw overflow();
+          }
+          stack[sp - 1] = (int) r;
+        }
+        case Opcodes.DIV -> {
+          int b = stack[--sp];
+          int a = stack[sp - 1];
+          if (b == 0) {
+            throw new ValidationException("Division by zero");
+          }
+          if (a == Integer.MIN_VALUE && b == -1) {
+            throw overflow();
+          }
+          stack[sp - 1] = a / b;
+        }
+        default -> throw new IllegalStateException("Unknown opcode " + code[pc - 1]);
+      }
+    }
+
+    return stack[0];
+  }
+
+  /**
+   * Checks that a binding array covers every slot a program reads.
+   *
+   * @param program the program
+   * @param bindings the binding array
+   * @throws ValidationException if {@code bindings} is too short
+   */
+  public static void checkBindings(final Program program, final int[] bindings) {
+    if (bindings.length < program.getVariableCount()) {
+      throw new ValidationException(
+          "Expected " + program.getVariableCount() + " variable bindings, got " + bindings.length);
+    }
+  }
+
+  private static ValidationException overflow() {
+    return new ValidationException("Integer overflow in expression");
+  }
+}
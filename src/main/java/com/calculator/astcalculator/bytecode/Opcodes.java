@@ -0,0 +1,43 @@
+package com.calculator.astcalculator.bytecode;
+
+/**
+ * Instruction set of a {@link Program}.
+ *
+ * <p>A program is a flat {@code int[]} in postfix order. Each instruction is one opcode, followed
+ * by an inline operand for {@link #PUSH}, {@link #LOAD}, {@link #STORE_TEMP} and {@link
+ * #LOAD_TEMP}.
+ *
+ * <p>Temporaries hold subexpressions shared after common subexpression elimination: the first
+ * occurrence is computed and stored, later ones reload it.
+ */
+public final class Opcodes {
+
+  private Opcodes() {}
+
+  /** Pushes the following inline operand. */
+  public static final int PUSH = 0;
+
+  /** Negates the top of the stack. */
+  public static final int NEG = 1;
+
+  /** Pops two values and pushes their sum. */
+  public static final int ADD = 2;
+
+  /** Pops two values and pushes their difference. */
+  public static final int SUB = 3;
+
+  /** Pops two values and pushes their product. */
+  public static final int MUL = 4;
+
+  /** Pops two values and pushes their quotient. */
+  public static final int DIV = 5;
+
+  /** Pushes the variable binding whose slot is the following inline operand. */
+  public static final int LOAD = 6;
+
+  /** Copies the top of the stack, without popping it, into the temporary given inline. */
+  public static final int STORE_TEMP = 7;
+
+  /** Pushes the temporary whose index is the following inline operand. */
+  public static final int LOAD_TEMP = 8;
+}
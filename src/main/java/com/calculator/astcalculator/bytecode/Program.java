@@ -0,0 +1,101 @@
+package com.calculator.astcalculator.bytecode;
+
+import java.util.Arrays;
+
+/**
+ * An expression lowered to a flat postfix instruction array.
+ *
+ * <p>Created by {@link ProgramCompiler} and run by {@link Interpreter}. Instances are immutable and
+ * safe to share between threads.
+ *
+ * @see Opcodes
+ */
+public final class Program {
+
+  /** Instructions and inline operands. */
+  private final int[] code;
+
+  /** Maximum operand stack depth reached while running {@link #code}. */
+  private final int maxStack;
+
+  /** Number of binding slots read by {@link Opcodes#LOAD}. */
+  private final int variableCount;
+
+  /** Number of temporaries written by {@link Opcodes#STORE_TEMP}. */
+  private final int tempCount;
+
+  Program(final int[] theCode, final int theMaxStack, final int theVariableCount) {
+    this(theCode, theMaxStack, theVariableCount, 0);
+  }
+
+  Program(
+      final int[] theCode,
+      final int theMaxStack,
+      final int theVariableCount,
+      final int theTempCount) {
+    this.code = theCode;
+    this.maxStack = theMaxStack;
+    this.variableCount = theVariableCount;
+    this.tempCount = theTempCount;
+  }
+
+  /**
+   * Runs the program.
+   *
+   * @return the integer result
+   * @throws com.calculator.astcalculator.exception.ValidationException if evaluation fails (e.g.
+   *     division by zero, integer overflow)
+   */
+  public int execute() {
+    return Interpreter.execute(this);
+  }
+
+  /**
+   * Runs the program with the given variable values.
+   *
+   * @param bindings variable values, indexed by slot
+   * @return the integer result
+   * @throws com.calculator.astcalculator.exception.ValidationException if evaluation fails (e.g.
+   *     division by zero, integer overflow, too few bindings)
+   */
+  public int execute(final int[] bindings) {
+    return Interpreter.execute(this, bindings);
+  }
+
+  /**
+   * @return the maximum operand stack depth needed to run this program.
+   */
+  public int getMaxStack() {
+    return maxStack;
+  }
+
+  /**
+   * @return the minimum length of the binding array.
+   */
+  public int getVariableCount() {
+    return variableCount;
+  }
+
+  /**
+   * @return the number of temporaries holding shared subexpressions.
+   */
+  public int getTempCount() {
+    return tempCount;
+  }
+
+  /**
+   * @return a copy of the instruction array.
+   */
+  public int[] getCode() {
+    return code.clone();
+  }
+
+  int[] code() {
+    return code;
+  }
+
+  @Override
+  public String toString() {
+    return "Program" + Arrays.toString(code);
+  }
+}
@@ -0,0 +1,226 @@
+package com.calculator.astcalculator.bytecode;
+
+import com.calculator.astcalculator.AstFolder;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Lowers an AST into a postfix {@link Program}.
+ *
+ * <p>Instructions are emitted in post-order by {@link AstFolder#fold}, so trees of any depth
+ * compile without recursion.
+ *
+ * <p>With common subexpression elimination, an operator node reached more than once (a subtree
+ * shared by a {@link com.calculator.astcalculator.NodeFactory}) is emitted once and kept in a
+ * temporary, and each later occurrence becomes a {@link Opcodes#LOAD_TEMP}. Post-order guarantees
+ * the first occurrence is computed before any other is reached, and operands are still evaluated
+ * left to right, so results and errors do not change. Compiling is then linear in the number of
+ * distinct nodes rather than in the size of the tree.
+ */
+public final class ProgramCompiler implements AstFolder<Void> {
+
+  /** Instructions emitted so far. */
+  private int[] code = new int[16];
+
+  /** Number of used slots in {@link #code}. */
+  private int length;
+
+  /** Operand stack depth after the instructions emitted so far. */
+  private int depth;
+
+  /** Maximum of {@link #depth} so far. */
+  private int maxDepth;
+
+  /** One past the highest variable slot referenced so far. */
+  private int variableCount;
+
+  /** Number of temporaries allocated so far. */
+  private int tempCount;
+
+  private ProgramCompiler() {}
+
+  /**
+   * Compiles the given AST.
+   *
+   * @param node the root of the AST
+   * @return the compiled program
+   */
+  public static Program compile(final AstNode node) {
+    return compile(node, false);
+  }
+
+  /**
+   * Compiles the given AST, optionally evaluating each shared subtree only once.
+   *
+   * @param node the root of the AST
+   * @param eliminateCommonSubexpressions whether operator nodes reached more than once are stored
+   *     in temporaries instead of being recomputed
+   * @return the compiled program
+   */
+  public static Program compile(final AstNode node, final boolean eliminateCommonSubexpressions) {
+    ProgramCompiler compiler = new ProgramCompiler();
+    if (eliminateCommonSubexpressions) {
+      compiler.emitShared(node, sharedNodes(node));
+    } else {
+      compiler.fold(node);
+    }
+    return new Program(
+        Arrays.copyOf(compiler.code, compiler.length),
+        compiler.maxDepth,
+        compiler.variableCount,
+        compiler.tempCount);
+  }
+
+  /**
+   * Finds the operator nodes reached more than once from the root, visiting every distinct node
+   * once.
+   *
+   * @return those nodes, each mapped to {@code null} until {@link #emitShared} gives it a temporary
+   */
+  private static Map<AstNode, Integer> sharedNodes(final AstNode root) {
+    Map<AstNode, Boolean> seen = new IdentityHashMap<>();
+    Map<AstNode, Integer> shared = new IdentityHashMap<>();
+    ArrayDeque<AstNode> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      AstNode node = pending.pop();
+      switch (node) {
+        case BinaryOpNode binary -> {
+          reach(binary.getLeft(), seen, shared, pending);
+          reach(binary.getRight(), seen, shared, pending);
+        }
+        case UnaryMinusNode unary -> reach(unary.getOperand(), seen, shared, pending);
+        default -> {}
+      }
+    }
+    return shared;
+  }
+
+  private static void reach(
+      final AstNode child,
+      final Map<AstNode, Boolean> seen,
+      final Map<AstNode, Integer> shared,
+      final ArrayDeque<AstNode> pending) {
+    if (child instanceof NumberNode || child instanceof VariableNode) {
+      return; // Reloading a leaf costs as much as recomputing it.
+    }
+    if (seen.put(child, Boolean.TRUE) == null) {
+      pending.push(child);
+    } else {
+      shared.put(child, null);
+    }
+  }
+
+  /**
+   * Emits {@code root} in post-order, storing each node in {@code shared} in a temporary the first
+   * time and reloading it afterwards. The temporary of each node is recorded as its value.
+   */
+  private void emitShared(final AstNode root, final Map<AstNode, Integer> shared) {
+    AstNode[] pending = new AstNode[32];
+    boolean[] combine = new boolean[32];
+    int top = 0;
+    pending[top++] = root;
+    while (top > 0) {
+      AstNode node = pending[--top];
+      boolean operandsDone = combine[top];
+      pending[top] = null;
+
+      if (!operandsDone) {
+        Integer temp = shared.get(node);
+        if (temp != null) {
+          emit(Opcodes.LOAD_TEMP);
+          emit(temp);
+          push();
+          continue;
+        }
+        if (node instanceof BinaryOpNode || node instanceof UnaryMinusNode) {
+          if (top + 3 > pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+            combine = Arrays.copyOf(combine, pending.length);
+          }
+          pending[top] = node;
+          combine[top++] = true;
+          if (node instanceof BinaryOpNode binary) {
+            pending[top] = binary.getRight();
+            combine[top++] = false;
+            pending[top] = binary.getLeft();
+            combine[top++] = false;
+          } else {
+            pending[top] = ((UnaryMinusNode) node).getOperand();
+            combine[top++] = false;
+          }
+          continue;
+        }
+      }
+
+      switch (node) {
+        case NumberNode number -> number(number);
+        case WideNumberNode wide -> wideNumber(wide);
+        case VariableNode variable -> variable(variable);
+        case BinaryOpNode binary -> binaryOp(binary, null, null);
+        case UnaryMinusNode unary -> unaryMinus(unary, null);
+      }
+      if (shared.containsKey(node)) {
+        shared.put(node, tempCount);
+        emit(Opcodes.STORE_TEMP);
+        emit(tempCount++);
+      }
+    }
+  }
+
+  @Override
+  public Void number(final NumberNode node) {
+    emit(Opcodes.PUSH);
+    emit(node.getValue());
+    push();
+    return null;
+  }
+
+  @Override
+  public Void variable(final VariableNode node) {
+    emit(Opcodes.LOAD);
+    emit(node.getSlot());
+    push();
+    variableCount = Math.max(variableCount, node.getSlot() + 1);
+    return null;
+  }
+
+  @Override
+  public Void binaryOp(final BinaryOpNode node, final Void left, final Void right) {
+    emit(
+        switch (node.getOperator()) {
+          case ADD -> Opcodes.ADD;
+          case SUBTRACT -> Opcodes.SUB;
+          case MULTIPLY -> Opcodes.MUL;
+          case DIVIDE -> Opcodes.DIV;
+        });
+    depth--;
+    return null;
+  }
+
+  @Override
+  public Void unaryMinus(final UnaryMinusNode node, final Void operand) {
+    emit(Opcodes.NEG);
+    return null;
+  }
+
+  private void emit(final int word) {
+    if (length == code.length) {
+      code = Arrays.copyOf(code, length * 2);
+    }
+    code[length++] = word;
+  }
+
+  private void push() {
+    depth++;
+    maxDepth = Math.max(maxDepth, depth);
+  }
+}
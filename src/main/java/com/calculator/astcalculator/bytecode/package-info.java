@@ -0,0 +1,2 @@
+/** Flattened postfix form of the AST and the stack machine that runs it. */
+package com.calculator.astcalculator.bytecode;
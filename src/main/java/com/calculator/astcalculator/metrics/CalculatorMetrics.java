@@ -0,0 +1,304 @@
+package com.calculator.astcalculator.metrics;
+
+import com.calculator.astcalculator.exception.CalculatorException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Latency, size and error metrics for calculations run through {@link
+ * com.calculator.astcalculator.AstCalculator#calculate(String, CalculatorMetrics)}.
+ *
+ * <p>Keeps a latency {@link Histogram} per {@link Stage} in nanoseconds, the distributions of token
+ * and AST node counts per expression, and failure counts per exception class. Everything is built
+ * on {@link LongAdder}s, so one instance can be shared by any number of threads.
+ *
+ * <p>Metrics cost nothing unless used: {@link com.calculator.astcalculator.AstCalculator#calculate(
+ * String)} and the other entry points never touch them. {@link #register(String)} publishes an
+ * instance as JMX MXBeans and as a periodic JFR {@link MetricsEvent}.
+ */
+public final class CalculatorMetrics {
+
+  /** JMX domain of the registered MXBeans. */
+  public static final String JMX_DOMAIN = "com.calculator";
+
+  /** Latency per stage, indexed by {@link Stage#ordinal()}. */
+  private final Histogram[] latencies = new Histogram[Stage.values().length];
+
+  /** Tokens per expression. */
+  private final Histogram tokens = new Histogram();
+
+  /** AST nodes per expression. */
+  private final Histogram nodes = new Histogram();
+
+  /** Calculations started. */
+  private final LongAdder calculations = new LongAdder();
+
+  /** Failures per exception class. */
+  private final Map<Class<?>, LongAdder> errors = new ConcurrentHashMap<>();
+
+  /** Object names registered by {@link #register(String)}; empty when not registered. */
+  private final List<ObjectName> registered = new ArrayList<>();
+
+  /** JFR hook installed by {@link #register(String)}, or {@code null}. */
+  private Runnable periodicHook;
+
+  /** Creates metrics with nothing recorded. */
+  public CalculatorMetrics() {
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] = new Histogram();
+    }
+  }
+
+  /**
+   * @param stage the stage
+   * @return the latency of {@code stage}, in nanoseconds.
+   */
+  public Histogram latency(final Stage stage) {
+    return latencies[stage.ordinal()];
+  }
+
+  /**
+   * @return the number of tokens per expression that tokenized.
+   */
+  public Histogram tokens() {
+    return tokens;
+  }
+
+  /**
+   * @return the number of AST nodes per expression that parsed.
+   */
+  public Histogram nodes() {
+    return nodes;
+  }
+
+  /**
+   * @return the number of calculations started.
+   */
+  public long calculations() {
+    return calculations.sum();
+  }
+
+  /**
+   * @return the number of calculations that failed.
+   */
+  public long errors() {
+    long total = 0;
+    for (LongAdder count : errors.values()) {
+      total += count.sum();
+    }
+    return total;
+  }
+
+  /**
+   * @param type an exception class
+   * @return the number of calculations that failed with exactly {@code type}.
+   */
+  public long errors(final Class<? extends CalculatorException> type) {
+    LongAdder count = errors.get(type);
+    return count == null ? 0 : count.sum();
+  }
+
+  /**
+   * @return the number of failures per exception class, by simple name, in name order.
+   */
+  public Map<String, Long> errorsByType() {
+    Map<String, Long> byType = new TreeMap<>();
+    errors.forEach((type, count) -> byType.merge(type.getSimpleName(), count.sum(), Long::sum));
+    return byType;
+  }
+
+  /** Counts a calculation as started. */
+  public void recordCalculation() {
+    calculations.increment();
+  }
+
+  /**
+   * Records the time a stage took.
+   *
+   * @param stage the stage
+   * @param nanos the elapsed time in nanoseconds
+   */
+  public void recordLatency(final Stage stage, final long nanos) {
+    latencies[stage.ordinal()].record(nanos);
+  }
+
+  /**
+   * Records the token count of an expression.
+   *
+   * @param count the number of tokens
+   */
+  public void recordTokens(final int count) {
+    tokens.record(count);
+  }
+
+  /**
+   * Records the AST node count of an expression.
+   *
+   * @param count the number of nodes
+   */
+  public void recordNodes(final int count) {
+    nodes.record(count);
+  }
+
+  /**
+   * Counts a failed calculation.
+   *
+   * @param error the failure
+   */
+  public void recordError(final CalculatorException error) {
+    errors.computeIfAbsent(error.getClass(), type -> new LongAdder()).increment();
+  }
+
+  /**
+   * Publishes these metrics on the platform MBean server and as a periodic JFR {@link
+   * MetricsEvent}.
+   *
+   * <p>Registers a {@link CalculatorMetricsMXBean} as {@code
+   * com.calculator:type=CalculatorMetrics,name=<name>}, and a {@link HistogramMXBean} per stage
+   * ({@code histogram=tokenize}, ...) and for the {@code tokens} and {@code nodes} counts under the
+   * same type and name.
+   *
+   * @param name the name to register under, unique among registered metrics
+   * @throws IllegalArgumentException if {@code name} is not a valid JMX property value
+   * @throws IllegalStateException if these metrics are already registered, or {@code name} is taken
+   */
+  public synchronized void register(final String name) {
+    Objects.requireNonNull(name, "Name must not be null");
+    if (periodicHook != null) {
+      throw new IllegalStateException("Metrics are already registered");
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      String prefix = JMX_DOMAIN + ":type=CalculatorMetrics,name=" + name;
+      registerBean(server, new ObjectName(prefix), new Counters());
+      for (Stage stage : Stage.values()) {
+        registerBean(
+            server,
+            new ObjectName(prefix + ",histogram=" + stage.label()),
+            new HistogramBean(latency(stage)));
+      }
+      registerBean(server, new ObjectName(prefix + ",histogram=tokens"), new HistogramBean(tokens));
+      registerBean(server, new ObjectName(prefix + ",histogram=nodes"), new HistogramBean(nodes));
+    } catch (MalformedObjectNameException e) {
+      unregisterBeans(server);
+      throw new IllegalArgumentException("Invalid metrics name '" + name + "'", e);
+    } catch (JMException e) {
+      unregisterBeans(server);
+      throw new IllegalStateException("Cannot register metrics '" + name + "'", e);
+    }
+
+    periodicHook = () -> emit(name);
+    FlightRecorder.addPeriodicEvent(MetricsEvent.class, periodicHook);
+  }
+
+  /** Removes what {@link #register(String)} published. Does nothing if not registered. */
+  public synchronized void unregister() {
+    if (periodicHook == null) {
+      return;
+    }
+    FlightRecorder.removePeriodicEvent(periodicHook);
+    periodicHook = null;
+    unregisterBeans(ManagementFactory.getPlatformMBeanServer());
+  }
+
+  private void registerBean(final MBeanServer server, final ObjectName name, final Object bean)
+      throws JMException {
+    server.registerMBean(bean, name);
+    registered.add(name);
+  }
+
+  private void unregisterBeans(final MBeanServer server) {
+    for (ObjectName name : registered) {
+      try {
+        server.unregisterMBean(name);
+      } catch (JMException e) {
+        // Already gone.
+      }
+    }
+    registered.clear();
+  }
+
+  private void emit(final String name) {
+    MetricsEvent event = new MetricsEvent();
+    event.name = name;
+    event.calculations = calculations();
+    event.errors = errors();
+    event.tokenizeP99 = latency(Stage.TOKENIZE).percentile(0.99);
+    event.parseP99 = latency(Stage.PARSE).percentile(0.99);
+    event.validateP99 = latency(Stage.VALIDATE).percentile(0.99);
+    event.lowerP99 = latency(Stage.LOWER).percentile(0.99);
+    event.evaluateP99 = latency(Stage.EVALUATE).percentile(0.99);
+    event.tokensP99 = tokens.percentile(0.99);
+    event.nodesP99 = nodes.percentile(0.99);
+    event.commit();
+  }
+
+  /** {@link CalculatorMetricsMXBean} over the enclosing instance. */
+  private final class Counters implements CalculatorMetricsMXBean {
+
+    @Override
+    public long getCalculations() {
+      return calculations();
+    }
+
+    @Override
+    public long getErrors() {
+      return errors();
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByType() {
+      return errorsByType();
+    }
+  }
+
+  /** {@link HistogramMXBean} over one histogram. */
+  private record HistogramBean(Histogram histogram) implements HistogramMXBean {
+
+    @Override
+    public long getCount() {
+      return histogram.count();
+    }
+
+    @Override
+    public double getMean() {
+      return histogram.mean();
+    }
+
+    @Override
+    public long getMax() {
+      return histogram.max();
+    }
+
+    @Override
+    public long getP50() {
+      return histogram.percentile(0.5);
+    }
+
+    @Override
+    public long getP90() {
+      return histogram.percentile(0.9);
+    }
+
+    @Override
+    public long getP99() {
+      return histogram.percentile(0.99);
+    }
+
+    @Override
+    public long getP999() {
+      return histogram.percentile(0.999);
+    }
+  }
+}
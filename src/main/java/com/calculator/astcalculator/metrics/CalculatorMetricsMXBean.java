@@ -0,0 +1,22 @@
+package com.calculator.astcalculator.metrics;
+
+import java.util.Map;
+
+/** JMX view of the counters of a {@link CalculatorMetrics}. */
+public interface CalculatorMetricsMXBean {
+
+  /**
+   * @return the number of calculations started.
+   */
+  long getCalculations();
+
+  /**
+   * @return the number of calculations that failed.
+   */
+  long getErrors();
+
+  /**
+   * @return the number of failures per exception class, by simple name.
+   */
+  Map<String, Long> getErrorsByType();
+}
@@ -0,0 +1,23 @@
+package com.calculator.astcalculator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Tokenizing, parsing and validating (and optionally optimizing and lowering) one expression, from
+ * {@link com.calculator.astcalculator.AstCalculator#compile(String)} and every path that compiles
+ * through it, including {@link com.calculator.astcalculator.AstCalculator#calculate(String)}.
+ */
+@Name(CompileEvent.NAME)
+@Label("Expression Compile")
+@Category("Calculator")
+@Description("Compiling an expression that took longer than the threshold")
+@Threshold("1 ms")
+public final class CompileEvent extends ExpressionEvent {
+
+  /** Event type name, for enabling the event or changing its threshold in a recording. */
+  public static final String NAME = "com.calculator.Compile";
+}
@@ -0,0 +1,23 @@
+package com.calculator.astcalculator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Evaluating one compiled expression, from {@link
+ * com.calculator.astcalculator.CompiledExpression#evaluate(int[])} and every path that evaluates
+ * through it, including {@link com.calculator.astcalculator.AstCalculator#calculate(String)}.
+ */
+@Name(EvaluateEvent.NAME)
+@Label("Expression Evaluate")
+@Category("Calculator")
+@Description("Evaluating an expression that took longer than the threshold")
+@Threshold("1 ms")
+public final class EvaluateEvent extends ExpressionEvent {
+
+  /** Event type name, for enabling the event or changing its threshold in a recording. */
+  public static final String NAME = "com.calculator.Evaluate";
+}
@@ -0,0 +1,196 @@
+package com.calculator.astcalculator.metrics;
+
+import com.calculator.astcalculator.Lexer;
+import com.calculator.astcalculator.Token;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * JFR event for one compile or evaluate call of a single expression, recorded only when it takes
+ * longer than the event's threshold.
+ *
+ * <p>Callers check {@link #isEnabled()} first and skip everything else when no recording wants the
+ * event, so a disabled event costs one check. Otherwise {@link #start()} and {@link #finish} time
+ * the call, and the size of the expression is worked out only once the call turns out to be slow
+ * enough to commit.
+ */
+public abstract class ExpressionEvent extends Event {
+
+  /** Longest prefix of the expression stored in the event. */
+  static final int MAX_EXPRESSION_CHARS = 256;
+
+  /** Per-thread allocation counter, or {@code null} if the JVM has none. */
+  private static final com.sun.management.ThreadMXBean ALLOCATION = allocationCounter();
+
+  /** The expression, truncated to {@link #MAX_EXPRESSION_CHARS} characters. */
+  @Label("Expression")
+  String expression;
+
+  /** Length of the expression in characters. */
+  @Label("Expression Length")
+  int expressionLength;
+
+  /** Number of tokens lexed, not counting the end of input. */
+  @Label("Tokens")
+  int tokenCount;
+
+  /** Longest path from the root of the AST to a leaf, counting both; {@code 0} without an AST. */
+  @Label("AST Depth")
+  int astDepth;
+
+  /**
+   * Number of AST nodes, counting a shared subtree once per place it is used; {@code 0} without an
+   * AST.
+   */
+  @Label("AST Nodes")
+  int nodeCount;
+
+  /**
+   * Number of distinct AST node instances, which is lower than {@link #nodeCount} when subtrees or
+   * literals are shared; {@code 0} without an AST.
+   */
+  @Label("Distinct AST Nodes")
+  int distinctNodeCount;
+
+  /** {@code "OK"}, or the simple name of the exception the call failed with. */
+  @Label("Outcome")
+  String outcome;
+
+  /** Bytes allocated by the calling thread during the call, or {@code -1} if not measurable. */
+  @Label("Allocated")
+  @DataAmount(DataAmount.BYTES)
+  long allocated;
+
+  /** Allocation counter of the calling thread at {@link #start()}. */
+  private transient long allocatedAtStart;
+
+  /** Starts timing the call. */
+  public final void start() {
+    allocatedAtStart = allocatedBytes();
+    begin();
+  }
+
+  /**
+   * Stops timing the call and, if it took longer than the threshold, fills in the event and commits
+   * it.
+   *
+   * @param source the expression text; turned into a {@code String} only if the event is committed
+   * @param ast the AST of the expression, or {@code null} if the call failed before building one
+   * @param error the failure, or {@code null} on success
+   */
+  public final void finish(
+      final CharSequence source, final AstNode ast, final CalculatorException error) {
+    end();
+    long allocatedAtEnd = allocatedBytes();
+    if (!shouldCommit()) {
+      return;
+    }
+    String text = source.toString();
+    expression =
+        text.length() > MAX_EXPRESSION_CHARS ? text.substring(0, MAX_EXPRESSION_CHARS) : text;
+    expressionLength = text.length();
+    tokenCount = countTokens(text);
+    if (ast != null) {
+      measure(ast);
+    }
+    outcome = error == null ? "OK" : error.getClass().getSimpleName();
+    allocated = allocatedAtStart < 0 ? -1 : allocatedAtEnd - allocatedAtStart;
+    commit();
+  }
+
+  /** Lexes {@code source} again, counting tokens up to the end or the first invalid character. */
+  private static int countTokens(final String source) {
+    int count = 0;
+    try {
+      for (Lexer lexer = new Lexer(source); lexer.type() != Token.Type.EOF; lexer.advance()) {
+        count++;
+      }
+    } catch (CalculatorException e) {
+      // Count what was lexed before the failure.
+    }
+    return count;
+  }
+
+  /**
+   * Sets {@link #astDepth}, {@link #nodeCount} and {@link #distinctNodeCount}. Each distinct node
+   * is visited once and its depth and size are remembered, so a tree with shared subtrees (see
+   * {@link com.calculator.astcalculator.NodeFactory}) is measured in time linear in its distinct
+   * nodes.
+   */
+  private void measure(final AstNode root) {
+    // Depth and size of each node measured so far; a missing operand has neither.
+    Map<AstNode, int[]> shapes = new IdentityHashMap<>();
+    int[] none = {0, 0};
+    ArrayDeque<AstNode> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      AstNode node = pending.peek();
+      if (shapes.containsKey(node)) {
+        pending.pop();
+        continue;
+      }
+      AstNode left;
+      AstNode right;
+      switch (node) {
+        case BinaryOpNode binary -> {
+          left = binary.getLeft();
+          right = binary.getRight();
+        }
+        case UnaryMinusNode unary -> {
+          left = unary.getOperand();
+          right = null;
+        }
+        default -> {
+          left = null;
+          right = null;
+        }
+      }
+      int[] leftShape = left == null ? none : shapes.get(left);
+      int[] rightShape = right == null ? none : shapes.get(right);
+      if (leftShape == null || rightShape == null) {
+        if (leftShape == null) {
+          pending.push(left);
+        }
+        if (rightShape == null) {
+          pending.push(right);
+        }
+        continue;
+      }
+      // A hand-built DAG can reuse a subtree often enough to overflow an int.
+      long size = 1L + leftShape[1] + rightShape[1];
+      shapes.put(
+          node,
+          new int[] {
+            1 + Math.max(leftShape[0], rightShape[0]), (int) Math.min(size, Integer.MAX_VALUE)
+          });
+      pending.pop();
+    }
+    astDepth = shapes.get(root)[0];
+    nodeCount = shapes.get(root)[1];
+    distinctNodeCount = shapes.size();
+  }
+
+  private static long allocatedBytes() {
+    return ALLOCATION == null ? -1 : ALLOCATION.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean allocationCounter() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean counter
+        && counter.isThreadAllocatedMemorySupported()
+        && counter.isThreadAllocatedMemoryEnabled()) {
+      return counter;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,157 @@
+package com.calculator.astcalculator.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of non-negative {@code long} values, such as latencies in nanoseconds, in the
+ * log-linear layout of an HDR histogram.
+ *
+ * <p>Values below {@value #SUB_BUCKETS} have a bucket each. Above that, every power of two is split
+ * into {@value #SUB_BUCKETS} equal buckets, so a percentile is reported at most 1/{@value
+ * #SUB_BUCKETS} above the recorded value it stands for, whatever its magnitude. Values of 2<sup>
+ * {@value #MAX_EXPONENT}</sup> and more (about 18 minutes in nanoseconds) share one last bucket.
+ *
+ * <p>Every bucket is a {@link LongAdder}, so threads recording at the same time update different
+ * cells instead of contending on one counter. Reads are not atomic snapshots: a value recorded
+ * during a read may be seen by one statistic and not yet by another.
+ */
+public final class Histogram {
+
+  /** log<sub>2</sub> of {@link #SUB_BUCKETS}. */
+  private static final int SUB_BUCKET_BITS = 4;
+
+  /** Buckets per power of two. */
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** Exponent of the largest power of two with buckets of its own. */
+  static final int MAX_EXPONENT = 39;
+
+  /** Total number of buckets, the last one for values above {@link #MAX_EXPONENT}. */
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS + 1;
+
+  /** Number of values recorded per bucket. */
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+  /** Number of values recorded. */
+  private final LongAdder count = new LongAdder();
+
+  /** Sum of the values recorded. */
+  private final LongAdder sum = new LongAdder();
+
+  /** Largest value recorded. */
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /** Creates an empty histogram. */
+  public Histogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a value. Negative values are recorded as {@code 0}.
+   *
+   * @param value the value
+   */
+  public void record(final long value) {
+    long v = Math.max(value, 0);
+    buckets[bucketOf(v)].increment();
+    count.increment();
+    sum.add(v);
+    max.accumulate(v);
+  }
+
+  /**
+   * @return the number of values recorded.
+   */
+  public long count() {
+    return count.sum();
+  }
+
+  /**
+   * @return the sum of the values recorded.
+   */
+  public long sum() {
+    return sum.sum();
+  }
+
+  /**
+   * @return the mean of the values recorded, or {@code 0} if there are none.
+   */
+  public double mean() {
+    long n = count.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * @return the largest value recorded, or {@code 0} if there are none.
+   */
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value below or at which the given fraction of recorded values fall, rounded up to
+   * the largest value of its bucket and capped at {@link #max()}.
+   *
+   * @param fraction the fraction, from {@code 0} to {@code 1} (e.g. {@code 0.99} for p99)
+   * @return the percentile, or {@code 0} if no values were recorded
+   * @throws IllegalArgumentException if {@code fraction} is outside {@code [0, 1]}
+   */
+  public long percentile(final double fraction) {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+    }
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(fraction * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(i), max());
+      }
+    }
+    return max();
+  }
+
+  /**
+   * @param value a non-negative value
+   * @return the index of the bucket {@code value} is counted in.
+   */
+  static int bucketOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    int shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /**
+   * @param bucket a bucket index
+   * @return the largest value counted in {@code bucket}.
+   */
+  static long highestValueOf(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    if (bucket == BUCKETS - 1) {
+      return Long.MAX_VALUE;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
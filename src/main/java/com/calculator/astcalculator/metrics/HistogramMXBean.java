@@ -0,0 +1,43 @@
+package com.calculator.astcalculator.metrics;
+
+/**
+ * JMX view of a {@link Histogram}, registered by {@link CalculatorMetrics#register(String)} for
+ * each stage latency (in nanoseconds) and for the token and node counts.
+ */
+public interface HistogramMXBean {
+
+  /**
+   * @return the number of values recorded.
+   */
+  long getCount();
+
+  /**
+   * @return the mean value.
+   */
+  double getMean();
+
+  /**
+   * @return the largest value.
+   */
+  long getMax();
+
+  /**
+   * @return the median.
+   */
+  long getP50();
+
+  /**
+   * @return the 90th percentile.
+   */
+  long getP90();
+
+  /**
+   * @return the 99th percentile.
+   */
+  long getP99();
+
+  /**
+   * @return the 99.9th percentile.
+   */
+  long getP999();
+}
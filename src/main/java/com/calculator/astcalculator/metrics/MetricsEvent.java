@@ -0,0 +1,70 @@
+package com.calculator.astcalculator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic JFR snapshot of a {@link CalculatorMetrics} registered with {@link
+ * CalculatorMetrics#register(String)}. Counts are totals since the metrics were created.
+ */
+@Name(MetricsEvent.NAME)
+@Label("Calculator Metrics")
+@Category("Calculator")
+@Description("Calculation counts and per-stage p99 latency of a CalculatorMetrics instance")
+@Period("1 s")
+@StackTrace(false)
+public final class MetricsEvent extends jdk.jfr.Event {
+
+  /** Event type name, for enabling the event in a recording. */
+  public static final String NAME = "com.calculator.Metrics";
+
+  /** Name the metrics were registered under. */
+  @Label("Name")
+  String name;
+
+  /** Calculations started. */
+  @Label("Calculations")
+  long calculations;
+
+  /** Calculations failed. */
+  @Label("Errors")
+  long errors;
+
+  /** p99 of {@link Stage#TOKENIZE}. */
+  @Label("Tokenize p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long tokenizeP99;
+
+  /** p99 of {@link Stage#PARSE}. */
+  @Label("Parse p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long parseP99;
+
+  /** p99 of {@link Stage#VALIDATE}. */
+  @Label("Validate p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long validateP99;
+
+  /** p99 of {@link Stage#LOWER}. */
+  @Label("Lower p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long lowerP99;
+
+  /** p99 of {@link Stage#EVALUATE}. */
+  @Label("Evaluate p99")
+  @Timespan(Timespan.NANOSECONDS)
+  long evaluateP99;
+
+  /** p99 of the token count per expression. */
+  @Label("Tokens p99")
+  long tokensP99;
+
+  /** p99 of the AST node count per expression. */
+  @Label("Nodes p99")
+  long nodesP99;
+}
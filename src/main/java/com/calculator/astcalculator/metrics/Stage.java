@@ -0,0 +1,24 @@
+package com.calculator.astcalculator.metrics;
+
+import java.util.Locale;
+
+/** The stages of {@link com.calculator.astcalculator.AstCalculator#calculate(String)}. */
+public enum Stage {
+  /** Splitting the input into tokens. */
+  TOKENIZE,
+  /** Building the AST from the tokens. */
+  PARSE,
+  /** Static checks on the AST. */
+  VALIDATE,
+  /** Lowering the AST to a {@link com.calculator.astcalculator.bytecode.Program}. */
+  LOWER,
+  /** Running the program to compute the result. */
+  EVALUATE;
+
+  /**
+   * @return the stage name in lower case, as used in JMX object names.
+   */
+  public String label() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,2 @@
+/** Optional per-stage latency, size and error metrics, exposed through JMX and JFR. */
+package com.calculator.astcalculator.metrics;
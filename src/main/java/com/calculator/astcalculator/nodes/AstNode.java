@@ -3,7 +3,8 @@ package com.calculator.astcalculator.nodes;
 import com.calculator.astcalculator.AstVisitor;
 
 /** Base class for all AST nodes. Sealed to ensure exhaustive handling of node types. */
-public abstract sealed class AstNode permits NumberNode, BinaryOpNode, UnaryMinusNode {
+public abstract sealed class AstNode
+    permits NumberNode, WideNumberNode, VariableNode, BinaryOpNode, UnaryMinusNode {
 
   /**
    * Accepts a visitor.
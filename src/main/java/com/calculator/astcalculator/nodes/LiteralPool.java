@@ -0,0 +1,111 @@
+package com.calculator.astcalculator.nodes;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free intern table for number literals outside the range {@link NumberNode#of(int)} caches,
+ * so that every tree built through the same pool shares one node per value.
+ *
+ * <p>The table is open-addressed with a fixed capacity and only ever grows: a value is looked up in
+ * at most {@link #MAX_PROBES} consecutive slots, and a new node claims the first empty one with a
+ * compare-and-set. Readers never wait, and a thread losing a race for a slot simply compares
+ * against the winner's node. Once the slots a value may use are all taken by other values, it gets
+ * a fresh node instead, so the pool never holds more than its capacity however many distinct
+ * literals pass through it.
+ */
+public final class LiteralPool {
+
+  /** Slots examined per lookup before giving up on pooling a value. */
+  static final int MAX_PROBES = 8;
+
+  /** Capacity of {@link #shared()}. */
+  public static final int DEFAULT_CAPACITY = 1 << 14;
+
+  /** Pool used by {@link com.calculator.astcalculator.CompileOptions#internLiterals()}. */
+  private static final LiteralPool SHARED = new LiteralPool(DEFAULT_CAPACITY);
+
+  /** The pooled nodes; {@code null} marks an empty slot. */
+  private final AtomicReferenceArray<NumberNode> slots;
+
+  /** {@code slots.length() - 1}; the length is a power of two. */
+  private final int mask;
+
+  /**
+   * Creates an empty pool.
+   *
+   * @param capacity the maximum number of pooled literals; rounded up to a power of two
+   */
+  public LiteralPool(final int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+    }
+    int length = Math.max(MAX_PROBES, Integer.highestOneBit(capacity - 1) << 1);
+    this.slots = new AtomicReferenceArray<>(length);
+    this.mask = length - 1;
+  }
+
+  /**
+   * @return the process-wide pool, with room for {@link #DEFAULT_CAPACITY} literals.
+   */
+  public static LiteralPool shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the pooled node for {@code value}, pooling a new one if there is room.
+   *
+   * @param value the numeric value
+   * @return a number node for {@code value}; the same instance for every call while it is pooled
+   */
+  public NumberNode number(final int value) {
+    if (value >= NumberNode.CACHE_LOW && value <= NumberNode.CACHE_HIGH) {
+      return NumberNode.of(value);
+    }
+    NumberNode created = null;
+    int index = hash(value) & mask;
+    for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & mask) {
+      NumberNode node = slots.get(index);
+      if (node == null) {
+        if (created == null) {
+          created = new NumberNode(value);
+        }
+        node = slots.compareAndExchange(index, null, created);
+        if (node == null) {
+          return created;
+        }
+      }
+      if (node.getValue() == value) {
+        return node;
+      }
+    }
+    return created != null ? created : new NumberNode(value);
+  }
+
+  /**
+   * @return the number of slots, at least the capacity the pool was created with.
+   */
+  public int capacity() {
+    return slots.length();
+  }
+
+  /**
+   * @return the number of literals pooled so far.
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 0; i < slots.length(); i++) {
+      if (slots.get(i) != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Spreads the bits of {@code value}, so that runs of nearby literals do not share a probe run.
+   */
+  private static int hash(final int value) {
+    int h = value * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -4,6 +4,21 @@ import com.calculator.astcalculator.AstVisitor;
 
 public final class NumberNode extends AstNode {
 
+  /** Smallest value {@link #of(int)} answers from {@link #CACHE}. */
+  static final int CACHE_LOW = -128;
+
+  /** Largest value {@link #of(int)} answers from {@link #CACHE}. */
+  static final int CACHE_HIGH = 1024;
+
+  /** Shared nodes for every value from {@link #CACHE_LOW} to {@link #CACHE_HIGH}. */
+  private static final NumberNode[] CACHE = new NumberNode[CACHE_HIGH - CACHE_LOW + 1];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new NumberNode(CACHE_LOW + i);
+    }
+  }
+
   /** The numeric value. */
   private final int value;
 
@@ -16,6 +31,24 @@ public final class NumberNode extends AstNode {
     this.value = aValue;
   }
 
+  /**
+   * Returns a number node for {@code value}, shared with every other caller for small values.
+   *
+   * <p>Nodes are immutable and compared by identity only where sharing is intended, so one instance
+   * can stand for every occurrence of a common literal such as {@code 0}, {@code 1} or {@code 100},
+   * in any number of trees. Values outside the cached range get a new node; see {@link LiteralPool}
+   * to share those too.
+   *
+   * @param value the numeric value
+   * @return the number node for {@code value}
+   */
+  public static NumberNode of(final int value) {
+    if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+      return CACHE[value - CACHE_LOW];
+    }
+    return new NumberNode(value);
+  }
+
   /**
    * @return the numeric value.
    */
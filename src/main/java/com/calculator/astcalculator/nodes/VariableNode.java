@@ -0,0 +1,46 @@
+package com.calculator.astcalculator.nodes;
+
+import com.calculator.astcalculator.AstVisitor;
+import java.util.Objects;
+
+public final class VariableNode extends AstNode {
+
+  /** The variable name as written in the expression. */
+  private final String name;
+
+  /** Index of the variable's value in the binding array. */
+  private final int slot;
+
+  /**
+   * Creates a variable reference node.
+   *
+   * @param aName the variable name
+   * @param aSlot index of the variable's value in the binding array
+   */
+  public VariableNode(final String aName, final int aSlot) {
+    this.name = Objects.requireNonNull(aName, "Name must not be null");
+    if (aSlot < 0) {
+      throw new IllegalArgumentException("Slot must not be negative: " + aSlot);
+    }
+    this.slot = aSlot;
+  }
+
+  /**
+   * @return the variable name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the index of the variable's value in the binding array.
+   */
+  public int getSlot() {
+    return slot;
+  }
+
+  @Override
+  public <T> T accept(final AstVisitor<T> visitor) {
+    return visitor.visit(this);
+  }
+}
@@ -0,0 +1,59 @@
+package com.calculator.astcalculator.nodes;
+
+import com.calculator.astcalculator.AstVisitor;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A number literal that does not fit in an {@code int}.
+ *
+ * <p>Only the parser of the wider {@link com.calculator.astcalculator.NumericMode}s produces these;
+ * every literal that fits is a {@link NumberNode}. The {@code int} passes reject them through the
+ * default {@link com.calculator.astcalculator.AstFolder#wideNumber(WideNumberNode)}.
+ */
+public final class WideNumberNode extends AstNode {
+
+  /** The numeric value, outside the {@code int} range. */
+  private final BigInteger value;
+
+  /**
+   * Creates a wide number node.
+   *
+   * @param aValue the numeric value
+   * @throws IllegalArgumentException if {@code aValue} fits in an {@code int}; use {@link
+   *     NumberNode} for those
+   */
+  public WideNumberNode(final BigInteger aValue) {
+    Objects.requireNonNull(aValue, "Value must not be null");
+    if (aValue.bitLength() < Integer.SIZE) {
+      throw new IllegalArgumentException("Value fits in an int: " + aValue);
+    }
+    this.value = aValue;
+  }
+
+  /**
+   * Returns a number node for a literal of any size: a shared {@link NumberNode#of(int)} if it fits
+   * in an {@code int}, otherwise a new wide node.
+   *
+   * @param value the numeric value
+   * @return the number node for {@code value}
+   */
+  public static AstNode of(final BigInteger value) {
+    if (value.bitLength() < Integer.SIZE) {
+      return NumberNode.of(value.intValue());
+    }
+    return new WideNumberNode(value);
+  }
+
+  /**
+   * @return the numeric value.
+   */
+  public BigInteger getValue() {
+    return value;
+  }
+
+  @Override
+  public <T> T accept(final AstVisitor<T> visitor) {
+    return visitor.visit(this);
+  }
+}
@@ -0,0 +1,224 @@
+package com.calculator.astcalculator.server;
+
+import com.calculator.astcalculator.ExpressionCache;
+import com.calculator.astcalculator.batch.BatchCalculator;
+import com.calculator.astcalculator.batch.BatchResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP evaluation service built on the JDK's {@code com.sun.net.httpserver}.
+ *
+ * <p>{@code POST /calculate} evaluates the expressions in the request body and answers with one
+ * result per expression, in order:
+ *
+ * <ul>
+ *   <li>Plain text (any content type but JSON): one expression per line. The response has one line
+ *       per expression, the value or {@code error: <message>}, as written by {@link
+ *       com.calculator.astcalculator.FileEvaluator}.
+ *   <li>{@code application/json}: an array of expression strings. The response is an array of
+ *       {@code {"value":n}} and {@code {"error":"message"}} objects.
+ * </ul>
+ *
+ * <p>A single expression is just a batch of one. Failing expressions never fail the request;
+ * malformed JSON is answered with {@code 400}, other methods with {@code 405} and bodies over
+ * {@link #MAX_BODY_BYTES} with {@code 413}.
+ *
+ * <p>Every exchange runs on its own virtual thread, so slow clients never hold up a platform
+ * thread. Responses have a fixed length, so HTTP/1.1 connections stay open across requests. All
+ * requests share one {@link ExpressionCache}, so an expression is compiled once however many
+ * clients send it; expressions past {@link ExpressionCache#maximumLength()} are compiled per
+ * request instead, so large request bodies cannot fill the cache.
+ *
+ * <p>Operators should start the JVM with {@code -Dsun.net.httpserver.nodelay=true} ({@link
+ * #NO_DELAY_PROPERTY}); {@code Main serve} sets it itself. The JDK server writes headers and body
+ * separately, and with Nagle's algorithm the body then waits for the client's delayed ACK, adding
+ * ~40 ms to every kept-alive request. The property applies to every {@code HttpServer} in the JVM
+ * and is read once, when the first one is created, so this class leaves it to the application.
+ */
+public final class CalculatorServer implements AutoCloseable {
+
+  /** Path the service is mounted at. */
+  public static final String PATH = "/calculate";
+
+  /** Largest accepted request body. */
+  public static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+  /** Cache size used by {@link #start(InetSocketAddress)}. */
+  public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+  /** Pending connections the listening socket queues before refusing more. */
+  private static final int BACKLOG = 1024;
+
+  /** Content type of plain-text responses. */
+  private static final String TEXT = "text/plain; charset=utf-8";
+
+  /** Content type of JSON responses. */
+  private static final String JSON = "application/json";
+
+  /**
+   * System property that makes the JDK server set {@code TCP_NODELAY} on its connections; see the
+   * class documentation.
+   */
+  public static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  /** The underlying server. */
+  private final HttpServer http;
+
+  /** Runs one virtual thread per exchange. */
+  private final ExecutorService executor;
+
+  /** Compiled expressions shared by all requests. */
+  private final ExpressionCache cache;
+
+  /** Evaluates each request's batch on the thread handling it, through {@link #cache}. */
+  private final BatchCalculator calculator;
+
+  private CalculatorServer(
+      final HttpServer theHttp, final ExecutorService theExecutor, final ExpressionCache theCache) {
+    this.http = theHttp;
+    this.executor = theExecutor;
+    this.cache = theCache;
+    this.calculator = BatchCalculator.callerRuns().withCache(theCache);
+  }
+
+  /**
+   * Starts a server with a cache of {@link #DEFAULT_CACHE_SIZE} expressions.
+   *
+   * @param address the address to listen on; port {@code 0} picks a free port
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static CalculatorServer start(final InetSocketAddress address) throws IOException {
+    return start(address, new ExpressionCache(DEFAULT_CACHE_SIZE));
+  }
+
+  /**
+   * Starts a server.
+   *
+   * @param address the address to listen on; port {@code 0} picks a free port
+   * @param cache the compiled-expression cache shared by all requests
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static CalculatorServer start(final InetSocketAddress address, final ExpressionCache cache)
+      throws IOException {
+    Objects.requireNonNull(cache, "Cache must not be null");
+    HttpServer http = HttpServer.create(address, BACKLOG);
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    http.setExecutor(executor);
+    CalculatorServer server = new CalculatorServer(http, executor, cache);
+    http.createContext(PATH, server::handle);
+    http.start();
+    return server;
+  }
+
+  /**
+   * @return the address the server is listening on.
+   */
+  public InetSocketAddress getAddress() {
+    return http.getAddress();
+  }
+
+  /**
+   * @return the compiled-expression cache shared by all requests.
+   */
+  public ExpressionCache getCache() {
+    return cache;
+  }
+
+  /** Stops accepting connections, then waits for exchanges in progress to finish. */
+  @Override
+  public void close() {
+    http.stop(0);
+    executor.close();
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("POST")) {
+        exchange.getResponseHeaders().set("Allow", "POST");
+        respond(exchange, 405, TEXT, "Only POST is supported\n");
+        return;
+      }
+      byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+      if (body.length > MAX_BODY_BYTES) {
+        respond(exchange, 413, TEXT, "Request body exceeds " + MAX_BODY_BYTES + " bytes\n");
+        return;
+      }
+
+      String text = new String(body, StandardCharsets.UTF_8);
+      if (isJson(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+        List<String> expressions;
+        try {
+          expressions = Json.parseStringArray(text);
+        } catch (IllegalArgumentException e) {
+          respond(exchange, 400, TEXT, e.getMessage() + "\n");
+          return;
+        }
+        respond(exchange, 200, JSON, Json.results(calculator.calculate(expressions)));
+      } else {
+        respond(exchange, 200, TEXT, lines(calculator.calculate(splitLines(text))));
+      }
+    }
+  }
+
+  private static boolean isJson(final String contentType) {
+    return contentType != null
+        && contentType.toLowerCase(Locale.ROOT).startsWith("application/json");
+  }
+
+  /** Splits on {@code \n}, dropping a trailing {@code \r} per line and a final empty line. */
+  private static List<String> splitLines(final String text) {
+    List<String> lines = new ArrayList<>();
+    int start = 0;
+    while (start < text.length()) {
+      int end = text.indexOf('\n', start);
+      int next = end < 0 ? text.length() : end + 1;
+      if (end < 0) {
+        end = text.length();
+      }
+      if (end > start && text.charAt(end - 1) == '\r') {
+        end--;
+      }
+      lines.add(text.substring(start, end));
+      start = next;
+    }
+    return lines;
+  }
+
+  private static String lines(final List<BatchResult> results) {
+    StringBuilder sb = new StringBuilder(results.size() * 8);
+    for (BatchResult result : results) {
+      if (result.isSuccess()) {
+        sb.append(result.value());
+      } else {
+        sb.append("error: ").append(result.error().getMessage());
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  private static void respond(
+      final HttpExchange exchange, final int status, final String contentType, final String body)
+      throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    // A known length (rather than chunked encoding) lets the connection be reused.
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.calculator.astcalculator.server;
+
+import com.calculator.astcalculator.batch.BatchResult;
+import java.util.ArrayList;
+import java.util.List;
+
+/** The little JSON the server speaks: arrays of strings in, arrays of result objects out. */
+final class Json {
+
+  private Json() {}
+
+  /**
+   * Parses a JSON array whose elements are all strings.
+   *
+   * @param text the JSON text
+   * @return the strings, in order
+   * @throws IllegalArgumentException if {@code text} is not such an array
+   */
+  static List<String> parseStringArray(final String text) {
+    List<String> strings = new ArrayList<>();
+    int pos = skipWhitespace(text, 0);
+    pos = expect(text, pos, '[');
+    pos = skipWhitespace(text, pos);
+    if (pos < text.length() && text.charAt(pos) == ']') {
+      pos++;
+    } else {
+      while (true) {
+        StringBuilder sb = new StringBuilder();
+        pos = parseString(text, skipWhitespace(text, pos), sb);
+        strings.add(sb.toString());
+        pos = skipWhitespace(text, pos);
+        if (pos < text.length() && text.charAt(pos) == ',') {
+          pos++;
+          continue;
+        }
+        pos = expect(text, pos, ']');
+        break;
+      }
+    }
+    if (skipWhitespace(text, pos) != text.length()) {
+      throw new IllegalArgumentException("Unexpected content after JSON array at position " + pos);
+    }
+    return strings;
+  }
+
+  /**
+   * Renders results as a JSON array of {@code {"value":n}} and {@code {"error":"message"}} objects.
+   *
+   * @param results the results, in order
+   * @return the JSON text
+   */
+  static String results(final List<BatchResult> results) {
+    StringBuilder sb = new StringBuilder(results.size() * 16).append('[');
+    for (int i = 0; i < results.size(); i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      BatchResult result = results.get(i);
+      if (result.isSuccess()) {
+        sb.append("{\"value\":").append(result.value()).append('}');
+      } else {
+        sb.append("{\"error\":");
+        appendString(sb, result.error().getMessage());
+        sb.append('}');
+      }
+    }
+    return sb.append("]\n").toString();
+  }
+
+  private static int parseString(final String text, final int start, final StringBuilder out) {
+    int pos = expect(text, start, '"');
+    while (pos < text.length()) {
+      char c = text.charAt(pos++);
+      if (c == '"') {
+        return pos;
+      }
+      if (c < 0x20) {
+        throw new IllegalArgumentException("Unescaped control character at position " + (pos - 1));
+      }
+      if (c != '\\') {
+        out.append(c);
+        continue;
+      }
+      if (pos == text.length()) {
+        break;
+      }
+      char escape = text.charAt(pos++);
+      switch (escape) {
+        case '"', '\\', '/' -> out.append(escape);
+        case 'b' -> out.append('\b');
+        case 'f' -> out.append('\f');
+        case 'n' -> out.append('\n');
+        case 'r' -> out.append('\r');
+        case 't' -> out.append('\t');
+        case 'u' -> {
+          if (pos + 4 > text.length()) {
+            throw new IllegalArgumentException("Truncated \\u escape at position " + (pos - 2));
+          }
+          try {
+            out.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid \\u escape at position " + (pos - 2));
+          }
+          pos += 4;
+        }
+        default ->
+            throw new IllegalArgumentException(
+                "Invalid escape '\\" + escape + "' at position " + (pos - 2));
+      }
+    }
+    throw new IllegalArgumentException("Unterminated string starting at position " + start);
+  }
+
+  private static void appendString(final StringBuilder sb, final String s) {
+    sb.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    sb.append('"');
+  }
+
+  private static int expect(final String text, final int pos, final char c) {
+    if (pos >= text.length() || text.charAt(pos) != c) {
+      throw new IllegalArgumentException("Expected '" + c + "' at position " + pos);
+    }
+    return pos + 1;
+  }
+
+  private static int skipWhitespace(final String text, final int start) {
+    int pos = start;
+    while (pos < text.length()) {
+      char c = text.charAt(pos);
+      if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+}
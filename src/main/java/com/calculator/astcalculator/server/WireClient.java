@@ -0,0 +1,156 @@
+package com.calculator.astcalculator.server;
+
+import com.calculator.astcalculator.batch.BatchResult;
+import com.calculator.astcalculator.exception.CalculatorException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Client for {@link WireServer}. A client holds one connection and is not thread-safe; use one per
+ * thread.
+ *
+ * <p>{@link #evaluate} makes one round trip per expression. {@link #evaluateAll} pipelines: a
+ * virtual thread writes every request while the calling thread reads the responses, so the
+ * connection is never idle waiting for a round trip and neither side can block the other on a full
+ * socket buffer.
+ */
+public final class WireClient implements AutoCloseable {
+
+  /** The connection. */
+  private final SocketChannel channel;
+
+  /** Unread response bytes, in read mode. */
+  private ByteBuffer in = ByteBuffer.allocate(WireProtocol.BUFFER_SIZE).flip();
+
+  /** Requests not yet written, in write mode. */
+  private ByteBuffer out = ByteBuffer.allocate(WireProtocol.BUFFER_SIZE);
+
+  private WireClient(final SocketChannel theChannel) {
+    this.channel = theChannel;
+  }
+
+  /**
+   * Connects to a server.
+   *
+   * @param address the server's address
+   * @return the connected client
+   * @throws IOException if the connection fails
+   */
+  public static WireClient connect(final InetSocketAddress address) throws IOException {
+    SocketChannel channel = SocketChannel.open(address);
+    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    return new WireClient(channel);
+  }
+
+  /**
+   * Evaluates one expression on the server.
+   *
+   * @param expression the expression
+   * @return its value
+   * @throws CalculatorException the exception {@link
+   *     com.calculator.astcalculator.AstCalculator#calculate(String)} would have thrown, of the
+   *     same type and with the same message
+   * @throws IOException if the connection fails
+   */
+  public int evaluate(final String expression) throws IOException {
+    writeRequest(expression);
+    WireProtocol.flush(out, channel);
+    return readResponse(expression).getOrThrow();
+  }
+
+  /**
+   * Evaluates many expressions, sending them all before waiting for the results.
+   *
+   * @param expressions the expressions
+   * @return one result per expression, in order
+   * @throws IOException if the connection fails
+   */
+  public List<BatchResult> evaluateAll(final List<String> expressions) throws IOException {
+    FutureTask<Void> writer =
+        new FutureTask<>(
+            () -> {
+              try {
+                for (String expression : expressions) {
+                  writeRequest(expression);
+                }
+              } catch (RuntimeException e) {
+                channel.close(); // Unblocks the reader.
+                throw e;
+              }
+              WireProtocol.flush(out, channel);
+              return null;
+            });
+    Thread.ofVirtual().start(writer);
+
+    List<BatchResult> results = new ArrayList<>(expressions.size());
+    try {
+      for (String expression : expressions) {
+        results.add(readResponse(expression));
+      }
+    } catch (IOException e) {
+      channel.close(); // Unblocks the writer.
+      try {
+        awaitWriter(writer);
+      } catch (IOException writerFailure) {
+        // Usually just the close above; report the reader's failure instead.
+      }
+      throw e;
+    }
+    awaitWriter(writer);
+    return results;
+  }
+
+  /** Closes the connection. */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** Waits for the writer and rethrows its failure. */
+  private static void awaitWriter(final FutureTask<Void> writer) throws IOException {
+    try {
+      writer.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while sending requests", e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case IOException io -> throw io;
+        case RuntimeException unchecked -> throw unchecked;
+        default -> throw new IOException(e.getCause());
+      }
+    }
+  }
+
+  private void writeRequest(final String expression) throws IOException {
+    byte[] bytes = expression.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > WireProtocol.MAX_FRAME_BYTES) {
+      throw new IllegalArgumentException(
+          "Expression exceeds " + WireProtocol.MAX_FRAME_BYTES + " bytes");
+    }
+    out = WireProtocol.putBytes(out, channel, bytes);
+  }
+
+  private BatchResult readResponse(final String expression) throws IOException {
+    in = WireProtocol.fill(in, channel, 1 + Integer.BYTES);
+    byte status = in.get();
+    int word = in.getInt();
+    if (status == WireProtocol.OK) {
+      return new BatchResult(expression, word, null);
+    }
+    if (word < 0 || word > WireProtocol.MAX_FRAME_BYTES) {
+      throw new IOException("Invalid message length " + word);
+    }
+    in = WireProtocol.fill(in, channel, word);
+    return new BatchResult(
+        expression, 0, WireProtocol.error(status, WireProtocol.getString(in, word)));
+  }
+}
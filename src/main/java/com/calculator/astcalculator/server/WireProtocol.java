@@ -0,0 +1,178 @@
+package com.calculator.astcalculator.server;
+
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frames of the binary protocol spoken by {@link WireServer} and {@link WireClient}. All integers
+ * are big-endian.
+ *
+ * <ul>
+ *   <li>Request: {@code int length}, then {@code length} bytes of UTF-8 expression.
+ *   <li>Response: a status byte, then the {@code int} value if the status is {@link #OK}, otherwise
+ *       {@code int length} and {@code length} bytes of UTF-8 error message.
+ * </ul>
+ *
+ * <p>Responses come back in request order, so a client may send any number of requests before
+ * reading the first response.
+ */
+final class WireProtocol {
+
+  /** Status of a successful evaluation. */
+  static final byte OK = 0;
+
+  /** Status of an {@link InvalidExpressionException}. */
+  static final byte INVALID_EXPRESSION = 1;
+
+  /** Status of a {@link ValidationException}. */
+  static final byte VALIDATION = 2;
+
+  /** Status of any other {@link CalculatorException}. */
+  static final byte ERROR = 3;
+
+  /** Longest accepted expression, in bytes. A longer length prefix closes the connection. */
+  static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+  /** Initial size of the read and write buffers of each connection. */
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private WireProtocol() {}
+
+  /**
+   * @param error the failure
+   * @return the status byte for {@code error}.
+   */
+  static byte status(final CalculatorException error) {
+    return switch (error) {
+      case InvalidExpressionException e -> INVALID_EXPRESSION;
+      case ValidationException e -> VALIDATION;
+      default -> ERROR;
+    };
+  }
+
+  /**
+   * Recreates the exception a failed response stands for.
+   *
+   * @param status the status byte, not {@link #OK}
+   * @param message the error message
+   * @return the exception
+   * @throws IOException if {@code status} is not a known status
+   */
+  static CalculatorException error(final byte status, final String message) throws IOException {
+    return switch (status) {
+      case INVALID_EXPRESSION -> new InvalidExpressionException(message);
+      case VALIDATION -> new ValidationException(message);
+      case ERROR -> new CalculatorException(message);
+      default -> throw new IOException("Unknown response status " + status);
+    };
+  }
+
+  /**
+   * Reads the UTF-8 string of {@code length} bytes at the buffer's position and advances past it.
+   *
+   * @param buffer a heap buffer in read mode
+   * @param length the number of bytes
+   * @return the string
+   */
+  static String getString(final ByteBuffer buffer, final int length) {
+    String s =
+        new String(
+            buffer.array(),
+            buffer.arrayOffset() + buffer.position(),
+            length,
+            StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return s;
+  }
+
+  /**
+   * Appends {@code int length} and {@code bytes} to {@code out}, flushing to the channel or growing
+   * the buffer as needed.
+   *
+   * @param out a buffer in write mode
+   * @param channel the channel to flush to
+   * @param bytes the payload
+   * @return {@code out}, or a larger buffer holding its content if it had to grow
+   * @throws IOException if writing to the channel fails
+   */
+  static ByteBuffer putBytes(final ByteBuffer out, final SocketChannel channel, final byte[] bytes)
+      throws IOException {
+    ByteBuffer buffer = reserve(out, channel, Integer.BYTES + bytes.length);
+    return buffer.putInt(bytes.length).put(bytes);
+  }
+
+  /**
+   * Makes room for {@code size} more bytes in {@code out}, first by flushing it, then by growing
+   * it.
+   *
+   * @param out a buffer in write mode
+   * @param channel the channel to flush to
+   * @param size the bytes needed
+   * @return {@code out}, or a larger buffer holding its content if it had to grow
+   * @throws IOException if writing to the channel fails
+   */
+  static ByteBuffer reserve(final ByteBuffer out, final SocketChannel channel, final int size)
+      throws IOException {
+    if (out.remaining() >= size) {
+      return out;
+    }
+    flush(out, channel);
+    if (out.capacity() >= size) {
+      return out;
+    }
+    return ByteBuffer.allocate(Math.max(size, out.capacity() * 2));
+  }
+
+  /**
+   * Writes everything in {@code out} to the channel and clears it.
+   *
+   * @param out a buffer in write mode
+   * @param channel the channel to write to
+   * @throws IOException if writing fails
+   */
+  static void flush(final ByteBuffer out, final SocketChannel channel) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+
+  /**
+   * Reads from the channel until {@code in} holds at least {@code size} unread bytes.
+   *
+   * @param in a buffer in read mode
+   * @param channel the channel to read from
+   * @param size the bytes needed
+   * @return {@code in}, or a larger buffer holding its unread bytes if it had to grow
+   * @throws EOFException if the channel ends first
+   * @throws IOException if reading fails
+   */
+  static ByteBuffer fill(final ByteBuffer in, final SocketChannel channel, final int size)
+      throws IOException {
+    ByteBuffer buffer = in;
+    if (buffer.remaining() >= size) {
+      return buffer;
+    }
+    if (buffer.capacity() < size) {
+      buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2)).put(buffer).flip();
+    }
+    buffer.compact();
+    try {
+      while (buffer.position() < size) {
+        if (channel.read(buffer) < 0) {
+          throw new EOFException("Connection closed");
+        }
+      }
+    } finally {
+      buffer.flip();
+    }
+    return buffer;
+  }
+}
@@ -0,0 +1,193 @@
+package com.calculator.astcalculator.server;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.ExpressionCache;
+import com.calculator.astcalculator.exception.CalculatorException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Evaluation service speaking the length-prefixed binary protocol of {@link WireProtocol}, for
+ * clients where HTTP parsing and text formatting would cost more than evaluating the expression.
+ * {@link WireClient} is the matching client.
+ *
+ * <p>Every connection is served by its own virtual thread doing blocking reads and writes on a
+ * {@link SocketChannel}. Requests are evaluated in order as they arrive, and responses are
+ * collected in a buffer that is flushed only once no complete request is left to read. A client
+ * that pipelines many requests therefore gets its responses in a few large writes rather than one
+ * small write each. All connections share one {@link ExpressionCache}, which compiles long
+ * expressions without keeping them.
+ *
+ * <p>A length prefix that is negative or above {@link WireProtocol#MAX_FRAME_BYTES} closes the
+ * connection; failing expressions never do.
+ */
+public final class WireServer implements AutoCloseable {
+
+  /** The listening channel. */
+  private final ServerSocketChannel listener;
+
+  /** Runs the accept loop and one virtual thread per connection. */
+  private final ExecutorService executor;
+
+  /** Compiled expressions shared by all connections. */
+  private final ExpressionCache cache;
+
+  /** Open connections, closed by {@link #close()}. */
+  private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+
+  private WireServer(
+      final ServerSocketChannel theListener,
+      final ExecutorService theExecutor,
+      final ExpressionCache theCache) {
+    this.listener = theListener;
+    this.executor = theExecutor;
+    this.cache = theCache;
+  }
+
+  /**
+   * Starts a server with a cache of {@link CalculatorServer#DEFAULT_CACHE_SIZE} expressions.
+   *
+   * @param address the address to listen on; port {@code 0} picks a free port
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static WireServer start(final InetSocketAddress address) throws IOException {
+    return start(address, new ExpressionCache(CalculatorServer.DEFAULT_CACHE_SIZE));
+  }
+
+  /**
+   * Starts a server.
+   *
+   * @param address the address to listen on; port {@code 0} picks a free port
+   * @param cache the compiled-expression cache shared by all connections
+   * @return the running server
+   * @throws IOException if the address cannot be bound
+   */
+  public static WireServer start(final InetSocketAddress address, final ExpressionCache cache)
+      throws IOException {
+    Objects.requireNonNull(cache, "Cache must not be null");
+    ServerSocketChannel listener = ServerSocketChannel.open().bind(address);
+    WireServer server =
+        new WireServer(listener, Executors.newVirtualThreadPerTaskExecutor(), cache);
+    server.executor.execute(server::acceptLoop);
+    return server;
+  }
+
+  /**
+   * @return the address the server is listening on.
+   * @throws IOException if the address cannot be read
+   */
+  public InetSocketAddress getAddress() throws IOException {
+    return (InetSocketAddress) listener.getLocalAddress();
+  }
+
+  /**
+   * @return the compiled-expression cache shared by all connections.
+   */
+  public ExpressionCache getCache() {
+    return cache;
+  }
+
+  /** Stops accepting connections, closes the open ones and waits for their threads to finish. */
+  @Override
+  public void close() {
+    try {
+      listener.close();
+    } catch (IOException e) {
+      // Nothing left to release.
+    }
+    connections.forEach(WireServer::closeQuietly);
+    executor.close();
+  }
+
+  private static void closeQuietly(final SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Already closed by the peer.
+    }
+  }
+
+  private void acceptLoop() {
+    while (listener.isOpen()) {
+      SocketChannel channel;
+      try {
+        channel = listener.accept();
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      } catch (IOException e) {
+        return; // Closed by close().
+      }
+      connections.add(channel);
+      if (!listener.isOpen()) {
+        // close() may have run between accept and add, and missed this connection.
+        closeQuietly(channel);
+        return;
+      }
+      executor.execute(() -> serve(channel));
+    }
+  }
+
+  private void serve(final SocketChannel channel) {
+    ByteBuffer in = ByteBuffer.allocate(WireProtocol.BUFFER_SIZE).flip();
+    ByteBuffer out = ByteBuffer.allocate(WireProtocol.BUFFER_SIZE);
+    try (channel) {
+      while (true) {
+        if (!hasFrame(in)) {
+          // Answer everything evaluated so far before blocking for more requests.
+          if (out.position() > 0) {
+            WireProtocol.flush(out, channel);
+          }
+          in = WireProtocol.fill(in, channel, Integer.BYTES);
+          in = WireProtocol.fill(in, channel, Integer.BYTES + frameLength(in));
+        }
+        int length = frameLength(in);
+        in.position(in.position() + Integer.BYTES);
+        out = respond(WireProtocol.getString(in, length), out, channel);
+      }
+    } catch (IOException e) {
+      // The peer closed the connection, sent a malformed frame, or the server is closing.
+    } finally {
+      connections.remove(channel);
+    }
+  }
+
+  private ByteBuffer respond(
+      final String expression, final ByteBuffer out, final SocketChannel channel)
+      throws IOException {
+    ByteBuffer buffer;
+    try {
+      int value = AstCalculator.calculate(expression, cache);
+      buffer = WireProtocol.reserve(out, channel, 1 + Integer.BYTES);
+      buffer.put(WireProtocol.OK).putInt(value);
+    } catch (CalculatorException e) {
+      byte[] message = Objects.toString(e.getMessage(), "").getBytes(StandardCharsets.UTF_8);
+      buffer = WireProtocol.reserve(out, channel, 1);
+      buffer.put(WireProtocol.status(e));
+      buffer = WireProtocol.putBytes(buffer, channel, message);
+    }
+    return buffer;
+  }
+
+  private static boolean hasFrame(final ByteBuffer in) throws IOException {
+    return in.remaining() >= Integer.BYTES && in.remaining() >= Integer.BYTES + frameLength(in);
+  }
+
+  /** Returns the length prefix at the buffer's position, without consuming it. */
+  private static int frameLength(final ByteBuffer in) throws IOException {
+    int length = in.getInt(in.position());
+    if (length < 0 || length > WireProtocol.MAX_FRAME_BYTES) {
+      throw new IOException("Invalid frame length " + length);
+    }
+    return length;
+  }
+}
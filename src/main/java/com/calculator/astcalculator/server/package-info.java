@@ -0,0 +1,2 @@
+/** HTTP evaluation service over a shared compiled-expression cache. */
+package com.calculator.astcalculator.server;
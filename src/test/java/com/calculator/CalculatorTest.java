@@ -2,6 +2,12 @@ package com.calculator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
 import org.junit.jupiter.api.Test;
 
 class CalculatorTest {
@@ -118,4 +124,172 @@ class CalculatorTest {
   void testMultipleOperations() {
     assertEquals(14, Calculator.calculate("10 + 2 * 3 - 4 / 2"));
   }
+
+  @Test
+  void testErrorMessages() {
+    assertMessage("Expression must not be null or empty", null);
+    assertMessage("Expression must not be null or empty", " \t\n");
+    assertMessage("Expression contains no tokens", "\u0001 \u0002");
+    assertMessage("Missing operand after operator: +", "2 +");
+    assertMessage("Missing operand after operator: 3", "2 3");
+    assertMessage("Missing operand after operator: ^", "2 ^");
+    assertMessage("Invalid number: abc", "2 ^ abc");
+    assertMessage("Unknown operator: ^", "2 ^ 3");
+    assertMessage("Unknown operator: ++", "2 ++ 3");
+    assertMessage("Invalid number: 99999999999", "99999999999 + 1");
+    assertMessage("Invalid number: 2147483648", "2147483648");
+    assertMessage("Invalid number: -", "- 1");
+    assertMessage("Invalid number: 1+", "1+ 2");
+    assertMessage("Division by zero", "1 + 5 / 0");
+  }
+
+  @Test
+  void testWhitespaceAndSigns() {
+    assertEquals(5, Calculator.calculate(" \t2\r\n+\u000B3\f "));
+    assertEquals(5, Calculator.calculate("\u0001 2 + 3 \u0002"));
+    assertEquals(4, Calculator.calculate("+1 + +3"));
+    assertEquals(5, Calculator.calculate("0002 + 003"));
+    assertEquals(Integer.MIN_VALUE, Calculator.calculate("-2147483648"));
+    assertEquals(Integer.MAX_VALUE, Calculator.calculate("2147483647"));
+    // Arabic-Indic digits, as Integer.parseInt accepts them.
+    assertEquals(42, Calculator.calculate("\u0664\u0662"));
+  }
+
+  @Test
+  void testIntWrapAround() {
+    assertEquals(Integer.MIN_VALUE, Calculator.calculate("2147483647 + 1"));
+    assertEquals(Integer.MIN_VALUE, Calculator.calculate("-2147483648 / -1"));
+    // The whole quotient is subtracted: 0 - (MIN_VALUE / 2), not (0 - MIN_VALUE) / 2.
+    assertEquals(1 << 30, Calculator.calculate("0 - -2147483648 / 2"));
+  }
+
+  @Test
+  void testRandomInputMatchesTokenListEvaluation() {
+    Random random = new Random(42);
+    String[] pieces = {
+      "0",
+      "1",
+      "7",
+      "-3",
+      "+2",
+      "10",
+      "2147483647",
+      "-2147483648",
+      "99999999999",
+      "+",
+      "-",
+      "*",
+      "/",
+      "^",
+      "x",
+      "\u0663",
+      " ",
+      "  ",
+      "\t",
+      "\u0001"
+    };
+    for (int i = 0; i < 50_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int n = random.nextInt(10); n >= 0; n--) {
+        sb.append(pieces[random.nextInt(pieces.length)]);
+        if (random.nextInt(4) != 0) {
+          sb.append(' ');
+        }
+      }
+      String expression = sb.toString();
+      String expected = outcome(() -> reference(expression));
+      assertEquals(expected, outcome(() -> Calculator.calculate(expression)), expression);
+      assertEquals(expected, outcome(() -> Calculator.calculate(sb)), expression);
+      byte[] utf8 = expression.getBytes(StandardCharsets.UTF_8);
+      assertEquals(expected, outcome(() -> Calculator.calculate(utf8, 0, utf8.length)), expression);
+    }
+  }
+
+  @Test
+  void testCharSequenceAndByteInputs() {
+    assertEquals(14, Calculator.calculate(new StringBuilder("10 + 2 * 3 - 4 / 2")));
+    byte[] bytes = "xx10 + 2 * 3 - 4 / 2yy".getBytes(StandardCharsets.US_ASCII);
+    assertEquals(14, Calculator.calculate(bytes, 2, bytes.length - 4));
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+    assertEquals(14, Calculator.calculate(direct, 2, bytes.length - 4));
+    assertEquals(bytes.length, direct.position());
+
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> Calculator.calculate(bytes, 0, 8));
+    assertEquals("Invalid number: xx10", ex.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> Calculator.calculate(bytes, 4, 1));
+    assertThrows(IllegalArgumentException.class, () -> Calculator.calculate((CharSequence) null));
+    assertThrows(IllegalArgumentException.class, () -> Calculator.calculate((byte[]) null, 0, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> Calculator.calculate(bytes, 20, 5));
+  }
+
+  private static void assertMessage(final String message, final String expression) {
+    RuntimeException e =
+        assertThrows(RuntimeException.class, () -> Calculator.calculate(expression), expression);
+    assertEquals(message, e.getMessage(), expression);
+  }
+
+  private static String outcome(final IntSupplier calculation) {
+    try {
+      return Integer.toString(calculation.getAsInt());
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+
+  /** The original evaluation over lists of tokens, values and operators. */
+  private static int reference(final String expression) {
+    if (expression == null || expression.isBlank()) {
+      throw new IllegalArgumentException("Expression must not be null or empty");
+    }
+    List<String> tokens = new ArrayList<>();
+    for (String part : expression.trim().split("\\s+")) {
+      if (!part.isEmpty()) {
+        tokens.add(part);
+      }
+    }
+    if (tokens.isEmpty()) {
+      throw new IllegalArgumentException("Expression contains no tokens");
+    }
+
+    List<Integer> values = new ArrayList<>();
+    List<String> ops = new ArrayList<>();
+    values.add(parseNumber(tokens.getFirst()));
+    for (int i = 1; i < tokens.size(); i += 2) {
+      if (i + 1 >= tokens.size()) {
+        throw new IllegalArgumentException("Missing operand after operator: " + tokens.get(i));
+      }
+      String operator = tokens.get(i);
+      int nextValue = parseNumber(tokens.get(i + 1));
+      if (operator.equals("*") || operator.equals("/")) {
+        int left = values.removeLast();
+        if (operator.equals("*")) {
+          values.add(left * nextValue);
+        } else {
+          if (nextValue == 0) {
+            throw new ArithmeticException("Division by zero");
+          }
+          values.add(left / nextValue);
+        }
+      } else if (operator.equals("+") || operator.equals("-")) {
+        ops.add(operator);
+        values.add(nextValue);
+      } else {
+        throw new IllegalArgumentException("Unknown operator: " + operator);
+      }
+    }
+    int result = values.getFirst();
+    for (int i = 0; i < ops.size(); i++) {
+      result = ops.get(i).equals("+") ? result + values.get(i + 1) : result - values.get(i + 1);
+    }
+    return result;
+  }
+
+  private static int parseNumber(final String token) {
+    try {
+      return Integer.parseInt(token);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number: " + token);
+    }
+  }
 }
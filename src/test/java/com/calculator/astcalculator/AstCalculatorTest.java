@@ -5,6 +5,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import com.calculator.astcalculator.exception.CalculatorException;
 import com.calculator.astcalculator.exception.InvalidExpressionException;
 import com.calculator.astcalculator.exception.ValidationException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.IntSupplier;
 import org.junit.jupiter.api.Test;
 
 class AstCalculatorTest {
@@ -293,4 +298,113 @@ class AstCalculatorTest {
     // -(-2147483647) is fine, but -(2147483647 + 1) would overflow during addition
     assertThrows(ValidationException.class, () -> AstCalculator.calculate("-(2147483647 + 1)"));
   }
+
+  // --- Stack safety ---
+
+  @Test
+  void testHundredThousandNestedParentheses() {
+    int depth = 100_000;
+    String expr = "(".repeat(depth) + "7" + ")".repeat(depth);
+    assertEquals(7, AstCalculator.calculate(expr));
+  }
+
+  @Test
+  void testLongUnaryMinusChain() {
+    assertEquals(-1, AstCalculator.calculate("- ".repeat(100_001) + "1"));
+    assertEquals(1, AstCalculator.calculate("-".repeat(100_000) + "1"));
+  }
+
+  @Test
+  void testMillionTermChain() {
+    String expr = "1" + " + 1".repeat(999_999);
+    assertEquals(1_000_000, AstCalculator.calculate(expr));
+  }
+
+  @Test
+  void testDeepTreesThroughEveryPass() {
+    int depth = 50_000;
+    String expr = "(x + ".repeat(depth) + "1" + ")".repeat(depth);
+    CompiledExpression compiled =
+        AstCalculator.compile(expr, CompileOptions.DEFAULT.withOptimize(true));
+    assertEquals(depth * 2 + 1, compiled.evaluate(new int[] {2}));
+    assertEquals(depth * 2 + 1, Evaluator.evaluate(compiled.getAst(), new int[] {2}));
+  }
+
+  @Test
+  void testDepthLimit() {
+    CompileOptions options = CompileOptions.DEFAULT.withMaxDepth(10);
+    assertEquals(
+        1, AstCalculator.compile("(".repeat(10) + "1" + ")".repeat(10), options).evaluate());
+
+    InvalidExpressionException ex =
+        assertThrows(
+            InvalidExpressionException.class,
+            () -> AstCalculator.compile("(".repeat(11) + "1" + ")".repeat(11), options));
+    assertEquals("Expression nested deeper than 10 levels at position 10", ex.getMessage());
+    assertThrows(
+        InvalidExpressionException.class,
+        () -> AstCalculator.compile("-".repeat(11) + "1", options));
+    assertThrows(IllegalArgumentException.class, () -> CompileOptions.DEFAULT.withMaxDepth(0));
+  }
+
+  @Test
+  void testCharSequenceAndByteInputs() {
+    String expr = "2 + 3 * (4 - 1)";
+    assertEquals(11, AstCalculator.calculate(new StringBuilder(expr)));
+    assertEquals(11, AstCalculator.calculate(CharBuffer.wrap("xx" + expr).position(2)));
+
+    byte[] bytes = ("[[" + expr + "]]").getBytes(StandardCharsets.US_ASCII);
+    assertEquals(11, AstCalculator.calculate(bytes, 2, expr.length()));
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).position(1);
+    assertEquals(11, AstCalculator.calculate(direct, 2, expr.length()));
+    assertEquals(1, direct.position());
+
+    // Error positions are relative to the start of the range.
+    InvalidExpressionException ex =
+        assertThrows(
+            InvalidExpressionException.class,
+            () -> AstCalculator.calculate("..1 $".getBytes(StandardCharsets.US_ASCII), 2, 3));
+    assertEquals("Unexpected character '$' at position 2", ex.getMessage());
+
+    // Non-ASCII bytes are decoded as UTF-8.
+    byte[] arabic = "\u0664\u0662 + 1".getBytes(StandardCharsets.UTF_8);
+    assertEquals(43, AstCalculator.calculate(arabic, 0, arabic.length));
+
+    assertThrows(InvalidExpressionException.class, () -> AstCalculator.calculate(bytes, 0, 0));
+    assertThrows(
+        InvalidExpressionException.class, () -> AstCalculator.calculate((CharSequence) null));
+    assertThrows(
+        InvalidExpressionException.class, () -> AstCalculator.calculate((byte[]) null, 0, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> AstCalculator.calculate(bytes, 2, 99));
+    assertThrows(IndexOutOfBoundsException.class, () -> AstCalculator.calculate(direct, -1, 2));
+  }
+
+  @Test
+  void testInputOverloadsMatchString() {
+    Random random = new Random(42);
+    String alphabet = "0123456789+-*/()  \tx$\u0663\u00e9";
+    for (int i = 0; i < 20_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int n = random.nextInt(14); n >= 0; n--) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      String expr = sb.toString();
+      byte[] utf8 = ("#" + expr + "#").getBytes(StandardCharsets.UTF_8);
+      int length = utf8.length - 2;
+      ByteBuffer direct = ByteBuffer.allocateDirect(utf8.length).put(utf8);
+
+      String expected = outcome(() -> AstCalculator.calculate(expr));
+      assertEquals(expected, outcome(() -> AstCalculator.calculate(sb)), expr);
+      assertEquals(expected, outcome(() -> AstCalculator.calculate(utf8, 1, length)), expr);
+      assertEquals(expected, outcome(() -> AstCalculator.calculate(direct, 1, length)), expr);
+    }
+  }
+
+  private static String outcome(final IntSupplier calculation) {
+    try {
+      return Integer.toString(calculation.getAsInt());
+    } catch (CalculatorException e) {
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
 }
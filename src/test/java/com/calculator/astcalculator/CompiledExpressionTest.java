@@ -0,0 +1,160 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class CompiledExpressionTest {
+
+  @Test
+  void testEvaluateMatchesCalculate() {
+    String expr = "(10 + 2) * 3 - (4 + 2) * (7 - 4) + 3";
+    CompiledExpression compiled = AstCalculator.compile(expr);
+    assertEquals(AstCalculator.calculate(expr), compiled.evaluate());
+    assertEquals(expr, compiled.getSource());
+  }
+
+  @Test
+  void testRepeatedEvaluation() {
+    CompiledExpression compiled = AstCalculator.compile("-(2 + 3) * -(1 + 1)");
+    for (int i = 0; i < 1_000; i++) {
+      assertEquals(10, compiled.evaluate());
+    }
+  }
+
+  @Test
+  void testCompileRejectsInvalidInput() {
+    assertThrows(InvalidExpressionException.class, () -> AstCalculator.compile(null));
+    assertThrows(InvalidExpressionException.class, () -> AstCalculator.compile("  "));
+    assertThrows(InvalidExpressionException.class, () -> AstCalculator.compile("(2 + 3"));
+  }
+
+  @Test
+  void testCompileRunsValidator() {
+    assertThrows(ValidationException.class, () -> AstCalculator.compile("10 / 0"));
+  }
+
+  @Test
+  void testDynamicErrorsSurfaceOnEvaluate() {
+    CompiledExpression compiled = AstCalculator.compile("10 / (5 - 5)");
+    assertThrows(ValidationException.class, compiled::evaluate);
+    assertThrows(ValidationException.class, compiled::evaluate);
+  }
+
+  @Test
+  void testVariablesAreResolvedToSlots() {
+    CompiledExpression compiled = AstCalculator.compile("b * a + b");
+    assertEquals(List.of("b", "a"), compiled.getVariables());
+    assertEquals(0, compiled.slotOf("b"));
+    assertEquals(1, compiled.slotOf("a"));
+    assertEquals(-1, compiled.slotOf("c"));
+  }
+
+  @Test
+  void testEvaluateWithBindings() {
+    CompiledExpression compiled = AstCalculator.compile("price * qty - discount");
+    int[] row = new int[compiled.getVariables().size()];
+    for (int qty = 0; qty < 10; qty++) {
+      row[0] = 25;
+      row[1] = qty;
+      row[2] = 3;
+      assertEquals(25 * qty - 3, compiled.evaluate(row));
+    }
+  }
+
+  @Test
+  void testEvaluateWithBindingsOnHiddenClassBackend() {
+    CompiledExpression compiled = AstCalculator.compile("-(x + 1) * y_2 / x", Backend.HIDDEN_CLASS);
+    assertEquals(Backend.HIDDEN_CLASS, compiled.getBackend());
+    assertEquals(-9, compiled.evaluate(new int[] {2, 6}));
+    assertThrows(ValidationException.class, () -> compiled.evaluate(new int[] {0, 6}));
+  }
+
+  @Test
+  void testCommonSubexpressionElimination() {
+    String expression = "(a + b) * (a + b) + (a + b) * (a + b) * 0 - (a - b) / (a + b)";
+    CompiledExpression plain = AstCalculator.compile(expression);
+    for (boolean optimize : new boolean[] {false, true}) {
+      CompileOptions options = CompileOptions.DEFAULT.withCse(true).withOptimize(optimize);
+      CompiledExpression shared = AstCalculator.compile(expression, options);
+      assertTrue(shared.getProgram().getTempCount() > 0, "optimize " + optimize);
+      assertEquals(plain.getVariables(), shared.getVariables());
+      for (int a = -3; a <= 3; a++) {
+        int[] row = {a, 2};
+        if (a == -2) {
+          assertThrows(ValidationException.class, () -> shared.evaluate(row));
+        } else {
+          assertEquals(plain.evaluate(row), shared.evaluate(row), "a = " + a);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testMissingBindingsAreRejected() {
+    CompiledExpression compiled = AstCalculator.compile("x + y");
+    assertThrows(ValidationException.class, compiled::evaluate);
+    assertThrows(ValidationException.class, () -> compiled.evaluate(new int[] {1}));
+  }
+
+  @Test
+  void testCalculateStillRejectsVariables() {
+    InvalidExpressionException ex =
+        assertThrows(InvalidExpressionException.class, () -> AstCalculator.calculate("x + 1"));
+    assertTrue(ex.getMessage().contains("Unknown variable 'x'"));
+  }
+
+  @Test
+  void testVisitorsRejectVariablesByDefault() {
+    AstVisitor<Integer> constants =
+        new AstVisitor<>() {
+          @Override
+          public Integer visit(final NumberNode node) {
+            return node.getValue();
+          }
+
+          @Override
+          public Integer visit(final BinaryOpNode node) {
+            return node.getLeft().accept(this) + node.getRight().accept(this);
+          }
+
+          @Override
+          public Integer visit(final UnaryMinusNode node) {
+            return -node.getOperand().accept(this);
+          }
+        };
+    assertEquals(3, AstCalculator.compile("1 + 2").getAst().accept(constants));
+    InvalidExpressionException ex =
+        assertThrows(
+            InvalidExpressionException.class,
+            () -> AstCalculator.compile("1 + x").getAst().accept(constants));
+    assertEquals("Unknown variable 'x'", ex.getMessage());
+  }
+
+  @Test
+  void testSharedAcrossThreads() throws Exception {
+    CompiledExpression compiled = AstCalculator.compile("1 + 2 * 3 - 4 / 2");
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(pool.submit(() -> compiled.evaluate()));
+      }
+      for (Future<Integer> f : futures) {
+        assertEquals(5, f.get());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+class ExpressionCacheTest {
+
+  @Test
+  void testHitReturnsSameCompiledExpression() {
+    ExpressionCache cache = new ExpressionCache(100);
+    CompiledExpression first = cache.get("1 + 2");
+    CompiledExpression second = cache.get("1 + 2");
+
+    assertSame(first, second);
+    assertEquals(1, cache.missCount());
+    assertEquals(1, cache.hitCount());
+  }
+
+  @Test
+  void testCalculateThroughCache() {
+    ExpressionCache cache = new ExpressionCache(100);
+    assertEquals(9, AstCalculator.calculate("(1 + 2) * 3", cache));
+    assertEquals(9, AstCalculator.calculate("(1 + 2) * 3", cache));
+    assertEquals(1, cache.hitCount());
+  }
+
+  @Test
+  void testFailuresAreCached() {
+    ExpressionCache cache = new ExpressionCache(100);
+    assertThrows(InvalidExpressionException.class, () -> cache.get("2 +"));
+    InvalidExpressionException ex =
+        assertThrows(InvalidExpressionException.class, () -> cache.get("2 +"));
+    assertTrue(ex.getMessage().contains("Expected number or '('"));
+    assertThrows(ValidationException.class, () -> cache.get("10 / 0"));
+    assertThrows(ValidationException.class, () -> cache.get("10 / 0"));
+
+    assertEquals(2, cache.missCount());
+    assertEquals(2, cache.hitCount());
+  }
+
+  @Test
+  void testNullIsRejectedWithoutCaching() {
+    ExpressionCache cache = new ExpressionCache(100);
+    assertThrows(InvalidExpressionException.class, () -> cache.get(null));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testLongExpressionsAreNotRetained() {
+    ExpressionCache cache = new ExpressionCache(100);
+    String unfinished = "1 + ".repeat(cache.maximumLength());
+    String unique = unfinished + "1";
+    assertEquals(ExpressionCache.DEFAULT_MAX_LENGTH, cache.maximumLength());
+
+    CompiledExpression first = cache.get(unique);
+    assertEquals(cache.maximumLength() + 1, first.evaluate());
+    assertNotSame(first, cache.get(unique));
+    assertThrows(InvalidExpressionException.class, () -> cache.get(unfinished));
+    assertEquals(0, cache.size());
+    assertEquals(3, cache.missCount());
+    assertEquals(0, cache.hitCount());
+
+    String limit = "1+".repeat(cache.maximumLength() / 2 - 1) + "11";
+    assertSame(cache.get(limit), cache.get(limit));
+    assertEquals(1, cache.size());
+    assertThrows(IllegalArgumentException.class, () -> new ExpressionCache(10, -1));
+  }
+
+  @Test
+  void testSizeIsBounded() {
+    ExpressionCache cache = new ExpressionCache(10);
+    for (int i = 0; i < 1_000; i++) {
+      cache.get(i + " + 1");
+    }
+    assertTrue(cache.size() <= 10);
+    assertEquals(1_000 - cache.size(), cache.evictionCount());
+  }
+
+  @Test
+  void testLeastRecentlyUsedIsEvicted() {
+    ExpressionCache cache = new ExpressionCache(1);
+    CompiledExpression first = cache.get("1");
+    cache.get("2");
+    assertNotSame(first, cache.get("1"));
+    assertEquals(3, cache.missCount());
+  }
+
+  @Test
+  void testRejectsNonPositiveSize() {
+    assertThrows(IllegalArgumentException.class, () -> new ExpressionCache(0));
+  }
+}
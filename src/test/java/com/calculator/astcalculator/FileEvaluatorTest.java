@@ -0,0 +1,180 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.CalculatorException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileEvaluatorTest {
+
+  @TempDir Path dir;
+
+  /** The output {@link FileEvaluator} should produce for one line. */
+  private static String expected(final String line) {
+    try {
+      return String.valueOf(AstCalculator.calculate(line));
+    } catch (CalculatorException e) {
+      return "error: " + e.getMessage();
+    }
+  }
+
+  private static String expectedOutput(final List<String> lines) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : lines) {
+      sb.append(expected(line)).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Evaluates {@code input} memory-mapped, through a channel and in parallel with tiny chunks, and
+   * checks they agree.
+   */
+  private String evaluate(final String input, final long expectedLines) throws IOException {
+    byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    Path in = dir.resolve("in.txt");
+    Path out = dir.resolve("out.txt");
+    Files.write(in, bytes);
+    FileEvaluator.Summary mapped = FileEvaluator.evaluate(in, out);
+    String fromFile = Files.readString(out);
+
+    ByteArrayOutputStream parallelSink = new ByteArrayOutputStream();
+    FileEvaluator.Summary parallel =
+        FileEvaluator.evaluateParallel(
+            in, Channels.newChannel(parallelSink), ForkJoinPool.commonPool(), 64, 3);
+    assertEquals(fromFile, parallelSink.toString(StandardCharsets.UTF_8));
+    assertEquals(mapped, parallel);
+
+    ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    FileEvaluator.Summary streamed =
+        FileEvaluator.evaluate(
+            Channels.newChannel(new ByteArrayInputStream(bytes)), Channels.newChannel(sink));
+    assertEquals(fromFile, sink.toString(StandardCharsets.UTF_8));
+    assertEquals(mapped, streamed);
+    assertEquals(expectedLines, mapped.lines());
+    return fromFile;
+  }
+
+  @Test
+  void testValuesAndErrors() throws IOException {
+    List<String> lines =
+        List.of(
+            "1 + 2",
+            "(2 + 3) * 4",
+            "-2147483647 - 1",
+            "2147483647 + 1",
+            "10 / 0",
+            "10 / (5 - 5)",
+            "2 +",
+            "x * 2",
+            "99999999999",
+            "3 $ 4",
+            "",
+            "   ",
+            "((1)",
+            "1 2",
+            "7 / 2\r");
+    String output = evaluate(String.join("\n", lines) + "\n", lines.size());
+    assertEquals(expectedOutput(lines), output);
+    assertTrue(output.startsWith("3\n20\n-2147483648\nerror: Integer overflow"));
+  }
+
+  @Test
+  void testSummaryCountsFailures() throws IOException {
+    Path in = dir.resolve("in.txt");
+    Files.writeString(in, "1\n1 / 0\n2 *\n4\n");
+    FileEvaluator.Summary summary = FileEvaluator.evaluate(in, dir.resolve("out.txt"));
+    assertEquals(new FileEvaluator.Summary(4, 2), summary);
+  }
+
+  @Test
+  void testLastLineWithoutNewline() throws IOException {
+    assertEquals("3\n7\n", evaluate("1 + 2\n3 + 4", 2));
+  }
+
+  @Test
+  void testEmptyInput() throws IOException {
+    assertEquals("", evaluate("", 0));
+  }
+
+  @Test
+  void testNonAsciiLinesMatchStringSemantics() throws IOException {
+    List<String> lines = List.of("1 + ２", "π * 2", "1 + 2", "3 – 1");
+    assertEquals(expectedOutput(lines), evaluate(String.join("\n", lines), lines.size()));
+  }
+
+  @Test
+  void testLineLongerThanReadBuffer() throws IOException {
+    StringBuilder sb = new StringBuilder("0");
+    for (int i = 0; i < 400_000; i++) {
+      sb.append(" + 1");
+    }
+    assertEquals("400000\n1\n", evaluate(sb + "\n1\n", 2));
+  }
+
+  @Test
+  void testRandomLinesMatchAstCalculator() throws IOException {
+    Random random = new Random(42);
+    String alphabet = "0123456789+-*/()  x";
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      int length = random.nextInt(20);
+      for (int j = 0; j < length; j++) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      lines.add(sb.toString());
+    }
+    assertEquals(expectedOutput(lines), evaluate(String.join("\n", lines) + "\n", lines.size()));
+  }
+
+  @Test
+  void testParallelKeepsLineOrder() throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      lines.add(i % 97 == 0 ? i + " / 0" : i + " * 2 - (" + (i % 13) + ")");
+    }
+    Path in = dir.resolve("in.txt");
+    Path out = dir.resolve("out.txt");
+    Files.write(in, lines);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try (OutputStream sink = Files.newOutputStream(out)) {
+      FileEvaluator.Summary summary =
+          FileEvaluator.evaluateParallel(in, Channels.newChannel(sink), pool);
+      assertEquals(new FileEvaluator.Summary(20_000, 207), summary);
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(expectedOutput(lines), Files.readString(out));
+  }
+
+  @Test
+  void testParallelChunkBoundaries() throws IOException {
+    Path in = dir.resolve("in.txt");
+    Files.writeString(in, "1 + 2\n3\n\n4 * 5");
+    for (int chunkSize = 1; chunkSize <= 16; chunkSize++) {
+      for (int maxInFlight = 1; maxInFlight <= 3; maxInFlight++) {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        FileEvaluator.evaluateParallel(
+            in, Channels.newChannel(sink), ForkJoinPool.commonPool(), chunkSize, maxInFlight);
+        assertEquals(
+            "3\n3\nerror: Expression must not be null or empty\n20\n",
+            sink.toString(StandardCharsets.UTF_8),
+            "chunk size " + chunkSize);
+      }
+    }
+  }
+}
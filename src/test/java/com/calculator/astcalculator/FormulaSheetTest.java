@@ -0,0 +1,207 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FormulaSheetTest {
+
+  @Test
+  void testFormulasOverInputs() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("price", 12);
+    sheet.setValue("qty", 3);
+    sheet.setFormula("subtotal", "price * qty");
+    sheet.setFormula("total", "subtotal + subtotal / 10");
+    assertEquals(36, sheet.get("subtotal"));
+    assertEquals(39, sheet.get("total"));
+
+    sheet.setValue("qty", 10);
+    assertEquals(132, sheet.get("total"));
+    assertTrue(sheet.contains("total"));
+    assertFalse(sheet.contains("discount"));
+  }
+
+  @Test
+  void testOnlyDownstreamCellsAreRecomputed() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("a", 1);
+    sheet.setValue("b", 2);
+    sheet.setFormula("a2", "a * 2");
+    sheet.setFormula("b2", "b * 2");
+    sheet.setFormula("sum", "a2 + b2");
+    assertEquals(3, sheet.recalculate());
+    assertEquals(0, sheet.recalculate());
+
+    sheet.setValue("a", 5);
+    assertEquals(2, sheet.recalculate()); // a2 and sum; b2 is untouched.
+    assertEquals(14, sheet.get("sum"));
+  }
+
+  @Test
+  void testUnchangedValuesStopPropagation() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("a", 11);
+    sheet.setFormula("tens", "a / 10");
+    sheet.setFormula("report", "tens * 100");
+    sheet.recalculate();
+
+    sheet.setValue("a", 12);
+    assertEquals(1, sheet.recalculate()); // tens is still 1, so report is skipped.
+    sheet.setValue("a", 25);
+    assertEquals(2, sheet.recalculate());
+    assertEquals(200, sheet.get("report"));
+  }
+
+  @Test
+  void testDiamondEvaluatesEachCellOnce() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("x", 1);
+    sheet.setFormula("left", "x + 1");
+    sheet.setFormula("right", "x * 3");
+    sheet.setFormula("top", "left * right");
+    sheet.recalculate();
+    sheet.setValue("x", 4);
+    assertEquals(3, sheet.recalculate());
+    assertEquals(60, sheet.get("top"));
+  }
+
+  @Test
+  void testCircularReferenceIsRejected() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("a", 1);
+    sheet.setFormula("b", "a + 1");
+    sheet.setFormula("c", "b * 2");
+    ValidationException e =
+        assertThrows(ValidationException.class, () -> sheet.setFormula("a", "c - 1"));
+    assertEquals("Circular reference: a -> c -> b -> a", e.getMessage());
+    // The sheet is unchanged.
+    assertEquals(4, sheet.get("c"));
+
+    ValidationException self =
+        assertThrows(ValidationException.class, () -> sheet.setFormula("d", "d + 1"));
+    assertEquals("Circular reference: d -> d", self.getMessage());
+    assertFalse(sheet.contains("d"));
+  }
+
+  @Test
+  void testRedefiningAFormulaRewiresDependencies() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("a", 1);
+    sheet.setValue("b", 100);
+    sheet.setFormula("c", "a + 1");
+    assertEquals(2, sheet.get("c"));
+
+    sheet.setFormula("c", "b + 1");
+    assertEquals(101, sheet.get("c"));
+    sheet.setValue("a", 50);
+    assertEquals(0, sheet.recalculate());
+
+    // Once c no longer reads a, a may read c.
+    sheet.setFormula("a", "c * 2");
+    assertEquals(202, sheet.get("a"));
+  }
+
+  @Test
+  void testUnknownCellsAndErrorsPropagate() {
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setFormula("ratio", "num / den");
+    sheet.setFormula("percent", "ratio * 100");
+    ValidationException unknown =
+        assertThrows(ValidationException.class, () -> sheet.get("percent"));
+    assertEquals("Unknown cell 'num'", unknown.getMessage());
+
+    sheet.setValue("num", 3);
+    sheet.setValue("den", 0);
+    ValidationException division =
+        assertThrows(ValidationException.class, () -> sheet.get("percent"));
+    assertEquals("Division by zero", division.getMessage());
+
+    sheet.setValue("den", 2);
+    assertEquals(100, sheet.get("percent"));
+
+    ValidationException missing = assertThrows(ValidationException.class, () -> sheet.get("nope"));
+    assertEquals("Unknown cell 'nope'", missing.getMessage());
+  }
+
+  @Test
+  void testInvalidDefinitions() {
+    FormulaSheet sheet = new FormulaSheet();
+    assertThrows(InvalidExpressionException.class, () -> sheet.setFormula("a", "1 +"));
+    assertThrows(ValidationException.class, () -> sheet.setFormula("a", "1 / 0"));
+    assertThrows(IllegalArgumentException.class, () -> sheet.setValue("1a", 1));
+    assertThrows(IllegalArgumentException.class, () -> sheet.setFormula("a b", "1"));
+    assertFalse(sheet.contains("a"));
+  }
+
+  @Test
+  void testLongChain() {
+    int length = 100_000;
+    FormulaSheet sheet = new FormulaSheet();
+    sheet.setValue("c0", 0);
+    for (int i = 1; i < length; i++) {
+      sheet.setFormula("c" + i, "c" + (i - 1) + " + 1");
+    }
+    assertEquals(length - 1, sheet.get("c" + (length - 1)));
+    sheet.setValue("c0", 10);
+    assertEquals(length - 1 + 10, sheet.get("c" + (length - 1)));
+  }
+
+  @Test
+  void testRandomDagMatchesFullRecomputation() {
+    Random random = new Random(42);
+    int inputs = 20;
+    int formulas = 300;
+    FormulaSheet sheet = new FormulaSheet();
+    List<String> names = new ArrayList<>();
+    Map<String, String> definitions = new HashMap<>();
+    for (int i = 0; i < inputs; i++) {
+      names.add("in" + i);
+      sheet.setValue("in" + i, 0);
+    }
+    for (int i = 0; i < formulas; i++) {
+      String name = "f" + i;
+      String formula =
+          names.get(random.nextInt(names.size()))
+              + (random.nextBoolean() ? " + " : " - ")
+              + names.get(random.nextInt(names.size()))
+              + " / 7 * "
+              + (1 + random.nextInt(3));
+      sheet.setFormula(name, formula);
+      definitions.put(name, formula);
+      names.add(name);
+    }
+
+    int[] values = new int[inputs];
+    for (int round = 0; round < 50; round++) {
+      for (int change = 0; change < 3; change++) {
+        int input = random.nextInt(inputs);
+        values[input] = random.nextInt(1000);
+        sheet.setValue("in" + input, values[input]);
+      }
+      Map<String, Integer> expected = new HashMap<>();
+      for (int i = 0; i < inputs; i++) {
+        expected.put("in" + i, values[i]);
+      }
+      for (int i = 0; i < formulas; i++) {
+        String name = "f" + i;
+        CompiledExpression compiled = AstCalculator.compile(definitions.get(name));
+        int[] bindings = new int[compiled.getVariables().size()];
+        for (int slot = 0; slot < bindings.length; slot++) {
+          bindings[slot] = expected.get(compiled.getVariables().get(slot));
+        }
+        expected.put(name, compiled.evaluate(bindings));
+      }
+      for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+        assertEquals(entry.getValue(), sheet.get(entry.getKey()), entry.getKey());
+      }
+    }
+  }
+}
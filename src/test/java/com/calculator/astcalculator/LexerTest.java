@@ -0,0 +1,100 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LexerTest {
+
+  @Test
+  void testMatchesTokenizer() {
+    String expr = " (12 + 3)*-45 /6 ";
+    List<Token> expected = Tokenizer.tokenize(expr);
+    Lexer lexer = new Lexer(expr);
+
+    for (Token token : expected) {
+      assertEquals(token.type(), lexer.type());
+      assertEquals(token.position(), lexer.start());
+      assertEquals(token.value(), lexer.text());
+      if (token.type() == Token.Type.NUMBER) {
+        assertEquals(Integer.parseInt(token.value()), lexer.intValue());
+      }
+      lexer.advance();
+    }
+  }
+
+  @Test
+  void testOffsets() {
+    Lexer lexer = new Lexer("  123 +");
+    assertEquals(Token.Type.NUMBER, lexer.type());
+    assertEquals(2, lexer.start());
+    assertEquals(5, lexer.end());
+    assertEquals(123, lexer.intValue());
+
+    lexer.advance();
+    assertEquals(Token.Type.PLUS, lexer.type());
+    lexer.advance();
+    assertEquals(Token.Type.EOF, lexer.type());
+    assertEquals(7, lexer.start());
+  }
+
+  @Test
+  void testNumberOverflowIsFlagged() {
+    Lexer lexer = new Lexer("2147483647 2147483648");
+    assertEquals(Integer.MAX_VALUE, lexer.intValue());
+    assertFalse(lexer.isOverflow());
+
+    lexer.advance();
+    assertTrue(lexer.isOverflow());
+    assertEquals("2147483648", lexer.text());
+  }
+
+  @Test
+  void testParserAcceptsLexer() {
+    assertEquals(21, Evaluator.evaluate(Parser.parse(new Lexer("(1 + 2) * (3 + (2 * 2))"))));
+  }
+
+  @Test
+  void testUnexpectedCharacter() {
+    Lexer lexer = new Lexer("2 ^ 3");
+    assertThrows(InvalidExpressionException.class, lexer::advance);
+    assertThrows(InvalidExpressionException.class, () -> new Lexer(null));
+  }
+
+  @Test
+  void testTokenizerInputOverloads() {
+    String expr = " (12 + x_1)*-45 /6 ";
+    List<Token> expected = Tokenizer.tokenize(expr);
+    assertEquals(expected, Tokenizer.tokenize(new StringBuilder(expr)));
+
+    byte[] bytes = ("--" + expr).getBytes(StandardCharsets.US_ASCII);
+    assertEquals(expected, Tokenizer.tokenize(bytes, 2, expr.length()));
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+    assertEquals(expected, Tokenizer.tokenize(direct, 2, expr.length()));
+
+    String unicode = "\u00e9 + \u0664";
+    byte[] utf8 = unicode.getBytes(StandardCharsets.UTF_8);
+    assertEquals(Tokenizer.tokenize(unicode), Tokenizer.tokenize(utf8, 0, utf8.length));
+
+    InvalidExpressionException ex =
+        assertThrows(
+            InvalidExpressionException.class,
+            () -> Tokenizer.tokenize("1 ^ 2".getBytes(StandardCharsets.US_ASCII), 0, 5));
+    assertEquals("Unexpected character '^' at position 2", ex.getMessage());
+    assertThrows(IndexOutOfBoundsException.class, () -> Tokenizer.tokenize(bytes, 1, 99));
+  }
+
+  @Test
+  void testLexerReadsAnyCharSequence() {
+    StringBuilder sb = new StringBuilder("7 * y");
+    Lexer lexer = new Lexer(sb);
+    assertEquals(7, lexer.intValue());
+    lexer.advance();
+    lexer.advance();
+    assertEquals("y", lexer.text());
+  }
+}
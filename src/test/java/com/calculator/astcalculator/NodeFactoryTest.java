@@ -0,0 +1,95 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NodeFactoryTest {
+
+  private static AstNode parse(final String expression, final NodeFactory factory) {
+    return Parser.parse(
+        new Lexer(expression),
+        ParseOptions.DEFAULT.withVariables(new Variables()).withFactory(factory));
+  }
+
+  @Test
+  void testRepeatedSubtreesAreShared() {
+    NodeFactory factory = new NodeFactory();
+    BinaryOpNode root = (BinaryOpNode) parse("(a + b) * c - (a + b) * c", factory);
+    assertSame(root.getLeft(), root.getRight());
+    // a, b, c, a + b, (a + b) * c and the root.
+    assertEquals(6, factory.size());
+  }
+
+  @Test
+  void testDifferentNodesAreKeptApart() {
+    NodeFactory factory = new NodeFactory();
+    BinaryOpNode root = (BinaryOpNode) parse("(a - b) + (b - a)", factory);
+    assertNotSame(root.getLeft(), root.getRight());
+    assertNotSame(factory.number(1), factory.number(2));
+    assertSame(factory.number(7), factory.number(BigInteger.valueOf(7)));
+    assertSame(
+        factory.number(new BigInteger("90000000000")),
+        factory.number(new BigInteger("90000000000")));
+    assertNotSame(factory.variable("x", 0), factory.variable("x", 1));
+    assertNotSame(
+        factory.binaryOp(factory.number(1), BinaryOpNode.Operator.ADD, factory.number(2)),
+        factory.binaryOp(factory.number(1), BinaryOpNode.Operator.MULTIPLY, factory.number(2)));
+  }
+
+  @Test
+  void testSharedTreeEvaluatesLikeUnsharedTree() {
+    Random random = new Random(42);
+    String[] operators = {" + ", " - ", " * ", " / "};
+    String[] atoms = {"1", "2", "(3 - 1)", "-(2 * 2)", "(1 + 2)"};
+    for (int i = 0; i < 1_000; i++) {
+      StringBuilder sb = new StringBuilder(atoms[random.nextInt(atoms.length)]);
+      for (int j = 0; j < 8; j++) {
+        sb.append(operators[random.nextInt(4)]).append(atoms[random.nextInt(atoms.length)]);
+      }
+      String expression = sb.toString();
+      AstNode plain = Parser.parse(new Lexer(expression));
+      AstNode shared = parse(expression, new NodeFactory());
+      Object expected;
+      try {
+        expected = Evaluator.evaluate(plain);
+      } catch (ValidationException e) {
+        expected = e.getMessage();
+      }
+      Object actual;
+      try {
+        actual = Evaluator.evaluate(shared);
+      } catch (ValidationException e) {
+        actual = e.getMessage();
+      }
+      assertEquals(expected, actual, expression);
+    }
+  }
+
+  @Test
+  void testInternSharesAnExistingTree() {
+    AstNode plain = Parser.parse(new Lexer("-(1 + 2) * -(1 + 2) + -(1 + 2)"));
+    NodeFactory factory = new NodeFactory();
+    BinaryOpNode root = (BinaryOpNode) factory.intern(plain);
+    BinaryOpNode product = (BinaryOpNode) root.getLeft();
+    assertSame(product.getLeft(), product.getRight());
+    assertSame(product.getLeft(), root.getRight());
+    assertEquals(Evaluator.evaluate(plain), Evaluator.evaluate(root));
+    // Interning again is a no-op.
+    assertSame(root, factory.intern(root));
+  }
+
+  @Test
+  void testDeepTree() {
+    int depth = 100_000;
+    NodeFactory factory = new NodeFactory();
+    AstNode root = parse("(".repeat(depth) + "1" + " + 1)".repeat(depth), factory);
+    assertEquals(depth + 1, Evaluator.evaluate(root));
+    assertEquals(depth + 1, factory.size());
+  }
+}
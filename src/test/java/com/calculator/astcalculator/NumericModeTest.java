@@ -0,0 +1,175 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.arena.AstArena;
+import com.calculator.astcalculator.bytecode.ProgramCompiler;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NumericModeTest {
+
+  /** Every built-in mode. */
+  private static final List<NumericMode<?>> MODES =
+      List.of(NumericMode.INT, NumericMode.LONG, NumericMode.BIG_INTEGER, NumericMode.BIG_DECIMAL);
+
+  @Test
+  void testIntModeMatchesCalculate() {
+    for (String expression :
+        List.of("1 + 2 * 3", "-(4 - 9) / 2", "2147483647 + 1", "7 / (2 - 2)", "3 +", "x")) {
+      Object expected;
+      try {
+        expected = AstCalculator.calculate(expression);
+      } catch (CalculatorException e) {
+        expected = e.getClass();
+        CalculatorException actual =
+            assertThrows(
+                CalculatorException.class,
+                () -> AstCalculator.calculate(expression, NumericMode.INT));
+        assertEquals(expected, actual.getClass(), expression);
+        assertEquals(e.getMessage(), actual.getMessage(), expression);
+        continue;
+      }
+      assertEquals(expected, AstCalculator.calculate(expression, NumericMode.INT), expression);
+    }
+  }
+
+  @Test
+  void testLongMode() {
+    assertEquals(2147483648L, AstCalculator.calculate("2147483647 + 1", NumericMode.LONG));
+    assertEquals(9_000_000_000L * 3, AstCalculator.calculate("9000000000 * 3", NumericMode.LONG));
+    assertEquals(
+        Long.MIN_VALUE, AstCalculator.calculate("-9223372036854775807 - 1", NumericMode.LONG));
+    assertEquals(-3L, AstCalculator.calculate("-7 / 2", NumericMode.LONG));
+
+    ValidationException overflow =
+        assertThrows(
+            ValidationException.class,
+            () -> AstCalculator.calculate("9223372036854775807 + 1", NumericMode.LONG));
+    assertEquals("Integer overflow in expression", overflow.getMessage());
+    assertThrows(
+        ValidationException.class,
+        () -> AstCalculator.calculate("(-9223372036854775807 - 1) / -1", NumericMode.LONG));
+    assertThrows(
+        ValidationException.class,
+        () -> AstCalculator.calculate("-(-9223372036854775807 - 1)", NumericMode.LONG));
+
+    InvalidExpressionException tooLarge =
+        assertThrows(
+            InvalidExpressionException.class,
+            () -> AstCalculator.calculate("1 + 9223372036854775808", NumericMode.LONG));
+    assertEquals("Number too large: '9223372036854775808' at position 4", tooLarge.getMessage());
+  }
+
+  @Test
+  void testBigIntegerMode() {
+    assertEquals(
+        new BigInteger("99999999999999999999999999999999").pow(2),
+        AstCalculator.calculate(
+            "(99999999999999999999999999999999 * 99999999999999999999999999999999)",
+            NumericMode.BIG_INTEGER));
+    assertEquals(
+        BigInteger.valueOf(-3), AstCalculator.calculate("-7 / 2", NumericMode.BIG_INTEGER));
+  }
+
+  @Test
+  void testBigDecimalMode() {
+    assertEquals(new BigDecimal("3.5"), AstCalculator.calculate("7 / 2", NumericMode.BIG_DECIMAL));
+    assertEquals(
+        new BigDecimal("0.3333333"),
+        AstCalculator.calculate("1 / 3", NumericMode.bigDecimal(MathContext.DECIMAL32)));
+    assertEquals(
+        new BigDecimal("1.25"),
+        AstCalculator.calculate("5 / 4", NumericMode.bigDecimal(MathContext.UNLIMITED)));
+    assertThrows(
+        ValidationException.class,
+        () -> AstCalculator.calculate("1 / 3", NumericMode.bigDecimal(MathContext.UNLIMITED)));
+  }
+
+  @Test
+  void testDivisionByZeroInEveryMode() {
+    for (NumericMode<?> mode : MODES) {
+      ValidationException literal =
+          assertThrows(ValidationException.class, () -> AstCalculator.calculate("1 / 0", mode));
+      assertEquals("Division by zero detected in expression", literal.getMessage(), mode + "");
+      ValidationException dynamic =
+          assertThrows(
+              ValidationException.class, () -> AstCalculator.calculate("1 / (2 - 2)", mode));
+      assertEquals("Division by zero", dynamic.getMessage(), mode + "");
+    }
+  }
+
+  @Test
+  void testWideLiteralsOnlyOutsideIntMode() {
+    assertThrows(
+        InvalidExpressionException.class,
+        () -> AstCalculator.calculate("3000000000 - 1", NumericMode.INT));
+    assertEquals(
+        new BigInteger("2999999999"),
+        AstCalculator.calculate("3000000000 - 1", NumericMode.BIG_INTEGER));
+    assertEquals(
+        new BigDecimal("1500000000"),
+        AstCalculator.calculate("3000000000 / 2", NumericMode.BIG_DECIMAL));
+    // A wide divisor is never a literal zero.
+    assertEquals(0L, AstCalculator.calculate("1 / 3000000000", NumericMode.LONG));
+  }
+
+  @Test
+  void testIntPassesRejectWideLiterals() {
+    AstNode wide =
+        new BinaryOpNode(
+            new WideNumberNode(new BigInteger("3000000000")),
+            BinaryOpNode.Operator.SUBTRACT,
+            NumberNode.of(1));
+    Validator.validate(wide);
+    assertEquals(2999999999L, LongEvaluator.evaluate(wide));
+    assertThrows(InvalidExpressionException.class, () -> Evaluator.evaluate(wide));
+    assertThrows(InvalidExpressionException.class, () -> Optimizer.optimize(wide));
+    assertThrows(InvalidExpressionException.class, () -> ProgramCompiler.compile(wide));
+    assertThrows(InvalidExpressionException.class, () -> new AstArena().add(wide));
+    assertThrows(IllegalArgumentException.class, () -> new WideNumberNode(BigInteger.valueOf(7)));
+  }
+
+  @Test
+  void testModesAgreeWhenNothingOverflows() {
+    Random random = new Random(42);
+    String[] operators = {" + ", " - ", " * ", " / "};
+    for (int i = 0; i < 2_000; i++) {
+      StringBuilder sb = new StringBuilder().append(random.nextInt(1000));
+      for (int j = 0; j < 6; j++) {
+        sb.append(operators[random.nextInt(4)]).append(1 + random.nextInt(1000));
+      }
+      String expression = sb.toString();
+      long expected = AstCalculator.calculate(expression, NumericMode.LONG);
+      assertEquals(
+          BigInteger.valueOf(expected),
+          AstCalculator.calculate(expression, NumericMode.BIG_INTEGER),
+          expression);
+      int narrow;
+      try {
+        narrow = AstCalculator.calculate(expression);
+      } catch (ValidationException e) {
+        continue; // Some intermediate result overflowed an int.
+      }
+      assertEquals(expected, narrow, expression);
+    }
+  }
+
+  @Test
+  void testDeeplyNestedExpression() {
+    int depth = 100_000;
+    String expression = "(".repeat(depth) + "9000000000" + " - 1)".repeat(depth);
+    assertEquals(9_000_000_000L - depth, AstCalculator.calculate(expression, NumericMode.LONG));
+  }
+}
@@ -0,0 +1,126 @@
+package com.calculator.astcalculator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class OptimizerTest {
+
+  private static AstNode optimize(final String expression) {
+    return Optimizer.optimize(
+        Parser.parse(new Lexer(expression), ParseOptions.DEFAULT.withVariables(new Variables())));
+  }
+
+  /**
+   * @return the result, or the exception message prefixed with {@code "!"}.
+   */
+  private static String outcome(final AstNode ast, final int[] bindings) {
+    try {
+      return Integer.toString(Evaluator.evaluate(ast, bindings));
+    } catch (ValidationException e) {
+      return "!" + e.getMessage();
+    }
+  }
+
+  @Test
+  void testFoldsConstants() {
+    AstNode ast = optimize("-(-(-(5))) + 2 * (3 - 1)");
+    assertEquals(-1, assertInstanceOf(NumberNode.class, ast).getValue());
+  }
+
+  @Test
+  void testAppliesIdentities() {
+    assertInstanceOf(VariableNode.class, optimize("(x * 1) + 0"));
+    assertInstanceOf(VariableNode.class, optimize("0 + 1 * (x - 0) / 1"));
+    assertInstanceOf(
+        VariableNode.class, assertInstanceOf(UnaryMinusNode.class, optimize("0 - x")).getOperand());
+    assertInstanceOf(
+        VariableNode.class,
+        assertInstanceOf(UnaryMinusNode.class, optimize("x / -1")).getOperand());
+    assertInstanceOf(
+        VariableNode.class,
+        assertInstanceOf(UnaryMinusNode.class, optimize("-1 * x")).getOperand());
+  }
+
+  @Test
+  void testCollapsesTripleNegationButKeepsDouble() {
+    AstNode triple = optimize("-(-(-x))");
+    assertInstanceOf(
+        VariableNode.class, assertInstanceOf(UnaryMinusNode.class, triple).getOperand());
+
+    AstNode twice = optimize("-(-x)");
+    UnaryMinusNode outer = assertInstanceOf(UnaryMinusNode.class, twice);
+    assertInstanceOf(UnaryMinusNode.class, outer.getOperand());
+    assertThrows(
+        ValidationException.class, () -> Evaluator.evaluate(twice, new int[] {Integer.MIN_VALUE}));
+  }
+
+  @Test
+  void testLeavesFailingSubtreesForEvaluation() {
+    assertInstanceOf(BinaryOpNode.class, optimize("2147483647 + 1"));
+    assertInstanceOf(BinaryOpNode.class, optimize("10 / (5 - 5)"));
+    assertFalse(optimize("(0 - 2147483647 - 1) / -1") instanceof NumberNode);
+    assertFalse(optimize("-(0 - 2147483647 - 1)") instanceof NumberNode);
+
+    CompiledExpression compiled =
+        AstCalculator.compile("x / (5 - 5)", CompileOptions.DEFAULT.withOptimize(true));
+    ValidationException ex =
+        assertThrows(ValidationException.class, () -> compiled.evaluate(new int[] {1}));
+    assertEquals("Division by zero", ex.getMessage());
+  }
+
+  @Test
+  void testKeepsVariableBindingChecks() {
+    CompiledExpression compiled =
+        AstCalculator.compile("x * 1 + 2 * 3", CompileOptions.DEFAULT.withOptimize(true));
+    assertEquals(7, compiled.evaluate(new int[] {1}));
+    assertThrows(ValidationException.class, compiled::evaluate);
+  }
+
+  @Test
+  void testPreservesResultsAndErrors() {
+    Random random = new Random(7);
+    String[] atoms = {"x", "y", "0", "1", "-1", "2", "2147483647", "46341", "(0 - 2147483647 - 1)"};
+    String[] operators = {" + ", " - ", " * ", " / "};
+    int[] values = {0, 1, -1, 2, Integer.MAX_VALUE, Integer.MIN_VALUE, 46341, 7};
+
+    for (int i = 0; i < 2_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      int terms = 2 + random.nextInt(5);
+      for (int t = 0; t < terms; t++) {
+        if (t > 0) {
+          sb.append(operators[random.nextInt(operators.length)]);
+        }
+        String atom = atoms[random.nextInt(atoms.length)];
+        sb.append(random.nextInt(4) == 0 ? "-(" + atom + ")" : atom);
+      }
+      String expression = random.nextBoolean() ? sb.toString() : "-(-(" + sb + "))";
+
+      Variables variables = new Variables();
+      variables.define("x");
+      variables.define("y");
+      AstNode ast =
+          Parser.parse(new Lexer(expression), ParseOptions.DEFAULT.withVariables(variables));
+      try {
+        Validator.validate(ast);
+      } catch (ValidationException e) {
+        continue;
+      }
+      AstNode optimized = Optimizer.optimize(ast);
+
+      for (int x : values) {
+        for (int y : values) {
+          int[] bindings = {x, y};
+          assertEquals(outcome(ast, bindings), outcome(optimized, bindings), expression);
+        }
+      }
+    }
+  }
+}
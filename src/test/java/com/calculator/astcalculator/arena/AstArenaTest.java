@@ -0,0 +1,169 @@
+package com.calculator.astcalculator.arena;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.Evaluator;
+import com.calculator.astcalculator.Validator;
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import com.calculator.astcalculator.nodes.BinaryOpNode;
+import com.calculator.astcalculator.nodes.NumberNode;
+import com.calculator.astcalculator.nodes.UnaryMinusNode;
+import com.calculator.astcalculator.nodes.VariableNode;
+import com.calculator.astcalculator.nodes.WideNumberNode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AstArenaTest {
+
+  private static AstNode parse(final String expression) {
+    return AstCalculator.compile(expression).getAst();
+  }
+
+  /**
+   * @return the result, or the exception message prefixed with {@code "!"}.
+   */
+  private static String outcome(final java.util.function.IntSupplier evaluation) {
+    try {
+      return Integer.toString(evaluation.getAsInt());
+    } catch (ValidationException e) {
+      return "!" + e.getMessage();
+    }
+  }
+
+  private static String show(final AstNode node) {
+    return switch (node) {
+      case NumberNode n -> Integer.toString(n.getValue());
+      case WideNumberNode w -> w.getValue().toString();
+      case VariableNode v -> v.getName() + "@" + v.getSlot();
+      case UnaryMinusNode u -> "(-" + show(u.getOperand()) + ")";
+      case BinaryOpNode b ->
+          "(" + show(b.getLeft()) + " " + b.getOperator() + " " + show(b.getRight()) + ")";
+    };
+  }
+
+  @Test
+  void testLayoutIsPostOrder() {
+    AstArena arena = new AstArena();
+    int root = arena.add(parse("a - -(2 * b)"));
+    assertEquals(6, arena.size());
+    assertEquals(5, root);
+    assertEquals(AstArena.VARIABLE, arena.kind(0));
+    assertEquals(AstArena.NUMBER, arena.kind(1));
+    assertEquals(AstArena.VARIABLE, arena.kind(2));
+    assertEquals(AstArena.MULTIPLY, arena.kind(3));
+    assertEquals(AstArena.NEGATE, arena.kind(4));
+    assertEquals(AstArena.SUBTRACT, arena.kind(5));
+    assertEquals(0, arena.left(5));
+    assertEquals(4, arena.right(5));
+    assertEquals(1, arena.value(2));
+    assertEquals("b", arena.variableName(1));
+  }
+
+  @Test
+  void testRoundTrip() {
+    for (String expression :
+        new String[] {"1", "x", "-(-x)", "(a + b) * (c - d) / -e", "1 - 2 - 3 * 4 / 5"}) {
+      AstNode ast = parse(expression);
+      AstArena arena = new AstArena(1);
+      assertEquals(show(ast), show(arena.toAst(arena.add(ast))), expression);
+    }
+  }
+
+  @Test
+  void testEvaluationMatchesEvaluator() {
+    Random random = new Random(11);
+    String[] atoms = {"x", "y", "0", "1", "2", "2147483647", "46341", "(0 - 2147483647 - 1)"};
+    String[] operators = {" + ", " - ", " * ", " / "};
+    int[] values = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 46341};
+    AstArena arena = new AstArena();
+
+    for (int i = 0; i < 1_000; i++) {
+      StringBuilder sb = new StringBuilder("x");
+      for (int t = 0; t < 1 + random.nextInt(6); t++) {
+        sb.append(operators[random.nextInt(operators.length)]);
+        String atom = atoms[random.nextInt(atoms.length)];
+        sb.append(random.nextBoolean() ? atom : "-(" + atom + ")");
+      }
+      AstNode ast;
+      try {
+        ast = parse("y * 0 + " + sb);
+      } catch (ValidationException e) {
+        continue;
+      }
+
+      arena.reset();
+      int root = arena.add(ast);
+      for (int x : values) {
+        for (int y : values) {
+          int[] bindings = {y, x};
+          assertEquals(
+              outcome(() -> Evaluator.evaluate(ast, bindings)),
+              outcome(() -> ArenaEvaluator.evaluate(arena, root, bindings)),
+              sb.toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testValidationMatchesValidator() {
+    AstArena arena = new AstArena();
+    NumberNode zero = new NumberNode(0);
+    AstNode bad = new BinaryOpNode(new NumberNode(1), BinaryOpNode.Operator.DIVIDE, zero);
+    ValidationException expected =
+        assertThrows(ValidationException.class, () -> Validator.validate(bad));
+    ValidationException actual =
+        assertThrows(
+            ValidationException.class, () -> ArenaValidator.validate(arena, arena.add(bad)));
+    assertEquals(expected.getMessage(), actual.getMessage());
+
+    ArenaValidator.validate(arena, arena.add(parse("10 / (5 - 5)")));
+  }
+
+  @Test
+  void testSubtreesAreIndependent() {
+    AstArena arena = new AstArena();
+    int first = arena.add(parse("1 / (2 - 2)"));
+    int second = arena.add(parse("6 * 7"));
+    assertEquals(42, ArenaEvaluator.evaluate(arena, second));
+    assertThrows(ValidationException.class, () -> ArenaEvaluator.evaluate(arena, first));
+  }
+
+  @Test
+  void testBuildByHand() {
+    AstArena arena = new AstArena();
+    int a = arena.variable("a", 0);
+    int two = arena.number(2);
+    int sum = arena.binary(AstArena.ADD, a, two);
+    int neg = arena.negate(sum);
+    assertEquals(-5, ArenaEvaluator.evaluate(arena, neg, new int[] {3}));
+    assertThrows(ValidationException.class, () -> ArenaEvaluator.evaluate(arena, neg));
+
+    int b = arena.number(1);
+    assertThrows(IllegalArgumentException.class, () -> arena.binary(AstArena.ADD, a, b));
+    assertThrows(IllegalArgumentException.class, () -> arena.negate(a));
+    assertThrows(IllegalArgumentException.class, () -> arena.binary(AstArena.NEGATE, neg, b));
+    assertThrows(IllegalArgumentException.class, () -> arena.variable("z", 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> arena.kind(arena.size()));
+  }
+
+  @Test
+  void testResetReusesArrays() {
+    AstArena arena = AstArena.forCurrentThread();
+    arena.add(parse("1 + 2 + 3"));
+    assertSame(arena, AstArena.forCurrentThread());
+    assertEquals(0, arena.size());
+    assertEquals(6, ArenaEvaluator.evaluate(arena, arena.add(parse("1 + 2 + 3"))));
+  }
+
+  @Test
+  void testDeepTrees() {
+    int depth = 100_000;
+    AstArena arena = new AstArena();
+    int root = arena.add(parse("(1 + ".repeat(depth) + "1" + ")".repeat(depth)));
+    assertEquals(depth + 1, ArenaEvaluator.evaluate(arena, root));
+    assertEquals(depth + 1, Evaluator.evaluate(arena.toAst(root)));
+  }
+}
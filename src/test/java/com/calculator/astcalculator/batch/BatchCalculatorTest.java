@@ -0,0 +1,128 @@
+package com.calculator.astcalculator.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.ExpressionCache;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class BatchCalculatorTest {
+
+  /** Every built-in execution strategy. */
+  private static List<BatchCalculator> calculators() {
+    return List.of(
+        BatchCalculator.virtualThreads(),
+        BatchCalculator.forkJoin(),
+        BatchCalculator.callerRuns(),
+        BatchCalculator.virtualThreads().withCache(new ExpressionCache(64)));
+  }
+
+  /** Random valid and invalid expressions. */
+  private static List<String> corpus(final int size, final long seed) {
+    Random random = new Random(seed);
+    String[] operators = {"+", "-", "*", "/"};
+    List<String> expressions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      switch (random.nextInt(10)) {
+        case 0 -> expressions.add(random.nextInt(100) + " / 0");
+        case 1 -> expressions.add("(" + random.nextInt(100) + " +");
+        default ->
+            expressions.add(
+                random.nextInt(1000)
+                    + " "
+                    + operators[random.nextInt(4)]
+                    + " ("
+                    + random.nextInt(1000)
+                    + " - "
+                    + random.nextInt(10)
+                    + ")");
+      }
+    }
+    return expressions;
+  }
+
+  @Test
+  void testResultsInInputOrder() {
+    List<String> expressions = corpus(10_000, 42L);
+    for (BatchCalculator calculator : calculators()) {
+      List<BatchResult> results = calculator.calculate(expressions);
+      assertEquals(expressions.size(), results.size());
+      for (int i = 0; i < expressions.size(); i++) {
+        String expression = expressions.get(i);
+        BatchResult result = results.get(i);
+        assertSame(expression, result.expression(), "item " + i);
+        try {
+          int expected = AstCalculator.calculate(expression);
+          assertTrue(result.isSuccess(), "item " + i);
+          assertEquals(expected, result.value(), "item " + i);
+        } catch (CalculatorException e) {
+          assertFalse(result.isSuccess(), "item " + i);
+          assertEquals(e.getClass(), result.error().getClass(), "item " + i);
+          assertEquals(e.getMessage(), result.error().getMessage(), "item " + i);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testFailuresAreIsolated() {
+    List<String> expressions = Arrays.asList("1 + 2", null, "4 / (2 - 2)", "2 *", "6 / 3");
+    for (BatchCalculator calculator : calculators()) {
+      List<BatchResult> results = calculator.calculate(expressions);
+      assertEquals(3, results.get(0).getOrThrow());
+      assertInstanceOf(InvalidExpressionException.class, results.get(1).error());
+      assertInstanceOf(ValidationException.class, results.get(2).error());
+      assertInstanceOf(InvalidExpressionException.class, results.get(3).error());
+      assertEquals(2, results.get(4).getOrThrow());
+      assertThrows(ValidationException.class, results.get(2)::getOrThrow);
+    }
+  }
+
+  @Test
+  void testStreamInput() {
+    List<BatchResult> results =
+        BatchCalculator.forkJoin().calculate(Stream.of("1 + 1", "2 * 3", "10 - 4"));
+    assertEquals(List.of(2, 6, 6), results.stream().map(BatchResult::getOrThrow).toList());
+  }
+
+  @Test
+  void testEmptyInput() {
+    assertTrue(BatchCalculator.virtualThreads().calculate(List.of()).isEmpty());
+    assertTrue(BatchCalculator.callerRuns().calculate(Stream.empty()).isEmpty());
+  }
+
+  @Test
+  void testCustomPool() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      List<BatchResult> results =
+          BatchCalculator.forkJoin(pool).calculate(corpus(1_000, 7L).subList(0, 5));
+      assertEquals(5, results.size());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testCacheIsUsed() {
+    ExpressionCache cache = new ExpressionCache(16);
+    BatchCalculator calculator = BatchCalculator.callerRuns().withCache(cache);
+    calculator.calculate(List.of("1 + 2", "1 + 2", "1 + 2"));
+    assertEquals(1, cache.missCount());
+    assertEquals(2, cache.hitCount());
+  }
+
+  @Test
+  void testInvalidParallelism() {
+    assertThrows(IllegalArgumentException.class, () -> new BatchCalculator(Runnable::run, 0));
+  }
+}
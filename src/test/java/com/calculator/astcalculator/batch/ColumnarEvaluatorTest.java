@@ -0,0 +1,122 @@
+package com.calculator.astcalculator.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompileOptions;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ColumnarEvaluatorTest {
+
+  /** Evaluates row by row with the scalar path and checks the batch agrees. */
+  private static void assertMatchesScalar(final String expression, final int[][] columns) {
+    assertMatchesScalar(AstCalculator.compile(expression), columns);
+  }
+
+  private static void assertMatchesScalar(
+      final CompiledExpression compiled, final int[][] columns) {
+    int rows = columns[0].length;
+    int[] out = new int[rows];
+    BitSet errors = ColumnarEvaluator.evaluate(compiled, columns, out);
+
+    int[] row = new int[columns.length];
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < columns.length; c++) {
+        row[c] = columns[c][r];
+      }
+      try {
+        int expected = compiled.evaluate(row);
+        assertFalse(errors.get(r), "row " + r);
+        assertEquals(expected, out[r], "row " + r);
+      } catch (ValidationException e) {
+        assertTrue(errors.get(r), "row " + r);
+        assertEquals(0, out[r], "row " + r);
+      }
+    }
+  }
+
+  private static int[][] randomColumns(final int count, final int rows, final long seed) {
+    Random random = new Random(seed);
+    int[][] columns = new int[count][rows];
+    int[] edges = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 46341, -46341};
+    for (int[] column : columns) {
+      for (int r = 0; r < rows; r++) {
+        column[r] = random.nextInt(8) == 0 ? edges[random.nextInt(edges.length)] : random.nextInt();
+      }
+    }
+    return columns;
+  }
+
+  @Test
+  void testMatchesScalarOnRandomInput() {
+    int rows = 3 * ColumnarEvaluator.BLOCK + 17;
+    assertMatchesScalar("a + b", randomColumns(2, rows, 1));
+    assertMatchesScalar("a - b", randomColumns(2, rows, 2));
+    assertMatchesScalar("a * b", randomColumns(2, rows, 3));
+    assertMatchesScalar("a / b", randomColumns(2, rows, 4));
+    assertMatchesScalar("-a", randomColumns(1, rows, 5));
+    assertMatchesScalar("(a + 1) * -(b - c) / (c - 7)", randomColumns(3, rows, 6));
+  }
+
+  @Test
+  void testSharedSubexpressions() {
+    CompiledExpression compiled =
+        AstCalculator.compile(
+            "(a * b + 1) * (a * b + 1) - (a * b + 1) / -(c - a)",
+            CompileOptions.DEFAULT.withCse(true));
+    assertEquals(1, compiled.getProgram().getTempCount());
+    assertMatchesScalar(compiled, randomColumns(3, 2 * ColumnarEvaluator.BLOCK + 5, 8));
+  }
+
+  @Test
+  void testSmallValuesNeverFail() {
+    int rows = 5000;
+    int[] x = new int[rows];
+    int[] y = new int[rows];
+    for (int i = 0; i < rows; i++) {
+      x[i] = i;
+      y[i] = i % 100 + 1;
+    }
+    int[] out = new int[rows];
+    BitSet errors =
+        ColumnarEvaluator.evaluate(
+            AstCalculator.compile("x * 2 + x / y - 3"), new int[][] {x, y}, out);
+
+    assertTrue(errors.isEmpty());
+    for (int i = 0; i < rows; i++) {
+      assertEquals(x[i] * 2 + x[i] / y[i] - 3, out[i]);
+    }
+  }
+
+  @Test
+  void testErrorsAreReportedPerRow() {
+    int[] out = new int[3];
+    BitSet errors =
+        ColumnarEvaluator.evaluate(AstCalculator.compile("10 / d"), new int[][] {{5, 0, -2}}, out);
+    assertEquals(BitSet.valueOf(new long[] {0b010}), errors);
+    assertArrayEquals(new int[] {2, 0, -5}, out);
+  }
+
+  @Test
+  void testConstantExpression() {
+    int[] out = new int[4];
+    assertTrue(
+        ColumnarEvaluator.evaluate(AstCalculator.compile("6 * 7"), new int[0][], out).isEmpty());
+    assertArrayEquals(new int[] {42, 42, 42, 42}, out);
+  }
+
+  @Test
+  void testShapeMismatch() {
+    CompiledExpression compiled = AstCalculator.compile("a + b");
+    assertThrows(
+        ValidationException.class,
+        () -> ColumnarEvaluator.evaluate(compiled, new int[][] {{1}}, new int[1]));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ColumnarEvaluator.evaluate(compiled, new int[][] {{1}, {}}, new int[1]));
+  }
+}
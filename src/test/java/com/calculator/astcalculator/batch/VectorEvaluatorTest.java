@@ -0,0 +1,132 @@
+package com.calculator.astcalculator.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class VectorEvaluatorTest {
+
+  /** Set by the {@code vector} Maven profile, which also adds the incubator module. */
+  private static final boolean VECTOR_PROFILE = Boolean.getBoolean("calculator.vector");
+
+  /** Checks that the SIMD path agrees with the scalar columnar path, results and errors. */
+  private static void assertMatchesColumnar(final String expression, final int[][] columns) {
+    CompiledExpression compiled = AstCalculator.compile(expression);
+    int rows = columns[0].length;
+    int[] expected = new int[rows];
+    int[] actual = new int[rows];
+    BitSet expectedErrors = ColumnarEvaluator.evaluate(compiled, columns, expected);
+    BitSet actualErrors = VectorEvaluator.evaluate(compiled, columns, actual);
+    assertEquals(expectedErrors, actualErrors, expression);
+    assertArrayEquals(expected, actual, expression);
+  }
+
+  private static int[][] randomColumns(final int count, final int rows, final long seed) {
+    Random random = new Random(seed);
+    int[][] columns = new int[count][rows];
+    int[] edges = {
+      0, 1, -1, 2, Integer.MAX_VALUE, Integer.MIN_VALUE, 46341, -46341, 32768, -32768, 65535, 65536
+    };
+    for (int[] column : columns) {
+      for (int r = 0; r < rows; r++) {
+        column[r] = random.nextInt(4) == 0 ? edges[random.nextInt(edges.length)] : random.nextInt();
+      }
+    }
+    return columns;
+  }
+
+  @Test
+  void testKernelsFollowTheBuildProfile() {
+    assertEquals(VECTOR_PROFILE, VectorEvaluator.isAvailable());
+  }
+
+  @Test
+  void testFallsBackToScalarKernelsWithoutModule() {
+    assumeFalse(VECTOR_PROFILE, "the vector profile adds the incubator module");
+    assertSame(ScalarKernels.INSTANCE, VectorEvaluator.kernels());
+
+    int rows = ColumnarEvaluator.BLOCK + 7;
+    String[] expressions = {"a + b", "a - b", "a * b", "a / b", "-a", "(a + 1) * -(b - c) / c"};
+    for (int i = 0; i < expressions.length; i++) {
+      int[][] columns = randomColumns(3, rows, 100 + i);
+      assertMatchesColumnar(expressions[i], columns);
+
+      CompiledExpression compiled = AstCalculator.compile(expressions[i]);
+      int[] out = new int[rows];
+      BitSet errors = VectorEvaluator.evaluate(compiled, columns, out);
+      for (int r = 0; r < rows; r++) {
+        int[] row = new int[compiled.getVariables().size()];
+        for (int slot = 0; slot < row.length; slot++) {
+          row[slot] = columns[slot][r];
+        }
+        try {
+          int expected = compiled.evaluate(row);
+          assertFalse(errors.get(r), expressions[i] + " row " + r);
+          assertEquals(expected, out[r], expressions[i] + " row " + r);
+        } catch (CalculatorException e) {
+          assertTrue(errors.get(r), expressions[i] + " row " + r);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testMatchesColumnarOnRandomInput() {
+    int rows = 2 * ColumnarEvaluator.BLOCK + 13;
+    assertMatchesColumnar("a + b", randomColumns(2, rows, 1));
+    assertMatchesColumnar("a - b", randomColumns(2, rows, 2));
+    assertMatchesColumnar("a * b", randomColumns(2, rows, 3));
+    assertMatchesColumnar("a / b", randomColumns(2, rows, 4));
+    assertMatchesColumnar("-a", randomColumns(1, rows, 5));
+    assertMatchesColumnar("(a + 1) * -(b - c) / (c - 7)", randomColumns(3, rows, 6));
+  }
+
+  @Test
+  void testTailShorterThanVector() {
+    for (int rows = 1; rows < 20; rows++) {
+      assertMatchesColumnar("a * b - a + -b", randomColumns(2, rows, rows));
+    }
+  }
+
+  /** Repeats {@code values} until there are enough rows to fill several whole vectors. */
+  private static int[] tile(final int... values) {
+    int[] column = new int[values.length * 64];
+    for (int r = 0; r < column.length; r++) {
+      column[r] = values[r % values.length];
+    }
+    return column;
+  }
+
+  @Test
+  void testMultiplyOverflowAtEdges() {
+    int[][] columns = {
+      tile(46341, 46340, Integer.MIN_VALUE, -1, -32768, 32768, Integer.MIN_VALUE, 65537),
+      tile(46341, 46340, -1, Integer.MIN_VALUE, 65536, 65536, 1, 32767)
+    };
+    int[] out = new int[columns[0].length];
+    BitSet errors = VectorEvaluator.evaluate(AstCalculator.compile("a * b"), columns, out);
+    for (int r = 0; r < out.length; r += 8) {
+      assertEquals(BitSet.valueOf(new long[] {0b00101101}), errors.get(r, r + 8), "row " + r);
+      assertEquals(46340 * 46340, out[r + 1]);
+      assertEquals(Integer.MIN_VALUE, out[r + 4]);
+      assertEquals(Integer.MIN_VALUE, out[r + 6]);
+      assertEquals(65537 * 32767, out[r + 7]);
+    }
+    assertMatchesColumnar("a * b", columns);
+  }
+
+  @Test
+  void testShapeMismatch() {
+    CompiledExpression compiled = AstCalculator.compile("a + b");
+    assertThrows(
+        ValidationException.class,
+        () -> VectorEvaluator.evaluate(compiled, new int[][] {{1}}, new int[1]));
+  }
+}
@@ -0,0 +1,70 @@
+package com.calculator.astcalculator.bytecode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.Backend;
+import com.calculator.astcalculator.CompileOptions;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+class HiddenClassCompilerTest {
+
+  private static CompiledExpression compile(final String expression) {
+    return AstCalculator.compile(expression, Backend.HIDDEN_CLASS);
+  }
+
+  @Test
+  void testUsesHiddenClassBackend() {
+    assertTrue(HiddenClassCompiler.isAvailable());
+    assertEquals(Backend.HIDDEN_CLASS, compile("1 + 2").getBackend());
+  }
+
+  @Test
+  void testMatchesInterpreter() {
+    String[] expressions = {
+      "42",
+      "-7",
+      "300 * 200",
+      "2147483647",
+      "(10 + 2) * 3 - (4 + 2) * (7 - 4) + 3",
+      "-(2 + 3) * -(1 + 1)",
+      "7 / -3",
+      "1 - (2 - (3 - (4 - (5 - 6))))"
+    };
+    for (String expr : expressions) {
+      assertEquals(AstCalculator.calculate(expr), compile(expr).evaluate(), expr);
+    }
+  }
+
+  @Test
+  void testOverflowAndDivisionByZero() {
+    assertThrows(ValidationException.class, () -> compile("2147483647 + 1").evaluate());
+    assertThrows(ValidationException.class, () -> compile("-2147483647 - 2").evaluate());
+    assertThrows(ValidationException.class, () -> compile("2147483647 * 2").evaluate());
+    assertThrows(ValidationException.class, () -> compile("-(-2147483647 - 1)").evaluate());
+    assertThrows(ValidationException.class, () -> compile("(-2147483647 - 1) / -1").evaluate());
+    assertThrows(ValidationException.class, () -> compile("10 / (5 - 5)").evaluate());
+  }
+
+  @Test
+  void testLargeProgramFallsBackToInterpreter() {
+    String group = "(1" + " + 1".repeat(99) + ")";
+    String expr = group + (" + " + group).repeat(99);
+    CompiledExpression compiled = compile(expr);
+    assertEquals(Backend.INTERPRETER, compiled.getBackend());
+    assertEquals(10_000, compiled.evaluate());
+  }
+
+  @Test
+  void testSharedSubexpressionsUseLocals() {
+    CompileOptions options = CompileOptions.DEFAULT.withBackend(Backend.HIDDEN_CLASS).withCse(true);
+    CompiledExpression compiled = AstCalculator.compile("(x + y) * (x + y) - (x + y) / 2", options);
+    assertEquals(Backend.HIDDEN_CLASS, compiled.getBackend());
+    assertEquals(1, compiled.getProgram().getTempCount());
+    assertEquals(49 - 3, compiled.evaluate(new int[] {3, 4}));
+    assertThrows(
+        ValidationException.class, () -> compiled.evaluate(new int[] {Integer.MAX_VALUE, 1}));
+  }
+}
@@ -0,0 +1,173 @@
+package com.calculator.astcalculator.bytecode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.Evaluator;
+import com.calculator.astcalculator.Lexer;
+import com.calculator.astcalculator.NodeFactory;
+import com.calculator.astcalculator.ParseOptions;
+import com.calculator.astcalculator.Parser;
+import com.calculator.astcalculator.Variables;
+import com.calculator.astcalculator.exception.ValidationException;
+import com.calculator.astcalculator.nodes.AstNode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class InterpreterTest {
+
+  private static Program compile(final String expression) {
+    return ProgramCompiler.compile(Parser.parse(new Lexer(expression)));
+  }
+
+  private static Program compileShared(final String expression) {
+    AstNode ast =
+        Parser.parse(
+            new Lexer(expression),
+            ParseOptions.DEFAULT.withVariables(new Variables()).withFactory(new NodeFactory()));
+    return ProgramCompiler.compile(ast, true);
+  }
+
+  @Test
+  void testMatchesEvaluator() {
+    String[] expressions = {
+      "42",
+      "2 + 3 * 4",
+      "(1 + 2) * 3",
+      "10 + 2 * 3 - 4 / 2",
+      "-(2 + 3) * -(1 + 1)",
+      "---5",
+      "7 / -3",
+      "(10 + 2) * 3 - (4 + 2) * (7 - 4) + 3",
+      "1 - (2 - (3 - (4 - (5 - 6))))"
+    };
+    for (String expr : expressions) {
+      AstNode ast = Parser.parse(new Lexer(expr));
+      assertEquals(Evaluator.evaluate(ast), ProgramCompiler.compile(ast).execute(), expr);
+    }
+  }
+
+  @Test
+  void testPostfixLayout() {
+    Program program = compile("-(1 + 2) * 3");
+    assertArrayEquals(
+        new int[] {
+          Opcodes.PUSH, 1, Opcodes.PUSH, 2, Opcodes.ADD, Opcodes.NEG, Opcodes.PUSH, 3, Opcodes.MUL
+        },
+        program.getCode());
+    assertEquals(2, program.getMaxStack());
+  }
+
+  @Test
+  void testMaxStackOfRightNestedExpression() {
+    assertEquals(4, compile("1 - (2 - (3 - 4))").getMaxStack());
+  }
+
+  @Test
+  void testOverflowAndDivisionByZero() {
+    assertThrows(ValidationException.class, () -> compile("2147483647 + 1").execute());
+    assertThrows(ValidationException.class, () -> compile("-2147483647 - 2").execute());
+    assertThrows(ValidationException.class, () -> compile("2147483647 * 2").execute());
+    assertThrows(ValidationException.class, () -> compile("(-2147483647 - 1) / -1").execute());
+    assertThrows(ValidationException.class, () -> compile("-(-2147483647 - 1)").execute());
+    assertThrows(ValidationException.class, () -> compile("10 / (5 - 5)").execute());
+  }
+
+  @Test
+  void testCallerSuppliedStack() {
+    Program program = compile("(1 + 2) * (3 + 4)");
+    assertEquals(21, Interpreter.execute(program, new int[program.getMaxStack()]));
+  }
+
+  @Test
+  void testLargeFramesAreNotKeptPerThread() {
+    int depth = Interpreter.MAX_SHARED_STACK * 2;
+    String expression = "1 - (".repeat(depth) + "1" + ")".repeat(depth);
+    AstNode ast = Parser.parse(new Lexer(expression), ParseOptions.DEFAULT.withMaxDepth(depth * 2));
+    Program program = ProgramCompiler.compile(ast);
+    assertTrue(program.getMaxStack() > Interpreter.MAX_SHARED_STACK);
+
+    assertEquals(Evaluator.evaluate(ast), Interpreter.execute(program));
+    assertTrue(Interpreter.sharedStackLength() <= Interpreter.MAX_SHARED_STACK);
+    assertEquals(21, Interpreter.execute(compile("(1 + 2) * (3 + 4)")));
+  }
+
+  @Test
+  void testSharedSubtreeIsComputedOnce() {
+    Program program = compileShared("(1 + 2) * (1 + 2) - (1 + 2)");
+    assertArrayEquals(
+        new int[] {
+          Opcodes.PUSH,
+          1,
+          Opcodes.PUSH,
+          2,
+          Opcodes.ADD,
+          Opcodes.STORE_TEMP,
+          0,
+          Opcodes.LOAD_TEMP,
+          0,
+          Opcodes.MUL,
+          Opcodes.LOAD_TEMP,
+          0,
+          Opcodes.SUB
+        },
+        program.getCode());
+    assertEquals(1, program.getTempCount());
+    assertEquals(6, program.execute());
+    // Leaves are cheaper to reload than to store.
+    assertEquals(0, compileShared("x * x + x").getTempCount());
+  }
+
+  @Test
+  void testSharedProgramsMatchUnshared() {
+    Random random = new Random(7);
+    String[] operators = {" + ", " - ", " * ", " / "};
+    String[] atoms = {"x", "y", "(x + y)", "(x - 3) * y", "-(x * x)", "(y / 2 - x)"};
+    int[] bindings = new int[2];
+    for (int i = 0; i < 2_000; i++) {
+      StringBuilder sb = new StringBuilder(atoms[random.nextInt(atoms.length)]);
+      for (int j = 0; j < 6; j++) {
+        sb.append(operators[random.nextInt(4)]).append(atoms[random.nextInt(atoms.length)]);
+      }
+      String expression = sb.toString();
+      Program plain =
+          ProgramCompiler.compile(
+              Parser.parse(
+                  new Lexer(expression), ParseOptions.DEFAULT.withVariables(new Variables())));
+      Program shared = compileShared(expression);
+      bindings[0] = random.nextInt(2000) - 1000;
+      bindings[1] = random.nextInt(8) == 0 ? 0 : random.nextInt(2000) - 1000;
+      Object expected;
+      try {
+        expected = plain.execute(bindings);
+      } catch (ValidationException e) {
+        expected = e.getMessage();
+      }
+      Object actual;
+      try {
+        actual = shared.execute(bindings);
+      } catch (ValidationException e) {
+        actual = e.getMessage();
+      }
+      assertEquals(expected, actual, expression);
+      assertTrue(shared.getCode().length <= plain.getCode().length, expression);
+    }
+  }
+
+  @Test
+  void testSharedErrorsSurface() {
+    assertThrows(
+        ValidationException.class,
+        () -> compileShared("(2147483647 + 1) * (2147483647 + 1)").execute());
+    ValidationException e =
+        assertThrows(
+            ValidationException.class, () -> compileShared("1 / (3 - 3) + 1 / (3 - 3)").execute());
+    assertEquals("Division by zero", e.getMessage());
+  }
+
+  @Test
+  void testSharedProgramOnCallerSuppliedStack() {
+    Program program = compileShared("(1 + 2) * (1 + 2)");
+    int[] stack = new int[program.getMaxStack() + program.getTempCount()];
+    assertEquals(9, Interpreter.execute(program, new int[0], stack));
+  }
+}
@@ -0,0 +1,222 @@
+package com.calculator.astcalculator.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class CalculatorMetricsTest {
+
+  @Test
+  void testSameResultsAndErrorsAsCalculate() {
+    CalculatorMetrics metrics = new CalculatorMetrics();
+    List<String> expressions =
+        List.of(
+            "2 + 3 * (4 - 1)",
+            "-(-7)",
+            "1 / 0",
+            "(1 +",
+            "x + 1",
+            "2147483647 + 1",
+            "99999999999",
+            " ",
+            "9",
+            "$",
+            "1 $",
+            "1 + + $",
+            "(1 + 2)) $");
+    for (String expression : expressions) {
+      try {
+        int expected = AstCalculator.calculate(expression);
+        assertEquals(expected, AstCalculator.calculate(expression, metrics), expression);
+      } catch (CalculatorException expected) {
+        CalculatorException actual =
+            assertThrows(
+                CalculatorException.class,
+                () -> AstCalculator.calculate(expression, metrics),
+                expression);
+        assertEquals(expected.getClass(), actual.getClass(), expression);
+        assertEquals(expected.getMessage(), actual.getMessage(), expression);
+      }
+    }
+    assertEquals(expressions.size(), metrics.calculations());
+  }
+
+  @Test
+  void testRandomInputMatchesCalculate() {
+    CalculatorMetrics metrics = new CalculatorMetrics();
+    Random random = new Random(42);
+    String alphabet = "0123456789+-*/() $x";
+    for (int i = 0; i < 20_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int n = 1 + random.nextInt(12); n > 0; n--) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      String expression = sb.toString();
+      String expected;
+      try {
+        expected = Integer.toString(AstCalculator.calculate(expression));
+      } catch (CalculatorException e) {
+        expected = e.getClass().getSimpleName() + ": " + e.getMessage();
+      }
+      String actual;
+      try {
+        actual = Integer.toString(AstCalculator.calculate(expression, metrics));
+      } catch (CalculatorException e) {
+        actual = e.getClass().getSimpleName() + ": " + e.getMessage();
+      }
+      assertEquals(expected, actual, expression);
+    }
+    assertEquals(20_000, metrics.calculations());
+  }
+
+  @Test
+  void testStagesSizesAndErrors() {
+    CalculatorMetrics metrics = new CalculatorMetrics();
+    assertEquals(11, AstCalculator.calculate("2 + 3 * (4 - 1)", metrics));
+    assertThrows(ValidationException.class, () -> AstCalculator.calculate("1 / 0", metrics));
+    assertThrows(ValidationException.class, () -> AstCalculator.calculate("7 / (2 - 2)", metrics));
+    assertThrows(InvalidExpressionException.class, () -> AstCalculator.calculate("(1 +", metrics));
+    assertThrows(InvalidExpressionException.class, () -> AstCalculator.calculate("1 $", metrics));
+
+    assertEquals(5, metrics.calculations());
+    // "(1 +" fails in the parser, and so does "1 $", where the parser reaches the character the
+    // tokenizer rejected. "1 / 0" fails in the validator and "7 / (2 - 2)" in the evaluator, after
+    // it has been lowered.
+    assertEquals(5, metrics.latency(Stage.TOKENIZE).count());
+    assertEquals(3, metrics.latency(Stage.PARSE).count());
+    assertEquals(2, metrics.latency(Stage.VALIDATE).count());
+    assertEquals(2, metrics.latency(Stage.LOWER).count());
+    assertEquals(1, metrics.latency(Stage.EVALUATE).count());
+
+    // 2 + 3 * ( 4 - 1 ): 9 tokens, 7 nodes.
+    assertEquals(9, metrics.tokens().max());
+    assertEquals(7, metrics.nodes().max());
+    assertEquals(3, metrics.nodes().count());
+
+    assertEquals(4, metrics.errors());
+    assertEquals(2, metrics.errors(ValidationException.class));
+    assertEquals(2, metrics.errors(InvalidExpressionException.class));
+    assertEquals(
+        Map.of("InvalidExpressionException", 2L, "ValidationException", 2L),
+        metrics.errorsByType());
+  }
+
+  @Test
+  void testInstrumentedCalculationRecordsCompileAndEvaluateEvents() throws Exception {
+    CalculatorMetrics metrics = new CalculatorMetrics();
+    Path file = Files.createTempFile("events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(CompileEvent.NAME).withThreshold(Duration.ZERO);
+      recording.enable(EvaluateEvent.NAME).withThreshold(Duration.ZERO);
+      recording.start();
+      assertEquals(11, AstCalculator.calculate("2 + 3 * (4 - 1)", metrics));
+      assertThrows(
+          InvalidExpressionException.class, () -> AstCalculator.calculate("(7 +", metrics));
+      recording.stop();
+      recording.dump(file);
+
+      Map<String, List<String>> outcomes =
+          RecordingFile.readAllEvents(file).stream()
+              .filter(e -> e.getEventType().getName().startsWith("com.calculator."))
+              .filter(e -> !e.getEventType().getName().equals(MetricsEvent.NAME))
+              .collect(
+                  Collectors.groupingBy(
+                      e -> e.getEventType().getName() + " " + e.getString("expression"),
+                      Collectors.mapping(e -> e.getString("outcome"), Collectors.toList())));
+      assertEquals(
+          Map.of(
+              CompileEvent.NAME + " 2 + 3 * (4 - 1)", List.of("OK"),
+              EvaluateEvent.NAME + " 2 + 3 * (4 - 1)", List.of("OK"),
+              CompileEvent.NAME + " (7 +", List.of("InvalidExpressionException")),
+          outcomes);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+    assertEquals(1, metrics.latency(Stage.LOWER).count());
+    assertEquals(1, metrics.latency(Stage.EVALUATE).count());
+  }
+
+  @Test
+  void testJmxRegistration() throws Exception {
+    CalculatorMetrics metrics = new CalculatorMetrics();
+    AstCalculator.calculate("1 + 2", metrics);
+    assertThrows(ValidationException.class, () -> AstCalculator.calculate("1 / 0", metrics));
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName counters = new ObjectName("com.calculator:type=CalculatorMetrics,name=jmxTest");
+    ObjectName parse =
+        new ObjectName("com.calculator:type=CalculatorMetrics,name=jmxTest,histogram=parse");
+
+    metrics.register("jmxTest");
+    try {
+      assertEquals(2L, server.getAttribute(counters, "Calculations"));
+      assertEquals(1L, server.getAttribute(counters, "Errors"));
+      TabularData byType = (TabularData) server.getAttribute(counters, "ErrorsByType");
+      assertEquals(1, byType.size());
+      assertEquals(2L, server.getAttribute(parse, "Count"));
+      assertTrue((Long) server.getAttribute(parse, "P99") > 0);
+
+      assertThrows(IllegalStateException.class, () -> metrics.register("other"));
+      assertThrows(IllegalStateException.class, () -> new CalculatorMetrics().register("jmxTest"));
+    } finally {
+      metrics.unregister();
+    }
+    assertFalse(server.isRegistered(counters));
+    assertFalse(server.isRegistered(parse));
+    metrics.unregister();
+
+    assertThrows(IllegalArgumentException.class, () -> metrics.register("bad,name"));
+    metrics.register("jmxTest");
+    metrics.unregister();
+  }
+
+  @Test
+  void testPeriodicJfrEvent() throws Exception {
+    CalculatorMetrics metrics = new CalculatorMetrics();
+    for (int i = 0; i < 100; i++) {
+      AstCalculator.calculate(i + " * 2", metrics);
+    }
+    Path file = Files.createTempFile("metrics", ".jfr");
+    metrics.register("jfrTest");
+    try (Recording recording = new Recording()) {
+      recording.enable(MetricsEvent.NAME).withPeriod(Duration.ofMillis(50));
+      recording.start();
+      Thread.sleep(300);
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events =
+          RecordingFile.readAllEvents(file).stream()
+              .filter(e -> e.getEventType().getName().equals(MetricsEvent.NAME))
+              .filter(e -> e.getString("name").equals("jfrTest"))
+              .toList();
+      assertFalse(events.isEmpty());
+      RecordedEvent event = events.getLast();
+      assertEquals(100, event.getLong("calculations"));
+      assertEquals(0, event.getLong("errors"));
+      assertEquals(3, event.getLong("tokensP99"));
+      assertTrue(event.getDuration("lowerP99").toNanos() > 0);
+      assertTrue(event.getDuration("evaluateP99").toNanos() > 0);
+    } finally {
+      metrics.unregister();
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.calculator.astcalculator.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompileOptions;
+import com.calculator.astcalculator.CompiledExpression;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class ExpressionEventTest {
+
+  /** Runs {@code action} under a recording of both events and reads the events back. */
+  private static List<RecordedEvent> record(final Duration threshold, final Runnable action)
+      throws IOException {
+    Path file = Files.createTempFile("events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(CompileEvent.NAME).withThreshold(threshold);
+      recording.enable(EvaluateEvent.NAME).withThreshold(threshold);
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /** The only event of type {@code name} recorded for {@code expression}. */
+  private static RecordedEvent find(
+      final List<RecordedEvent> events, final String name, final String expression) {
+    List<RecordedEvent> matching =
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals(name))
+            .filter(e -> e.getString("expression").equals(expression))
+            .toList();
+    assertEquals(1, matching.size(), name + " for " + expression);
+    return matching.getFirst();
+  }
+
+  @Test
+  void testCompileAndEvaluateEvents() throws IOException {
+    List<RecordedEvent> events =
+        record(Duration.ZERO, () -> assertEquals(11, AstCalculator.calculate("2 + 3 * (4 - 1)")));
+
+    RecordedEvent compile = find(events, CompileEvent.NAME, "2 + 3 * (4 - 1)");
+    assertEquals(15, compile.getInt("expressionLength"));
+    assertEquals(9, compile.getInt("tokenCount"));
+    assertEquals(4, compile.getInt("astDepth"));
+    assertEquals(7, compile.getInt("nodeCount"));
+    assertEquals("OK", compile.getString("outcome"));
+    assertTrue(compile.getLong("allocated") > 0);
+    assertNotNull(compile.getStackTrace());
+
+    RecordedEvent evaluate = find(events, EvaluateEvent.NAME, "2 + 3 * (4 - 1)");
+    assertEquals(9, evaluate.getInt("tokenCount"));
+    assertEquals(7, evaluate.getInt("nodeCount"));
+    assertEquals("OK", evaluate.getString("outcome"));
+    assertTrue(evaluate.getLong("allocated") >= 0);
+  }
+
+  @Test
+  void testCharSequenceAndByteInputRecordTheSameEvents() throws IOException {
+    byte[] bytes = "xx 6 * 7".getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+    List<RecordedEvent> events =
+        record(
+            Duration.ZERO,
+            () -> {
+              assertEquals(11, AstCalculator.calculate(new StringBuilder("2 + 3 * (4 - 1)")));
+              assertEquals(42, AstCalculator.calculate(direct, 3, 5));
+            });
+
+    RecordedEvent compile = find(events, CompileEvent.NAME, "2 + 3 * (4 - 1)");
+    assertEquals(9, compile.getInt("tokenCount"));
+    assertEquals(7, compile.getInt("nodeCount"));
+    assertEquals(7, find(events, EvaluateEvent.NAME, "2 + 3 * (4 - 1)").getInt("nodeCount"));
+    assertEquals(3, find(events, CompileEvent.NAME, "6 * 7").getInt("tokenCount"));
+    assertEquals("OK", find(events, EvaluateEvent.NAME, "6 * 7").getString("outcome"));
+  }
+
+  @Test
+  void testFailuresRecordTheirOutcome() throws IOException {
+    List<RecordedEvent> events =
+        record(
+            Duration.ZERO,
+            () -> {
+              assertThrows(InvalidExpressionException.class, () -> AstCalculator.compile("(1 +"));
+              assertThrows(ValidationException.class, () -> AstCalculator.calculate("7 / (2 - 2)"));
+            });
+
+    RecordedEvent parse = find(events, CompileEvent.NAME, "(1 +");
+    assertEquals("InvalidExpressionException", parse.getString("outcome"));
+    assertEquals(3, parse.getInt("tokenCount"));
+    assertEquals(0, parse.getInt("nodeCount"));
+    assertEquals(0, parse.getInt("astDepth"));
+
+    assertEquals("OK", find(events, CompileEvent.NAME, "7 / (2 - 2)").getString("outcome"));
+    assertEquals(
+        "ValidationException",
+        find(events, EvaluateEvent.NAME, "7 / (2 - 2)").getString("outcome"));
+  }
+
+  @Test
+  void testThresholdFiltersFastCalls() throws IOException {
+    List<RecordedEvent> events =
+        record(Duration.ofHours(1), () -> assertEquals(3, AstCalculator.calculate("1 + 2")));
+    assertTrue(
+        events.stream()
+            .map(e -> e.getEventType().getName())
+            .noneMatch(n -> n.equals(CompileEvent.NAME) || n.equals(EvaluateEvent.NAME)));
+  }
+
+  @Test
+  void testFastCallsDoNotCopyTheSource() throws IOException {
+    int[] copies = {0};
+    CharSequence source =
+        new CharSequence() {
+          private final String text = "6 * 7";
+
+          @Override
+          public int length() {
+            return text.length();
+          }
+
+          @Override
+          public char charAt(final int index) {
+            return text.charAt(index);
+          }
+
+          @Override
+          public CharSequence subSequence(final int start, final int end) {
+            return text.subSequence(start, end);
+          }
+
+          @Override
+          public String toString() {
+            copies[0]++;
+            return text;
+          }
+        };
+
+    record(Duration.ofHours(1), () -> assertEquals(42, AstCalculator.calculate(source)));
+    assertEquals(0, copies[0]);
+
+    List<RecordedEvent> events =
+        record(Duration.ZERO, () -> assertEquals(42, AstCalculator.calculate(source)));
+    find(events, CompileEvent.NAME, "6 * 7");
+    find(events, EvaluateEvent.NAME, "6 * 7");
+    assertEquals(2, copies[0]);
+  }
+
+  @Test
+  void testLongExpressionIsTruncated() throws IOException {
+    String sum = String.join(" + ", Collections.nCopies(10_000, "1"));
+    List<RecordedEvent> events =
+        record(Duration.ZERO, () -> assertEquals(10_000, AstCalculator.calculate(sum)));
+    String prefix = sum.substring(0, ExpressionEvent.MAX_EXPRESSION_CHARS);
+
+    RecordedEvent compile = find(events, CompileEvent.NAME, prefix);
+    assertEquals(sum.length(), compile.getInt("expressionLength"));
+    assertEquals(19_999, compile.getInt("tokenCount"));
+    assertEquals(19_999, compile.getInt("nodeCount"));
+    // 9,999 additions over one shared literal.
+    assertEquals(10_000, compile.getInt("distinctNodeCount"));
+    assertEquals(10_000, compile.getInt("astDepth"));
+  }
+
+  @Test
+  void testNodeCountDoesNotDependOnLiteralSharing() throws IOException {
+    List<RecordedEvent> events =
+        record(
+            Duration.ZERO,
+            () -> {
+              assertEquals(2000, AstCalculator.calculate("1000 + 1000"));
+              assertEquals(4000, AstCalculator.calculate("2000 + 2000"));
+            });
+
+    // 1000 comes from the NumberNode.of cache, 2000 does not.
+    RecordedEvent cached = find(events, CompileEvent.NAME, "1000 + 1000");
+    assertEquals(3, cached.getInt("nodeCount"));
+    assertEquals(2, cached.getInt("distinctNodeCount"));
+    RecordedEvent uncached = find(events, CompileEvent.NAME, "2000 + 2000");
+    assertEquals(3, uncached.getInt("nodeCount"));
+    assertEquals(3, uncached.getInt("distinctNodeCount"));
+  }
+
+  @Test
+  void testSharedSubtreesAreMeasuredOnce() throws IOException {
+    String expression = "(1 + 2) * (1 + 2)";
+    List<RecordedEvent> events =
+        record(
+            Duration.ZERO,
+            () -> {
+              CompiledExpression compiled =
+                  AstCalculator.compile(expression, CompileOptions.DEFAULT.withCse(true));
+              assertEquals(9, compiled.evaluate());
+            });
+
+    RecordedEvent evaluate = find(events, EvaluateEvent.NAME, expression);
+    assertEquals(7, evaluate.getInt("nodeCount"));
+    assertEquals(4, evaluate.getInt("distinctNodeCount"));
+    assertEquals(3, evaluate.getInt("astDepth"));
+  }
+}
@@ -0,0 +1,106 @@
+package com.calculator.astcalculator.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+  @Test
+  void testEmpty() {
+    Histogram histogram = new Histogram();
+    assertEquals(0, histogram.count());
+    assertEquals(0, histogram.max());
+    assertEquals(0, histogram.mean());
+    assertEquals(0, histogram.percentile(0.99));
+  }
+
+  @Test
+  void testSmallValuesAreExact() {
+    Histogram histogram = new Histogram();
+    for (int v = 1; v <= 10; v++) {
+      histogram.record(v);
+    }
+    assertEquals(10, histogram.count());
+    assertEquals(55, histogram.sum());
+    assertEquals(5.5, histogram.mean());
+    assertEquals(10, histogram.max());
+    assertEquals(1, histogram.percentile(0));
+    assertEquals(5, histogram.percentile(0.5));
+    assertEquals(9, histogram.percentile(0.9));
+    assertEquals(10, histogram.percentile(1));
+  }
+
+  @Test
+  void testBucketsCoverEveryValueOnce() {
+    long previous = -1;
+    for (int bucket = 0; bucket < Histogram.BUCKETS - 1; bucket++) {
+      long highest = Histogram.highestValueOf(bucket);
+      assertEquals(bucket, Histogram.bucketOf(previous + 1), "lowest of " + bucket);
+      assertEquals(bucket, Histogram.bucketOf(highest), "highest of " + bucket);
+      previous = highest;
+    }
+    assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(previous + 1));
+    assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testPercentilesWithinRelativeError() {
+    Random random = new Random(42);
+    Histogram histogram = new Histogram();
+    long[] values = new long[100_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 25); // 1 ns to ~72 s
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double fraction : new double[] {0.1, 0.5, 0.9, 0.99, 0.999}) {
+      long exact = values[(int) Math.ceil(fraction * values.length) - 1];
+      long reported = histogram.percentile(fraction);
+      assertTrue(reported >= exact, fraction + ": " + reported + " < " + exact);
+      assertTrue(
+          reported <= exact + exact / Histogram.SUB_BUCKETS,
+          fraction + ": " + reported + " too far above " + exact);
+    }
+    assertEquals(values[values.length - 1], histogram.max());
+    assertEquals(values[values.length - 1], histogram.percentile(1));
+  }
+
+  @Test
+  void testNegativeValuesRecordAsZero() {
+    Histogram histogram = new Histogram();
+    histogram.record(-5);
+    assertEquals(0, histogram.max());
+    assertEquals(0, histogram.percentile(1));
+    assertEquals(1, histogram.count());
+  }
+
+  @Test
+  void testInvalidFraction() {
+    Histogram histogram = new Histogram();
+    assertThrows(IllegalArgumentException.class, () -> histogram.percentile(1.5));
+    assertThrows(IllegalArgumentException.class, () -> histogram.percentile(Double.NaN));
+  }
+
+  @Test
+  void testConcurrentRecording() {
+    Histogram histogram = new Histogram();
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (int t = 0; t < 8; t++) {
+        executor.execute(
+            () -> {
+              for (int i = 0; i < 100_000; i++) {
+                histogram.record(i % 1000);
+              }
+            });
+      }
+    }
+    assertEquals(800_000, histogram.count());
+    assertEquals(8L * 100 * (999 * 1000 / 2), histogram.sum());
+    assertEquals(999, histogram.max());
+  }
+}
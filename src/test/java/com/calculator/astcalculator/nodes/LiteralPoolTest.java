@@ -0,0 +1,125 @@
+package com.calculator.astcalculator.nodes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.CompileOptions;
+import com.calculator.astcalculator.Lexer;
+import com.calculator.astcalculator.NodeFactory;
+import com.calculator.astcalculator.ParseOptions;
+import com.calculator.astcalculator.Parser;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class LiteralPoolTest {
+
+  @Test
+  void testSmallValuesAreShared() {
+    for (int value : new int[] {-128, -1, 0, 1, 2, 10, 100, 1024}) {
+      assertSame(NumberNode.of(value), NumberNode.of(value), "value " + value);
+      assertEquals(value, NumberNode.of(value).getValue());
+    }
+    assertSame(NumberNode.of(7), WideNumberNode.of(BigInteger.valueOf(7)));
+    assertNotSame(NumberNode.of(1025), NumberNode.of(1025));
+    assertNotSame(NumberNode.of(-129), NumberNode.of(-129));
+
+    BigInteger wide = new BigInteger("90000000000");
+    assertEquals(wide, assertInstanceOf(WideNumberNode.class, WideNumberNode.of(wide)).getValue());
+  }
+
+  @Test
+  void testLargeValuesArePooled() {
+    LiteralPool pool = new LiteralPool(64);
+    NumberNode node = pool.number(1_000_000);
+    assertEquals(1_000_000, node.getValue());
+    assertSame(node, pool.number(1_000_000));
+    assertSame(pool.number(Integer.MIN_VALUE), pool.number(Integer.MIN_VALUE));
+    assertSame(NumberNode.of(5), pool.number(5));
+    assertNotSame(pool.number(2000), pool.number(2001));
+    assertEquals(4, pool.size());
+  }
+
+  @Test
+  void testCapacityBoundsThePool() {
+    LiteralPool pool = new LiteralPool(100);
+    assertEquals(128, pool.capacity());
+    for (int value = 10_000; value < 20_000; value++) {
+      assertEquals(value, pool.number(value).getValue());
+    }
+    assertTrue(pool.size() <= pool.capacity());
+    assertTrue(pool.size() > 0);
+    assertEquals(8, new LiteralPool(1).capacity());
+    assertThrows(IllegalArgumentException.class, () -> new LiteralPool(0));
+  }
+
+  @Test
+  void testConcurrentCallersGetOneNode() throws InterruptedException {
+    LiteralPool pool = new LiteralPool(4096);
+    int threads = 8;
+    List<List<NumberNode>> seen = new ArrayList<>();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      List<NumberNode> nodes = new ArrayList<>();
+      seen.add(nodes);
+      workers.add(
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    try {
+                      start.await();
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                    }
+                    for (int value = 5000; value < 7000; value++) {
+                      nodes.add(pool.number(value));
+                    }
+                  }));
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    for (int i = 0; i < 2000; i++) {
+      for (int t = 1; t < threads; t++) {
+        assertSame(seen.get(0).get(i), seen.get(t).get(i), "value " + (5000 + i));
+      }
+    }
+  }
+
+  @Test
+  void testParsedTreesShareLiterals() {
+    ParseOptions options = ParseOptions.DEFAULT.withMaxDepth(100).withLiterals(new LiteralPool(64));
+    BinaryOpNode first = (BinaryOpNode) Parser.parse(new Lexer("1 + 65536"), options);
+    BinaryOpNode second = (BinaryOpNode) Parser.parse(new Lexer("1 * 65536"), options);
+    assertSame(first.getLeft(), second.getLeft());
+    assertSame(first.getRight(), second.getRight());
+
+    BinaryOpNode plain = (BinaryOpNode) Parser.parse(new Lexer("1 - 65536"));
+    assertSame(first.getLeft(), plain.getLeft());
+    assertNotSame(first.getRight(), plain.getRight());
+
+    assertThrows(IllegalArgumentException.class, () -> options.withFactory(new NodeFactory()));
+  }
+
+  @Test
+  void testInternedLiteralsEvaluateAlike() {
+    CompileOptions pooled = CompileOptions.DEFAULT.withInternLiterals(true);
+    for (String expression :
+        List.of("100000 * 3 - 100000", "-(2147483647) - 1", "x * 70000 + x", "(5000 + 1) / 7")) {
+      int[] bindings = expression.contains("x") ? new int[] {3} : new int[0];
+      assertEquals(
+          AstCalculator.compile(expression).evaluate(bindings),
+          AstCalculator.compile(expression, pooled).evaluate(bindings),
+          expression);
+      assertEquals(
+          AstCalculator.compile(expression).evaluate(bindings),
+          AstCalculator.compile(expression, pooled.withCse(true).withOptimize(true))
+              .evaluate(bindings),
+          expression);
+    }
+  }
+}
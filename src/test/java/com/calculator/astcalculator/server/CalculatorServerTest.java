@@ -0,0 +1,174 @@
+package com.calculator.astcalculator.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.ExpressionCache;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CalculatorServerTest {
+
+  /** Server under test, on a free loopback port. */
+  private CalculatorServer server;
+
+  /** Client shared by the tests. */
+  private HttpClient client;
+
+  /** URI of the service. */
+  private URI uri;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server =
+        CalculatorServer.start(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), new ExpressionCache(64));
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + CalculatorServer.PATH);
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    server.close();
+  }
+
+  private HttpResponse<String> post(final String contentType, final String body)
+      throws IOException, InterruptedException {
+    HttpRequest request =
+        HttpRequest.newBuilder(uri)
+            .header("Content-Type", contentType)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  @Test
+  void testSingleExpression() throws Exception {
+    HttpResponse<String> response = post("text/plain", "(1 + 2) * 3");
+    assertEquals(200, response.statusCode());
+    assertEquals("9\n", response.body());
+  }
+
+  @Test
+  void testLineBatchKeepsOrderAndReportsErrors() throws Exception {
+    HttpResponse<String> response = post("text/plain", "1 + 1\r\n5 / 0\n(2 +\n7 * 6\n");
+    assertEquals(200, response.statusCode());
+    String[] lines = response.body().split("\n");
+    assertEquals(4, lines.length);
+    assertEquals("2", lines[0]);
+    assertTrue(lines[1].startsWith("error: "), lines[1]);
+    assertTrue(lines[2].startsWith("error: "), lines[2]);
+    assertEquals("42", lines[3]);
+  }
+
+  @Test
+  void testJsonBatch() throws Exception {
+    HttpResponse<String> response =
+        post("application/json; charset=utf-8", " [\"1 + 2\", \"4 / 0\", \"-\\u0033\"] ");
+    assertEquals(200, response.statusCode());
+    assertEquals("application/json", response.headers().firstValue("Content-Type").orElseThrow());
+    String body = response.body();
+    assertTrue(body.startsWith("[{\"value\":3},{\"error\":\""), body);
+    assertTrue(body.endsWith("},{\"value\":-3}]\n"), body);
+  }
+
+  @Test
+  void testEmptyJsonBatch() throws Exception {
+    HttpResponse<String> response = post("application/json", "[]");
+    assertEquals(200, response.statusCode());
+    assertEquals("[]\n", response.body());
+  }
+
+  @Test
+  void testMalformedJsonIsRejected() throws Exception {
+    assertEquals(400, post("application/json", "[\"1 + 2\"").statusCode());
+    assertEquals(400, post("application/json", "[1]").statusCode());
+    assertEquals(400, post("application/json", "[\"1\"] x").statusCode());
+  }
+
+  @Test
+  void testOnlyPostIsAllowed() throws Exception {
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    assertEquals(405, response.statusCode());
+    assertEquals("POST", response.headers().firstValue("Allow").orElseThrow());
+  }
+
+  @Test
+  void testRequestsShareTheCache() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      assertEquals("7\n", post("text/plain", "1 + 2 * 3").body());
+    }
+    assertEquals(1, server.getCache().missCount());
+    assertEquals(4, server.getCache().hitCount());
+  }
+
+  @Test
+  void testLongExpressionsAreNotCached() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      String expression = i + " + 1".repeat(ExpressionCache.DEFAULT_MAX_LENGTH);
+      HttpResponse<String> response = post("text/plain", expression);
+      assertEquals(200, response.statusCode());
+      assertEquals((i + ExpressionCache.DEFAULT_MAX_LENGTH) + "\n", response.body());
+    }
+    assertEquals(0, server.getCache().size());
+    assertEquals(3, server.getCache().missCount());
+  }
+
+  @Test
+  void testConnectionIsKeptAlive() throws Exception {
+    try (Socket socket =
+        new Socket(InetAddress.getLoopbackAddress(), server.getAddress().getPort())) {
+      OutputStream out = socket.getOutputStream();
+      BufferedReader in =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      for (String expression : new String[] {"2 * 21", "10 - 3"}) {
+        String request =
+            "POST "
+                + CalculatorServer.PATH
+                + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                + expression.length()
+                + "\r\n\r\n"
+                + expression;
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+
+        assertEquals("HTTP/1.1 200 OK", in.readLine());
+        int length = -1;
+        for (String header = in.readLine(); !header.isEmpty(); header = in.readLine()) {
+          if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+            length = Integer.parseInt(header.substring(15).trim());
+          }
+        }
+        char[] body = new char[length];
+        assertEquals(length, in.read(body));
+        assertEquals(expression.equals("2 * 21") ? "42\n" : "7\n", new String(body));
+      }
+    }
+  }
+
+  @Test
+  void testLoadTestClient() throws Exception {
+    LoadTestClient.Report report =
+        LoadTestClient.run(uri, "1 + 2\n3 * 4\n", 4, Duration.ofMillis(500));
+    assertTrue(report.requests() > 0);
+    assertEquals(0, report.failures());
+    assertTrue(report.p50() <= report.p99());
+  }
+}
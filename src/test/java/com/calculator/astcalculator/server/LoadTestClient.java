@@ -0,0 +1,189 @@
+package com.calculator.astcalculator.server;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for {@link CalculatorServer}.
+ *
+ * <p>Each of {@code clients} virtual threads keeps one HTTP/1.1 connection open and sends a
+ * request, waits for the response and sends the next one until the duration is up. Requests are
+ * written with a single write on a {@code TCP_NODELAY} socket, so the numbers measure the server
+ * rather than the client. Latencies of successful requests are collected per client and merged at
+ * the end, so recording them costs no synchronisation.
+ *
+ * <p>Run against a server started with {@code Main serve}:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes \
+ *     com.calculator.astcalculator.server.LoadTestClient http://localhost:8080/calculate 64 10
+ * </pre>
+ */
+public final class LoadTestClient {
+
+  /** Result of a load test. */
+  public record Report(long requests, long failures, double throughput, long p50, long p99) {
+
+    @Override
+    public String toString() {
+      return String.format(
+          "requests=%d failures=%d throughput=%.0f req/s p50=%dus p99=%dus",
+          requests, failures, throughput, p50 / 1_000, p99 / 1_000);
+    }
+  }
+
+  private LoadTestClient() {}
+
+  /**
+   * Sends {@code body} to {@code uri} from {@code clients} concurrent connections.
+   *
+   * @param uri the service URI
+   * @param body the request body, one expression per line
+   * @param clients the number of concurrent connections
+   * @param duration how long to keep sending
+   * @return the request count, failure count, throughput in requests per second and the median and
+   *     99th percentile latency in nanoseconds
+   * @throws Exception if a client thread fails unexpectedly
+   */
+  public static Report run(
+      final URI uri, final String body, final int clients, final Duration duration)
+      throws Exception {
+    byte[] content = body.getBytes(StandardCharsets.UTF_8);
+    byte[] head =
+        ("POST "
+                + uri.getRawPath()
+                + " HTTP/1.1\r\nHost: "
+                + uri.getHost()
+                + "\r\nContent-Type: text/plain\r\nContent-Length: "
+                + content.length
+                + "\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+    byte[] request = Arrays.copyOf(head, head.length + content.length);
+    System.arraycopy(content, 0, request, head.length, content.length);
+
+    AtomicLong failures = new AtomicLong();
+    long start = System.nanoTime();
+    long deadline = start + duration.toNanos();
+
+    List<long[]> perClient = new ArrayList<>(clients);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<long[]>> futures = new ArrayList<>(clients);
+      for (int c = 0; c < clients; c++) {
+        futures.add(executor.submit(() -> client(uri, request, deadline, failures)));
+      }
+      for (Future<long[]> future : futures) {
+        perClient.add(future.get());
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    return new Report(
+        all.length + failures.get(),
+        failures.get(),
+        all.length / seconds,
+        percentile(all, 0.50),
+        percentile(all, 0.99));
+  }
+
+  /** Sends requests over one connection, reconnecting after an error, until the deadline. */
+  private static long[] client(
+      final URI uri, final byte[] request, final long deadline, final AtomicLong failures) {
+    long[] latencies = new long[1024];
+    int count = 0;
+    while (System.nanoTime() < deadline) {
+      try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+        socket.setTcpNoDelay(true);
+        OutputStream out = socket.getOutputStream();
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        while (System.nanoTime() < deadline) {
+          long sent = System.nanoTime();
+          out.write(request);
+          out.flush();
+          if (readResponse(in) != 200) {
+            failures.incrementAndGet();
+            continue;
+          }
+          if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+          }
+          latencies[count++] = System.nanoTime() - sent;
+        }
+      } catch (IOException e) {
+        failures.incrementAndGet();
+      }
+    }
+    return Arrays.copyOf(latencies, count);
+  }
+
+  /**
+   * Reads one response, discarding its body.
+   *
+   * @return the status code
+   */
+  private static int readResponse(final InputStream in) throws IOException {
+    String status = readLine(in);
+    int length = 0;
+    for (String header = readLine(in); !header.isEmpty(); header = readLine(in)) {
+      if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+        length = Integer.parseInt(header.substring(15).trim());
+      }
+    }
+    in.skipNBytes(length);
+    if (status.length() < 12) {
+      throw new IOException("Malformed response: " + status);
+    }
+    return Integer.parseInt(status, 9, 12, 10);
+  }
+
+  private static String readLine(final InputStream in) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (int c = in.read(); c != '\n'; c = in.read()) {
+      if (c < 0) {
+        throw new IOException("Connection closed");
+      }
+      if (c != '\r') {
+        sb.append((char) c);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static long percentile(final long[] sorted, final double p) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+  }
+
+  /**
+   * Runs a load test and prints the report.
+   *
+   * @param args the service URI, then optionally the number of clients (default 32) and the
+   *     duration in seconds (default 10)
+   * @throws Exception if the load test fails
+   */
+  public static void main(final String[] args) throws Exception {
+    if (args.length < 1 || args.length > 3) {
+      System.err.println("Usage: LoadTestClient <uri> [<clients> [<seconds>]]");
+      System.exit(2);
+    }
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    String body = "(5 + 2) * 3 - 4 / 2\n1 + 2 * 3\n(7 - 5) * (3 + 4)\n";
+    System.out.println(run(URI.create(args[0]), body, clients, Duration.ofSeconds(seconds)));
+  }
+}
@@ -0,0 +1,194 @@
+package com.calculator.astcalculator.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.calculator.astcalculator.AstCalculator;
+import com.calculator.astcalculator.ExpressionCache;
+import com.calculator.astcalculator.batch.BatchResult;
+import com.calculator.astcalculator.exception.CalculatorException;
+import com.calculator.astcalculator.exception.InvalidExpressionException;
+import com.calculator.astcalculator.exception.ValidationException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WireServerTest {
+
+  /** Server under test, on a free loopback port. */
+  private WireServer server;
+
+  /** Address of {@link #server}. */
+  private InetSocketAddress address;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server =
+        WireServer.start(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), new ExpressionCache(64));
+    address = server.getAddress();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  /** Random valid and invalid expressions. */
+  private static List<String> corpus(final int size, final long seed) {
+    Random random = new Random(seed);
+    List<String> expressions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      switch (random.nextInt(8)) {
+        case 0 -> expressions.add(random.nextInt(100) + " / 0");
+        case 1 -> expressions.add("(" + random.nextInt(100) + " +");
+        case 2 -> expressions.add("2147483647 + " + (1 + random.nextInt(10)));
+        default ->
+            expressions.add(
+                random.nextInt(1000)
+                    + " * ("
+                    + random.nextInt(1000)
+                    + " - "
+                    + random.nextInt(50)
+                    + ")");
+      }
+    }
+    return expressions;
+  }
+
+  /** Asserts that {@code result} is what {@link AstCalculator#calculate(String)} gives. */
+  private static void assertMatchesCalculate(final BatchResult result) {
+    try {
+      int expected = AstCalculator.calculate(result.expression());
+      assertTrue(result.isSuccess(), result.expression());
+      assertEquals(expected, result.value(), result.expression());
+    } catch (CalculatorException expected) {
+      assertFalse(result.isSuccess(), result.expression());
+      assertEquals(expected.getClass(), result.error().getClass(), result.expression());
+      assertEquals(expected.getMessage(), result.error().getMessage(), result.expression());
+    }
+  }
+
+  @Test
+  void testEvaluate() throws IOException {
+    try (WireClient client = WireClient.connect(address)) {
+      assertEquals(9, client.evaluate("(1 + 2) * 3"));
+      assertEquals(-5, client.evaluate("-5"));
+      assertEquals(14, client.evaluate("2 + 3 * 4"));
+    }
+  }
+
+  @Test
+  void testErrorsKeepTheirTypeAndMessage() throws IOException {
+    try (WireClient client = WireClient.connect(address)) {
+      ValidationException division =
+          assertThrows(ValidationException.class, () -> client.evaluate("1 / 0"));
+      assertEquals(
+          assertThrows(ValidationException.class, () -> AstCalculator.calculate("1 / 0"))
+              .getMessage(),
+          division.getMessage());
+      assertThrows(InvalidExpressionException.class, () -> client.evaluate("(1 +"));
+      assertThrows(InvalidExpressionException.class, () -> client.evaluate("1 + é"));
+      // The connection is still usable after failures.
+      assertEquals(2, client.evaluate("1 + 1"));
+    }
+  }
+
+  @Test
+  void testPipelinedResultsMatchCalculate() throws IOException {
+    List<String> expressions = corpus(20_000, 7);
+    try (WireClient client = WireClient.connect(address)) {
+      List<BatchResult> results = client.evaluateAll(expressions);
+      assertEquals(expressions.size(), results.size());
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(expressions.get(i), results.get(i).expression());
+        assertMatchesCalculate(results.get(i));
+      }
+      assertEquals(List.of(), client.evaluateAll(List.of()));
+      assertEquals(3, client.evaluate("1 + 2"));
+    }
+  }
+
+  @Test
+  void testConcurrentClients() throws Exception {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int c = 0; c < 16; c++) {
+        long seed = c;
+        futures.add(
+            executor.submit(
+                () -> {
+                  try (WireClient client = WireClient.connect(address)) {
+                    client.evaluateAll(corpus(1_000, seed)).forEach(r -> assertMatchesCalculate(r));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+  }
+
+  @Test
+  void testFramesLargerThanTheBuffers() throws IOException {
+    String sum = String.join(" + ", Collections.nCopies(100_000, "1"));
+    String unclosed = "(".repeat(200_000);
+    try (WireClient client = WireClient.connect(address)) {
+      List<BatchResult> results = client.evaluateAll(List.of(sum, unclosed, sum));
+      assertEquals(100_000, results.get(0).value());
+      assertMatchesCalculate(results.get(1));
+      assertEquals(100_000, results.get(2).value());
+    }
+  }
+
+  @Test
+  void testOversizedExpressionIsRejectedByTheClient() throws IOException {
+    String huge = "1".repeat(WireProtocol.MAX_FRAME_BYTES + 1);
+    try (WireClient client = WireClient.connect(address)) {
+      assertThrows(IllegalArgumentException.class, () -> client.evaluateAll(List.of("1", huge)));
+    }
+  }
+
+  @Test
+  void testMalformedFrameClosesTheConnection() throws IOException {
+    try (SocketChannel channel = SocketChannel.open(address)) {
+      channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(-1).flip());
+      assertEquals(-1, channel.read(ByteBuffer.allocate(16)));
+    }
+    try (WireClient client = WireClient.connect(address)) {
+      assertEquals(4, client.evaluate("2 * 2"));
+    }
+  }
+
+  @Test
+  void testCloseDisconnectsClients() throws IOException {
+    WireClient client = WireClient.connect(address);
+    assertEquals(1, client.evaluate("1"));
+    server.close();
+    assertThrows(IOException.class, () -> client.evaluate("1"));
+    client.close();
+  }
+
+  @Test
+  void testConnectionsShareTheCache() throws IOException {
+    for (int i = 0; i < 3; i++) {
+      try (WireClient client = WireClient.connect(address)) {
+        assertEquals(7, client.evaluate("1 + 2 * 3"));
+      }
+    }
+    assertEquals(1, server.getCache().missCount());
+    assertEquals(2, server.getCache().hitCount());
+  }
+}
@@ -0,0 +1,120 @@
+package com.calculator.astcalculator.batch;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ColumnKernels} written against the {@code jdk.incubator.vector} API.
+ *
+ * <p>Overflow is detected lane-wise with comparison masks that reproduce {@link Math#addExact(int,
+ * int)}, {@link Math#subtractExact(int, int)}, {@link Math#multiplyExact(int, int)} and {@link
+ * Math#negateExact(int)}; failing lanes are blended into the failure column. Multiplication stays
+ * in {@code int} lanes and rebuilds the magnitude of the product from 16-bit halves: widening to
+ * {@code long} lanes changes the vector shape, which C2 does not reliably intrinsify. There is no
+ * SIMD integer division on mainstream hardware, so division uses {@link ScalarKernels}.
+ *
+ * <p>Each loop runs whole vectors up to {@link VectorSpecies#loopBound(int)} and leaves the tail to
+ * {@link ScalarKernels}. Vectors never cross a method boundary, so C2 can keep them in registers
+ * instead of boxing them.
+ *
+ * <p>Only compiled by the {@code vector} Maven profile, and only loaded reflectively by {@link
+ * VectorEvaluator} once the incubator module is known to be present.
+ */
+final class VectorKernels implements ColumnKernels {
+
+  /** Stateless, so shared. */
+  static final VectorKernels INSTANCE = new VectorKernels();
+
+  /** Widest int vectors the platform supports. */
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+  private VectorKernels() {}
+
+  @Override
+  public void negate(final int[] a, final int[] failed, final int n) {
+    int bound = INTS.loopBound(n);
+    for (int i = 0; i < bound; i += INTS.length()) {
+      IntVector x = IntVector.fromArray(INTS, a, i);
+      x.neg().intoArray(a, i);
+      VectorMask<Integer> overflow = x.compare(VectorOperators.EQ, Integer.MIN_VALUE);
+      IntVector.fromArray(INTS, failed, i).blend(1, overflow).intoArray(failed, i);
+    }
+    ScalarKernels.negate(a, failed, bound, n);
+  }
+
+  @Override
+  public void add(final int[] a, final int[] b, final int[] failed, final int n) {
+    int bound = INTS.loopBound(n);
+    for (int i = 0; i < bound; i += INTS.length()) {
+      IntVector x = IntVector.fromArray(INTS, a, i);
+      IntVector y = IntVector.fromArray(INTS, b, i);
+      IntVector r = x.add(y);
+      r.intoArray(a, i);
+      VectorMask<Integer> overflow =
+          x.lanewise(VectorOperators.XOR, r)
+              .and(y.lanewise(VectorOperators.XOR, r))
+              .compare(VectorOperators.LT, 0);
+      IntVector.fromArray(INTS, failed, i).blend(1, overflow).intoArray(failed, i);
+    }
+    ScalarKernels.add(a, b, failed, bound, n);
+  }
+
+  @Override
+  public void subtract(final int[] a, final int[] b, final int[] failed, final int n) {
+    int bound = INTS.loopBound(n);
+    for (int i = 0; i < bound; i += INTS.length()) {
+      IntVector x = IntVector.fromArray(INTS, a, i);
+      IntVector y = IntVector.fromArray(INTS, b, i);
+      IntVector r = x.sub(y);
+      r.intoArray(a, i);
+      VectorMask<Integer> overflow =
+          x.lanewise(VectorOperators.XOR, y)
+              .and(x.lanewise(VectorOperators.XOR, r))
+              .compare(VectorOperators.LT, 0);
+      IntVector.fromArray(INTS, failed, i).blend(1, overflow).intoArray(failed, i);
+    }
+    ScalarKernels.subtract(a, b, failed, bound, n);
+  }
+
+  @Override
+  public void multiply(final int[] a, final int[] b, final int[] failed, final int n) {
+    int bound = INTS.loopBound(n);
+    for (int i = 0; i < bound; i += INTS.length()) {
+      IntVector x = IntVector.fromArray(INTS, a, i);
+      IntVector y = IntVector.fromArray(INTS, b, i);
+
+      // |x| * |y| from 16-bit halves, all in unsigned int lanes (|MIN_VALUE| is 2^31 unsigned).
+      IntVector ax = x.abs();
+      IntVector ay = y.abs();
+      IntVector xh = ax.lanewise(VectorOperators.LSHR, 16);
+      IntVector yh = ay.lanewise(VectorOperators.LSHR, 16);
+      IntVector xl = ax.and(0xFFFF);
+      IntVector yl = ay.and(0xFFFF);
+      IntVector cross = xh.mul(yl).add(xl.mul(yh));
+      IntVector low = xl.mul(yl);
+      IntVector magnitude = cross.lanewise(VectorOperators.LSHL, 16).add(low);
+      // Largest magnitude that fits: 2^31 - 1, or 2^31 for a negative product.
+      IntVector limit =
+          x.lanewise(VectorOperators.XOR, y)
+              .lanewise(VectorOperators.LSHR, 31)
+              .add(Integer.MAX_VALUE);
+
+      VectorMask<Integer> overflow =
+          xh.compare(VectorOperators.NE, 0)
+              .and(yh.compare(VectorOperators.NE, 0))
+              .or(cross.compare(VectorOperators.UNSIGNED_GT, 0xFFFF))
+              .or(magnitude.compare(VectorOperators.UNSIGNED_LT, low))
+              .or(magnitude.compare(VectorOperators.UNSIGNED_GT, limit));
+      x.mul(y).intoArray(a, i);
+      IntVector.fromArray(INTS, failed, i).blend(1, overflow).intoArray(failed, i);
+    }
+    ScalarKernels.multiply(a, b, failed, bound, n);
+  }
+
+  @Override
+  public void divide(final int[] a, final int[] b, final int[] failed, final int n) {
+    ScalarKernels.divide(a, b, failed, 0, n);
+  }
+}